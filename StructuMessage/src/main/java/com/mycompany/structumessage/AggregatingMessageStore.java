@@ -0,0 +1,300 @@
+package com.mycompany.structumessage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * {@link MessageStore} decorator that keeps the report figures up to date as
+ * messages come and go, so a report reads them instead of scanning the
+ * store.
+ * <p>
+ * • Longest message: a lazily validated max-priority queue of message keys
+ * (ID, hash, recipient), ordered by body length, then arrival. Each length
+ * is a lock-free FIFO in a <code>ConcurrentSkipListMap</code> (bodies are
+ * short, so there are a few hundred lengths at most), and a map counts the
+ * copies the store still holds of each key. An add appends, a removal only
+ * decrements the count: O(log lengths) per change, no lock on the append
+ * path. {@link #longest()} drops dead keys from the head of the longest
+ * length until a live one is first; a length whose entries are half dead
+ * is compacted, so dead keys cost O(1) amortised. The first one added wins
+ * a tie, as {@link MessageStore#longestMessageIndex()} picks the first in
+ * store order<br>
+ * • No message is kept here (an off-heap store keeps its bodies off the
+ * heap, and hands back a fresh copy on every read): {@link #longest()}
+ * looks the winner up in the store by ID, or by hash when another message
+ * shares its ID. Only a message sharing both (or one leaving mid-read)
+ * falls back to a scan<br>
+ * • Per recipient: how many messages the store holds for them and when the
+ * last one was added in this run, O(1) per change<br>
+ * • The count is the store's own {@link #size()}<br>
+ * • Every way in and out goes through here: {@link #add},
+ * {@link #removeAt}, {@link #removeAllByID}, {@link #clear}; reads are
+ * passed straight through
+ * <p>
+ * Arrival times come from the clock when a message is added. The journal
+ * keeps no time, so messages the store held when wrapped, or that come in
+ * through {@link #addLoaded}, have none: a recipient with only those shows
+ * {@code lastAt} 0. Removing a recipient's latest message leaves their last
+ * time as it was: it records when they were last messaged. A recipient
+ * with no messages left is dropped.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Materialized Views &amp; Incremental Maintenance
+  Author  : Wikipedia; Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://en.wikipedia.org/wiki/Materialized_view
+    • https://en.wikipedia.org/wiki/Bucket_queue
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/ConcurrentSkipListMap.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class AggregatingMessageStore implements MessageStore {
+
+    /**
+     * One recipient's figures.
+     *
+     * @param count messages this store holds for them
+     * @param lastAt epoch millis the latest of them was added, or 0 if none
+     * was added in this run (loaded from the journal)
+     */
+    public record RecipientStats(String recipient, int count, long lastAt) {
+
+    }
+
+    private final MessageStore delegate;
+    private final LongSupplier clock;
+    private final ConcurrentSkipListMap<Integer, Bucket> byLength = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Key, Integer> copies = new ConcurrentHashMap<>();   // live keys only
+    private final ConcurrentHashMap<String, RecipientStats> byRecipient = new ConcurrentHashMap<>();
+
+    /* What tells two messages apart (as the journal fold does); no body. */
+    private record Key(String id, String hash, String recipient) {
+
+        static Key of(Message m) {
+            return new Key(m.getMessageID(), m.getMessageHash(), m.getRecipient());
+        }
+    }
+
+    /* Keys of one body length in arrival order; dead ones linger until dropped. */
+    private static final class Bucket {
+
+        final ConcurrentLinkedQueue<Key> keys = new ConcurrentLinkedQueue<>();
+        final AtomicInteger entries = new AtomicInteger();
+        final AtomicInteger dead = new AtomicInteger();
+    }
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public AggregatingMessageStore(MessageStore delegate) {
+        this(delegate, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock epoch millis for arrival times (tests pass a fixed one)
+     */
+    public AggregatingMessageStore(MessageStore delegate, LongSupplier clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        for (Message m : delegate.snapshot()) {            // whatever the store already holds
+            added(m, 0);
+        }
+    }
+
+    /* ───────────────────────── Reports ─────────────────────── */
+    /**
+     * Longest message, or {@code null} when the store is empty.
+     */
+    public Message longest() {
+        for (Map.Entry<Integer, Bucket> e : byLength.tailMap(0, false).descendingMap().entrySet()) {
+            Key first = firstLive(e.getValue());           // empty bodies never win, as in the scan
+            if (first != null) {
+                return lookUp(first);
+            }
+        }
+        return null;
+    }
+
+    /* Drop dead keys off the head; only reports and compaction take keys out, under the bucket's lock. */
+    private Key firstLive(Bucket bucket) {
+        synchronized (bucket) {
+            for (Key key = bucket.keys.peek(); key != null; key = bucket.keys.peek()) {
+                if (copies.containsKey(key)) {
+                    return key;
+                }
+                bucket.keys.poll();
+                bucket.entries.decrementAndGet();
+                bucket.dead.getAndUpdate(d -> Math.max(0, d - 1));
+            }
+            return null;
+        }
+    }
+
+    private Message lookUp(Key key) {
+        try {
+            int index = delegate.indexOfID(key.id());
+            Message m = index < 0 ? null : delegate.get(index);
+            if (m != null && !key.equals(Key.of(m))) {
+                index = delegate.indexOfHash(key.hash());  // another message drew the same ID
+                m = index < 0 ? null : delegate.get(index);
+            }
+            if (m != null && key.equals(Key.of(m))) {
+                return m;
+            }
+            index = delegate.longestMessageIndex();        // shares ID and hash, or left meanwhile
+            return index < 0 ? null : delegate.get(index);
+        } catch (IndexOutOfBoundsException removed) {
+            return null;
+        }
+    }
+
+    /**
+     * Figures for one recipient, or {@code null} if the store holds nothing
+     * for them.
+     */
+    public RecipientStats recipient(String recipient) {
+        return recipient == null ? null : byRecipient.get(recipient);
+    }
+
+    /**
+     * Distinct recipients with at least one message here.
+     */
+    public int recipientCount() {
+        return byRecipient.size();
+    }
+
+    /**
+     * Every recipient's figures, most messages first (a copy; costs one
+     * pass over the recipients, not the messages).
+     */
+    public List<RecipientStats> recipients() {
+        List<RecipientStats> all = new ArrayList<>(byRecipient.values());
+        all.sort(Comparator.comparingInt(RecipientStats::count).reversed()
+                .thenComparing(RecipientStats::recipient));
+        return all;
+    }
+
+    /* ───────────────────────── Changes ─────────────────────── */
+    @Override
+    public boolean add(Message msg) {
+        if (!delegate.add(msg)) {
+            return false;
+        }
+        added(msg, clock.getAsLong());
+        return true;
+    }
+
+    /**
+     * Add a message loaded from the journal: counted like {@link #add}, but
+     * with no arrival time (the journal keeps none).
+     *
+     * @return {@code false} if the store is full
+     */
+    boolean addLoaded(Message msg) {
+        if (!delegate.add(msg)) {
+            return false;
+        }
+        added(msg, 0);
+        return true;
+    }
+
+    @Override
+    public Message removeAt(int index) {
+        Message removed = delegate.removeAt(index);
+        removed(removed);
+        return removed;
+    }
+
+    @Override
+    public List<Message> removeAllByID(Set<String> ids, Predicate<Message> which) {
+        List<Message> removed = delegate.removeAllByID(ids, which);
+        for (Message m : removed) {
+            removed(m);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        byLength.clear();
+        copies.clear();
+        byRecipient.clear();
+    }
+
+    private void added(Message m, long at) {
+        Key key = Key.of(m);
+        copies.merge(key, 1, Integer::sum);
+        Bucket bucket = byLength.computeIfAbsent(m.getMessage().length(), l -> new Bucket());
+        bucket.keys.add(key);
+        bucket.entries.incrementAndGet();
+        byRecipient.merge(m.getRecipient(), new RecipientStats(m.getRecipient(), 1, at),
+                (a, b) -> new RecipientStats(a.recipient(), a.count() + 1, Math.max(a.lastAt(), at)));
+    }
+
+    private void removed(Message m) {
+        Key key = Key.of(m);
+        copies.computeIfPresent(key, (k, n) -> n > 1 ? n - 1 : null);
+        Bucket bucket = byLength.get(m.getMessage().length());
+        if (bucket != null && bucket.dead.incrementAndGet() * 2 > bucket.entries.get()) {
+            synchronized (bucket) {                        // half dead: one sweep, paid for by those removals
+                int before = bucket.entries.get();
+                bucket.keys.removeIf(k -> !copies.containsKey(k));
+                int kept = bucket.keys.size();
+                bucket.entries.addAndGet(kept - before);
+                bucket.dead.set(0);
+            }
+        }
+        byRecipient.computeIfPresent(m.getRecipient(),
+                (r, s) -> s.count() > 1 ? new RecipientStats(r, s.count() - 1, s.lastAt()) : null);
+    }
+
+    /* ───────────────────────── Reads (passed through) ─────────────────────── */
+    @Override
+    public Message get(int index) {
+        return delegate.get(index);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int indexOfID(String id) {
+        return delegate.indexOfID(id);
+    }
+
+    @Override
+    public int indexOfHash(String hash) {
+        return delegate.indexOfHash(hash);
+    }
+
+    @Override
+    public int longestMessageIndex() {
+        return delegate.longestMessageIndex();
+    }
+
+    @Override
+    public int applyReceipts(Map<String, Integer> receipts, Map<String, Integer> changed) {
+        return delegate.applyReceipts(receipts, changed);
+    }
+
+    @Override
+    public List<Message> snapshot() {
+        return delegate.snapshot();
+    }
+}
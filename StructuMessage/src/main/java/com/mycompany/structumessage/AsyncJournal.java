@@ -0,0 +1,130 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Journal writer fed through a {@link RingBuffer}: senders hand a message to
+ * a pre-allocated slot and return, one background thread appends the JSON
+ * lines and flushes once per batch.
+ * <p>
+ * • The journal file stays open for the writer's lifetime instead of being
+ * reopened per message<br>
+ * • When the disk falls behind, the ring fills and senders get the
+ * configured {@link RingBuffer.Overflow} behaviour instead of an unbounded
+ * queue
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class AsyncJournal implements AutoCloseable {
+
+    public static final int DEFAULT_RING_SIZE = 8192;
+
+    /* Reusable slot: only the reference changes per message. */
+    private static final class Slot {
+
+        Message message;
+    }
+
+    private final String path;
+    private final RingBuffer<Slot> ring;
+    private final Writer writer;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Blocking writer with {@link #DEFAULT_RING_SIZE} slots.
+     */
+    public AsyncJournal(String path) throws IOException {
+        this(path, DEFAULT_RING_SIZE, RingBuffer.WaitStrategy.BLOCKING, RingBuffer.Overflow.BLOCK);
+    }
+
+    public AsyncJournal(String path, int ringSize, RingBuffer.WaitStrategy waitStrategy,
+            RingBuffer.Overflow overflow) throws IOException {
+        this.path = path;
+        this.ring = new RingBuffer<>(ringSize, Slot::new, waitStrategy, overflow);
+        this.writer = new BufferedWriter(new FileWriter(path, true), 1 << 16);
+        this.consumer = new Thread(this::consume, "journal-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /* ───────────────────────── Producer API ─────────────────────── */
+    /**
+     * Queue one message for the journal.
+     *
+     * @return {@code false} if the ring was full under
+     * {@link RingBuffer.Overflow#DROP}
+     * @throws IllegalStateException if the ring was full under
+     * {@link RingBuffer.Overflow#FAIL}, or after {@link #close()}
+     */
+    public boolean append(Message msg) {
+        if (!running) {
+            throw new IllegalStateException("Journal writer is closed");
+        }
+        return ring.publish((slot, m) -> slot.message = m, msg);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Messages queued but not yet written.
+     */
+    public long backlog() {
+        return ring.backlog();
+    }
+
+    /**
+     * Write everything queued, stop the writer thread and close the file.
+     * Callers must stop appending before they close.
+     *
+     * @throws IOException if any journal write failed
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        consumer.interrupt();                          // wake it if it is waiting
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /* ───────────────────────── Consumer thread ─────────────────────── */
+    private void consume() {
+        RingBuffer.EventHandler<Slot> handler = (slot, sequence, endOfBatch) -> {
+            Message m = slot.message;
+            slot.message = null;                       // don't pin the message
+            writer.write(m.toJsonLine());
+            writer.write(System.lineSeparator());
+            if (endOfBatch) {
+                writer.flush();
+            }
+        };
+        while (running || ring.backlog() > 0) {
+            try {
+                if (running) {
+                    ring.waitAndDrain(handler);
+                } else {
+                    ring.drain(handler);
+                }
+            } catch (IOException e) {
+                failure = e;
+                System.out.println("Error saving message.");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
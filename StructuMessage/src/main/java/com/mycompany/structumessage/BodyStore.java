@@ -0,0 +1,386 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed, reference-counted store of message bodies.
+ * <p>
+ * • Every distinct body is kept once, under the SHA-256 of its UTF-8 bytes;
+ * messages that intern the same text share one <code>String</code><br>
+ * • Repeats are found by the text itself (one hash-map probe), so the
+ * digest is only computed the first time a body is seen<br>
+ * • Each body counts the messages using it; {@link #compact()} drops the
+ * ones nobody uses any more<br>
+ * • Bodies a journal refers to by key are appended once to a JSON-line
+ * sidecar (<code>messages.json.bodies</code>) before the first journal
+ * line that needs them; the sidecar is append-only, since old journal
+ * lines may still point at a body after its messages are deleted<br>
+ * • {@link #stats()} reports the de-duplication ratio and the bytes saved
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Content-Addressable Storage &amp; String Interning
+  Author  : Oracle Java SE 21 API; Git object model
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/security/MessageDigest.html
+    • https://git-scm.com/book/en/v2/Git-Internals-Git-Objects
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class BodyStore {
+
+    /**
+     * One distinct body.
+     */
+    public static final class Body {
+
+        private final String key;
+        private final String text;
+        private final int bytes;
+        private final AtomicInteger refs = new AtomicInteger();
+        private volatile boolean persisted;
+
+        private Body(String key, String text, int bytes) {
+            this.key = key;
+            this.text = text;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Hex SHA-256 of the UTF-8 text.
+         */
+        public String key() {
+            return key;
+        }
+
+        public String text() {
+            return text;
+        }
+
+        /**
+         * Messages currently using this body.
+         */
+        public int refs() {
+            return refs.get();
+        }
+
+        /**
+         * {@code true} once the body is in the sidecar, i.e. a journal line
+         * may refer to it by key.
+         */
+        public boolean persisted() {
+            return persisted;
+        }
+    }
+
+    /**
+     * De-duplication figures at one moment.
+     *
+     * @param references messages holding an interned body
+     * @param distinct bodies kept
+     * @param logicalBytes UTF-8 bytes the references would take as copies
+     * @param storedBytes UTF-8 bytes actually kept (once per body)
+     */
+    public record Stats(long references, int distinct, long logicalBytes, long storedBytes) {
+
+        /**
+         * References per distinct body (1.0 = nothing shared).
+         */
+        public double dedupRatio() {
+            return distinct == 0 ? 1.0 : (double) references / distinct;
+        }
+
+        /**
+         * Body bytes not held thanks to sharing.
+         */
+        public long bytesSaved() {
+            return Math.max(0, logicalBytes - storedBytes);
+        }
+    }
+
+    /* Sidecar line: {"bodyRef":"<64 hex>","message":"<escaped text>"} */
+    private static final String LINE_START = "{\"bodyRef\":\"";
+    private static final String BODY_START = "\",\"message\":\"";
+    private static final String LINE_END = "\"}";
+    private static final int KEY_CHARS = 64;
+
+    private final Path path;
+    private final ConcurrentHashMap<String, Body> byText = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Body> byKey = new ConcurrentHashMap<>();
+    private final LongAdder references = new LongAdder();
+    private final LongAdder logicalBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private boolean tailChecked;                         // guarded by this
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * @param path JSON-line sidecar for persisted bodies
+     */
+    public BodyStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Sidecar path for a journal, e.g. <code>messages.json</code> →
+     * <code>messages.json.bodies</code>.
+     */
+    public static Path forJournal(String journalPath) {
+        return Path.of(journalPath + ".bodies");
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /* ───────────────────────── Interning ─────────────────────── */
+    /**
+     * Take one reference to the canonical copy of {@code text}.
+     *
+     * @param persist also make sure the body is in the sidecar (check
+     * {@link Body#persisted()}: a failed write leaves it {@code false}, and
+     * the caller should journal the text inline)
+     */
+    public Body intern(String text, boolean persist) {
+        Body body = byText.compute(text, (t, existing) -> {
+            Body b = existing != null ? existing : create(t);
+            b.refs.incrementAndGet();
+            return b;
+        });
+        references.increment();
+        logicalBytes.add(body.bytes);
+        if (persist && !body.persisted) {
+            persist(body);
+        }
+        return body;
+    }
+
+    /**
+     * Give back one reference to {@code text} (a message left the stores).
+     *
+     * @return {@code false} if the text was never interned
+     */
+    public boolean release(String text) {
+        if (text == null) {
+            return false;
+        }
+        boolean[] found = new boolean[1];
+        byText.computeIfPresent(text, (t, b) -> {
+            if (b.refs.get() > 0) {
+                b.refs.decrementAndGet();
+                references.decrement();
+                logicalBytes.add(-b.bytes);
+                found[0] = true;
+            }
+            return b;
+        });
+        return found[0];
+    }
+
+    /**
+     * Body text for a key, or {@code null}.
+     */
+    public String resolve(String key) {
+        Body b = byKey.get(key);
+        return b == null ? null : b.text;
+    }
+
+    /* ───────────────────────── Maintenance ─────────────────────── */
+    /**
+     * Drop every body with no references (the sidecar keeps its copy).
+     *
+     * @return bodies dropped
+     */
+    public int compact() {
+        int dropped = 0;
+        for (String text : byText.keySet()) {
+            Body[] removed = new Body[1];
+            byText.computeIfPresent(text, (t, b) -> {
+                if (b.refs.get() > 0) {
+                    return b;
+                }
+                removed[0] = b;
+                return null;
+            });
+            if (removed[0] != null) {
+                byKey.remove(removed[0].key, removed[0]);
+                storedBytes.add(-removed[0].bytes);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Forget every body in memory (the stores were emptied).
+     */
+    public void clear() {
+        byText.clear();
+        byKey.clear();
+        references.reset();
+        logicalBytes.reset();
+        storedBytes.reset();
+    }
+
+    public Stats stats() {
+        return new Stats(references.sum(), byText.size(), logicalBytes.sum(), storedBytes.sum());
+    }
+
+    /**
+     * Read the sidecar so journal lines that refer to bodies by key can be
+     * resolved; loaded bodies start with no references. A torn last line
+     * (crash mid-write, no newline) is cut off, so the next body is not
+     * glued onto it.
+     *
+     * @return bodies loaded, or -1 when the sidecar does not exist
+     */
+    public int load() throws IOException {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        cutTornLine();
+        int loaded = 0;
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.startsWith(LINE_START) || !line.endsWith(LINE_END)
+                        || line.length() < LINE_START.length() + KEY_CHARS + BODY_START.length() + LINE_END.length()) {
+                    continue;                              // not a body line
+                }
+                String text = unescape(line.substring(LINE_START.length() + KEY_CHARS + BODY_START.length(),
+                        line.length() - LINE_END.length()));
+                Body b = byText.computeIfAbsent(text, BodyStore::createUncounted);
+                b.persisted = true;
+                byKey.putIfAbsent(b.key, b);
+                loaded++;
+            }
+        }
+        storedBytes.reset();
+        byText.values().forEach(b -> storedBytes.add(b.bytes));
+        return loaded;
+    }
+
+    /* ───────────────────────── Internals ─────────────────────── */
+    private Body create(String text) {
+        Body b = createUncounted(text);
+        byKey.putIfAbsent(b.key, b);
+        storedBytes.add(b.bytes);
+        return b;
+    }
+
+    private static Body createUncounted(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return new Body(HexFormat.of().formatHex(sha256(utf8)), text, utf8.length);
+    }
+
+    /* Serialised: each body is appended at most once, never after a torn line. */
+    private synchronized void persist(Body body) {
+        if (body.persisted) {
+            return;
+        }
+        try {
+            cutTornLine();
+        } catch (IOException e) {
+            System.out.println("Error saving message body: " + e.getMessage());
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile(), StandardCharsets.UTF_8, true))) {
+            writer.write(LINE_START + body.key + BODY_START + escape(body.text) + LINE_END);
+            writer.newLine();
+            body.persisted = true;
+        } catch (IOException e) {
+            System.out.println("Error saving message body: " + e.getMessage());
+        }
+    }
+
+    /* Drop whatever follows the last newline (once per store; later lines are ours). */
+    private synchronized void cutTornLine() throws IOException {
+        if (tailChecked || !Files.exists(path)) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+            long end = raf.length();
+            byte[] chunk = new byte[4096];
+            long keep = 0;
+            for (long pos = end; pos > 0 && keep == 0; ) {
+                int n = (int) Math.min(chunk.length, pos);
+                pos -= n;
+                raf.seek(pos);
+                raf.readFully(chunk, 0, n);
+                for (int i = n - 1; i >= 0; i--) {
+                    if (chunk[i] == '\n') {
+                        keep = pos + i + 1;
+                        break;
+                    }
+                }
+            }
+            if (keep < end) {
+                raf.setLength(keep);
+            }
+        }
+        tailChecked = true;
+    }
+
+    /* Backslash, quote and line breaks escaped, so one body is one line. */
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' ->
+                    sb.append("\\\\");
+                case '"' ->
+                    sb.append("\\\"");
+                case '\n' ->
+                    sb.append("\\n");
+                case '\r' ->
+                    sb.append("\\r");
+                default ->
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);   // mandatory in every JRE
+        }
+    }
+}
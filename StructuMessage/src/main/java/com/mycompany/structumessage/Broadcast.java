@@ -0,0 +1,221 @@
+package com.mycompany.structumessage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * One text sent to many recipients, stored once.
+ * <p>
+ * • The body and its hash words are kept a single time; each recipient
+ * costs one packed <code>long</code> (its digits) and one flag byte<br>
+ * • Recipient <em>i</em> is addressed as the fan-out ID
+ * <code>broadcastID-i</code> (receipts, {@link DeliveryLog} records) and
+ * gets the hash a separate {@link Message} number <em>i</em> would have
+ * had, derived on demand without re-scanning the body<br>
+ * • {@link #toMessage(int)} builds an ordinary {@link Message} view for
+ * code that wants one (reports, exports); the body string is shared
+ * <p>
+ * Flag methods are synchronized per broadcast.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Flyweight Pattern &amp; Struct-of-Arrays Layout
+  Author  : Gamma, Helm, Johnson &amp; Vlissides (1994); Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://en.wikipedia.org/wiki/Flyweight_pattern
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/io/DataOutputStream.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public final class Broadcast {
+
+    private static final int DIGIT_SHIFT = 56;             // digit count in the top byte
+
+    private final String broadcastID;
+    private final String body;
+    private final long createdAt;
+    private final String hashPrefix;                       // first two ID digits
+    private final String hashWords;                        // FIRSTLAST, upper-cased
+    private final long[] recipients;                       // packed, see pack()
+    private final byte[] flags;                            // DeliveryLog state bits
+
+    /* Recipients already packed; every fan-out starts out SENT. */
+    Broadcast(String broadcastID, String body, long createdAt, long[] recipients) {
+        this.broadcastID = broadcastID;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.recipients = recipients;
+        this.flags = new byte[recipients.length];
+        Arrays.fill(flags, (byte) DeliveryLog.SENT);
+        String hash = Message.createMessageHash(broadcastID, 0, body);   // "XX:0:WORDS"
+        this.hashPrefix = hash.substring(0, 2);
+        this.hashWords = hash.substring(5);
+    }
+
+    /* ───────────────────────── Accessors ─────────────────────── */
+    public String getBroadcastID() {
+        return broadcastID;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Epoch millis when the broadcast was accepted.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Number of recipients.
+     */
+    public int size() {
+        return recipients.length;
+    }
+
+    public String recipient(int i) {
+        return unpack(recipients[i]);
+    }
+
+    /**
+     * ID recipient {@code i} is known by in receipts and delivery logs.
+     */
+    public String fanoutID(int i) {
+        return broadcastID + "-" + i;
+    }
+
+    /**
+     * Hash of recipient {@code i}, the same as
+     * {@link Message#createMessageHash} with message number {@code i}.
+     */
+    public String hash(int i) {
+        return hashPrefix + ":" + i + ":" + hashWords;
+    }
+
+    /**
+     * Recipient {@code i} as a sent {@link Message} (a fresh view; flag
+     * changes on it are not written back).
+     */
+    public Message toMessage(int i) {
+        int state = state(i);
+        return Message.restore(fanoutID(i), recipient(i), body, hash(i), "sent",
+                (state & DeliveryLog.SENT) != 0, (state & DeliveryLog.RECEIVED) != 0,
+                (state & DeliveryLog.READ) != 0);
+    }
+
+    /* ───────────────────────── Delivery flags ─────────────────────── */
+    /**
+     * {@link DeliveryLog} state bits of recipient {@code i}.
+     */
+    public synchronized int state(int i) {
+        return flags[i];
+    }
+
+    /**
+     * Apply a receipt to recipient {@code i}; a read receipt implies
+     * received.
+     *
+     * @return the bits that were newly set, 0 if nothing changed
+     */
+    public synchronized int applyReceipt(int i, int state) {
+        int before = flags[i];
+        int after = before;
+        if ((state & (DeliveryLog.RECEIVED | DeliveryLog.READ)) != 0) {
+            after |= DeliveryLog.RECEIVED;
+        }
+        after |= state & (DeliveryLog.READ | DeliveryLog.FAILED);
+        flags[i] = (byte) after;
+        return after & ~before;
+    }
+
+    /**
+     * Recipients whose state has every bit in {@code bits} (e.g. how many
+     * have read it).
+     */
+    public synchronized int count(int bits) {
+        int n = 0;
+        for (byte f : flags) {
+            if ((f & bits) == bits) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /* ───────────────────────── Recipient packing ─────────────────────── */
+    /**
+     * <code>+digits</code> (1–16 digits) as one long: digit count in the top
+     * byte, value below (so leading zeros survive); -1 if not packable.
+     */
+    static long pack(String recipient) {
+        int digits = recipient == null ? 0 : recipient.length() - 1;
+        if (digits < 1 || digits > 16 || recipient.charAt(0) != '+') {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 1; i <= digits; i++) {
+            char c = recipient.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (long) digits << DIGIT_SHIFT | value;
+    }
+
+    static String unpack(long packed) {
+        int digits = (int) (packed >>> DIGIT_SHIFT);
+        String value = Long.toString(packed & ((1L << DIGIT_SHIFT) - 1));
+        return "+" + "0".repeat(digits - value.length()) + value;
+    }
+
+    /* ───────────────────────── Binary record ─────────────────────── */
+    /* ID, created-at, body, recipient count, packed recipients. */
+    void write(DataOutputStream out) throws IOException {
+        out.writeUTF(broadcastID);
+        out.writeLong(createdAt);
+        out.writeUTF(body);
+        out.writeInt(recipients.length);
+        for (long r : recipients) {
+            out.writeLong(r);
+        }
+    }
+
+    static Broadcast read(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        long createdAt = in.readLong();
+        String body = in.readUTF();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("corrupt broadcast record " + id);
+        }
+        long[] recipients = new long[count];
+        for (int i = 0; i < recipients.length; i++) {
+            recipients[i] = in.readLong();
+        }
+        return new Broadcast(id, body, createdAt, recipients);
+    }
+
+    /* Bytes write() puts out for this broadcast (writeUTF: 2-byte length + modified UTF-8). */
+    long recordSize() {
+        return utfSize(broadcastID) + 8 + utfSize(body) + 4 + 8L * recipients.length;
+    }
+
+    private static long utfSize(String s) {
+        long size = 2;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            size += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return size;
+    }
+}
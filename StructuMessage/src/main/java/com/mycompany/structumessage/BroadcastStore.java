@@ -0,0 +1,183 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every {@link Broadcast} of one engine plus its append-only journal.
+ * <p>
+ * • Broadcasts are journalled in a binary sidecar next to the message
+ * journal (<code>messages.json.broadcast</code>), one record each: the body
+ * once, then eight bytes per recipient, so a broadcast's file size grows
+ * with its recipient count rather than recipients × body<br>
+ * • Look-ups by broadcast ID or fan-out ID (<code>broadcastID-i</code>) are
+ * one hash-map probe<br>
+ * • Delivery flags are not journalled here; record them in a
+ * {@link DeliveryLog} under the fan-out IDs and {@link #apply} its replay
+ * after {@link #load()}
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Append-only Binary Journals
+  Author  : Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/io/DataInputStream.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class BroadcastStore {
+
+    private final Path path;
+    private final Map<String, Broadcast> byID = new ConcurrentHashMap<>();
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public BroadcastStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Sidecar path for a journal, e.g. <code>messages.json</code> →
+     * <code>messages.json.broadcast</code>.
+     */
+    public static Path forJournal(String journalPath) {
+        return Path.of(journalPath + ".broadcast");
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /* ───────────────────────── Adding / loading ─────────────────────── */
+    /**
+     * Journal a broadcast (one write) and make it visible.
+     */
+    synchronized void add(Broadcast broadcast) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(path.toFile(), true), 1 << 16))) {
+            broadcast.write(out);
+        }
+        byID.put(broadcast.getBroadcastID(), broadcast);
+    }
+
+    /**
+     * Read every broadcast in the journal. A torn last record (crash
+     * mid-write) is cut off, so the next {@link #add} starts on a record
+     * boundary. Flags start out as SENT; see {@link #apply}.
+     *
+     * @return broadcasts loaded, or -1 when the file does not exist
+     */
+    public synchronized int load() throws IOException {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        int loaded = 0;
+        long good = 0;                                     // end of the last whole record
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                Broadcast b;
+                try {
+                    b = Broadcast.read(in);
+                } catch (EOFException end) {
+                    break;
+                }
+                byID.put(b.getBroadcastID(), b);
+                loaded++;
+                good += b.recordSize();
+            }
+        }
+        if (good < Files.size(path)) {
+            try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+                raf.setLength(good);
+            }
+        }
+        return loaded;
+    }
+
+    /* ───────────────────────── Queries ─────────────────────── */
+    /**
+     * Broadcast with this ID, or {@code null}.
+     */
+    public Broadcast get(String broadcastID) {
+        return byID.get(broadcastID);
+    }
+
+    /**
+     * All broadcasts, oldest first.
+     */
+    public List<Broadcast> snapshot() {
+        List<Broadcast> all = new ArrayList<>(byID.values());
+        all.sort((a, b) -> Long.compare(a.getCreatedAt(), b.getCreatedAt()));
+        return all;
+    }
+
+    public int size() {
+        return byID.size();
+    }
+
+    /**
+     * Recipients across every broadcast.
+     */
+    public long recipientCount() {
+        long n = 0;
+        for (Broadcast b : byID.values()) {
+            n += b.size();
+        }
+        return n;
+    }
+
+    /* ───────────────────────── Receipts ─────────────────────── */
+    /**
+     * Apply a receipt addressed to a fan-out ID.
+     *
+     * @return the bits that were newly set; 0 if nothing changed or the ID
+     * is not a known fan-out
+     */
+    public int applyReceipt(String fanoutID, int state) {
+        int dash = fanoutID.lastIndexOf('-');
+        if (dash <= 0) {
+            return 0;
+        }
+        Broadcast b = byID.get(fanoutID.substring(0, dash));
+        int i;
+        try {
+            i = Integer.parseInt(fanoutID, dash + 1, fanoutID.length(), 10);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        return b == null || i < 0 || i >= b.size() ? 0 : b.applyReceipt(i, state);
+    }
+
+    /**
+     * Copy a {@link DeliveryLog#replay} onto the loaded broadcasts (IDs that
+     * are not fan-out IDs are skipped).
+     *
+     * @return fan-outs whose flags changed
+     */
+    public int apply(Map<String, Integer> states) {
+        int updated = 0;
+        for (Map.Entry<String, Integer> e : states.entrySet()) {
+            if (applyReceipt(e.getKey(), e.getValue()) != 0) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+}
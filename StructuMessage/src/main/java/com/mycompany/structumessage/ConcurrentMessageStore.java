@@ -0,0 +1,471 @@
+package com.mycompany.structumessage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe {@link MessageStore} with lock-free appends.
+ * <p>
+ * • A writer claims a slot with one CAS on <code>reserved</code>, fills it,
+ * then helps move <code>published</code> past every filled slot. Readers
+ * only ever see the published prefix, so a size taken once always matches
+ * the contents.<br>
+ * • Slots live in 4096-entry chunks that are never moved, so appends never
+ * copy existing data.<br>
+ * • ID and hash indexes (first occurrence wins) are kept next to the slots,
+ * replacing the old <code>messageIDs</code> / <code>messageHashes</code>
+ * parallel arrays. They point at a per-message cell that records its own
+ * slot, so compacting after a removal only rewrites the cells it moves,
+ * never the index maps.<br>
+ * • Structural changes ({@link #removeAt}, {@link #removeAllByID},
+ * {@link #clear}) are the only
+ * exclusive operations. Appends and reads just bump a per-thread stripe
+ * counter on entry and exit (a striped reader lock), so writers on
+ * different cores never touch the same lock word.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Atomic Variables &amp; Striped Reader Counters
+  Author  : Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/atomic/package-summary.html
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/atomic/LongAdder.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class ConcurrentMessageStore implements MessageStore {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int STRIPES = Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) * 2;
+    private static final int PAD = 16;                 // ints per stripe (one cache line)
+
+    /* ─────────── Slot storage ─────────── */
+    private volatile AtomicReferenceArray<AtomicReferenceArray<Cell>> chunks
+            = new AtomicReferenceArray<>(16);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+    private final int capacityLimit;
+
+    /* ─────────── Striped shared / exclusive access ─────────── */
+    private final AtomicIntegerArray active = new AtomicIntegerArray(STRIPES * PAD);
+    private final ReentrantLock structureLock = new ReentrantLock();
+    private volatile boolean restructuring;
+
+    /* ─────────── Indexes (value = cell of first occurrence) ─────────── */
+    private final ConcurrentHashMap<String, Cell> byID = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Cell> byHash = new ConcurrentHashMap<>();
+
+    /*
+     * One stored message and its current slot. The slot only changes under
+     * the exclusive lock; the duplicate flags mark keys that another message
+     * shares, the only case where a removal has to look for the next
+     * occurrence.
+     */
+    private static final class Cell {
+
+        final Message message;
+        int slot;
+        boolean sharedID;
+        boolean sharedHash;
+
+        Cell(Message message, int slot) {
+            this.message = message;
+            this.slot = slot;
+        }
+    }
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Unbounded store.
+     */
+    public ConcurrentMessageStore() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param capacityLimit maximum number of messages {@link #add} accepts
+     */
+    public ConcurrentMessageStore(int capacityLimit) {
+        if (capacityLimit <= 0) {
+            throw new IllegalArgumentException("capacityLimit must be positive");
+        }
+        this.capacityLimit = capacityLimit;
+    }
+
+    /* ───────────────────────── MessageStore API ─────────────────────── */
+    @Override
+    public boolean add(Message msg) {
+        int stripe = enterShared();
+        try {
+            int slot;
+            do {
+                slot = reserved.get();
+                if (slot >= capacityLimit) {
+                    return false;
+                }
+            } while (!reserved.compareAndSet(slot, slot + 1));
+
+            Cell cell = new Cell(msg, slot);
+            chunkFor(slot).set(slot & CHUNK_MASK, cell);
+            byID.merge(msg.getMessageID(), cell, (a, b) -> {
+                a.sharedID = b.sharedID = true;
+                return a.slot <= b.slot ? a : b;
+            });
+            byHash.merge(msg.getMessageHash(), cell, (a, b) -> {
+                a.sharedHash = b.sharedHash = true;
+                return a.slot <= b.slot ? a : b;
+            });
+            publish();
+            return true;
+        } finally {
+            exitShared(stripe);
+        }
+    }
+
+    @Override
+    public Message get(int index) {
+        Cell cell;
+        int stripe = enterShared();
+        try {
+            cell = index >= 0 && index < published.get() ? slot(index) : null;
+        } finally {
+            exitShared(stripe);
+        }
+        if (cell == null) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        return cell.message;
+    }
+
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    @Override
+    public Message removeAt(int index) {
+        enterExclusive();
+        try {
+            int n = published.get();
+            if (index < 0 || index >= n) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + n);
+            }
+            Cell removed = slot(index);
+            compact(List.of(removed));
+            return removed.message;
+        } finally {
+            exitExclusive();
+        }
+    }
+
+    /**
+     * One compaction pass for the whole set instead of one shift per removal;
+     * slots before the first removed message are not touched, and the index
+     * maps are only updated for the removed keys.
+     */
+    @Override
+    public List<Message> removeAllByID(Set<String> ids, Predicate<Message> which) {
+        List<Message> removed = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return removed;
+        }
+        enterExclusive();
+        try {
+            int n = published.get();
+            List<Cell> targets = new ArrayList<>();
+            boolean duplicates = false;
+            for (String id : ids) {
+                Cell cell = byID.get(id);
+                if (cell != null && cell.slot < n) {
+                    duplicates |= cell.sharedID;
+                    if (which.test(cell.message)) {
+                        targets.add(cell);
+                    }
+                }
+            }
+            if (duplicates) {                          // rare: later copies of an ID are checked too
+                targets.clear();
+                for (int i = 0; i < n; i++) {
+                    Message m = slot(i).message;
+                    if (ids.contains(m.getMessageID()) && which.test(m)) {
+                        targets.add(slot(i));
+                    }
+                }
+            } else {
+                targets.sort(Comparator.comparingInt(c -> c.slot));
+            }
+            if (targets.isEmpty()) {
+                return removed;
+            }
+            compact(targets);
+            for (Cell cell : targets) {
+                removed.add(cell.message);
+            }
+            return removed;
+        } finally {
+            exitExclusive();
+        }
+    }
+
+    @Override
+    public int indexOfID(String id) {
+        return lookup(byID, id);
+    }
+
+    @Override
+    public int indexOfHash(String hash) {
+        return lookup(byHash, hash);
+    }
+
+    @Override
+    public void clear() {
+        enterExclusive();
+        try {
+            int n = published.get();
+            for (int i = 0; i < n; i++) {
+                chunkFor(i).set(i & CHUNK_MASK, null);
+            }
+            byID.clear();
+            byHash.clear();
+            reserved.set(0);
+            published.set(0);
+        } finally {
+            exitExclusive();
+        }
+    }
+
+    /**
+     * Scan of one consistent snapshot (removals are held off meanwhile).
+     */
+    @Override
+    public int longestMessageIndex() {
+        int stripe = enterShared();
+        try {
+            int best = -1;
+            int bestLength = 0;
+            int n = published.get();
+            for (int i = 0; i < n; i++) {
+                int length = slot(i).message.getMessage().length();
+                if (length > bestLength) {
+                    bestLength = length;
+                    best = i;
+                }
+            }
+            return best;
+        } finally {
+            exitShared(stripe);
+        }
+    }
+
+    /**
+     * Contents as of a single published size; later appends and removals do
+     * not affect the returned list.
+     */
+    @Override
+    public List<Message> snapshot() {
+        int stripe = enterShared();
+        try {
+            int n = published.get();
+            List<Message> copy = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                copy.add(slot(i).message);
+            }
+            return copy;
+        } finally {
+            exitShared(stripe);
+        }
+    }
+
+    /**
+     * One shared entry for the whole batch instead of one per receipt.
+     */
+    @Override
+    public int applyReceipts(Map<String, Integer> receipts, Map<String, Integer> changed) {
+        int stripe = enterShared();
+        try {
+            int n = published.get();
+            int matched = 0;
+            for (Map.Entry<String, Integer> receipt : receipts.entrySet()) {
+                Cell cell = byID.get(receipt.getKey());
+                if (cell == null || cell.slot >= n) {
+                    continue;
+                }
+                matched++;
+                int delta = cell.message.applyReceipt(receipt.getValue());
+                if (delta != 0) {
+                    changed.put(receipt.getKey(), delta);
+                }
+            }
+            return matched;
+        } finally {
+            exitShared(stripe);
+        }
+    }
+
+    /* ───────────────────────── Striped access ───────────────────────── */
+    /* Register on this thread's stripe; back off while a removal runs. */
+    private int enterShared() {
+        int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1)) * PAD;
+        while (true) {
+            active.incrementAndGet(stripe);
+            if (!restructuring) {
+                return stripe;
+            }
+            active.decrementAndGet(stripe);
+            structureLock.lock();            // parks until the removal is done
+            structureLock.unlock();
+        }
+    }
+
+    private void exitShared(int stripe) {
+        active.decrementAndGet(stripe);
+    }
+
+    /* Block new shared entries, then wait for the ones in flight to leave. */
+    private void enterExclusive() {
+        structureLock.lock();
+        restructuring = true;
+        for (int stripe = 0; stripe < STRIPES * PAD; stripe += PAD) {
+            while (active.get(stripe) != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void exitExclusive() {
+        restructuring = false;
+        structureLock.unlock();
+    }
+
+    /* ───────────────────────── Internal helpers ─────────────────────── */
+    /*
+     * Remove the given cells (sorted by slot) and close the gaps in one pass
+     * from the first of them. Caller holds the exclusive lock.
+     */
+    private void compact(List<Cell> targets) {
+        int n = published.get();
+        int write = targets.get(0).slot;
+        int t = 0;
+        for (int read = write; read < n; read++) {
+            Cell cell = slot(read);
+            if (t < targets.size() && targets.get(t) == cell) {
+                t++;
+                byID.remove(cell.message.getMessageID(), cell);
+                byHash.remove(cell.message.getMessageHash(), cell);
+                continue;
+            }
+            if (write != read) {
+                // plain store: readers are held off until exitExclusive publishes it
+                chunkFor(write).setPlain(write & CHUNK_MASK, cell);
+                cell.slot = write;
+            }
+            write++;
+        }
+        for (int i = write; i < n; i++) {
+            chunkFor(i).set(i & CHUNK_MASK, null);
+        }
+        reserved.set(write);
+        published.set(write);
+
+        for (Cell cell : targets) {                    // next copy of a shared key takes over
+            if (cell.sharedID) {
+                repoint(byID, cell.message.getMessageID(), true);
+            }
+            if (cell.sharedHash) {
+                repoint(byHash, cell.message.getMessageHash(), false);
+            }
+        }
+    }
+
+    /* First remaining occurrence of a shared key becomes the indexed one. */
+    private void repoint(ConcurrentHashMap<String, Cell> index, String key, boolean id) {
+        if (index.containsKey(key)) {
+            return;
+        }
+        int n = published.get();
+        for (int i = 0; i < n; i++) {
+            Cell cell = slot(i);
+            if (key.equals(id ? cell.message.getMessageID() : cell.message.getMessageHash())) {
+                if (id) {
+                    cell.sharedID = true;              // conservatively: more copies may follow
+                } else {
+                    cell.sharedHash = true;
+                }
+                index.put(key, cell);
+                return;
+            }
+        }
+    }
+
+    /* Advance the published counter over every contiguous filled slot. */
+    private void publish() {
+        int p;
+        while ((p = published.get()) < reserved.get() && slot(p) != null) {
+            published.compareAndSet(p, p + 1);
+        }
+    }
+
+    private Cell slot(int index) {
+        AtomicReferenceArray<AtomicReferenceArray<Cell>> dir = chunks;
+        int c = index >>> CHUNK_BITS;
+        AtomicReferenceArray<Cell> chunk = c < dir.length() ? dir.get(c) : null;
+        return chunk == null ? null : chunk.get(index & CHUNK_MASK);
+    }
+
+    private AtomicReferenceArray<Cell> chunkFor(int index) {
+        int c = index >>> CHUNK_BITS;
+        AtomicReferenceArray<AtomicReferenceArray<Cell>> dir = chunks;
+        AtomicReferenceArray<Cell> chunk = c < dir.length() ? dir.get(c) : null;
+        return chunk != null ? chunk : installChunk(c);
+    }
+
+    /* Rare path (once per chunk): grow the directory and add a chunk. */
+    private synchronized AtomicReferenceArray<Cell> installChunk(int c) {
+        AtomicReferenceArray<AtomicReferenceArray<Cell>> dir = chunks;
+        if (c >= dir.length()) {
+            AtomicReferenceArray<AtomicReferenceArray<Cell>> bigger
+                    = new AtomicReferenceArray<>(Math.max(c + 1, dir.length() * 2));
+            for (int i = 0; i < dir.length(); i++) {
+                bigger.set(i, dir.get(i));
+            }
+            chunks = bigger;
+            dir = bigger;
+        }
+        AtomicReferenceArray<Cell> chunk = dir.get(c);
+        if (chunk == null) {
+            chunk = new AtomicReferenceArray<>(CHUNK_SIZE);
+            dir.set(c, chunk);
+        }
+        return chunk;
+    }
+
+    private int lookup(ConcurrentHashMap<String, Cell> index, String key) {
+        if (key == null) {
+            return -1;
+        }
+        int stripe = enterShared();
+        try {
+            Cell cell = index.get(key);
+            return cell != null && cell.slot < published.get() ? cell.slot : -1;
+        } finally {
+            exitShared(stripe);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.mycompany.structumessage;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window of recently accepted messages, used to drop upstream
+ * retries that resubmit the same recipient and body.
+ * <p>
+ * • Each message is reduced to a 64-bit fingerprint of recipient, body and
+ * category; only fingerprints are kept, never the text<br>
+ * • Fingerprints live in two primitive open-addressing sets: the current
+ * generation and the previous one. When the current one is older than the
+ * window, or holds {@code maxPerGeneration} fingerprints, the previous set
+ * is cleared and the two swap. A fingerprint is therefore remembered for
+ * at least one window (or {@code maxPerGeneration} later messages) and at
+ * most two<br>
+ * • Memory is fixed up front: two {@code long[]} tables of about
+ * 2 × {@code maxPerGeneration} slots each<br>
+ * • {@link #hits()} / {@link #misses()} count duplicates dropped and new
+ * messages let through<br>
+ * • {@link #firstSeen} reserves the fingerprint at once, so of two racing
+ * copies only one gets through; a caller whose message then fails to land
+ * (store full, journal dropped it) hands it back with {@link #forget}, so
+ * the retry is not mistaken for a duplicate
+ * <p>
+ * Two different messages with the same fingerprint (odds about
+ * n²/2<sup>65</sup>) would make the second one look like a duplicate.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : FNV-1a Hashing, MurmurHash3 Finalizer &amp; Generational Sets
+  Author  : Fowler, Noll &amp; Vo; Austin Appleby (MurmurHash3)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • http://www.isthe.com/chongo/tech/comp/fnv/
+    • https://github.com/aappleby/smhasher/wiki/MurmurHash3
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class DedupWindow {
+
+    /**
+     * Generation size used by {@link #DedupWindow(Duration)}.
+     */
+    public static final int DEFAULT_MAX_PER_GENERATION = 1 << 16;
+
+    private final long windowNanos;
+    private final int maxPerGeneration;
+    private final LongSupplier clock;
+
+    /* ─────────── Generations (guarded by lock) ─────────── */
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] current;
+    private long[] previous;
+    private int currentSize;
+    private int previousSize;
+    private long generationStart;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public DedupWindow(Duration window) {
+        this(window, DEFAULT_MAX_PER_GENERATION);
+    }
+
+    /**
+     * @param window how long a message is remembered (at least)
+     * @param maxPerGeneration messages per generation before an early
+     * rotation (bounds memory and the count window)
+     */
+    public DedupWindow(Duration window, int maxPerGeneration) {
+        this(window, maxPerGeneration, System::nanoTime);
+    }
+
+    /* Clock injectable for tests (nanoseconds, like System.nanoTime). */
+    DedupWindow(Duration window, int maxPerGeneration, LongSupplier clock) {
+        if (window.isNegative() || window.isZero() || maxPerGeneration < 1) {
+            throw new IllegalArgumentException("window and maxPerGeneration must be positive");
+        }
+        this.windowNanos = window.toNanos();
+        this.maxPerGeneration = maxPerGeneration;
+        this.clock = clock;
+        int capacity = Integer.highestOneBit(Math.max(2, maxPerGeneration) * 2 - 1) << 1;   // load ≤ ½
+        this.current = new long[capacity];
+        this.previous = new long[capacity];
+        this.generationStart = clock.getAsLong();
+    }
+
+    /* ───────────────────────── Look-up ─────────────────────── */
+    /**
+     * Record a message unless it is already in the window.
+     *
+     * @param type category ("sent", "stored", …); the same text sent and then
+     * stored is not a duplicate
+     * @return {@code true} the first time, {@code false} for a duplicate
+     */
+    public boolean firstSeen(String recipient, String body, String type) {
+        long fp = fingerprint(recipient, body, type);
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            rotateIfDue(now);
+            if (contains(previous, fp) || !insert(current, fp)) {
+                hits.increment();
+                return false;
+            }
+            currentSize++;
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return true;
+    }
+
+    /**
+     * Undo a {@link #firstSeen} that returned {@code true}, for a message
+     * that was not stored after all.
+     *
+     * @return {@code false} if the fingerprint was not (or no longer) held
+     */
+    public boolean forget(String recipient, String body, String type) {
+        long fp = fingerprint(recipient, body, type);
+        lock.lock();
+        try {
+            if (remove(current, fp)) {
+                currentSize--;
+            } else if (remove(previous, fp)) {
+                previousSize--;
+            } else {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.decrement();
+        return true;
+    }
+
+    /**
+     * Duplicates dropped.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Messages let through (and remembered).
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Fingerprints held across both generations.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return currentSize + previousSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ───────────────────────── Internals ─────────────────────── */
+    private void rotateIfDue(long now) {
+        long age = now - generationStart;
+        if (age < windowNanos && currentSize < maxPerGeneration) {
+            return;
+        }
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0);
+        previous = current;
+        previousSize = currentSize;
+        current = recycled;
+        currentSize = 0;
+        generationStart = now;
+        if (age >= 2 * windowNanos) {                      // idle for two windows: forget everything
+            Arrays.fill(previous, 0);
+            previousSize = 0;
+        }
+    }
+
+    /* 0 marks an empty slot, so a zero fingerprint is stored as 1. */
+    private static boolean contains(long[] table, long fp) {
+        int mask = table.length - 1;
+        for (int i = (int) fp & mask;; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == fp) {
+                return true;
+            }
+            if (slot == 0) {
+                return false;
+            }
+        }
+    }
+
+    /* false if already present. */
+    private static boolean insert(long[] table, long fp) {
+        int mask = table.length - 1;
+        for (int i = (int) fp & mask;; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == fp) {
+                return false;
+            }
+            if (slot == 0) {
+                table[i] = fp;
+                return true;
+            }
+        }
+    }
+
+    /*
+     * Delete without tombstones: later entries of the same probe run shift
+     * back into the gap unless their home slot lies after it.
+     */
+    private static boolean remove(long[] table, long fp) {
+        int mask = table.length - 1;
+        int gap = (int) fp & mask;
+        while (table[gap] != fp) {
+            if (table[gap] == 0) {
+                return false;
+            }
+            gap = (gap + 1) & mask;
+        }
+        for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = (int) table[i] & mask;
+            boolean stays = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+            if (!stays) {
+                table[gap] = table[i];
+                gap = i;
+            }
+        }
+        table[gap] = 0;
+        return true;
+    }
+
+    /* 64-bit FNV-1a over the three fields (length-prefixed), Murmur3-finalised. */
+    static long fingerprint(String recipient, String body, String type) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, recipient);
+        h = mix(h, body);
+        h = mix(h, type);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private static long mix(long h, String s) {
+        int n = s == null ? -1 : s.length();
+        h = (h ^ n) * 0x100000001b3L;
+        for (int i = 0; i < n; i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
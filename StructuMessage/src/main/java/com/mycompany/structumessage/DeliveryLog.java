@@ -0,0 +1,250 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only record of delivery transitions (sent, received, read,
+ * failed), kept next to the message journal.
+ * <p>
+ * • Callers hand a transition to a pre-allocated {@link RingBuffer} slot and
+ * return; one writer thread appends the records and flushes once per batch,
+ * so a million in-flight deliveries don't contend on the file<br>
+ * • Records are binary: state byte, message ID, epoch millis<br>
+ * • {@link #replay} folds a log back into the latest state per message and
+ * {@link #apply} copies it onto the loaded messages
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : DataOutputStream Binary Records &amp; Write-Ahead Logs
+  Author  : Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/io/DataOutputStream.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class DeliveryLog implements AutoCloseable {
+
+    /* ─────────── State bits (OR-ed together by replay) ─────────── */
+    public static final int SENT = 1;
+    public static final int RECEIVED = 2;
+    public static final int READ = 4;
+    public static final int FAILED = 8;
+
+    public static final int DEFAULT_RING_SIZE = 16_384;
+
+    /* Reusable slot. */
+    private static final class Slot {
+
+        String messageID;
+        int state;
+        long at;
+    }
+
+    private final Path path;
+    private final RingBuffer<Slot> ring;
+    private final DataOutputStream out;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public DeliveryLog(Path path) throws IOException {
+        this(path, DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * Appends to an existing log after cutting off a torn last record, so
+     * the first new record starts on a record boundary.
+     *
+     * @param ringSize transitions that may be queued before callers block
+     * (power of two)
+     */
+    public DeliveryLog(Path path, int ringSize) throws IOException {
+        this.path = path;
+        if (Files.exists(path)) {
+            long good = read(path, null);
+            if (good < Files.size(path)) {
+                try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+                    raf.setLength(good);
+                }
+            }
+        }
+        this.ring = new RingBuffer<>(ringSize, Slot::new,
+                RingBuffer.WaitStrategy.BLOCKING, RingBuffer.Overflow.BLOCK);
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(path.toFile(), true), 1 << 16));
+        this.consumer = new Thread(this::consume, "delivery-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Sidecar path for a journal, e.g. <code>messages.json</code> →
+     * <code>messages.json.delivery</code>.
+     */
+    public static Path forJournal(String journalPath) {
+        return Path.of(journalPath + ".delivery");
+    }
+
+    /* ───────────────────────── Producer API ─────────────────────── */
+    /**
+     * Queue one transition; blocks only while the ring is full.
+     *
+     * @param state {@link #SENT}, {@link #RECEIVED}, {@link #READ} or
+     * {@link #FAILED} (several bits at once for a receipt delta)
+     * @throws IllegalStateException after {@link #close()}
+     */
+    public void record(String messageID, int state) {
+        if (!running) {
+            throw new IllegalStateException("Delivery log is closed");
+        }
+        long now = System.currentTimeMillis();
+        ring.publish((slot, id) -> {
+            slot.messageID = id;
+            slot.state = state;
+            slot.at = now;
+        }, messageID);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Write everything queued, stop the writer and close the file.
+     *
+     * @throws IOException if any write failed
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        consumer.interrupt();
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void consume() {
+        RingBuffer.EventHandler<Slot> handler = (slot, sequence, endOfBatch) -> {
+            out.writeByte(slot.state);
+            out.writeUTF(slot.messageID);
+            out.writeLong(slot.at);
+            slot.messageID = null;
+            if (endOfBatch) {
+                out.flush();
+            }
+        };
+        while (running || ring.backlog() > 0) {
+            try {
+                if (running) {
+                    ring.waitAndDrain(handler);
+                } else {
+                    ring.drain(handler);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /* ───────────────────────── Replay ─────────────────────── */
+    /**
+     * Fold a log into one state per message: every transition seen, OR-ed
+     * together. A torn last record (crash mid-write) is ignored.
+     *
+     * @return message ID → state bits; empty when the file does not exist
+     */
+    public static Map<String, Integer> replay(Path path) throws IOException {
+        Map<String, Integer> states = new HashMap<>();
+        if (Files.exists(path)) {
+            read(path, states);
+        }
+        return states;
+    }
+
+    /* Fold the whole records into states (when given); returns where the last one ends. */
+    private static long read(Path path, Map<String, Integer> states) throws IOException {
+        long good = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                int state;
+                String id;
+                try {
+                    state = in.readByte();
+                    id = in.readUTF();
+                    in.readLong();
+                } catch (EOFException end) {
+                    return good;
+                }
+                if (states != null) {
+                    states.merge(id, state, (a, b) -> a | b);
+                }
+                good += 1 + utfSize(id) + 8;
+            }
+        }
+    }
+
+    /* Bytes writeUTF puts out: 2-byte length + modified UTF-8. */
+    private static long utfSize(String s) {
+        long size = 2;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            size += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return size;
+    }
+
+    /**
+     * Set the delivery flags of every loaded sent message that appears in
+     * {@code states}.
+     *
+     * @return messages updated
+     */
+    public static int apply(QuickChatEngine engine, Map<String, Integer> states) {
+        int updated = 0;
+        for (Map.Entry<String, Integer> e : states.entrySet()) {
+            Message m = engine.findSentByID(e.getKey());
+            if (m == null) {
+                continue;
+            }
+            int state = e.getValue();
+            m.resetDeliveryState();
+            if ((state & (SENT | RECEIVED | READ)) != 0) {    // a receipt implies sent
+                m.markAsSent();
+            }
+            if ((state & RECEIVED) != 0) {
+                m.markAsReceived();
+            }
+            if ((state & READ) != 0) {
+                m.markAsRead();
+            }
+            updated++;
+        }
+        return updated;
+    }
+}
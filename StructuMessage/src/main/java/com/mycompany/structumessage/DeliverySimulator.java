@@ -0,0 +1,273 @@
+package com.mycompany.structumessage;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated carrier: moves each message through
+ * <b>sent → received → read</b> with random latencies and failures, so
+ * delivery capacity can be planned locally.
+ * <p>
+ * • {@link Mode#VIRTUAL_THREADS} runs every in-flight message as its own
+ * virtual thread that sleeps through each hop; {@link Mode#SCHEDULER} chains
+ * the hops as timed tasks on a small scheduler pool – same behaviour, no
+ * thread per message<br>
+ * • Hop latencies are drawn from exponential distributions with the
+ * {@link Profile}'s means; each hop fails with the profile's failure rate<br>
+ * • Every transition flips the message's flag and, when a
+ * {@link DeliveryLog} is attached, is persisted<br>
+ * • End-to-end latency of every delivered message goes into a
+ * {@link LatencyHistogram} for p50 / p99 / p999
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Virtual Threads &amp; ScheduledThreadPoolExecutor
+  Author  : Oracle Java SE 21 API; JEP 444
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://openjdk.org/jeps/444
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/ScheduledThreadPoolExecutor.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class DeliverySimulator implements AutoCloseable {
+
+    /**
+     * How in-flight messages are driven.
+     */
+    public enum Mode {
+        /**
+         * One virtual thread per message, sleeping between hops.
+         */
+        VIRTUAL_THREADS,
+        /**
+         * Hops scheduled as delayed tasks on a few platform threads.
+         */
+        SCHEDULER
+    }
+
+    /**
+     * Simulated network behaviour.
+     *
+     * @param sendLatency mean time until the carrier accepts the message
+     * @param receiveLatency mean time from sent until the handset has it
+     * @param readLatency mean time from received until the user opens it
+     * @param failureRate probability (0–1) that any one hop is lost
+     */
+    public record Profile(Duration sendLatency, Duration receiveLatency, Duration readLatency,
+            double failureRate) {
+
+        public Profile {
+            if (failureRate < 0 || failureRate > 1) {
+                throw new IllegalArgumentException("failureRate must be within 0..1");
+            }
+            if (sendLatency.isNegative() || receiveLatency.isNegative() || readLatency.isNegative()) {
+                throw new IllegalArgumentException("latencies must not be negative");
+            }
+        }
+    }
+
+    /**
+     * 50 ms / 200 ms / 2 s means, 1 % loss per hop.
+     */
+    public static final Profile DEFAULT_PROFILE = new Profile(Duration.ofMillis(50),
+            Duration.ofMillis(200), Duration.ofSeconds(2), 0.01);
+
+    private static final int[] HOPS = {DeliveryLog.SENT, DeliveryLog.RECEIVED, DeliveryLog.READ};
+
+    private final Mode mode;
+    private final Profile profile;
+    private final DeliveryLog log;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final long[] meanNanos;
+
+    /* ─────────── Counters ─────────── */
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong peakInFlight = new AtomicLong();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Virtual-thread simulator with {@link #DEFAULT_PROFILE}, not persisted.
+     */
+    public DeliverySimulator() {
+        this(Mode.VIRTUAL_THREADS, DEFAULT_PROFILE, null);
+    }
+
+    /**
+     * @param log where transitions are persisted, or {@code null}; the
+     * caller still owns (and closes) it
+     */
+    public DeliverySimulator(Mode mode, Profile profile, DeliveryLog log) {
+        this.mode = mode;
+        this.profile = profile;
+        this.log = log;
+        this.meanNanos = new long[]{profile.sendLatency().toNanos(),
+            profile.receiveLatency().toNanos(), profile.readLatency().toNanos()};
+        if (mode == Mode.SCHEDULER) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+            scheduler = new ScheduledThreadPoolExecutor(threads, r -> {
+                Thread t = new Thread(r, "delivery-scheduler");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /* ───────────────────────── Delivery ─────────────────────── */
+    /**
+     * Start delivering one message. Its flags are cleared first, then set
+     * hop by hop.
+     *
+     * @return completes with {@code true} once the message is read, or
+     * {@code false} if a hop was lost
+     */
+    public CompletableFuture<Boolean> deliver(Message msg) {
+        CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        msg.resetDeliveryState();
+        long started = System.nanoTime();
+        long now = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(now, Math::max);
+        if (mode == Mode.VIRTUAL_THREADS) {
+            Thread.ofVirtual().start(() -> runOnThread(msg, started, outcome));
+        } else {
+            scheduleHop(msg, 0, started, outcome);
+        }
+        return outcome;
+    }
+
+    /* Virtual thread: sleep through the hops in order. */
+    private void runOnThread(Message msg, long started, CompletableFuture<Boolean> outcome) {
+        try {
+            for (int hop = 0; hop < HOPS.length; hop++) {
+                Thread.sleep(Duration.ofNanos(sampleDelay(hop)));
+                if (!advance(msg, hop, started, outcome)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            finish(msg, started, outcome, false);
+        }
+    }
+
+    /* Scheduler: each hop schedules the next. */
+    private void scheduleHop(Message msg, int hop, long started, CompletableFuture<Boolean> outcome) {
+        scheduler.schedule(() -> {
+            if (advance(msg, hop, started, outcome) && hop + 1 < HOPS.length) {
+                scheduleHop(msg, hop + 1, started, outcome);
+            }
+        }, sampleDelay(hop), TimeUnit.NANOSECONDS);
+    }
+
+    /* Apply one hop; false when the delivery ended (lost or read). */
+    private boolean advance(Message msg, int hop, long started, CompletableFuture<Boolean> outcome) {
+        if (profile.failureRate() > 0 && ThreadLocalRandom.current().nextDouble() < profile.failureRate()) {
+            finish(msg, started, outcome, false);
+            return false;
+        }
+        switch (HOPS[hop]) {
+            case DeliveryLog.SENT ->
+                msg.markAsSent();
+            case DeliveryLog.RECEIVED ->
+                msg.markAsReceived();
+            default ->
+                msg.markAsRead();
+        }
+        if (log != null) {
+            log.record(msg.getMessageID(), HOPS[hop]);
+        }
+        if (hop == HOPS.length - 1) {
+            finish(msg, started, outcome, true);
+            return false;
+        }
+        return true;
+    }
+
+    private void finish(Message msg, long started, CompletableFuture<Boolean> outcome, boolean read) {
+        if (read) {
+            latency.record(System.nanoTime() - started);
+            delivered.increment();
+        } else {
+            if (log != null) {
+                log.record(msg.getMessageID(), DeliveryLog.FAILED);
+            }
+            failed.increment();
+        }
+        inFlight.decrementAndGet();
+        outcome.complete(read);
+    }
+
+    /* Exponential delay with the hop's mean (inverse-CDF sampling). */
+    private long sampleDelay(int hop) {
+        long mean = meanNanos[hop];
+        if (mean == 0) {
+            return 0;
+        }
+        double u = ThreadLocalRandom.current().nextDouble();
+        return (long) (-mean * Math.log1p(-u));
+    }
+
+    /* ───────────────────────── Metrics ─────────────────────── */
+    /**
+     * End-to-end (submit → read) latency of delivered messages, in
+     * nanoseconds.
+     */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public long inFlight() {
+        return inFlight.get();
+    }
+
+    public long peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Wait until nothing is in flight.
+     */
+    public void awaitIdle() {
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    /**
+     * Let every in-flight delivery finish, then stop the scheduler (if any).
+     */
+    @Override
+    public void close() {
+        awaitIdle();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.mycompany.structumessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends stored drafts at their {@link Message#getSendAt() send-at} time.
+ * <p>
+ * • Pending drafts sit in a hierarchical timing wheel: five levels of 64
+ * slots, each level 64× coarser than the one below. A tick only looks at one
+ * level-0 slot (plus, every 64<sup>n</sup> ticks, one higher slot whose
+ * drafts cascade down), so the cost per tick does not grow with the number
+ * of pending drafts<br>
+ * • Scheduling and cancelling are O(1) (intrusive lists plus a map keyed
+ * like the journal fold, {@link QuickChatEngine#supersedeKey}: IDs are
+ * random and can collide, so two drafts sharing one keep both schedules)<br>
+ * • The drafts due in a tick go out together through
+ * {@link QuickChatEngine#sendDrafts}: one compaction of the stored store,
+ * one journal write, and only those drafts<br>
+ * • The send-at time is journalled with the draft, so {@link #start()} after
+ * a restart puts every loaded draft back on the wheel (overdue ones go out
+ * on the next tick)
+ * <p>
+ * Stores that rebuild messages on read ({@link OffHeapMessageStore}) do not
+ * keep send-at times; use the default heap stores with the scheduler.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Hashed and Hierarchical Timing Wheels
+  Author  : Varghese &amp; Lauck (1987); Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://doi.org/10.1145/41457.37504
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/locks/LockSupport.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class DraftScheduler implements AutoCloseable {
+
+    /**
+     * Wheel resolution used by {@link #DraftScheduler(QuickChatEngine)}.
+     */
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;           // 64 per level
+    private static final int LEVELS = 5;                  // 64^5 ticks ≈ 34 years at 1 s
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    /* One pending draft, linked into exactly one wheel slot. */
+    private static final class Entry {
+
+        final Message draft;
+        final long deadlineTick;
+        int level;
+        int slot;
+        Entry prev;
+        Entry next;
+
+        Entry(Message draft, long deadlineTick) {
+            this.draft = draft;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final QuickChatEngine engine;
+    private final long tickMillis;
+    private final LongSupplier clock;
+
+    /* ─────────── Wheel (guarded by lock) ─────────── */
+    private final Entry[][] wheel = new Entry[LEVELS][SLOTS];
+    private final Map<String, Entry> byKey = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+
+    private final LongAdder fired = new LongAdder();
+    private volatile Thread ticker;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public DraftScheduler(QuickChatEngine engine) {
+        this(engine, DEFAULT_TICK);
+    }
+
+    public DraftScheduler(QuickChatEngine engine, Duration tick) {
+        this(engine, tick, System::currentTimeMillis);
+    }
+
+    /* Clock injectable for tests (epoch millis). */
+    DraftScheduler(QuickChatEngine engine, Duration tick, LongSupplier clock) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("tick must be at least 1 ms");
+        }
+        this.engine = engine;
+        this.tickMillis = tick.toMillis();
+        this.clock = clock;
+        this.currentTick = Math.floorDiv(clock.getAsLong(), tickMillis);
+    }
+
+    /* ───────────────────────── Lifecycle ─────────────────────── */
+    /**
+     * Put every scheduled draft already in the stored store on the wheel
+     * (once, after {@link QuickChatEngine#loadJournal}) and start the ticking
+     * thread.
+     *
+     * @return drafts rescheduled
+     */
+    public int start() {
+        int restored = 0;
+        lock.lock();
+        try {
+            for (Message draft : engine.stored().snapshot()) {
+                if (draft.getSendAt() > 0 && !byKey.containsKey(key(draft))) {
+                    add(draft);
+                    restored++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (ticker == null) {
+            Thread t = new Thread(this::run, "draft-scheduler");
+            t.setDaemon(true);
+            ticker = t;
+            t.start();
+        }
+        return restored;
+    }
+
+    /**
+     * Stop the ticking thread; pending drafts stay stored (and journalled)
+     * for the next {@link #start()}.
+     */
+    @Override
+    public void close() {
+        Thread t = ticker;
+        ticker = null;
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (ticker == Thread.currentThread()) {
+            long now = clock.getAsLong();
+            advanceTo(now);
+            long nextTick = (Math.floorDiv(now, tickMillis) + 1) * tickMillis;
+            LockSupport.parkNanos(this, Math.max(1, nextTick - now) * 1_000_000);
+            if (Thread.interrupted()) {
+                return;
+            }
+        }
+    }
+
+    /* ───────────────────────── Scheduling API ─────────────────────── */
+    /**
+     * Store a draft and schedule it.
+     *
+     * @param sendAt epoch millis; a past time sends on the next tick
+     * @return {@code false} if the stored store is full
+     */
+    public boolean schedule(Message draft, long sendAt) {
+        draft.setSendAt(Math.max(1, sendAt));
+        if (!engine.route(draft, "stored")) {
+            return false;
+        }
+        lock.lock();
+        try {
+            add(draft);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Take the first stored draft with this ID off the wheel; see
+     * {@link #cancel(Message)}.
+     *
+     * @return {@code false} if no such draft is scheduled
+     */
+    public boolean cancel(String messageID) {
+        MessageStore stored = engine.stored();
+        try {
+            int index = stored.indexOfID(messageID);
+            return index >= 0 && cancel(stored.get(index));
+        } catch (IndexOutOfBoundsException sent) {
+            return false;                                  // left the store meanwhile
+        }
+    }
+
+    /**
+     * Take a draft off the wheel; it stays in the stored store, unscheduled
+     * (journalled as such, so a restart does not bring the schedule back).
+     *
+     * @return {@code false} if the draft was not scheduled
+     */
+    public boolean cancel(Message draft) {
+        Entry e;
+        lock.lock();
+        try {
+            e = byKey.remove(key(draft));
+            if (e != null) {
+                unlink(e);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (e == null) {
+            return false;
+        }
+        e.draft.setSendAt(0);
+        engine.journal(List.of(e.draft));                  // behind its schedule line, even when async
+        return true;
+    }
+
+    /**
+     * Drafts waiting on the wheel.
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return byKey.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drafts sent so far.
+     */
+    public long fired() {
+        return fired.sum();
+    }
+
+    /**
+     * Run every tick up to {@code nowMillis} and send the drafts that fall
+     * due. Called by the ticking thread; exposed for tests.
+     *
+     * @return drafts sent
+     */
+    int advanceTo(long nowMillis) {
+        List<Entry> due = new ArrayList<>();
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        lock.lock();
+        try {
+            while (currentTick < target) {
+                currentTick++;
+                for (int level = LEVELS - 1; level >= 1; level--) {
+                    if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                        cascade(level, (int) ((currentTick >>> (BITS * level)) & (SLOTS - 1)));
+                    }
+                }
+                int slot = (int) (currentTick & (SLOTS - 1));
+                Entry e = wheel[0][slot];
+                wheel[0][slot] = null;
+                for (; e != null; e = e.next) {
+                    byKey.remove(key(e.draft));
+                    due.add(e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<Message> drafts = new ArrayList<>(due.size());
+        for (Entry e : due) {
+            drafts.add(e.draft);
+        }
+        int sent = engine.sendDrafts(drafts).size();    // outside the lock, one batch
+        fired.add(sent);
+        return sent;
+    }
+
+    /* ───────────────────────── Wheel internals ─────────────────────── */
+    private void add(Message draft) {
+        long deadline = Math.floorDiv(draft.getSendAt() + tickMillis - 1, tickMillis);   // round up
+        Entry previous = byKey.remove(key(draft));
+        if (previous != null) {
+            unlink(previous);
+        }
+        Entry e = new Entry(draft, deadline);
+        byKey.put(key(draft), e);
+        place(e, currentTick + 1);                   // this tick's slot has already fired
+    }
+
+    private static String key(Message draft) {
+        return QuickChatEngine.supersedeKey(draft.getMessageID(), draft.getMessageHash(), draft.getRecipient());
+    }
+
+    /*
+     * Level = how far ahead; slot = the deadline's digit at that level.
+     * Overdue entries go to the earliest tick whose slot has not fired yet.
+     */
+    private void place(Entry e, long earliest) {
+        long at = e.deadlineTick - currentTick >= SPAN
+                ? currentTick + SPAN - 1                     // beyond the wheel: park, re-place later
+                : Math.max(e.deadlineTick, earliest);
+        long ahead = at - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && ahead >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        e.level = level;
+        e.slot = (int) ((at >>> (BITS * level)) & (SLOTS - 1));
+        e.prev = null;
+        e.next = wheel[level][e.slot];
+        if (e.next != null) {
+            e.next.prev = e;
+        }
+        wheel[level][e.slot] = e;
+    }
+
+    private void cascade(int level, int slot) {
+        Entry e = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (e != null) {
+            Entry next = e.next;
+            place(e, currentTick);                   // runs before this tick's slot fires
+            e = next;
+        }
+    }
+
+    private void unlink(Entry e) {
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else {
+            wheel[e.level][e.slot] = e.next;
+        }
+        if (e.next != null) {
+            e.next.prev = e.prev;
+        }
+        e.prev = null;
+        e.next = null;
+    }
+}
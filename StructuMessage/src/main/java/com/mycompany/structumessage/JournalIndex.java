@@ -0,0 +1,348 @@
+package com.mycompany.structumessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Byte-offset index over the JSON-line journal, for exports that never copy
+ * message text onto the heap.
+ * <p>
+ * • One pass over the file records where each line starts and how long it
+ * is, filed under its recipient and its type; later passes
+ * ({@link #refresh()}) only read what was appended since<br>
+ * • A message journalled more than once counts only at its last line, the
+ * same folding (by ID, hash and recipient) {@link QuickChatEngine#loadJournal()}
+ * applies<br>
+ * • An export turns the matching lines into byte ranges, merges neighbours,
+ * and hands each range to {@link FileChannel#transferTo}: into a file or
+ * socket channel the kernel copies it directly, into anything else the
+ * JDK streams it through a small reusable buffer
+ * <p>
+ * Exports are raw journal lines: with {@link QuickChatEngine#setBodyInterning
+ * journal references} on, bodies appear as <code>bodyRef</code> keys into
+ * the <code>.bodies</code> sidecar. A line without its line break yet (a
+ * write in progress) is left for the next refresh. The journal is not
+ * append-only for ever: {@link QuickChatEngine#compactJournal()} (possibly
+ * in another process, through the CLI) swaps in a new file. The index
+ * remembers which file it read (its file key, or its creation time where
+ * the platform has no key) and rebuilds from the start when the path names
+ * another file or the file shrank; an export only copies from the file its
+ * ranges were taken from.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Zero-Copy Transfer with FileChannel.transferTo
+  Author  : Oracle Java SE 21 API; IBM developerWorks (Sathish K. Palaniappan)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/nio/channels/FileChannel.html#transferTo(long,long,java.nio.channels.WritableByteChannel)
+    • https://developer.ibm.com/articles/j-zerocopy/
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class JournalIndex {
+
+    private static final int SCAN_BUFFER = 1 << 16;
+
+    /* Growable list of entry numbers, ascending. */
+    private static final class Postings {
+
+        int[] entries = new int[4];
+        int size;
+
+        void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+    }
+
+    private final Path path;
+    private Object fileId;                                 // which file indexedTo refers to; see fileId()
+    private long indexedTo;                                // bytes scanned; always at a line start
+    private long[] offsets = new long[1024];
+    private int[] lengths = new int[1024];                 // including the line break
+    private int count;
+    private final BitSet superseded = new BitSet();       // a later line is the same message
+    private final Map<String, Integer> latestByKey = new HashMap<>();
+    private final Map<String, Postings> byRecipient = new HashMap<>();
+    private final Map<String, Postings> byType = new HashMap<>();
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * @param path journal file (need not exist yet)
+     */
+    public JournalIndex(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /* ───────────────────────── Indexing ─────────────────────── */
+    /**
+     * Index whatever was appended since the last call.
+     *
+     * @return lines indexed by this call
+     */
+    public synchronized int refresh() throws IOException {
+        if (!path.toFile().exists()) {
+            if (indexedTo > 0) {
+                reset();
+            }
+            return 0;
+        }
+        int before = count;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            Object id = fileId(path);                      // read after opening: never newer than ch
+            long size = ch.size();
+            if (!id.equals(fileId) || size < indexedTo) {
+                reset();                                   // file replaced or truncated
+                before = 0;
+            }
+            fileId = id;
+            byte[] buf = new byte[SCAN_BUFFER];
+            int filled = 0;                                // bytes of buf holding data from `pos`
+            int scanned = 0;                               // … of which searched for '\n'
+            long pos = indexedTo;
+            while (pos + filled < size) {
+                if (filled == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);   // one line longer than the buffer
+                }
+                int n = ch.read(ByteBuffer.wrap(buf, filled, buf.length - filled), pos + filled);
+                if (n < 0) {
+                    break;
+                }
+                filled += n;
+                int start = 0;
+                for (int i = scanned; i < filled; i++) {
+                    if (buf[i] == '\n') {
+                        add(pos + start, buf, start, i + 1 - start);
+                        start = i + 1;
+                    }
+                }
+                System.arraycopy(buf, start, buf, 0, filled - start);
+                pos += start;
+                filled -= start;
+                scanned = filled;
+            }
+            indexedTo = pos;                               // a torn last line waits for the next refresh
+        }
+        return count - before;
+    }
+
+    /**
+     * Lines indexed, superseded ones included.
+     */
+    public synchronized int entries() {
+        return count;
+    }
+
+    /**
+     * Bytes of the journal indexed so far.
+     */
+    public synchronized long indexedBytes() {
+        return indexedTo;
+    }
+
+    /* ───────────────────────── Export ─────────────────────── */
+    /**
+     * Copy every current line for {@code recipient} to {@code out}, in
+     * journal order.
+     *
+     * @return bytes written
+     */
+    public long exportRecipient(String recipient, WritableByteChannel out) throws IOException {
+        return export(byRecipient, recipient, out);
+    }
+
+    /**
+     * Copy every current line of one category ("sent", "stored",
+     * "disregarded").
+     *
+     * @return bytes written
+     */
+    public long exportType(String type, WritableByteChannel out) throws IOException {
+        return export(byType, type.toLowerCase(), out);
+    }
+
+    /**
+     * Export one recipient's history to a file (created or replaced).
+     *
+     * @return bytes written
+     */
+    public long exportRecipient(String recipient, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return exportRecipient(recipient, out);
+        }
+    }
+
+    /*
+     * Byte ranges {start0, end0, start1, end1, …} of the current lines
+     * under a key, neighbours merged.
+     */
+    private synchronized long[] ranges(Map<String, Postings> postings, String key) {
+        Postings p = postings.get(key);
+        if (p == null) {
+            return new long[0];
+        }
+        long[] ranges = new long[8];
+        int n = 0;
+        for (int k = 0; k < p.size; k++) {
+            int e = p.entries[k];
+            if (superseded.get(e)) {
+                continue;
+            }
+            long start = offsets[e];
+            long end = start + lengths[e];
+            if (n > 0 && ranges[n - 1] == start) {
+                ranges[n - 1] = end;                       // touches the previous range
+                continue;
+            }
+            if (n == ranges.length) {
+                ranges = Arrays.copyOf(ranges, n * 2);
+            }
+            ranges[n++] = start;
+            ranges[n++] = end;
+        }
+        return Arrays.copyOf(ranges, n);
+    }
+
+    /* Package-private for tests. */
+    long[] recipientRanges(String recipient) {
+        return ranges(byRecipient, recipient);
+    }
+
+    /*
+     * Ranges and the file they belong to are taken together under the lock.
+     * Appends never move a line, so they stay valid for that file; if the
+     * path names another file by the time it is opened (compacted in
+     * between), index it again and retry. Nothing is written before the
+     * check, and an open channel keeps reading the file it opened.
+     */
+    private long export(Map<String, Postings> postings, String key, WritableByteChannel out)
+            throws IOException {
+        for (int attempt = 1;; attempt++) {
+            long[] ranges;
+            Object id;
+            synchronized (this) {
+                refresh();
+                ranges = ranges(postings, key);
+                id = fileId;
+            }
+            if (ranges.length == 0) {
+                return 0;
+            }
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (id.equals(fileId(path))) {
+                    return transfer(in, ranges, out);
+                }
+            }
+            if (attempt == 3) {
+                throw new IOException("Journal keeps being replaced: " + path);
+            }
+        }
+    }
+
+    private static long transfer(FileChannel in, long[] ranges, WritableByteChannel out) throws IOException {
+        long total = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            long position = ranges[i];
+            long end = ranges[i + 1];
+            while (position < end) {
+                long n = in.transferTo(position, end - position, out);   // may move less than asked
+                if (n <= 0) {
+                    throw new IOException("Journal ended at " + position + ", expected " + end);
+                }
+                position += n;
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    /* ───────────────────────── Internals ─────────────────────── */
+    private void add(long offset, byte[] buf, int from, int length) {
+        String line = new String(buf, from, length, StandardCharsets.UTF_8);
+        String id = field(line, "messageID");
+        String hash = field(line, "messageHash");
+        String recipient = field(line, "recipient");
+        String type = field(line, "messageType");
+        if (recipient == null || type == null) {
+            return;                                        // blank or not a message line
+        }
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        int entry = count++;
+        offsets[entry] = offset;
+        lengths[entry] = length;
+        if (id != null) {
+            Integer previous = latestByKey.put(QuickChatEngine.supersedeKey(id, hash, recipient), entry);
+            if (previous != null) {
+                superseded.set(previous);
+            }
+        }
+        byRecipient.computeIfAbsent(recipient, r -> new Postings()).add(entry);
+        byType.computeIfAbsent(type.toLowerCase(), t -> new Postings()).add(entry);
+    }
+
+    /* Same layout as Message.toJsonLine: "name":"value", \" inside values. */
+    private static String field(String line, String name) {
+        String search = "\"" + name + "\":\"";
+        int start = line.indexOf(search);
+        if (start < 0) {
+            return null;
+        }
+        start += search.length();
+        int end = start;
+        while (end < line.length() && line.charAt(end) != '"') {
+            end += line.charAt(end) == '\\' ? 2 : 1;
+        }
+        return end < line.length() ? line.substring(start, end) : null;
+    }
+
+    /*
+     * Identity of the file the path names now: its file key (device and
+     * inode on Unix), or its creation time where there is no key (on Unix
+     * the creation time can fall back to the modification time, which
+     * changes on every append).
+     */
+    private static Object fileId(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        return attrs.fileKey() != null ? attrs.fileKey() : attrs.creationTime();
+    }
+
+    /*
+     * Forget everything; the next refresh reads the file from the start
+     * (QuickChatEngine calls this after compacting the journal).
+     */
+    synchronized void reset() {
+        fileId = null;
+        indexedTo = 0;
+        count = 0;
+        superseded.clear();
+        latestByKey.clear();
+        byRecipient.clear();
+        byType.clear();
+    }
+}
@@ -0,0 +1,136 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free latency histogram with percentile queries.
+ * <p>
+ * • Values are bucketed log-linearly: 64 equal sub-buckets per power of two,
+ * so every recorded value is kept to within ~1.6 % without storing samples<br>
+ * • Memory is constant (one counter array) however many values are recorded,
+ * and {@link #record} is a single atomic increment, safe from any number of
+ * threads<br>
+ * • {@link #percentile} walks the buckets once
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : HdrHistogram Log-Linear Bucketing
+  Author  : Gil Tene (HdrHistogram); Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://hdrhistogram.github.io/HdrHistogram/
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/atomic/AtomicLongArray.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;                  // 64
+    // values below SUB_COUNT map 1:1, then one row of 64 per exponent up to 2^63
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /* ───────────────────────── Recording ─────────────────────── */
+    /**
+     * Record one value (negative values count as 0).
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(index(v));
+        total.increment();
+        sum.add(v);
+        long seen = max.get();
+        while (v > seen && !max.compareAndSet(seen, v)) {
+            seen = max.get();
+        }
+    }
+
+    /* ───────────────────────── Queries ─────────────────────── */
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public long mean() {
+        long n = total.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * @param p percentile in (0, 100], e.g. 99.9
+     * @return a value within one bucket width of the true percentile, or 0
+     * when nothing was recorded
+     */
+    public long percentile(double p) {
+        if (p <= 0 || p > 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(midpoint(i), max.get());
+            }
+        }
+        return max.get();              // records raced with the walk
+    }
+
+    /**
+     * One-line p50 / p99 / p99.9 / max summary, values divided by
+     * {@code unit} (e.g. 1_000_000 for nanoseconds → ms).
+     */
+    public String summary(long unit, String unitName) {
+        return String.format("n=%d p50=%.2f%s p99=%.2f%s p999=%.2f%s max=%.2f%s",
+                count(),
+                percentile(50) / (double) unit, unitName,
+                percentile(99) / (double) unit, unitName,
+                percentile(99.9) / (double) unit, unitName,
+                max() / (double) unit, unitName);
+    }
+
+    /* ───────────────────────── Bucket maths ─────────────────────── */
+    static int index(long v) {
+        if (v < SUB_COUNT) {
+            return (int) v;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(v);               // ≥ SUB_BITS
+        int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        long sub = index & (SUB_COUNT - 1);
+        return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    }
+
+    private static long midpoint(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        return lowerBound(index) + ((1L << (exponent - SUB_BITS)) >>> 1);
+    }
+}
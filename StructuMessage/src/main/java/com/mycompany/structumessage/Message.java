@@ -2,6 +2,9 @@ package com.mycompany.structumessage;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 /**
  * Domain object representing a single QuickChat message.
@@ -78,16 +81,22 @@ public class Message {
     private String recipient;
     private String message;
     private String messageHash;
+    private String bodyRef;                      // BodyStore key when journalled by reference
 
     /* ─────────── Runtime flags ─────────── */
     private boolean isSent;
     private boolean isReceived;
     private boolean isRead;
+    private long sendAt;                         // epoch millis; 0 = not scheduled
 
     /* ─────────── Static / class-wide state ─────────── */
-    private static int totalMessages = 0;        // increments on “send”
+    private static final AtomicInteger totalMessages = new AtomicInteger(); // increments on “send”
     private String messageType;                  // sent | stored | disregarded
 
+    /* Compiled once instead of on every createMessageHash call. */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-zA-Z0-9]");
+
     /* ────────────────────────── Constructors ────────────────────────── */
     /**
      * Build a new <em>sent</em> message straight from user input.
@@ -108,13 +117,38 @@ public class Message {
         this.isRead = true;
     }
 
+    /* Raw field copy used when a message is rebuilt from a store or file. */
+    private Message(String messageID, String recipient, String message,
+            String messageHash, String messageType) {
+        this.messageID = messageID;
+        this.recipient = recipient;
+        this.message = message;
+        this.messageHash = messageHash;
+        this.messageType = messageType;
+    }
+
+    /**
+     * Rebuild a message exactly as it was captured (no new ID or hash). Used
+     * by {@link MessageStore} implementations that keep messages in a packed
+     * form and only materialise a <code>Message</code> on demand.
+     */
+    static Message restore(String messageID, String recipient, String message,
+            String messageHash, String messageType,
+            boolean sent, boolean received, boolean read) {
+        Message m = new Message(messageID, recipient, message, messageHash, messageType);
+        m.isSent = sent;
+        m.isReceived = received;
+        m.isRead = read;
+        return m;
+    }
+
     /* ───────────────────── Static Validation Helpers ─────────────────── */
     /**
      * Generate a random 10-digit numeric string (ID).
      */
     public static String generateMessageID() {
-        Random rand = new Random();
-        StringBuilder id = new StringBuilder();
+        Random rand = ThreadLocalRandom.current();          // no per-call allocation
+        StringBuilder id = new StringBuilder(10);
         for (int i = 0; i < 10; i++) {
             id.append(rand.nextInt(10));
         }
@@ -149,9 +183,9 @@ public class Message {
      * Build SHA-lite hash: first2ID:msgNum:FirstLastWord (upper-cased).
      */
     public static String createMessageHash(String id, int msgNum, String msg) {
-        String[] words = msg.trim().split("\\s+");
-        String first = words.length > 0 ? words[0].replaceAll("[^a-zA-Z0-9]", "") : "NA";
-        String last = words.length > 1 ? words[words.length - 1].replaceAll("[^a-zA-Z0-9]", "") : "NA";
+        String[] words = WHITESPACE.split(msg.trim());
+        String first = words.length > 0 ? NON_ALPHANUMERIC.matcher(words[0]).replaceAll("") : "NA";
+        String last = words.length > 1 ? NON_ALPHANUMERIC.matcher(words[words.length - 1]).replaceAll("") : "NA";
         return (id.substring(0, 2) + ":" + msgNum + ":" + first + last).toUpperCase();
     }
 
@@ -167,7 +201,7 @@ public class Message {
         switch (choice.toLowerCase()) {
             case "send" -> {
                 markAsSent();
-                totalMessages++;
+                totalMessages.incrementAndGet();
                 return "Message successfully sent.";
             }
             case "discard" -> {
@@ -200,7 +234,7 @@ public class Message {
      * How many messages have been <em>sent</em> across the whole session.
      */
     public static int returnTotalMessages() {
-        return totalMessages;
+        return totalMessages.get();
     }
 
     /* ───────────────────────── JSON Persistence ─────────────────────── */
@@ -209,24 +243,56 @@ public class Message {
      * <code>messages.json</code>.
      */
     public void storeMessageToJson() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("messages.json", true))) {
-            String jsonBlock = "{"
-                    + "\"messageHash\":\"" + messageHash.replace("\"", "\\\"") + "\","
-                    + "\"recipient\":\"" + recipient.replace("\"", "\\\"") + "\","
-                    + "\"message\":\"" + message.replace("\"", "\\\"") + "\","
-                    + "\"messageType\":\"" + messageType + "\""
-                    + "}";
-            writer.write(jsonBlock);
-            writer.newLine();
+        appendToJournal("messages.json");
+    }
+
+    /**
+     * Append this message as a one-line JSON object to the given journal
+     * file (one file per {@link QuickChatEngine}).
+     */
+    public void appendToJournal(String fileName) {
+        appendAllToJournal(fileName, List.of(this));
+    }
+
+    /**
+     * Append a whole batch with one open / write / close of the journal.
+     */
+    public static void appendAllToJournal(String fileName, List<Message> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, true), 1 << 16)) {
+            for (Message m : batch) {
+                writer.write(m.toJsonLine());
+                writer.newLine();
+            }
         } catch (IOException e) {
             System.out.println("Error saving message.");
         }
     }
 
+    /**
+     * The one-line JSON object written to the journal (no line break).
+     */
+    public String toJsonLine() {
+        return "{"
+                + "\"messageID\":\"" + messageID + "\","
+                + "\"messageHash\":\"" + messageHash.replace("\"", "\\\"") + "\","
+                + "\"recipient\":\"" + recipient.replace("\"", "\\\"") + "\","
+                + (bodyRef != null
+                        ? "\"bodyRef\":\"" + bodyRef + "\","
+                        : "\"message\":\"" + message.replace("\"", "\\\"") + "\",")
+                + "\"messageType\":\"" + messageType + "\""
+                + (sendAt > 0 ? ",\"sendAt\":\"" + sendAt + "\"" : "")
+                + "}";
+    }
+
     /**
      * Read a newline-delimited JSON file and reconstruct <code>Message</code>
      * objects. NB: Simple string parsing (no external JSON library to keep POE
-     * lightweight).
+     * lightweight). Lines that refer to their body by key come back with an
+     * empty body and {@link #getBodyRef()} set; {@link QuickChatEngine}
+     * resolves them through its {@link BodyStore}.
      */
     public static List<Message> readMessagesFromFile(String fileName) {
         List<Message> messages = new ArrayList<>();
@@ -237,14 +303,26 @@ public class Message {
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
+                String id = extractJsonField(line, "messageID");   // absent in older journals
                 String hash = extractJsonField(line, "messageHash");
                 String recipient = extractJsonField(line, "recipient");
                 String msgBody = extractJsonField(line, "message");
                 String type = extractJsonField(line, "messageType");
+                String sendAt = extractJsonField(line, "sendAt");
+                String ref = extractJsonField(line, "bodyRef");
 
                 Message m = new Message(recipient, msgBody, messages.size());
                 m.setMessageType(type);
                 m.messageHash = hash;          // preserve original hash
+                if (!id.isEmpty()) {
+                    m.messageID = id;          // … and ID, so delivery logs still match
+                }
+                if (!sendAt.isEmpty()) {
+                    m.sendAt = Long.parseLong(sendAt);
+                }
+                if (!ref.isEmpty()) {
+                    m.bodyRef = ref;
+                }
                 messages.add(m);
             }
         } catch (IOException e) {
@@ -290,6 +368,38 @@ public class Message {
         return messageHash;
     }
 
+    /**
+     * {@link BodyStore} key the journal uses instead of the body text, or
+     * {@code null} when the body is journalled inline.
+     */
+    public String getBodyRef() {
+        return bodyRef;
+    }
+
+    /**
+     * Swap in the store's shared copy of the body (same text) and, with a
+     * non-null {@code ref}, journal it by key from now on.
+     */
+    void useBody(String sharedText, String ref) {
+        this.message = sharedText;
+        this.bodyRef = ref;
+    }
+
+    /**
+     * Scheduled send time of a stored draft (epoch millis), 0 when none.
+     */
+    public long getSendAt() {
+        return sendAt;
+    }
+
+    /**
+     * Schedule (or, with 0, unschedule) a stored draft; see
+     * {@link DraftScheduler}.
+     */
+    public void setSendAt(long epochMillis) {
+        this.sendAt = Math.max(0, epochMillis);
+    }
+
     public boolean isSent() {
         return isSent;
     }
@@ -302,6 +412,35 @@ public class Message {
         return isRead;
     }
 
+    /**
+     * Clear all three flags before a delivery run (see
+     * {@link DeliverySimulator}); new messages start with them set.
+     */
+    void resetDeliveryState() {
+        this.isSent = false;
+        this.isReceived = false;
+        this.isRead = false;
+    }
+
+    /**
+     * Apply a carrier receipt ({@link DeliveryLog#RECEIVED} and/or
+     * {@link DeliveryLog#READ} bits); a read receipt implies received.
+     *
+     * @return the bits that were newly set, 0 if nothing changed
+     */
+    int applyReceipt(int state) {
+        int changed = 0;
+        if ((state & (DeliveryLog.RECEIVED | DeliveryLog.READ)) != 0 && !isReceived) {
+            isReceived = true;
+            changed |= DeliveryLog.RECEIVED;
+        }
+        if ((state & DeliveryLog.READ) != 0 && !isRead) {
+            isRead = true;
+            changed |= DeliveryLog.READ;
+        }
+        return changed;
+    }
+
     /**
      * Flip sent flag to <code>true</code>.
      */
@@ -0,0 +1,365 @@
+package com.mycompany.structumessage;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Push side of the message stores: a {@link Flow.Publisher} that emits each
+ * {@link Message} as it enters the sent, stored or disregarded state (its
+ * {@link Message#getMessageType()} says which).
+ * <p>
+ * • Subscribers get a copy taken at the moment of the change, made once
+ * and shared by all of them: the stored message itself keeps changing
+ * (a draft is sent, a sent message disregarded) while events wait<br>
+ * • Demand-driven: a subscriber gets no more than it has
+ * {@link Flow.Subscription#request requested}; the rest waits in its own
+ * bounded buffer<br>
+ * • A full buffer never stalls routing; the subscription's
+ * {@link OverflowPolicy} decides what gives way<br>
+ * • Delivery runs on an {@link Executor} (virtual threads by default), one
+ * drain at a time per subscriber, so signals to a subscriber are never
+ * concurrent and a slow one does not hold up the others<br>
+ * • With no subscribers, {@link #publish} is one empty-list check
+ * <p>
+ * Only live changes are emitted: messages loaded from the journal at
+ * start-up are not replayed.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Reactive Streams &amp; java.util.concurrent.Flow
+  Author  : Reactive Streams JVM specification 1.0.4; Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://github.com/reactive-streams/reactive-streams-jvm/blob/v1.0.4/README.md#specification
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/Flow.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class MessagePublisher implements Flow.Publisher<Message>, AutoCloseable {
+
+    /**
+     * What happens to a message published while a subscriber's buffer is
+     * full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest buffered message to make room (a live view wants
+         * the latest).
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new message (an indexer that can re-scan gaps later).
+         */
+        DROP_NEWEST,
+        /**
+         * Cancel the subscription with {@link BufferOverflowException}
+         * (a consumer that must see everything or know it did not).
+         */
+        ERROR
+    }
+
+    /**
+     * Signalled through {@code onError} under {@link OverflowPolicy#ERROR}.
+     */
+    public static class BufferOverflowException extends IllegalStateException {
+
+        public BufferOverflowException(int capacity) {
+            super("Subscriber fell " + capacity + " messages behind");
+        }
+    }
+
+    public static final int DEFAULT_BUFFER = 1024;
+
+    private static final Executor VIRTUAL = task -> Thread.ofVirtual().name("quickchat-publisher").start(task);
+
+    private final Executor executor;
+    private final int defaultCapacity;
+    private final OverflowPolicy defaultPolicy;
+    private final List<MessageSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * {@link #DEFAULT_BUFFER} messages per subscriber, dropping the oldest,
+     * delivered on virtual threads.
+     */
+    public MessagePublisher() {
+        this(VIRTUAL, DEFAULT_BUFFER, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * @param executor runs the per-subscriber delivery
+     * @param capacity buffer per subscriber for {@link #subscribe(Flow.Subscriber)}
+     * @param policy overflow policy for {@link #subscribe(Flow.Subscriber)}
+     */
+    public MessagePublisher(Executor executor, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.executor = executor;
+        this.defaultCapacity = capacity;
+        this.defaultPolicy = policy;
+    }
+
+    /* ───────────────────────── Subscribing ─────────────────────── */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Message> subscriber) {
+        subscribe(subscriber, defaultCapacity, defaultPolicy);
+    }
+
+    /**
+     * Subscribe with this subscriber's own buffer size and policy.
+     *
+     * @return the subscription (also handed to {@code onSubscribe}), for its
+     * counters
+     */
+    public MessageSubscription subscribe(Flow.Subscriber<? super Message> subscriber, int capacity,
+            OverflowPolicy policy) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        MessageSubscription s = new MessageSubscription(subscriber, capacity, policy);
+        subscriptions.add(s);
+        if (closed) {
+            s.complete();                                  // onSubscribe then onComplete
+        }
+        s.signal();
+        return s;
+    }
+
+    /**
+     * Subscribers still attached.
+     */
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /* ───────────────────────── Publishing ─────────────────────── */
+    /**
+     * Offer a message to every subscriber; never blocks.
+     */
+    public void publish(Message msg) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Message event = snapshot(msg);
+        for (MessageSubscription s : subscriptions) {
+            s.offer(event);
+        }
+    }
+
+    /**
+     * Publish several messages (e.g. one ingest or send-stored batch).
+     */
+    public void publishAll(List<Message> messages) {
+        if (subscriptions.isEmpty() || messages.isEmpty()) {
+            return;
+        }
+        List<Message> events = messages.stream().map(MessagePublisher::snapshot).toList();
+        for (MessageSubscription s : subscriptions) {
+            for (Message event : events) {
+                s.offer(event);
+            }
+        }
+    }
+
+    private static Message snapshot(Message m) {
+        return Message.restore(m.getMessageID(), m.getRecipient(), m.getMessage(), m.getMessageHash(),
+                m.getMessageType(), m.isSent(), m.isReceived(), m.isRead());
+    }
+
+    /**
+     * Complete every subscriber once its buffer has drained; later
+     * subscribers complete straight away.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (MessageSubscription s : subscriptions) {
+            s.complete();
+            s.signal();
+        }
+    }
+
+    /* ───────────────────────── Subscription ─────────────────────── */
+    /**
+     * One subscriber's buffer, demand and delivery state.
+     */
+    public final class MessageSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super Message> subscriber;
+        private final int capacity;
+        private final OverflowPolicy policy;
+        private final ArrayDeque<Message> buffer;          // guarded by `this`
+        private long demand;                               // guarded by `this`
+        private Throwable error;                           // guarded by `this`; sent once buffer is skipped
+        private boolean completing;                        // guarded by `this`
+        private final AtomicInteger wip = new AtomicInteger();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private boolean subscribed;                        // drain thread only
+        private volatile boolean done;
+
+        private MessageSubscription(Flow.Subscriber<? super Message> subscriber, int capacity,
+                OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.capacity = capacity;
+            this.policy = policy;
+            this.buffer = new ArrayDeque<>(Math.min(capacity, 64));
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("request(" + n + "): demand must be positive");   // §3.9
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * Messages handed to {@code onNext} so far.
+         */
+        public long delivered() {
+            return delivered.sum();
+        }
+
+        /**
+         * Messages lost to the overflow policy.
+         */
+        public long dropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * Messages waiting for demand.
+         */
+        public synchronized int buffered() {
+            return buffer.size();
+        }
+
+        private void offer(Message msg) {
+            if (done) {
+                return;
+            }
+            synchronized (this) {
+                if (error != null || completing) {
+                    return;
+                }
+                if (buffer.size() == capacity) {
+                    switch (policy) {
+                        case DROP_OLDEST -> {
+                            buffer.poll();
+                            dropped.increment();
+                        }
+                        case DROP_NEWEST -> {
+                            dropped.increment();
+                            return;
+                        }
+                        case ERROR -> {
+                            dropped.increment();
+                            error = new BufferOverflowException(capacity);
+                            buffer.clear();
+                        }
+                    }
+                }
+                if (error == null) {
+                    buffer.add(msg);
+                }
+            }
+            signal();
+        }
+
+        private synchronized void complete() {
+            completing = true;
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException rejected) {
+                    wip.set(0);
+                    cancel();
+                }
+            }
+        }
+
+        /* One runner at a time (wip); loops while more signals arrived. */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    try {
+                        subscriber.onSubscribe(this);
+                    } catch (Throwable t) {
+                        cancel();
+                        return;
+                    }
+                }
+                while (!done) {
+                    Message next;
+                    Throwable failure;
+                    boolean finished;
+                    synchronized (this) {
+                        failure = error;
+                        next = failure == null && demand > 0 ? buffer.poll() : null;
+                        if (next != null && demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                        finished = failure == null && next == null && completing && buffer.isEmpty();
+                    }
+                    if (failure != null || finished) {
+                        cancel();
+                        try {
+                            if (failure != null) {
+                                subscriber.onError(failure);
+                            } else {
+                                subscriber.onComplete();
+                            }
+                        } catch (Throwable ignored) {
+                            // §2.13: nothing more to signal
+                        }
+                        return;
+                    }
+                    if (next == null) {
+                        break;                             // no demand, or nothing buffered
+                    }
+                    try {
+                        subscriber.onNext(next);
+                        delivered.increment();
+                    } catch (Throwable t) {
+                        cancel();                          // §2.13: a throwing subscriber is gone
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mycompany.structumessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Ordered container for one message category (sent / stored / disregarded).
+ * <p>
+ * • Append-at-end with an optional capacity limit<br>
+ * • Index-based access and compacting removal (same semantics as the
+ * original fixed-size arrays)<br>
+ * • ID / hash look-ups and the longest-message scan used by the reports<br>
+ * • Batched delivery-receipt updates ({@link ReceiptProcessor})
+ * <p>
+ * Implementations decide where the data lives: on the Java heap or in
+ * native memory (see {@link OffHeapMessageStore}).
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public interface MessageStore {
+
+    /**
+     * Append a message at the end of the store.
+     *
+     * @return {@code false} if the store is full
+     */
+    boolean add(Message msg);
+
+    /**
+     * Message at {@code index} (0 ≤ index &lt; {@link #size()}).
+     */
+    Message get(int index);
+
+    /**
+     * Number of messages currently held.
+     */
+    int size();
+
+    /**
+     * Remove one message and shift later messages down by one slot.
+     *
+     * @return the removed message
+     */
+    Message removeAt(int index);
+
+    /**
+     * Position of the first message with this ID, or -1.
+     */
+    int indexOfID(String id);
+
+    /**
+     * Position of the first message with this hash, or -1.
+     */
+    int indexOfHash(String hash);
+
+    /**
+     * Drop every message.
+     */
+    void clear();
+
+    /**
+     * Position of the longest message body (first one wins on ties), or -1
+     * when the store is empty.
+     */
+    default int longestMessageIndex() {
+        int best = -1;
+        int bestLength = 0;
+        for (int i = 0; i < size(); i++) {
+            int length = get(i).getMessage().length();
+            if (length > bestLength) {
+                bestLength = length;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Remove every message whose ID is in {@code ids} in one go (every copy
+     * of a shared ID), keeping the rest in order.
+     *
+     * @return the removed messages, in store order
+     */
+    default List<Message> removeAllByID(Set<String> ids) {
+        return removeAllByID(ids, m -> true);
+    }
+
+    /**
+     * As {@link #removeAllByID(Set)}, but only the messages {@code which}
+     * accepts: IDs are random and can collide, so a caller that holds the
+     * exact messages narrows the match.
+     *
+     * @return the removed messages, in store order
+     */
+    default List<Message> removeAllByID(Set<String> ids, Predicate<Message> which) {
+        List<Message> removed = new ArrayList<>();
+        for (int i = size() - 1; i >= 0; i--) {
+            Message m = get(i);
+            if (ids.contains(m.getMessageID()) && which.test(m)) {
+                removed.add(removeAt(i));
+            }
+        }
+        Collections.reverse(removed);
+        return removed;
+    }
+
+    /**
+     * Apply a batch of delivery receipts through the ID index (first
+     * occurrence of each ID, as {@link #indexOfID}).
+     *
+     * @param receipts message ID → {@link DeliveryLog#RECEIVED} /
+     * {@link DeliveryLog#READ} bits
+     * @param changed receives message ID → bits newly set, for every message
+     * whose flags changed
+     * @return receipts that matched a message in this store
+     */
+    default int applyReceipts(Map<String, Integer> receipts, Map<String, Integer> changed) {
+        int matched = 0;
+        for (Map.Entry<String, Integer> receipt : receipts.entrySet()) {
+            int index = indexOfID(receipt.getKey());
+            if (index < 0) {
+                continue;
+            }
+            matched++;
+            int delta = get(index).applyReceipt(receipt.getValue());
+            if (delta != 0) {
+                changed.put(receipt.getKey(), delta);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Copy of the current contents in store order.
+     */
+    default List<Message> snapshot() {
+        List<Message> copy = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            copy.add(get(i));
+        }
+        return copy;
+    }
+}
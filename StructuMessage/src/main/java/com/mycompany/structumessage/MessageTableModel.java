@@ -0,0 +1,414 @@
+package com.mycompany.structumessage;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Lazy {@link javax.swing.table.TableModel} over one or more
+ * {@link MessageStore}s, for {@link MessageTableViewer}.
+ * <p>
+ * • Nothing is copied up front: a cell is read from its store when the
+ * <code>JTable</code> paints it, so only the rows on screen are fetched
+ * (the last row fetched is kept, as a row's cells are painted together)<br>
+ * • Sorting and filtering build a row map (view row → store row) in a
+ * {@link SwingWorker}; the table keeps showing the previous view until the
+ * new one is ready, and a newer request supersedes one still running<br>
+ * • Several stores read as one, in order (e.g. sent then stored)<br>
+ * • An optional scope keeps only some messages (one recipient), on top of
+ * the free-text filter
+ * <p>
+ * Everything except the workers' background part runs on the event
+ * dispatch thread. Row counts are read at {@link #refresh()}; a store that
+ * shrinks while the table is open shows blank rows until the next refresh.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Lazy TableModels &amp; SwingWorker
+  Author  : Oracle Java Tutorials (How to Use Tables; Worker Threads and SwingWorker)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/javase/tutorial/uiswing/components/table.html
+    • https://docs.oracle.com/javase/tutorial/uiswing/concurrency/worker.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class MessageTableModel extends AbstractTableModel {
+
+    /**
+     * Columns a table can show.
+     */
+    public enum Column {
+        NUMBER("#"),
+        ID("Message ID"),
+        HASH("Hash"),
+        RECIPIENT("Recipient"),
+        MESSAGE("Message"),
+        TYPE("Type");
+
+        private final String title;
+
+        Column(String title) {
+            this.title = title;
+        }
+
+        public String title() {
+            return title;
+        }
+
+        /* NUMBER is the row's position across the stores, 1-based. */
+        Object valueOf(Message m, int storeRow) {
+            return switch (this) {
+                case NUMBER ->
+                    storeRow + 1;
+                case ID ->
+                    m.getMessageID();
+                case HASH ->
+                    m.getMessageHash();
+                case RECIPIENT ->
+                    m.getRecipient();
+                case MESSAGE ->
+                    m.getMessage();
+                case TYPE ->
+                    m.getMessageType();
+            };
+        }
+    }
+
+    private final MessageStore[] sources;
+    private final Column[] columns;
+    private final Predicate<Message> scope;              // null = every message
+
+    /* ─────────── EDT state ─────────── */
+    private int[] sourceSizes;                           // store sizes that rows was built against
+    private int total;
+    private int[] rows;                                  // view → store row; null = all, in store order
+    private int[] readSizes;                             // store sizes at the last refresh, for new views
+    private int readTotal;
+    private String filter = "";
+    private Column sortColumn;                           // null = store order
+    private boolean ascending = true;
+    private ViewWorker pending;
+    private int cachedRow = -1;
+    private Message cachedMessage;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * @param columns columns to show, in order
+     * @param scope messages to keep before any filter, or {@code null} for
+     * all (applied by the first {@link #refresh()})
+     * @param sources stores read as one, in order
+     */
+    public MessageTableModel(Column[] columns, Predicate<Message> scope, MessageStore... sources) {
+        if (columns.length == 0 || sources.length == 0) {
+            throw new IllegalArgumentException("need at least one column and one store");
+        }
+        this.columns = columns.clone();
+        this.scope = scope;
+        this.sources = sources.clone();
+        this.sourceSizes = new int[sources.length];
+        this.readSizes = sourceSizes;
+        this.rows = scope == null ? null : new int[0];
+    }
+
+    /* ───────────────────────── TableModel ─────────────────────── */
+    @Override
+    public int getRowCount() {
+        return rows == null ? total : rows.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Column title, with an arrow on the sort column.
+     */
+    @Override
+    public String getColumnName(int column) {
+        Column c = columns[column];
+        return c != sortColumn ? c.title() : c.title() + (ascending ? " ▲" : " ▼");
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns[column] == Column.NUMBER ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int storeRow = storeRow(row);
+        Message m = messageAtStoreRow(storeRow);
+        return m == null ? null : columns[column].valueOf(m, storeRow);
+    }
+
+    /* ───────────────────────── View ─────────────────────── */
+    /**
+     * Model column at this index.
+     */
+    public Column columnAt(int column) {
+        return columns[column];
+    }
+
+    /**
+     * Message shown in this view row, or {@code null} if it has gone.
+     */
+    public Message messageAt(int row) {
+        return messageAtStoreRow(storeRow(row));
+    }
+
+    /**
+     * Messages across the stores (before scope and filter) when the view
+     * shown was built.
+     */
+    public int totalRows() {
+        return total;
+    }
+
+    /**
+     * Re-read the store sizes and rebuild the view. A filtered or sorted
+     * view keeps the sizes it was built against until the new one arrives,
+     * since its store rows only mean something against those.
+     *
+     * @return the worker building the view
+     */
+    public SwingWorker<int[], Void> refresh() {
+        int[] sizes = new int[sources.length];
+        int sum = 0;
+        for (int i = 0; i < sources.length; i++) {
+            sizes[i] = sources[i].size();
+            sum += sizes[i];
+        }
+        readSizes = sizes;
+        readTotal = sum;
+        if (rows == null) {
+            sourceSizes = sizes;                           // view row = store row, so any sizes fit
+            total = sum;
+            cachedRow = -1;
+            fireTableDataChanged();                        // new size shows now; the worker may refine it
+        }
+        return updateView();
+    }
+
+    /**
+     * Sort by this column; the same column again flips the direction.
+     *
+     * @return the worker building the view
+     */
+    public SwingWorker<int[], Void> sortBy(Column column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        return updateView();
+    }
+
+    /**
+     * Keep only messages whose ID, hash, recipient or text contains this
+     * (case-insensitive); blank shows everything.
+     *
+     * @return the worker building the view
+     */
+    public SwingWorker<int[], Void> setFilter(String text) {
+        filter = text == null ? "" : text.trim();
+        return updateView();
+    }
+
+    /**
+     * Whether a requested view has not reached the table yet.
+     */
+    public boolean isUpdating() {
+        return pending != null;
+    }
+
+    /**
+     * Cancel a view still being built (e.g. when the window closes).
+     */
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private SwingWorker<int[], Void> updateView() {
+        cancel();
+        pending = new ViewWorker(readSizes, readTotal, filter, sortColumn, ascending);
+        pending.execute();
+        return pending;
+    }
+
+    private int storeRow(int row) {
+        return rows == null ? row : rows[row];
+    }
+
+    /* Store row across all sources → message, or null once out of range. */
+    private Message messageAtStoreRow(int storeRow) {
+        if (storeRow == cachedRow) {
+            return cachedMessage;
+        }
+        Message m = fetch(sources, sourceSizes, storeRow);
+        cachedRow = storeRow;
+        cachedMessage = m;
+        return m;
+    }
+
+    private static Message fetch(MessageStore[] sources, int[] sizes, int storeRow) {
+        int row = storeRow;
+        for (int i = 0; i < sources.length; i++) {
+            if (row < sizes[i]) {
+                try {
+                    return sources[i].get(row);
+                } catch (IndexOutOfBoundsException shrunk) {
+                    return null;
+                }
+            }
+            row -= sizes[i];
+        }
+        return null;
+    }
+
+    /* ───────────────────────── Background work ─────────────────────── */
+    /**
+     * Scope, filter and sort over a fixed view of the stores. Produces
+     * {@code null} for "every row, in store order"; the sizes it read go
+     * to the table together with its rows.
+     */
+    private final class ViewWorker extends SwingWorker<int[], Void> {
+
+        private final int[] sizes;
+        private final int count;
+        private final String text;
+        private final Column sort;
+        private final boolean up;
+
+        ViewWorker(int[] sizes, int count, String text, Column sort, boolean up) {
+            this.sizes = sizes;
+            this.count = count;
+            this.text = text;
+            this.sort = sort;
+            this.up = up;
+        }
+
+        @Override
+        protected int[] doInBackground() {
+            boolean filtering = scope != null || !text.isEmpty();
+            if (!filtering && (sort == null || sort == Column.NUMBER && up)) {
+                return null;
+            }
+            int[] kept = new int[count];
+            String[] keys = sort != null && sort != Column.NUMBER ? new String[count] : null;
+            int n = 0;
+            for (int row = 0; row < count; row++) {
+                if ((row & 0xFFF) == 0 && isCancelled()) {
+                    return null;
+                }
+                Message m = fetch(sources, sizes, row);
+                if (m == null || scope != null && !scope.test(m) || !matches(m, text)) {
+                    continue;
+                }
+                if (keys != null) {
+                    keys[n] = String.valueOf(sort.valueOf(m, row)).toLowerCase(Locale.ROOT);   // folded once
+                }
+                kept[n++] = row;
+            }
+            kept = Arrays.copyOf(kept, n);
+            if (keys != null) {
+                sortRows(kept, keys, up);
+            } else if (sort == Column.NUMBER && !up) {
+                reverse(kept);
+            }
+            return kept;
+        }
+
+        @Override
+        protected void done() {
+            if (pending != this || isCancelled()) {
+                return;                                    // superseded
+            }
+            pending = null;
+            try {
+                rows = get();
+            } catch (Exception e) {
+                return;                                    // keep the previous view
+            }
+            sourceSizes = sizes;                           // the sizes these rows were built against
+            total = count;
+            cachedRow = -1;
+            fireTableDataChanged();
+        }
+    }
+
+    static boolean matches(Message m, String text) {
+        return text.isEmpty() || containsIgnoreCase(m.getMessage(), text)
+                || containsIgnoreCase(m.getRecipient(), text) || containsIgnoreCase(m.getMessageID(), text)
+                || containsIgnoreCase(m.getMessageHash(), text);
+    }
+
+    /* Cheap first-character test before the case-insensitive region compare. */
+    private static boolean containsIgnoreCase(String haystack, String needle) {
+        if (haystack == null) {
+            return false;
+        }
+        char lower = Character.toLowerCase(needle.charAt(0));
+        char upper = Character.toUpperCase(needle.charAt(0));
+        for (int i = 0, last = haystack.length() - needle.length(); i <= last; i++) {
+            char c = haystack.charAt(i);
+            if ((c == lower || c == upper) && haystack.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Stable merge sort of rows[] by keys[] (keys[i] belongs to rows[i];
+     * already lower-cased): no boxing, so millions of rows stay cheap.
+     */
+    static void sortRows(int[] rows, String[] keys, boolean ascending) {
+        int n = rows.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    int c = keys[order[i]].compareTo(keys[order[j]]);
+                    buffer[k++] = (ascending ? c <= 0 : c >= 0) ? order[i++] : order[j++];
+                }
+                while (i < mid) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < hi) {
+                    buffer[k++] = order[j++];
+                }
+                System.arraycopy(buffer, lo, order, lo, hi - lo);
+            }
+        }
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = rows[order[i]];
+        }
+        System.arraycopy(sorted, 0, rows, 0, n);
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.mycompany.structumessage;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableColumn;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.Predicate;
+
+/**
+ * Scrollable report window: a <code>JTable</code> over a
+ * {@link MessageTableModel}, in place of the one-string
+ * <code>JOptionPane</code> reports.
+ * <p>
+ * • Opens at once however large the store: the table asks only for the
+ * rows on screen<br>
+ * • Click a column header to sort (again to reverse); type in the filter
+ * box to narrow the rows. Both run in a <code>SwingWorker</code>, so the
+ * window keeps scrolling while they work<br>
+ * • Modal, like the dialogs around it: the menu continues when it is
+ * closed
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public final class MessageTableViewer {
+
+    /**
+     * Pause after the last keystroke before the filter runs.
+     */
+    static final int FILTER_DELAY_MS = 250;
+
+    private final MessageTableModel model;
+    private final JTable table;
+    private final JTextField filterField = new JTextField(24);
+    private final JLabel status = new JLabel(" ");
+    private final JPanel panel = new JPanel(new BorderLayout(0, 6));
+
+    private MessageTableViewer(MessageTableModel model) {
+        this.model = model;
+        this.table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+        sizeColumns();
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    track(model.sortBy(model.columnAt(table.convertColumnIndexToModel(column))));
+                }
+            }
+        });
+
+        Timer filterDelay = new Timer(FILTER_DELAY_MS, e -> track(model.setFilter(filterField.getText())));
+        filterDelay.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterDelay.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterDelay.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterDelay.restart();
+            }
+        });
+
+        JPanel top = new JPanel(new BorderLayout(6, 0));
+        top.add(new JLabel("Filter:"), BorderLayout.WEST);
+        top.add(filterField, BorderLayout.CENTER);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(820, 420));
+        panel.add(top, BorderLayout.NORTH);
+        panel.add(scroll, BorderLayout.CENTER);
+        panel.add(status, BorderLayout.SOUTH);
+        panel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+    }
+
+    /* ───────────────────────── Entry points ─────────────────────── */
+    /**
+     * Show messages from these stores in a modal window; returns when it is
+     * closed.
+     *
+     * @param scope messages to show, or {@code null} for all
+     */
+    public static void show(String title, MessageTableModel.Column[] columns, Predicate<Message> scope,
+            MessageStore... sources) {
+        show(title, new MessageTableModel(columns, scope, sources));
+    }
+
+    /**
+     * Show this model in a modal window; returns when it is closed.
+     */
+    public static void show(String title, MessageTableModel model) {
+        MessageTableViewer viewer = new MessageTableViewer(model);
+        SwingUtilities.invokeLater(() -> viewer.track(model.refresh()));   // runs once the dialog is up
+        JOptionPane.showMessageDialog(null, viewer.panel, title, JOptionPane.PLAIN_MESSAGE);
+        model.cancel();
+    }
+
+    /* ───────────────────────── Helpers ─────────────────────── */
+    /* "Working…" while a view is built, then the counts and the new headers. */
+    private void track(SwingWorker<int[], Void> worker) {
+        status.setText("Working…");
+        worker.addPropertyChangeListener(e -> {
+            if ("state".equals(e.getPropertyName()) && e.getNewValue() == SwingWorker.StateValue.DONE
+                    && !worker.isCancelled()) {
+                for (int i = 0; i < table.getColumnCount(); i++) {
+                    TableColumn column = table.getColumnModel().getColumn(i);
+                    column.setHeaderValue(model.getColumnName(column.getModelIndex()));
+                }
+                table.getTableHeader().repaint();
+                status.setText(model.getRowCount() + " of " + model.totalRows() + " messages");
+            }
+        });
+    }
+
+    /* Fixed widths per column kind: measuring cells would read every row. */
+    private void sizeColumns() {
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            int width = switch (model.columnAt(i)) {
+                case NUMBER ->
+                    60;
+                case ID, TYPE ->
+                    100;
+                case RECIPIENT ->
+                    120;
+                case HASH ->
+                    160;
+                case MESSAGE ->
+                    360;
+            };
+            table.getColumnModel().getColumn(i).setPreferredWidth(width);
+        }
+    }
+}
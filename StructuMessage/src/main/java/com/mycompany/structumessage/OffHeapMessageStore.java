@@ -0,0 +1,543 @@
+package com.mycompany.structumessage;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link MessageStore} that keeps every message column in native memory.
+ * <p>
+ * • Fixed-width columns (ID, recipient code, type, flags, text offsets and
+ * lengths) live in one {@link Arena}; each column is a single contiguous
+ * {@link MemorySegment}, so report scans are sequential memory sweeps.<br>
+ * • Hash and body text (UTF-8) are bump-allocated into 1 MB slabs of a
+ * second arena and never move until {@link #compact()}.<br>
+ * • {@link Message} objects are only built when {@link #get(int)} is called,
+ * so a long-lived store creates no garbage for the collector to trace.
+ * <p>
+ * Numeric IDs and <code>+digits</code> recipients are packed into a
+ * <code>long</code>; anything else falls back to a length-prefixed copy in
+ * the text slab. Methods are synchronized; call {@link #close()} to release
+ * the native memory.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Foreign Function &amp; Memory API (JEP 454)
+  Author  : Oracle Java SE 22 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://openjdk.org/jeps/454
+    • https://docs.oracle.com/en/java/javase/22/docs/api/java.base/java/lang/foreign/MemorySegment.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class OffHeapMessageStore implements MessageStore, AutoCloseable {
+
+    /* ─────────── Layout constants ─────────── */
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfInt INT_UNALIGNED = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT;
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private static final byte SENT = 1;
+    private static final byte RECEIVED = 2;
+    private static final byte READ = 4;
+
+    private static final int MAX_PACKED_DIGITS = 18;    // fits in a signed long
+    private static final int SLAB_SIZE = 1 << 20;
+    private static final int INITIAL_ROWS = 1024;
+    private static final int ROW_BYTES = 8 + 8 + 2 + 1 + 1 + 8 + 4 + 4 + 4 + 4;
+
+    /* ─────────── Column storage ─────────── */
+    private Arena columnArena;
+    private MemorySegment ids;          // long – numeric message ID
+    private MemorySegment recipients;   // long – recipient digits after '+'
+    private MemorySegment shapes;       // short – idDigits | recipientDigits << 5
+    private MemorySegment types;        // byte – index into typeNames
+    private MemorySegment flags;        // byte – SENT | RECEIVED | READ
+    private MemorySegment textRefs;     // long – slab << 32 | offset
+    private MemorySegment textLengths;  // int – whole text record in bytes
+    private MemorySegment hashLengths;  // int – UTF-8 bytes
+    private MemorySegment bodyBytes;    // int – UTF-8 bytes
+    private MemorySegment bodyChars;    // int – String.length() of the body
+    private int rowCapacity;
+    private int count;
+
+    /* ─────────── Text slabs ─────────── */
+    private Arena textArena;
+    private final List<MemorySegment> slabs = new ArrayList<>();
+    private int currentSlab = -1;
+    private long slabUsed;
+    private long deadTextBytes;
+
+    private final List<String> typeNames = new ArrayList<>();
+    private final int capacityLimit;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Unbounded store (limited only by native memory).
+     */
+    public OffHeapMessageStore() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param capacityLimit maximum number of messages {@link #add} accepts
+     */
+    public OffHeapMessageStore(int capacityLimit) {
+        if (capacityLimit <= 0) {
+            throw new IllegalArgumentException("capacityLimit must be positive");
+        }
+        this.capacityLimit = capacityLimit;
+        this.textArena = Arena.ofShared();
+        allocateColumns(Math.min(INITIAL_ROWS, capacityLimit));
+    }
+
+    /* ───────────────────────── MessageStore API ─────────────────────── */
+    @Override
+    public synchronized boolean add(Message msg) {
+        if (count >= capacityLimit) {
+            return false;
+        }
+        if (count == rowCapacity) {
+            allocateColumns((int) Math.min((long) rowCapacity * 2, capacityLimit));
+        }
+
+        String id = nullToEmpty(msg.getMessageID());
+        String recipient = nullToEmpty(msg.getRecipient());
+        int idDigits = packedDigits(id, 0);
+        int recipientDigits = recipient.startsWith("+") ? packedDigits(recipient, 1) : 0;
+
+        byte[] idText = idDigits == 0 ? utf8(id) : null;
+        byte[] recipientText = recipientDigits == 0 ? utf8(recipient) : null;
+        byte[] hash = utf8(nullToEmpty(msg.getMessageHash()));
+        String bodyString = nullToEmpty(msg.getMessage());
+        byte[] body = utf8(bodyString);
+
+        int length = hash.length + body.length
+                + (idText != null ? 4 + idText.length : 0)
+                + (recipientText != null ? 4 + recipientText.length : 0);
+        long ref = allocateText(length);
+        MemorySegment slab = slabs.get(slabOf(ref));
+        long pos = offsetOf(ref);
+        pos = writeText(slab, pos, idText, true);
+        pos = writeText(slab, pos, recipientText, true);
+        pos = writeText(slab, pos, hash, false);
+        writeText(slab, pos, body, false);
+
+        int row = count;
+        ids.setAtIndex(LONG, row, idDigits == 0 ? 0 : Long.parseLong(id));
+        recipients.setAtIndex(LONG, row, recipientDigits == 0 ? 0 : Long.parseLong(recipient, 1, recipient.length(), 10));
+        shapes.setAtIndex(SHORT, row, (short) (idDigits | recipientDigits << 5));
+        types.setAtIndex(BYTE, row, typeCode(msg.getMessageType()));
+        flags.setAtIndex(BYTE, row, (byte) ((msg.isSent() ? SENT : 0)
+                | (msg.isReceived() ? RECEIVED : 0) | (msg.isRead() ? READ : 0)));
+        textRefs.setAtIndex(LONG, row, ref);
+        textLengths.setAtIndex(INT, row, length);
+        hashLengths.setAtIndex(INT, row, hash.length);
+        bodyBytes.setAtIndex(INT, row, body.length);
+        bodyChars.setAtIndex(INT, row, bodyString.length());
+        count++;
+        return true;
+    }
+
+    @Override
+    public synchronized Message get(int index) {
+        checkIndex(index);
+        int shape = shapes.getAtIndex(SHORT, index);
+        int idDigits = shape & 0x1F;
+        int recipientDigits = shape >>> 5 & 0x1F;
+
+        long ref = textRefs.getAtIndex(LONG, index);
+        MemorySegment slab = slabs.get(slabOf(ref));
+        long pos = offsetOf(ref);
+
+        String id;
+        if (idDigits != 0) {
+            id = zeroPad(ids.getAtIndex(LONG, index), idDigits);
+        } else {
+            int n = slab.get(INT_UNALIGNED, pos);
+            id = readUtf8(slab, pos + 4, n);
+            pos += 4 + n;
+        }
+        String recipient;
+        if (recipientDigits != 0) {
+            recipient = "+" + zeroPad(recipients.getAtIndex(LONG, index), recipientDigits);
+        } else {
+            int n = slab.get(INT_UNALIGNED, pos);
+            recipient = readUtf8(slab, pos + 4, n);
+            pos += 4 + n;
+        }
+        int hashLength = hashLengths.getAtIndex(INT, index);
+        String hash = readUtf8(slab, pos, hashLength);
+        String body = readUtf8(slab, pos + hashLength, bodyBytes.getAtIndex(INT, index));
+
+        byte f = flags.getAtIndex(BYTE, index);
+        return Message.restore(id, recipient, body, hash,
+                typeNames.get(types.getAtIndex(BYTE, index)),
+                (f & SENT) != 0, (f & RECEIVED) != 0, (f & READ) != 0);
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public synchronized Message removeAt(int index) {
+        checkIndex(index);
+        Message removed = get(index);
+        deadTextBytes += textLengths.getAtIndex(INT, index);
+        int tail = count - index - 1;
+        shiftDown(ids, 8, index, tail);
+        shiftDown(recipients, 8, index, tail);
+        shiftDown(shapes, 2, index, tail);
+        shiftDown(types, 1, index, tail);
+        shiftDown(flags, 1, index, tail);
+        shiftDown(textRefs, 8, index, tail);
+        shiftDown(textLengths, 4, index, tail);
+        shiftDown(hashLengths, 4, index, tail);
+        shiftDown(bodyBytes, 4, index, tail);
+        shiftDown(bodyChars, 4, index, tail);
+        count--;
+        return removed;
+    }
+
+    /**
+     * Sequential sweep of the ID column; only rows whose ID did not fit in a
+     * <code>long</code> are decoded.
+     */
+    @Override
+    public synchronized int indexOfID(String id) {
+        if (id == null) {
+            return -1;
+        }
+        int digits = packedDigits(id, 0);
+        long value = digits == 0 ? 0 : Long.parseLong(id);
+        for (int i = 0; i < count; i++) {
+            int rowDigits = shapes.getAtIndex(SHORT, i) & 0x1F;
+            if (digits != 0) {
+                if (rowDigits == digits && ids.getAtIndex(LONG, i) == value) {
+                    return i;
+                }
+            } else if (rowDigits == 0 && get(i).getMessageID().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One sweep of the ID column for the whole batch (instead of one sweep
+     * per receipt); flags are updated in place. The flag bits match
+     * {@link DeliveryLog}'s.
+     */
+    @Override
+    public synchronized int applyReceipts(Map<String, Integer> receipts, Map<String, Integer> changed) {
+        Map<Long, String> numeric = new HashMap<>();
+        List<String> other = new ArrayList<>();
+        for (String id : receipts.keySet()) {
+            if (packedDigits(id, 0) == 0 || numeric.putIfAbsent(Long.parseLong(id), id) != null) {
+                other.add(id);                         // text ID, or same value as another ("07" / "7")
+            }
+        }
+        int matched = 0;
+        for (int i = 0; i < count && !numeric.isEmpty(); i++) {
+            int rowDigits = shapes.getAtIndex(SHORT, i) & 0x1F;
+            if (rowDigits == 0) {
+                continue;
+            }
+            String id = numeric.get(ids.getAtIndex(LONG, i));
+            if (id != null && id.length() == rowDigits) {
+                numeric.remove(ids.getAtIndex(LONG, i));      // first occurrence only
+                matched++;
+                applyReceipt(i, id, receipts.get(id), changed);
+            }
+        }
+        for (String id : other) {
+            int i = indexOfID(id);
+            if (i >= 0) {
+                matched++;
+                applyReceipt(i, id, receipts.get(id), changed);
+            }
+        }
+        return matched;
+    }
+
+    private void applyReceipt(int row, String id, int state, Map<String, Integer> changed) {
+        int current = flags.getAtIndex(BYTE, row);
+        int wanted = ((state & (RECEIVED | READ)) != 0 ? RECEIVED : 0) | (state & READ);
+        int delta = wanted & ~current;
+        if (delta != 0) {
+            flags.setAtIndex(BYTE, row, (byte) (current | delta));
+            changed.put(id, delta);
+        }
+    }
+
+    /**
+     * Compares the stored UTF-8 hash bytes in place, without decoding rows.
+     */
+    @Override
+    public synchronized int indexOfHash(String hash) {
+        if (hash == null) {
+            return -1;
+        }
+        byte[] wanted = utf8(hash);
+        MemorySegment target = MemorySegment.ofArray(wanted);
+        for (int i = 0; i < count; i++) {
+            if (hashLengths.getAtIndex(INT, i) != wanted.length) {
+                continue;
+            }
+            long ref = textRefs.getAtIndex(LONG, i);
+            MemorySegment slab = slabs.get(slabOf(ref));
+            long pos = hashOffset(slab, offsetOf(ref), shapes.getAtIndex(SHORT, i));
+            if (MemorySegment.mismatch(slab, pos, pos + wanted.length,
+                    target, 0, wanted.length) == -1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sweep of the body-length column; no text is touched.
+     */
+    @Override
+    public synchronized int longestMessageIndex() {
+        int best = -1;
+        int bestLength = 0;
+        for (int i = 0; i < count; i++) {
+            int length = bodyChars.getAtIndex(INT, i);
+            if (length > bestLength) {
+                bestLength = length;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public synchronized void clear() {
+        count = 0;
+        resetText();
+    }
+
+    /* ─────────────────────── Maintenance / Metrics ──────────────────── */
+    /**
+     * Copy live text records into fresh slabs and free the old ones. Worth
+     * calling after many removals (see {@link #deadTextBytes()}).
+     */
+    public synchronized void compact() {
+        Arena oldArena = textArena;
+        List<MemorySegment> oldSlabs = new ArrayList<>(slabs);
+        resetTextKeepingArena(Arena.ofShared());
+        for (int i = 0; i < count; i++) {
+            long oldRef = textRefs.getAtIndex(LONG, i);
+            int length = textLengths.getAtIndex(INT, i);
+            long newRef = allocateText(length);
+            MemorySegment.copy(oldSlabs.get(slabOf(oldRef)), offsetOf(oldRef),
+                    slabs.get(slabOf(newRef)), offsetOf(newRef), length);
+            textRefs.setAtIndex(LONG, i, newRef);
+        }
+        oldArena.close();
+    }
+
+    /**
+     * Bytes of text belonging to removed messages that {@link #compact()}
+     * would reclaim.
+     */
+    public synchronized long deadTextBytes() {
+        return deadTextBytes;
+    }
+
+    /**
+     * Native bytes currently reserved by columns and text slabs.
+     */
+    public synchronized long offHeapBytes() {
+        long total = 0;
+        for (MemorySegment slab : slabs) {
+            total += slab.byteSize();
+        }
+        return total + (long) rowCapacity * ROW_BYTES;
+    }
+
+    /**
+     * Release all native memory. The store must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        columnArena.close();
+        textArena.close();
+        slabs.clear();
+        count = 0;
+    }
+
+    /* ───────────────────────── Internal helpers ─────────────────────── */
+    /* Grow (or first create) every column, copying the live rows across. */
+    private void allocateColumns(int rows) {
+        Arena arena = Arena.ofShared();
+        MemorySegment newIds = arena.allocate(rows * 8L, 8);
+        MemorySegment newRecipients = arena.allocate(rows * 8L, 8);
+        MemorySegment newShapes = arena.allocate(rows * 2L, 8);
+        MemorySegment newTypes = arena.allocate(rows, 8);
+        MemorySegment newFlags = arena.allocate(rows, 8);
+        MemorySegment newTextRefs = arena.allocate(rows * 8L, 8);
+        MemorySegment newTextLengths = arena.allocate(rows * 4L, 8);
+        MemorySegment newHashLengths = arena.allocate(rows * 4L, 8);
+        MemorySegment newBodyBytes = arena.allocate(rows * 4L, 8);
+        MemorySegment newBodyChars = arena.allocate(rows * 4L, 8);
+        if (columnArena != null) {
+            MemorySegment.copy(ids, 0, newIds, 0, count * 8L);
+            MemorySegment.copy(recipients, 0, newRecipients, 0, count * 8L);
+            MemorySegment.copy(shapes, 0, newShapes, 0, count * 2L);
+            MemorySegment.copy(types, 0, newTypes, 0, count);
+            MemorySegment.copy(flags, 0, newFlags, 0, count);
+            MemorySegment.copy(textRefs, 0, newTextRefs, 0, count * 8L);
+            MemorySegment.copy(textLengths, 0, newTextLengths, 0, count * 4L);
+            MemorySegment.copy(hashLengths, 0, newHashLengths, 0, count * 4L);
+            MemorySegment.copy(bodyBytes, 0, newBodyBytes, 0, count * 4L);
+            MemorySegment.copy(bodyChars, 0, newBodyChars, 0, count * 4L);
+            columnArena.close();
+        }
+        columnArena = arena;
+        ids = newIds;
+        recipients = newRecipients;
+        shapes = newShapes;
+        types = newTypes;
+        flags = newFlags;
+        textRefs = newTextRefs;
+        textLengths = newTextLengths;
+        hashLengths = newHashLengths;
+        bodyBytes = newBodyBytes;
+        bodyChars = newBodyChars;
+        rowCapacity = rows;
+    }
+
+    /* Bump-allocate text space; large records get a dedicated slab. */
+    private long allocateText(int length) {
+        if (length > SLAB_SIZE / 4) {
+            slabs.add(textArena.allocate(Math.max(length, 1), 1));
+            return (long) (slabs.size() - 1) << 32;
+        }
+        if (currentSlab < 0 || slabUsed + length > SLAB_SIZE) {
+            slabs.add(textArena.allocate(SLAB_SIZE, 1));
+            currentSlab = slabs.size() - 1;
+            slabUsed = 0;
+        }
+        long ref = (long) currentSlab << 32 | slabUsed;
+        slabUsed += length;
+        return ref;
+    }
+
+    private void resetText() {
+        Arena old = textArena;
+        resetTextKeepingArena(Arena.ofShared());
+        old.close();
+    }
+
+    private void resetTextKeepingArena(Arena fresh) {
+        textArena = fresh;
+        slabs.clear();
+        currentSlab = -1;
+        slabUsed = 0;
+        deadTextBytes = 0;
+    }
+
+    private static long writeText(MemorySegment slab, long pos, byte[] text, boolean lengthPrefixed) {
+        if (text == null) {
+            return pos;
+        }
+        if (lengthPrefixed) {
+            slab.set(INT_UNALIGNED, pos, text.length);
+            pos += 4;
+        }
+        MemorySegment.copy(text, 0, slab, BYTE, pos, text.length);
+        return pos + text.length;
+    }
+
+    /* Skip the optional ID / recipient text that precedes the hash. */
+    private static long hashOffset(MemorySegment slab, long pos, int shape) {
+        if ((shape & 0x1F) == 0) {
+            pos += 4 + slab.get(INT_UNALIGNED, pos);
+        }
+        if ((shape >>> 5 & 0x1F) == 0) {
+            pos += 4 + slab.get(INT_UNALIGNED, pos);
+        }
+        return pos;
+    }
+
+    private static String readUtf8(MemorySegment slab, long pos, int length) {
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(slab, BYTE, pos, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void shiftDown(MemorySegment column, int width, int index, int tail) {
+        MemorySegment.copy(column, (long) (index + 1) * width, column, (long) index * width, (long) tail * width);
+    }
+
+    /* Digit count if text[from..] is 1–18 ASCII digits, otherwise 0. */
+    private static int packedDigits(String text, int from) {
+        int digits = text.length() - from;
+        if (digits < 1 || digits > MAX_PACKED_DIGITS) {
+            return 0;
+        }
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+        }
+        return digits;
+    }
+
+    private static String zeroPad(long value, int digits) {
+        String s = Long.toString(value);
+        return s.length() >= digits ? s : "0".repeat(digits - s.length()) + s;
+    }
+
+    private byte typeCode(String type) {
+        String name = nullToEmpty(type);
+        int code = typeNames.indexOf(name);
+        if (code < 0) {
+            if (typeNames.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct message types");
+            }
+            typeNames.add(name);
+            code = typeNames.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+        }
+    }
+
+    private static int slabOf(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static long offsetOf(long ref) {
+        return ref & 0xFFFFFFFFL;
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mycompany.structumessage;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 password hashing (JDK only, no extra dependency).
+ * <p>
+ * • Hashes are self-describing strings:
+ * <code>pbkdf2-sha256$&lt;iterations&gt;$&lt;salt&gt;$&lt;hash&gt;</code>, so the
+ * cost can be raised later without breaking existing users<br>
+ * • The default cost comes from the system property
+ * <code>quickchat.pbkdf2.iterations</code> (600 000 when unset, the OWASP
+ * figure for PBKDF2-HMAC-SHA256); use {@link PasswordHashBenchmark} to size
+ * it for the target hardware<br>
+ * • Verification compares in constant time
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : PBKDF2WithHmacSHA256 Password Storage
+  Author  : Oracle Java SE 21 API; OWASP Cheat Sheet Series
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/javax/crypto/SecretKeyFactory.html
+    • https://cheatsheetseries.owasp.org/cheatsheets/Password_Storage_Cheat_Sheet.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public final class PasswordHasher {
+
+    /**
+     * System property that overrides {@link #DEFAULT_ITERATIONS}.
+     */
+    public static final String ITERATIONS_PROPERTY = "quickchat.pbkdf2.iterations";
+    public static final int DEFAULT_ITERATIONS = 600_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final PasswordHasher DEFAULT
+            = new PasswordHasher(Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS));
+
+    private final int iterations;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * @param iterations PBKDF2 cost (work per hash and per verification)
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Hasher at the configured default cost.
+     */
+    public static PasswordHasher getDefault() {
+        return DEFAULT;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /* ───────────────────────── Hash / Verify ─────────────────────── */
+    /**
+     * Hash with a fresh random salt.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + b64.encodeToString(salt)
+                + "$" + b64.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Check a password against a hash produced by any cost setting.
+     *
+     * @return {@code false} for a wrong password or a malformed hash
+     */
+    public static boolean verify(String password, String encoded) {
+        if (password == null || encoded == null) {
+            return false;
+        }
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int cost = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return cost > 0 && MessageDigest.isEqual(expected, derive(password, salt, cost));
+        } catch (IllegalArgumentException malformed) {          // incl. NumberFormatException
+            return false;
+        }
+    }
+
+    /**
+     * {@code true} when the hash was made with a different cost than this
+     * hasher's (callers may re-hash after a successful login).
+     */
+    public boolean needsRehash(String encoded) {
+        String[] parts = encoded == null ? new String[0] : encoded.split("\\$");
+        return parts.length != 4 || !parts[1].equals(Integer.toString(iterations));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int cost) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, cost, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
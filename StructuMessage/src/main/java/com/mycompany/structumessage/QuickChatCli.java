@@ -0,0 +1,306 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command-line front end for headless machines: batch send, queries,
+ * journal compaction and export, straight against a {@link QuickChatEngine}.
+ * <p>
+ * • Never touches <code>javax.swing</code> or <code>java.awt</code>, so it
+ * runs without a display and starts without loading the toolkit<br>
+ * • Send appends to the journal without loading it (its counts are that
+ * run's); queries load it and print one journal-format JSON line per
+ * message<br>
+ * • Export streams raw journal lines to a file or stdout through the
+ * {@link JournalIndex}, without loading the stores<br>
+ * • <code>--timing</code> reports on stderr how long the JVM took to reach
+ * <code>main</code> and to finish
+ * <p>
+ * <pre>
+ * QuickChatCli [--journal FILE] [--capacity N] [--timing] COMMAND …
+ *   send RECIPIENT MESSAGE        send one message
+ *   send --file CSV               recipient,message[,send|store|discard] per line
+ *   query id ID | recipient NUMBER | longest | report | counts
+ *   compact                       keep only the last journal line per message
+ *   export recipient NUMBER [OUT] | export type TYPE [OUT]
+ * </pre>
+ * Exit status: 0 done, 1 something was rejected or not found, 2 usage.
+ * <code>StructuMessage</code> hands over to this class when it is started
+ * with arguments.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Headless Java &amp; Class-Data Sharing
+  Author  : Oracle Java SE 21 Tools Reference; OpenJDK JEP 350
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/specs/man/java.html#application-class-data-sharing
+    • https://openjdk.org/jeps/350
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public final class QuickChatCli {
+
+    public static final int OK = 0;
+    public static final int PARTIAL = 1;
+    public static final int USAGE = 2;
+
+    /**
+     * Per-category capacity when {@code --capacity} is not given (stores grow
+     * in chunks, so a large limit costs nothing up front).
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final String USAGE_TEXT = """
+            usage: QuickChatCli [--journal FILE] [--capacity N] [--timing] COMMAND ...
+              send RECIPIENT MESSAGE
+              send --file CSV            (recipient,message[,send|store|discard] per line)
+              query id ID | recipient NUMBER | longest | report | counts
+              compact
+              export recipient NUMBER [OUT] | export type TYPE [OUT]""";
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    QuickChatCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        long reachedMain = System.currentTimeMillis();
+        boolean timing = Arrays.asList(args).contains("--timing");
+        int status = new QuickChatCli(System.out, System.err).run(args);
+        System.out.flush();
+        if (timing) {
+            reportTiming(reachedMain);
+        }
+        System.exit(status);
+    }
+
+    /* ───────────────────────── Dispatch ─────────────────────── */
+    /**
+     * Run one command line.
+     *
+     * @return exit status
+     */
+    int run(String[] args) {
+        String journal = QuickChatEngine.DEFAULT_JOURNAL;
+        int capacity = DEFAULT_CAPACITY;
+        int i = 0;
+        try {
+            while (i < args.length && args[i].startsWith("--")) {
+                switch (args[i]) {
+                    case "--journal" ->
+                        journal = args[++i];
+                    case "--capacity" ->
+                        capacity = Integer.parseInt(args[++i]);
+                    case "--timing" -> {
+                        // handled in main
+                    }
+                    default -> {
+                        return usage("Unknown option " + args[i]);
+                    }
+                }
+                i++;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return usage("Bad option value");
+        }
+        if (i >= args.length) {
+            return usage(null);
+        }
+        String[] rest = Arrays.copyOfRange(args, i + 1, args.length);
+        QuickChatEngine engine = new QuickChatEngine(journal, capacity);
+        try {
+            return switch (args[i]) {
+                case "send" ->
+                    send(engine, rest);
+                case "query" ->
+                    query(engine, rest);
+                case "compact" ->
+                    compact(engine);
+                case "export" ->
+                    export(engine, rest);
+                case "help" ->
+                    usage(null);
+                default ->
+                    usage("Unknown command " + args[i]);
+            };
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return PARTIAL;
+        }
+    }
+
+    private int usage(String problem) {
+        if (problem != null) {
+            err.println(problem);
+        }
+        err.println(USAGE_TEXT);
+        return USAGE;
+    }
+
+    /* ───────────────────────── Commands ─────────────────────── */
+    /* One message, or a CSV file as one ingest batch (one journal write per batch). */
+    private int send(QuickChatEngine engine, String[] args) throws IOException {
+        List<IngestRequest> requests;
+        if (args.length == 2 && args[0].equals("--file")) {
+            requests = readCsv(Path.of(args[1]));
+        } else if (args.length == 2) {
+            requests = List.of(new IngestRequest(args[0], args[1], "send"));
+        } else {
+            return usage("send needs RECIPIENT MESSAGE or --file CSV");
+        }
+        int rejected = 0;
+        for (IngestResult r : engine.ingest(requests)) {
+            if (!r.status().accepted()) {
+                rejected++;
+                err.println("request " + (r.index() + 1) + ": " + r.status() + " - " + r.feedback());
+            } else if (requests.size() == 1) {
+                out.println(r.message().toJsonLine());
+            }
+        }
+        out.println("sent=" + engine.getSentCount() + " stored=" + engine.getStoreCount()
+                + " disregarded=" + engine.getDiscardCount() + " rejected=" + rejected);
+        return rejected == 0 ? OK : PARTIAL;
+    }
+
+    private int query(QuickChatEngine engine, String[] args) {
+        if (args.length == 0) {
+            return usage("query needs id, recipient, longest, report or counts");
+        }
+        engine.loadJournal();
+        List<Message> found;
+        switch (args[0]) {
+            case "id" -> {
+                if (args.length != 2) {
+                    return usage("query id ID");
+                }
+                Message m = engine.findSentByID(args[1]);
+                found = m == null ? List.of() : List.of(m);
+            }
+            case "recipient" -> {
+                if (args.length != 2) {
+                    return usage("query recipient NUMBER");
+                }
+                found = engine.searchByRecipient(args[1]);
+            }
+            case "longest" -> {
+                Message m = engine.longestSent();
+                found = m == null ? List.of() : List.of(m);
+            }
+            case "report" ->
+                found = engine.sent().snapshot();
+            case "counts" -> {
+                out.println("sent=" + engine.getSentCount() + " stored=" + engine.getStoreCount()
+                        + " disregarded=" + engine.getDiscardCount());
+                return OK;
+            }
+            default -> {
+                return usage("Unknown query " + args[0]);
+            }
+        }
+        for (Message m : found) {
+            out.println(m.toJsonLine());
+        }
+        return found.isEmpty() ? PARTIAL : OK;
+    }
+
+    private int compact(QuickChatEngine engine) throws IOException {
+        Path journal = Path.of(engine.getJournalPath());
+        long before = Files.exists(journal) ? Files.size(journal) : 0;
+        int dropped = engine.compactJournal();
+        if (dropped < 0) {
+            err.println("No journal at " + journal);
+            return PARTIAL;
+        }
+        out.println("dropped=" + dropped + " bytes=" + before + "->" + Files.size(journal));
+        return OK;
+    }
+
+    /* Raw journal lines via transferTo; stdout is written through its file descriptor. */
+    private int export(QuickChatEngine engine, String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3 || !(args[0].equals("recipient") || args[0].equals("type"))) {
+            return usage("export recipient NUMBER [OUT] or export type TYPE [OUT]");
+        }
+        JournalIndex index = engine.journalIndex();
+        long bytes;
+        if (args.length == 3) {
+            try (FileChannel target = FileChannel.open(Path.of(args[2]), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                bytes = exportTo(index, args, target);
+            }
+            err.println(bytes + " bytes written to " + args[2]);
+        } else {
+            out.flush();
+            FileChannel stdout = new FileOutputStream(FileDescriptor.out).getChannel();   // not closed: stdout stays open
+            bytes = exportTo(index, args, stdout);
+        }
+        return bytes > 0 ? OK : PARTIAL;
+    }
+
+    private static long exportTo(JournalIndex index, String[] args, FileChannel target) throws IOException {
+        return args[0].equals("recipient") ? index.exportRecipient(args[1], target) : index.exportType(args[1], target);
+    }
+
+    /* ───────────────────────── Helpers ─────────────────────── */
+    /* recipient,message[,action]: the message may hold commas; '#' lines are comments. */
+    static List<IngestRequest> readCsv(Path file) throws IOException {
+        List<IngestRequest> requests = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    requests.add(new IngestRequest(line.trim(), null, "send"));   // rejected as empty
+                    continue;
+                }
+                String recipient = line.substring(0, comma).trim();
+                String body = line.substring(comma + 1);
+                String action = "send";
+                int last = body.lastIndexOf(',');
+                if (last >= 0) {
+                    String tail = body.substring(last + 1).trim().toLowerCase();
+                    if (tail.equals("send") || tail.equals("store") || tail.equals("discard")) {
+                        action = tail;
+                        body = body.substring(0, last);
+                    }
+                }
+                requests.add(new IngestRequest(recipient, body, action));
+            }
+        }
+        return requests;
+    }
+
+    /* Management classes load only here, after everything measured. */
+    private static void reportTiming(long reachedMain) {
+        long done = System.currentTimeMillis();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.println("startup: " + (reachedMain - jvmStart) + " ms to main, "
+                + (done - reachedMain) + " ms in main");
+    }
+}
@@ -0,0 +1,246 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipelining client for {@link QuickChatServer}.
+ * <p>
+ * • Every call writes its request and returns a future straight away, so
+ * one connection can have any number of requests in flight<br>
+ * • A reader virtual thread completes the futures as responses arrive<br>
+ * • With auto-flush off, requests collect in the write buffer until
+ * {@link #flush()} (or the buffer fills), which turns a burst of calls
+ * into a few large writes
+ * <p>
+ * Thread-safe: calls from several threads are written whole, one after the
+ * other.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Request Pipelining &amp; CompletableFuture Correlation
+  Author  : Oracle Java SE 21 API; RFC 9112 §9.3.2 (HTTP/1.1 pipelining)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/CompletableFuture.html
+    • https://www.rfc-editor.org/rfc/rfc9112#section-9.3.2
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class QuickChatClient implements AutoCloseable {
+
+    /**
+     * One decoded response.
+     *
+     * @param status {@link QuickChatServer#OK}, {@link QuickChatServer#NOT_FOUND},
+     * {@link QuickChatServer#REJECTED} or {@link QuickChatServer#BAD_REQUEST}
+     * @param text ingest status name, report counts or error text
+     * @param messages messages returned (copies, not the server's objects)
+     */
+    public record Response(int status, String text, List<Message> messages) {
+
+        public boolean ok() {
+            return status == QuickChatServer.OK;
+        }
+
+        /**
+         * First message, or {@code null}.
+         */
+        public Message message() {
+            return messages.isEmpty() ? null : messages.get(0);
+        }
+    }
+
+    private final SocketChannel channel;
+    private final DataOutputStream out;
+    private final Map<Integer, CompletableFuture<Response>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextID = new AtomicInteger();
+    private final Thread reader;
+    private volatile boolean autoFlush = true;
+    private volatile IOException failure;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Connect to a server on this machine.
+     */
+    public QuickChatClient(int port) throws IOException {
+        this(new InetSocketAddress("127.0.0.1", port));
+    }
+
+    public QuickChatClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        this.reader = Thread.ofVirtual().name("quickchat-client-reader").start(() -> readLoop(in));
+    }
+
+    /**
+     * {@code true} (default): send each request immediately.
+     * {@code false}: requests wait in the buffer for {@link #flush()}.
+     */
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+
+    /* ───────────────────────── Operations ─────────────────────── */
+    public CompletableFuture<Response> send(String recipient, String body) {
+        return request(QuickChatServer.OP_SEND, recipient, body);
+    }
+
+    public CompletableFuture<Response> store(String recipient, String body) {
+        return request(QuickChatServer.OP_STORE, recipient, body);
+    }
+
+    public CompletableFuture<Response> discard(String recipient, String body) {
+        return request(QuickChatServer.OP_DISCARD, recipient, body);
+    }
+
+    public CompletableFuture<Response> findByID(String messageID) {
+        return request(QuickChatServer.OP_FIND_ID, messageID);
+    }
+
+    /**
+     * Sent then stored messages for a recipient.
+     */
+    public CompletableFuture<Response> findByRecipient(String recipient) {
+        return request(QuickChatServer.OP_FIND_RECIPIENT, recipient);
+    }
+
+    public CompletableFuture<Response> deleteByHash(String hash) {
+        return request(QuickChatServer.OP_DELETE_HASH, hash);
+    }
+
+    /**
+     * Move a sent message to the disregarded store.
+     */
+    public CompletableFuture<Response> disregard(String messageID) {
+        return request(QuickChatServer.OP_DISREGARD_ID, messageID);
+    }
+
+    public CompletableFuture<Response> longest() {
+        return request(QuickChatServer.OP_LONGEST);
+    }
+
+    /**
+     * Every sent message, with the three store counts as text.
+     */
+    public CompletableFuture<Response> report() {
+        return request(QuickChatServer.OP_REPORT);
+    }
+
+    /* Raw request; exposed for protocol tests. */
+    CompletableFuture<Response> request(byte op, String... args) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        IOException failed = failure;
+        if (failed != null) {
+            future.completeExceptionally(failed);
+            return future;
+        }
+        int id = nextID.incrementAndGet();
+        pending.put(id, future);
+        try {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(64);
+            DataOutputStream body = new DataOutputStream(frame);
+            body.writeInt(id);
+            body.writeByte(op);
+            for (String arg : args) {
+                body.writeUTF(arg);
+            }
+            synchronized (out) {
+                out.writeInt(frame.size());
+                frame.writeTo(out);
+                if (autoFlush) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(id);
+            future.completeExceptionally(e);
+        }
+        IOException lost = failure;                        // reader died while we were writing
+        if (lost != null && pending.remove(id) != null) {
+            future.completeExceptionally(lost);
+        }
+        return future;
+    }
+
+    /**
+     * Send every buffered request.
+     */
+    public void flush() throws IOException {
+        synchronized (out) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Requests written but not yet answered.
+     */
+    public int inFlight() {
+        return pending.size();
+    }
+
+    /**
+     * Close the connection; unanswered requests fail.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* ───────────────────────── Responses ─────────────────────── */
+    private void readLoop(DataInputStream in) {
+        try {
+            while (true) {
+                in.readInt();                              // frame length (fields are self-delimiting)
+                int id = in.readInt();
+                int status = in.readByte();
+                String text = in.readUTF();
+                int count = in.readInt();
+                List<Message> messages = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    messages.add(QuickChatServer.readMessage(in));
+                }
+                CompletableFuture<Response> future = pending.remove(id);
+                if (future != null) {
+                    future.complete(new Response(status, text, List.copyOf(messages)));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            for (Integer id : pending.keySet()) {
+                CompletableFuture<Response> future = pending.remove(id);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
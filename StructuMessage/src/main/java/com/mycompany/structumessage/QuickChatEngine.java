@@ -0,0 +1,952 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * One self-contained QuickChat message engine (no Swing, no static state).
+ * <p>
+ * Each instance owns:
+ * <ul>
+ * <li>its sent / stored / disregarded {@link MessageStore}s (and with them
+ * the counters and ID / hash indexes);</li>
+ * <li>its own JSON-line journal path.</li>
+ * </ul>
+ * Many engines can live in one JVM (one per tenant, one per test class).
+ * {@link StructuMessage} keeps its static methods as a thin Swing facade over
+ * {@link #defaultEngine()}.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatEngine {
+
+    /* ──────────────── Defaults used by the Swing app ─────────────── */
+    /**
+     * Journal file the original app always wrote to.
+     */
+    public static final String DEFAULT_JOURNAL = "messages.json";
+    /**
+     * Per-category limit of the original fixed-size arrays.
+     */
+    public static final int DEFAULT_CAPACITY = 100;
+    /**
+     * Messages persisted per journal write by {@link #ingest(Iterable)}.
+     */
+    public static final int DEFAULT_INGEST_BATCH = 1024;
+
+    private static final QuickChatEngine DEFAULT_ENGINE
+            = new QuickChatEngine(DEFAULT_JOURNAL, DEFAULT_CAPACITY);
+
+    /* ─────────── Instance state ─────────── */
+    private final String journalPath;
+    private final AggregatingMessageStore sentMessages;  // report figures kept up to date
+    private final AggregatingMessageStore storedMessages;
+    private final AggregatingMessageStore disregardedMessages;
+    private final BroadcastStore broadcasts;
+    private final BodyStore bodies;
+    private final JournalIndex journalIndex;
+    private final MessagePublisher publisher = new MessagePublisher();
+    private volatile boolean internBodies;               // share identical bodies via `bodies`
+    private volatile boolean journalBodyRefs;            // … and journal them by key
+    private volatile AsyncJournal asyncJournal;          // null = synchronous appends
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();   // appends share, compaction excludes
+    private volatile RateLimiter recipientLimiter;       // null = unthrottled
+    private volatile RateLimiter senderLimiter;
+    private volatile DedupWindow dedupWindow;            // null = duplicates allowed
+    private CompletableFuture<Integer> backgroundLoad;   // guarded by `this`; null = none started
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Engine with concurrent on-heap stores.
+     *
+     * @param journalPath JSON-line file this engine appends to and loads from
+     * @param capacity per-category message limit
+     */
+    public QuickChatEngine(String journalPath, int capacity) {
+        this(journalPath, new ConcurrentMessageStore(capacity),
+                new ConcurrentMessageStore(capacity), new ConcurrentMessageStore(capacity));
+    }
+
+    /**
+     * Engine over caller-supplied stores (e.g. {@link OffHeapMessageStore}),
+     * each wrapped in an {@link AggregatingMessageStore}.
+     */
+    public QuickChatEngine(String journalPath, MessageStore sent,
+            MessageStore stored, MessageStore disregarded) {
+        this.journalPath = journalPath;
+        this.sentMessages = new AggregatingMessageStore(sent);
+        this.storedMessages = new AggregatingMessageStore(stored);
+        this.disregardedMessages = new AggregatingMessageStore(disregarded);
+        this.broadcasts = new BroadcastStore(BroadcastStore.forJournal(journalPath));
+        this.bodies = new BodyStore(BodyStore.forJournal(journalPath));
+        this.journalIndex = new JournalIndex(Path.of(journalPath));
+    }
+
+    /**
+     * Shared engine behind the static {@link StructuMessage} API.
+     */
+    public static QuickChatEngine defaultEngine() {
+        return DEFAULT_ENGINE;
+    }
+
+    /* ──────────────── Accessors ─────────────── */
+    public String getJournalPath() {
+        return journalPath;
+    }
+
+    public MessageStore sent() {
+        return sentMessages;
+    }
+
+    public MessageStore stored() {
+        return storedMessages;
+    }
+
+    public MessageStore disregarded() {
+        return disregardedMessages;
+    }
+
+    /**
+     * Broadcasts sent through {@link #broadcast}; call its
+     * {@link BroadcastStore#load()} at start-up to bring back earlier ones.
+     */
+    public BroadcastStore broadcasts() {
+        return broadcasts;
+    }
+
+    /**
+     * Shared message bodies (see {@link #setBodyInterning}).
+     */
+    public BodyStore bodies() {
+        return bodies;
+    }
+
+    /**
+     * Offset index over this engine's journal, for exports straight from
+     * the file; it catches up with appends on every export. Messages still
+     * queued in an {@link #startAsyncJournal async journal} are not on disk
+     * yet, so they are not exported.
+     */
+    public JournalIndex journalIndex() {
+        return journalIndex;
+    }
+
+    /**
+     * Emits every message as it enters the sent, stored or disregarded
+     * store through this engine (routing, ingest, sending drafts,
+     * disregarding), for live views that would otherwise poll the counts.
+     */
+    public MessagePublisher publisher() {
+        return publisher;
+    }
+
+    public int getSentCount() {
+        return sentMessages.size();
+    }
+
+    public int getStoreCount() {
+        return storedMessages.size();
+    }
+
+    public int getDiscardCount() {
+        return disregardedMessages.size();
+    }
+
+    /* ───────────────────── Message Routing ──────────────────── */
+    /**
+     * Tag the message with its category, append it to the journal and add it
+     * to the matching store.
+     *
+     * @param type "sent", "stored" or "disregarded"
+     * @return {@code false} if the category's store is full, or the async
+     * journal dropped the message (see {@link #startAsyncJournal})
+     */
+    public boolean route(Message msg, String type) {
+        MessageStore target = storeFor(type);
+        msg.setMessageType(type);
+        internBody(msg);
+        AsyncJournal async = asyncJournal;
+        if (async == null) {
+            appendToFile(List.of(msg));
+        } else if (!async.append(msg)) {
+            bodies.release(msg.getMessage());
+            return false;
+        }
+        if (target.add(msg)) {
+            publisher.publish(msg);
+            return true;
+        }
+        bodies.release(msg.getMessage());
+        return false;
+    }
+
+    /**
+     * From now on hand journal writes to a background writer behind a
+     * {@link RingBuffer} instead of appending on the caller's thread.
+     *
+     * @param overflow what a sender does when the writer has fallen
+     * {@code ringSize} messages behind ({@link #route} reports a DROP as
+     * {@code false}; {@link #ingest(Iterable)} still indexes such messages)
+     */
+    public synchronized AsyncJournal startAsyncJournal(int ringSize, RingBuffer.WaitStrategy waitStrategy,
+            RingBuffer.Overflow overflow) throws IOException {
+        if (asyncJournal != null) {
+            throw new IllegalStateException("Async journal already running");
+        }
+        asyncJournal = new AsyncJournal(journalPath, ringSize, waitStrategy, overflow);
+        return asyncJournal;
+    }
+
+    /**
+     * Flush and stop the background writer; later writes are synchronous.
+     */
+    public synchronized void stopAsyncJournal() throws IOException {
+        AsyncJournal async = asyncJournal;
+        asyncJournal = null;
+        if (async != null) {
+            async.close();
+        }
+    }
+
+    /*
+     * One batch to the journal: straight to the file, or through the ring.
+     * Every writer (ingest, SendPipeline, DraftScheduler, sendStored) goes
+     * through here, so lines reach the file in the order they were handed in.
+     * Returns the messages the ring dropped (Overflow.DROP), usually none.
+     */
+    List<Message> journal(List<Message> batch) {
+        AsyncJournal async = asyncJournal;
+        if (async == null) {
+            appendToFile(batch);
+            return List.of();
+        }
+        List<Message> dropped = List.of();
+        for (Message msg : batch) {
+            if (!async.append(msg)) {
+                if (dropped.isEmpty()) {
+                    dropped = new ArrayList<>();
+                }
+                dropped.add(msg);
+            }
+        }
+        return dropped;
+    }
+
+    /* Synchronous append: alongside other appends, never during compactJournal. */
+    private void appendToFile(List<Message> batch) {
+        journalLock.readLock().lock();
+        try {
+            Message.appendAllToJournal(journalPath, batch);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Ingest / SendPipeline batch to the journal; requests whose message the
+     * ring dropped are taken out of the dedup window so a retry gets in.
+     */
+    void journalAdmitted(List<Message> batch) {
+        for (Message msg : journal(batch)) {
+            forgetAdmitted(msg);
+        }
+    }
+
+    /**
+     * Store for a category name (case-insensitive).
+     *
+     * @throws IllegalArgumentException for unknown categories
+     */
+    public AggregatingMessageStore storeFor(String type) {
+        return switch (type.toLowerCase()) {
+            case "sent" ->
+                sentMessages;
+            case "stored" ->
+                storedMessages;
+            case "disregarded" ->
+                disregardedMessages;
+            default ->
+                throw new IllegalArgumentException("Unknown message type: " + type);
+        };
+    }
+
+    /* ───────────────────── Body De-duplication ──────────────────── */
+    /**
+     * Share identical bodies: every message routed, ingested or loaded from
+     * now on holds the {@link BodyStore}'s single copy of its text, and
+     * deleting messages gives the reference back (call
+     * {@link BodyStore#compact()} to drop unused bodies). Only heap stores
+     * keep the shared copy; {@link OffHeapMessageStore} re-creates bodies on
+     * read.
+     *
+     * @param intern turn sharing on or off
+     * @param journalRefs also journal bodies by key (<code>"bodyRef"</code>
+     * instead of <code>"message"</code>), with each distinct body written
+     * once to the <code>.bodies</code> sidecar; journals written this way
+     * are read back by {@link #loadJournal}, not by
+     * {@link Message#readMessagesFromFile} alone
+     */
+    public void setBodyInterning(boolean intern, boolean journalRefs) {
+        this.internBodies = intern;
+        this.journalBodyRefs = intern && journalRefs;
+    }
+
+    /* Swap in the shared body (and its key, when journalled by reference). */
+    void internBody(Message msg) {
+        if (!internBodies || msg.getMessage() == null) {
+            return;
+        }
+        BodyStore.Body body = bodies.intern(msg.getMessage(), journalBodyRefs);
+        msg.useBody(body.text(), journalBodyRefs && body.persisted() ? body.key() : null);
+    }
+
+    /* ───────────────────── Broadcast ──────────────────── */
+    /**
+     * Send one text to many recipients: one body copy in memory, one record
+     * in the broadcast journal (see {@link Broadcast}) instead of a
+     * {@link Message} and a journal line per recipient. Recipients that are
+     * not valid <code>+digits</code> numbers are skipped.
+     *
+     * @return the broadcast, or {@code null} when no recipient was valid
+     * @throws IllegalArgumentException if the body is empty or too long
+     * @throws IOException if the broadcast journal cannot be written
+     */
+    public Broadcast broadcast(String body, Iterable<String> recipients) throws IOException {
+        String feedback = body == null ? "Message is empty." : Message.validateMessageLength(body);
+        if (!"Message ready to send.".equals(feedback)) {
+            throw new IllegalArgumentException(feedback);
+        }
+        long[] packed = new long[64];
+        int count = 0;
+        for (String recipient : recipients) {
+            long p = recipient != null && Message.checkRecipientCell(recipient) ? Broadcast.pack(recipient) : -1;
+            if (p < 0) {
+                continue;
+            }
+            if (count == packed.length) {
+                packed = Arrays.copyOf(packed, count * 2);
+            }
+            packed[count++] = p;
+        }
+        if (count == 0) {
+            return null;
+        }
+        Broadcast b = new Broadcast(Message.generateMessageID(), body,
+                System.currentTimeMillis(), Arrays.copyOf(packed, count));
+        broadcasts.add(b);
+        return b;
+    }
+
+    /* ───────────────────── Send Throttling ──────────────────── */
+    /**
+     * Throttle the send path: {@link #tryAcquireSend} (the Swing
+     * <code>sendMessage</code>) and every "send" through {@link #ingest} or
+     * {@link SendPipeline}. Drafts and discards are never throttled.
+     *
+     * @param perRecipient limiter keyed by recipient number, or {@code null}
+     * @param perSender limiter keyed by username, or {@code null}
+     */
+    public void setRateLimits(RateLimiter perRecipient, RateLimiter perSender) {
+        this.recipientLimiter = perRecipient;
+        this.senderLimiter = perSender;
+    }
+
+    /**
+     * Take one send permit for this sender and recipient. The sender is
+     * checked first, so a flooding user does not use up a recipient's
+     * allowance.
+     *
+     * @param sender username, or {@code null} when unknown (headless ingest)
+     * @return {@code false} if either limit is exceeded
+     */
+    public boolean tryAcquireSend(String sender, String recipient) {
+        RateLimiter perSender = senderLimiter;
+        if (perSender != null && sender != null && !perSender.tryAcquire(sender)) {
+            return false;
+        }
+        RateLimiter perRecipient = recipientLimiter;
+        return perRecipient == null || perRecipient.tryAcquire(recipient);
+    }
+
+    /**
+     * Drop retries: a request to {@link #ingest} or {@link SendPipeline}
+     * whose recipient, body and action were already accepted within the
+     * window comes back {@link IngestStatus#DUPLICATE} and is neither
+     * journalled nor stored.
+     *
+     * @param window the window, or {@code null} to turn de-duplication off
+     */
+    public void setDedupWindow(DedupWindow window) {
+        this.dedupWindow = window;
+    }
+
+    /* ───────────────────── Headless Batch Ingest ──────────────────── */
+    /**
+     * One message to ingest: what the three <code>sendMessage</code> dialogs
+     * would have collected.
+     *
+     * @param recipient E.164 number e.g. <code>+2783…</code>
+     * @param body message text (≤ 250 chars)
+     * @param action "send", "discard" or "store" (case-insensitive)
+     */
+    public record IngestRequest(String recipient, String body, String action) {
+
+    }
+
+    /**
+     * Outcome of one ingested item.
+     */
+    public enum IngestStatus {
+        SENT, DISREGARDED, STORED, INVALID_RECIPIENT, INVALID_LENGTH, INVALID_ACTION, STORE_FULL,
+        RATE_LIMITED, DUPLICATE;
+
+        /**
+         * {@code true} when the message made it into a store.
+         */
+        public boolean accepted() {
+            return this == SENT || this == DISREGARDED || this == STORED;
+        }
+    }
+
+    /**
+     * Per-item result, in input order.
+     *
+     * @param index zero-based position in the input (also the hash's
+     * message number)
+     * @param status what happened
+     * @param message the routed message, {@code null} when validation failed
+     * @param feedback the text <code>sendMessage</code> would have shown
+     */
+    public record IngestResult(int index, IngestStatus status, Message message, String feedback) {
+
+    }
+
+    /**
+     * Headless equivalent of <code>StructuMessage.sendMessage</code> for many
+     * messages: same validation, hashing and routing, no dialogs. Input is
+     * consumed in batches of {@link #DEFAULT_INGEST_BATCH}; every batch's
+     * accepted messages are appended to the journal with a single write
+     * (messages refused by a full store are not journaled).
+     */
+    public List<IngestResult> ingest(Iterable<IngestRequest> requests) {
+        return ingest(requests.iterator(), DEFAULT_INGEST_BATCH);
+    }
+
+    /**
+     * {@link #ingest(Iterable)} for a stream (consumed lazily, in order).
+     */
+    public List<IngestResult> ingest(Stream<IngestRequest> requests) {
+        return ingest(requests.sequential().iterator(), DEFAULT_INGEST_BATCH);
+    }
+
+    List<IngestResult> ingest(Iterator<IngestRequest> requests, int batchSize) {
+        List<IngestResult> results = new ArrayList<>();
+        List<Message> journalBatch = new ArrayList<>(batchSize);
+        int index = 0;
+        while (requests.hasNext()) {
+            IngestResult result = ingestOne(requests.next(), index++);
+            results.add(result);
+            if (result.status().accepted()) {
+                journalBatch.add(result.message());
+            }
+            if (index % batchSize == 0) {
+                journalAdmitted(journalBatch);
+                journalBatch.clear();
+            }
+        }
+        journalAdmitted(journalBatch);
+        return results;
+    }
+
+    /* Validate → hash → route one request (journal write left to the batch). */
+    private IngestResult ingestOne(IngestRequest request, int index) {
+        IngestResult rejected = checkRequest(request, index);
+        if (rejected == null) {
+            rejected = admit(request, index);
+        }
+        if (rejected != null) {
+            return rejected;
+        }
+        Message msg = hashRequest(request, index);
+        internBody(msg);                                   // before the batch is journalled
+        return indexMessage(msg, index);
+    }
+
+    /*
+     * Validation step (the steps below are shared with SendPipeline, which
+     * runs each one as its own stage): the failure result, or null when the
+     * request is valid.
+     */
+    static IngestResult checkRequest(IngestRequest request, int index) {
+        String recipient = request.recipient();
+        if (recipient == null || !Message.checkRecipientCell(recipient)) {
+            return new IngestResult(index, IngestStatus.INVALID_RECIPIENT, null,
+                    "Cell phone number is incorrectly formatted.");
+        }
+        String body = request.body();
+        String feedback = body == null ? "Message is empty." : Message.validateMessageLength(body);
+        if (!"Message ready to send.".equals(feedback)) {
+            return new IngestResult(index, IngestStatus.INVALID_LENGTH, null, feedback);
+        }
+        if (typeFor(request.action()) == null) {
+            return new IngestResult(index, IngestStatus.INVALID_ACTION, null, "Invalid option.");
+        }
+        return null;
+    }
+
+    /*
+     * Throttling, then de-duplication (valid requests only, so junk does not
+     * use up permits; throttled requests are not remembered, so their retry
+     * is not mistaken for a duplicate). The fingerprint is reserved here, so
+     * racing copies cannot both pass; indexMessage and journalAdmitted hand
+     * it back if the message does not land after all.
+     */
+    IngestResult admit(IngestRequest request, int index) {
+        String type = typeFor(request.action());
+        if ("sent".equals(type) && !tryAcquireSend(null, request.recipient())) {
+            return new IngestResult(index, IngestStatus.RATE_LIMITED, null,
+                    "Too many messages to this recipient. Try again later.");
+        }
+        DedupWindow window = dedupWindow;
+        if (window != null && !window.firstSeen(request.recipient(), request.body(), type)) {
+            return new IngestResult(index, IngestStatus.DUPLICATE, null, "Duplicate message ignored.");
+        }
+        return null;
+    }
+
+    /* Hashing: new ID + hash, tagged with its category (request already valid). */
+    static Message hashRequest(IngestRequest request, int index) {
+        Message msg = new Message(request.recipient(), request.body(), index);
+        msg.setMessageType(typeFor(request.action()));
+        return msg;
+    }
+
+    /* Indexing: add to the category's store. */
+    IngestResult indexMessage(Message msg, int index) {
+        String type = msg.getMessageType();
+        boolean added = storeFor(type).add(msg);
+        if (added) {
+            publisher.publish(msg);
+        } else {
+            bodies.release(msg.getMessage());
+            forgetAdmitted(msg);                           // its retry is not a duplicate
+        }
+        return switch (type) {
+            case "sent" -> added
+                ? new IngestResult(index, IngestStatus.SENT, msg, msg.printDetails())
+                : new IngestResult(index, IngestStatus.STORE_FULL, msg, "Message storage full.");
+            case "disregarded" -> added
+                ? new IngestResult(index, IngestStatus.DISREGARDED, msg, "Message discarded.")
+                : new IngestResult(index, IngestStatus.STORE_FULL, msg, "Disregarded message storage full.");
+            default -> added
+                ? new IngestResult(index, IngestStatus.STORED, msg, "Message successfully stored.")
+                : new IngestResult(index, IngestStatus.STORE_FULL, msg, "Stored message array full.");
+        };
+    }
+
+    /* Release a fingerprint admit() reserved (no-op without a window). */
+    private void forgetAdmitted(Message msg) {
+        DedupWindow window = dedupWindow;
+        if (window != null) {
+            window.forget(msg.getRecipient(), msg.getMessage(), msg.getMessageType());
+        }
+    }
+
+    /* "send" / "discard" / "store" → category name, null for anything else. */
+    private static String typeFor(String action) {
+        return switch (action == null ? "" : action.toLowerCase()) {
+            case "send" ->
+                "sent";
+            case "discard" ->
+                "disregarded";
+            case "store" ->
+                "stored";
+            default ->
+                null;
+        };
+    }
+
+    /* ───────────────────── Journal Loading ──────────────────── */
+    /**
+     * Distribute every journal entry into the matching store. A message
+     * journalled more than once (e.g. a draft that was later sent, or
+     * scheduled and cancelled) is loaded once, as its last entry; see
+     * {@link #supersedeKey} for what counts as the same message.
+     *
+     * @return messages loaded, or -1 when the journal file does not exist
+     */
+    public int loadJournal() {
+        if (!new File(journalPath).exists()) {
+            return -1;
+        }
+        int loaded = 0;
+        for (Message msg : readJournalFolded()) {
+            String type = msg.getMessageType().toLowerCase();
+            switch (type) {
+                case "sent", "stored", "disregarded" -> {
+                    addInterned(storeFor(type), msg);
+                    loaded++;
+                }
+                default -> {
+                    // unknown category – skipped, as before
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Start {@link #loadJournal} and a {@link JournalIndex#refresh} on a
+     * background thread, so the caller can get on with other work (the
+     * Swing app shows its registration dialogs meanwhile). One pass over the
+     * journal fills all three stores. Later calls return the same future.
+     * <p>
+     * Nothing should read or change the stores until the future completes;
+     * {@link #awaitJournal()} is the usual way to wait.
+     *
+     * @return completes with what {@link #loadJournal} returned
+     */
+    public synchronized CompletableFuture<Integer> loadJournalInBackground() {
+        if (backgroundLoad == null) {
+            CompletableFuture<Integer> load = new CompletableFuture<>();
+            Thread loader = new Thread(() -> {
+                try {
+                    int loaded = loadJournal();
+                    journalIndex.refresh();
+                    load.complete(loaded);
+                } catch (Throwable t) {
+                    load.completeExceptionally(t);
+                }
+            }, "journal-loader");
+            loader.setDaemon(true);
+            backgroundLoad = load;
+            loader.start();
+        }
+        return backgroundLoad;
+    }
+
+    /**
+     * Block until a load started by {@link #loadJournalInBackground} is done;
+     * returns at once when none was started.
+     *
+     * @return messages loaded, -1 when the journal file does not exist, or
+     * -2 when no background load was started
+     * @throws CompletionException if the load failed
+     */
+    public int awaitJournal() {
+        CompletableFuture<Integer> load;
+        synchronized (this) {
+            load = backgroundLoad;
+        }
+        return load == null ? -2 : load.join();
+    }
+
+    /**
+     * Load only the “stored” entries of the journal. {@link #loadJournal}
+     * already loads them; this is for an engine whose sent and disregarded
+     * stores were filled some other way.
+     */
+    public void loadStoredFromJournal() {
+        for (Message msg : readJournalFolded()) {
+            if ("stored".equalsIgnoreCase(msg.getMessageType())) {
+                addInterned(storedMessages, msg);
+            }
+        }
+    }
+
+    /*
+     * Journal entries, last one per message, in order of that last entry,
+     * with by-key bodies resolved from the sidecar.
+     */
+    private List<Message> readJournalFolded() {
+        return fold(Message.readMessagesFromFile(journalPath));
+    }
+
+    /**
+     * Key under which a later journal line replaces an earlier one: the
+     * message ID plus its hash and recipient. Every rewrite of a message
+     * (sending a draft, scheduling or cancelling it) repeats all three, but
+     * IDs are only 10 random digits, so two different messages can draw the
+     * same ID; the hash (message number and first / last word) and the
+     * recipient keep such messages apart instead of merging them on load.
+     * {@link JournalIndex} folds by the same key.
+     */
+    static String supersedeKey(String id, String hash, String recipient) {
+        return id + '|' + hash + '|' + recipient;
+    }
+
+    private List<Message> fold(List<Message> entries) {
+        LinkedHashMap<String, Message> latest = new LinkedHashMap<>();
+        for (Message msg : entries) {
+            String key = supersedeKey(msg.getMessageID(), msg.getMessageHash(), msg.getRecipient());
+            latest.remove(key);
+            latest.put(key, msg);
+        }
+        boolean sidecarRead = false;
+        for (Message msg : latest.values()) {
+            if (msg.getBodyRef() == null) {
+                continue;
+            }
+            String text = bodies.resolve(msg.getBodyRef());
+            if (text == null && !sidecarRead) {
+                sidecarRead = true;                        // at most once per load
+                try {
+                    bodies.load();
+                } catch (IOException e) {
+                    System.out.println("Error reading message bodies: " + e.getMessage());
+                }
+                text = bodies.resolve(msg.getBodyRef());
+            }
+            msg.useBody(text != null ? text : "", msg.getBodyRef());
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * Rewrite the journal with only the last line of each message (what
+     * {@link #loadJournal} would keep), through a temporary file moved into
+     * place. Lines that refer to bodies by key keep referring to them.
+     * Synchronous appends ({@link #route}, {@link #ingest(Iterable)}, …)
+     * wait until the new file is in place, so none lands in the old one
+     * after it was read.
+     *
+     * @return lines dropped, or -1 when the journal file does not exist
+     * @throws IllegalStateException while an async journal is running
+     */
+    public synchronized int compactJournal() throws IOException {
+        if (asyncJournal != null) {
+            throw new IllegalStateException("Stop the async journal before compacting");
+        }
+        journalLock.writeLock().lock();
+        try {
+            if (!new File(journalPath).exists()) {
+                return -1;
+            }
+            List<Message> entries = Message.readMessagesFromFile(journalPath);
+            List<Message> kept = fold(entries);
+            Path journal = Path.of(journalPath);
+            Path temp = Path.of(journalPath + ".compact");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Message msg : kept) {
+                    writer.write(msg.toJsonLine());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalIndex.reset();                          // its offsets were into the old file
+            return entries.size() - kept.size();
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    /* Journal entries carry no arrival time; the reports leave theirs unset. */
+    private void addInterned(AggregatingMessageStore store, Message msg) {
+        internBody(msg);
+        if (!store.addLoaded(msg)) {
+            bodies.release(msg.getMessage());
+        }
+    }
+
+    /* ───────────────────── Queries / Maintenance ──────────────────── */
+    /**
+     * Sent message with this ID, or {@code null}.
+     */
+    public Message findSentByID(String id) {
+        int index = sentMessages.indexOfID(id);
+        return index >= 0 ? sentMessages.get(index) : null;
+    }
+
+    /**
+     * Sent messages followed by stored messages for one recipient.
+     */
+    public List<Message> searchByRecipient(String recipient) {
+        List<Message> found = new ArrayList<>();
+        for (Message m : sentMessages.snapshot()) {
+            if (m.getRecipient().equals(recipient)) {
+                found.add(m);
+            }
+        }
+        for (Message m : storedMessages.snapshot()) {
+            if (m.getRecipient().equals(recipient)) {
+                found.add(m);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Longest sent message, or {@code null} when nothing was sent (kept up
+     * to date on every change; one scan after the longest is removed).
+     */
+    public Message longestSent() {
+        return sentMessages.longest();
+    }
+
+    /**
+     * How many sent messages one recipient has and when the last was sent
+     * in this run (0 if all were loaded from the journal), or {@code null}
+     * if none.
+     */
+    public AggregatingMessageStore.RecipientStats sentTo(String recipient) {
+        return sentMessages.recipient(recipient);
+    }
+
+    /**
+     * Distinct recipients of the sent messages.
+     */
+    public int sentRecipientCount() {
+        return sentMessages.recipientCount();
+    }
+
+    /**
+     * Every recipient of the sent messages, most messages first.
+     */
+    public List<AggregatingMessageStore.RecipientStats> sentRecipients() {
+        return sentMessages.recipients();
+    }
+
+    /**
+     * Remove the first sent message with this hash.
+     *
+     * @return the removed message, or {@code null} if none matched
+     */
+    public Message deleteSentByHash(String hash) {
+        int index = sentMessages.indexOfHash(hash);
+        if (index < 0) {
+            return null;
+        }
+        Message removed = sentMessages.removeAt(index);
+        bodies.release(removed.getMessage());
+        return removed;
+    }
+
+    /**
+     * Move a sent message to the disregarded store.
+     *
+     * @return the moved message, or {@code null} if the ID is unknown
+     */
+    public Message disregardSentByID(String id) {
+        int index = sentMessages.indexOfID(id);
+        if (index < 0) {
+            return null;
+        }
+        Message moved = sentMessages.removeAt(index);
+        moved.setMessageType("disregarded");
+        if (disregardedMessages.add(moved)) {
+            publisher.publish(moved);
+        }
+        return moved;
+    }
+
+    /**
+     * Send one stored draft; see {@link #sendStored(Collection)}.
+     *
+     * @return the sent message, or {@code null} if no draft has this ID or
+     * the sent store is full
+     */
+    public Message sendStored(String id) {
+        List<Message> sent = sendStored(List.of(id));
+        return sent.isEmpty() ? null : sent.get(0);
+    }
+
+    /**
+     * Send stored drafts: take them out of the stored store (one compaction)
+     * and route them as sent, journalled in one batch under their original
+     * IDs ({@link #loadJournal} folds the earlier stored entries).
+     *
+     * @return the drafts sent; unknown IDs are skipped, and drafts that no
+     * longer fit the sent store go back to the stored store
+     */
+    public List<Message> sendStored(Collection<String> ids) {
+        return routeSent(storedMessages.removeAllByID(new HashSet<>(ids)));
+    }
+
+    /**
+     * Send exactly these stored drafts, as {@link #sendStored(Collection)}
+     * does; other drafts that happen to share an ID stay stored.
+     *
+     * @return the drafts sent; drafts no longer stored are skipped
+     */
+    public List<Message> sendDrafts(Collection<Message> drafts) {
+        Set<String> ids = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        for (Message draft : drafts) {
+            ids.add(draft.getMessageID());
+            keys.add(supersedeKey(draft.getMessageID(), draft.getMessageHash(), draft.getRecipient()));
+        }
+        return routeSent(storedMessages.removeAllByID(ids,
+                m -> keys.contains(supersedeKey(m.getMessageID(), m.getMessageHash(), m.getRecipient()))));
+    }
+
+    private List<Message> routeSent(List<Message> drafts) {
+        List<Message> sent = new ArrayList<>(drafts.size());
+        for (Message draft : drafts) {
+            draft.setSendAt(0);
+            draft.markAsSent();
+            draft.setMessageType("sent");
+            if (sentMessages.add(draft)) {
+                sent.add(draft);
+            } else {
+                draft.setMessageType("stored");
+                storedMessages.add(draft);
+            }
+        }
+        journal(sent);
+        publisher.publishAll(sent);
+        return sent;
+    }
+
+    /**
+     * Remove one sent message and keep the store compact.
+     */
+    public void removeSentAt(int index) {
+        bodies.release(sentMessages.removeAt(index).getMessage());
+    }
+
+    /**
+     * Add the five canned demo messages: 2 sent, 1 discarded, 2 stored (each
+     * typed for its store, as {@link #route} would).
+     */
+    public void populateTestMessages() {
+        int sentCount = getSentCount();
+        sentMessages.add(new Message("+27834557896", "Hi, this is pre-populated test message 1", sentCount));
+        sentMessages.add(new Message("+27831231234", "It is dinner time!", sentCount + 1));
+        disregardedMessages.add(demo("+27831110000", "Yohoooo, I am at your gate.", sentCount + 2, "disregarded"));
+        storedMessages.add(demo("+27832221111", "Fine. I'll meet you there.", sentCount + 3, "stored"));
+        storedMessages.add(demo("+27839998888", "Ok, I am leaving without you.", sentCount + 4, "stored"));
+    }
+
+    private static Message demo(String recipient, String body, int number, String type) {
+        Message m = new Message(recipient, body, number);
+        m.setMessageType(type);
+        return m;
+    }
+
+    /**
+     * Empty all three stores.
+     */
+    public void clear() {
+        sentMessages.clear();
+        storedMessages.clear();
+        disregardedMessages.clear();
+        bodies.clear();
+    }
+}
@@ -0,0 +1,421 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON-over-HTTP front end for a {@link QuickChatEngine}, built on the JDK's
+ * own <code>com.sun.net.httpserver</code> (no extra dependencies).
+ * <p>
+ * • Every exchange runs on its own virtual thread, so a slow client or a
+ * journal write never holds up the others<br>
+ * • Small answers carry a Content-Length, so HTTP/1.1 clients keep the
+ * connection open between requests; TCP_NODELAY is on unless
+ * <code>sun.net.httpserver.nodelay</code> is set otherwise<br>
+ * • The full report is streamed with chunked encoding, one message at a
+ * time, instead of being built in memory first
+ * <p>
+ * <b>Routes</b> (bodies and answers are JSON):
+ * <ul>
+ * <li><code>POST /messages/send|store|discard</code>
+ * <code>{"recipient":"…","message":"…"}</code> → 201 with the message, or
+ * 422 with the ingest status</li>
+ * <li><code>GET /messages/{id}</code>, <code>GET /messages/longest</code> →
+ * 200 / 404</li>
+ * <li><code>GET /messages?recipient=…</code> → 200 with an array (sent,
+ * then stored)</li>
+ * <li><code>DELETE /messages?hash=…</code> → 200 / 404</li>
+ * <li><code>POST /messages/{id}/disregard</code> → 200 / 404</li>
+ * <li><code>GET /report</code> → store counts and every sent message
+ * (chunked)</li>
+ * <li><code>GET /export?recipient=…</code> or <code>?type=…</code> → the
+ * matching raw journal lines (newline-delimited JSON, chunked), copied from
+ * the file through the {@link JournalIndex} without decoding</li>
+ * </ul>
+ * Like {@link QuickChatServer} it does not authenticate; it binds to
+ * loopback by default.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : jdk.httpserver &amp; Virtual-Thread-per-Task Executors
+  Author  : Oracle Java SE 21 API; RFC 9112 §7.1 (chunked transfer coding)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/jdk.httpserver/com/sun/net/httpserver/HttpServer.html
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/Executors.html#newVirtualThreadPerTaskExecutor()
+    • https://www.rfc-editor.org/rfc/rfc9112#section-7.1
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class QuickChatHttpServer implements AutoCloseable {
+
+    /**
+     * Largest request body read, in bytes.
+     */
+    public static final int MAX_BODY = 1 << 16;
+
+    private static final int BACKLOG = 256;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    /* The JDK server writes headers and body separately; with Nagle on, the
+       body waits for the client's delayed ACK (~40 ms per keep-alive
+       request). Read once, when the server's config class loads. */
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final QuickChatEngine engine;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder served = new LongAdder();
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Listen on loopback.
+     *
+     * @param port TCP port, 0 for any free one (see {@link #getPort()})
+     */
+    public QuickChatHttpServer(QuickChatEngine engine, int port) throws IOException {
+        this(engine, new InetSocketAddress("127.0.0.1", port));
+    }
+
+    public QuickChatHttpServer(QuickChatEngine engine, InetSocketAddress address) throws IOException {
+        this.engine = engine;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/messages", this::exchange);
+        server.createContext("/report", this::exchange);
+        server.createContext("/export", this::exchange);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Exchanges answered so far.
+     */
+    public long requestsServed() {
+        return served.sum();
+    }
+
+    /**
+     * Stop listening, end open exchanges and wait for their threads.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    /* ───────────────────────── Routing ─────────────────────── */
+    private void exchange(HttpExchange ex) throws IOException {
+        try {
+            String method = ex.getRequestMethod();
+            String path = ex.getRequestURI().getPath();
+            String[] parts = path.replaceAll("/+$", "").split("/");   // "", "messages", …
+            if (parts.length == 2 && (parts[1].equals("report") || parts[1].equals("export"))) {
+                if (!method.equals("GET")) {
+                    send(ex, 405, error("Use GET"));
+                } else if (parts[1].equals("report")) {
+                    report(ex);
+                } else {
+                    export(ex);
+                }
+            } else if (parts.length < 2 || !parts[1].equals("messages")) {
+                send(ex, 404, error("No such resource"));
+            } else if (parts.length == 2) {
+                collection(ex, method);
+            } else if (parts.length == 3) {
+                item(ex, method, parts[2]);
+            } else if (parts.length == 4 && parts[3].equals("disregard") && method.equals("POST")) {
+                found(ex, engine.disregardSentByID(parts[2]));
+            } else {
+                send(ex, 404, error("No such resource"));
+            }
+        } catch (IllegalArgumentException e) {
+            send(ex, 400, error(e.getMessage()));
+        } finally {
+            served.increment();
+            ex.close();
+        }
+    }
+
+    /* /messages?recipient=… and /messages?hash=… */
+    private void collection(HttpExchange ex, String method) throws IOException {
+        switch (method) {
+            case "GET" -> {
+                String recipient = query(ex, "recipient");
+                if (recipient == null) {
+                    throw new IllegalArgumentException("recipient is required");
+                }
+                StringBuilder sb = new StringBuilder("[");
+                List<Message> found = engine.searchByRecipient(recipient);
+                for (int i = 0; i < found.size(); i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    appendMessage(sb, found.get(i));
+                }
+                send(ex, 200, sb.append(']').toString());
+            }
+            case "DELETE" -> {
+                String hash = query(ex, "hash");
+                if (hash == null) {
+                    throw new IllegalArgumentException("hash is required");
+                }
+                found(ex, engine.deleteSentByHash(hash));
+            }
+            default ->
+                send(ex, 405, error("Use GET or DELETE"));
+        }
+    }
+
+    /* /messages/{send|store|discard|longest|id} */
+    private void item(HttpExchange ex, String method, String name) throws IOException {
+        if (method.equals("POST") && (name.equals("send") || name.equals("store") || name.equals("discard"))) {
+            String body = readBody(ex);
+            String recipient = jsonField(body, "recipient");
+            String text = jsonField(body, "message");
+            if (recipient == null || text == null) {
+                throw new IllegalArgumentException("recipient and message are required");
+            }
+            IngestResult result = engine.ingest(List.of(new IngestRequest(recipient, text, name))).get(0);
+            if (result.status().accepted()) {
+                send(ex, 201, appendMessage(new StringBuilder(), result.message()).toString());
+            } else {
+                send(ex, 422, "{\"status\":\"" + result.status().name() + "\",\"feedback\":"
+                        + quote(result.feedback()) + "}");
+            }
+        } else if (!method.equals("GET")) {
+            send(ex, 405, error("Use GET"));
+        } else if (name.equals("longest")) {
+            found(ex, engine.longestSent());
+        } else {
+            found(ex, engine.findSentByID(name));
+        }
+    }
+
+    /* Streamed: counts first, then each sent message as it is encoded. */
+    private void report(HttpExchange ex) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(200, 0);                   // 0 = chunked
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8), 8192)) {
+            out.write("{\"sent\":" + engine.getSentCount() + ",\"stored\":" + engine.getStoreCount()
+                    + ",\"disregarded\":" + engine.getDiscardCount() + ",\"messages\":[");
+            StringBuilder sb = new StringBuilder(256);
+            boolean first = true;
+            for (Message m : engine.sent().snapshot()) {
+                sb.setLength(0);
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                out.append(appendMessage(sb, m));
+            }
+            out.write("]}");
+        }
+    }
+
+    /* Journal bytes go file → response without becoming strings. */
+    private void export(HttpExchange ex) throws IOException {
+        String recipient = query(ex, "recipient");
+        String type = query(ex, "type");
+        if ((recipient == null) == (type == null)) {
+            throw new IllegalArgumentException("Give recipient or type");
+        }
+        ex.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        ex.sendResponseHeaders(200, 0);                   // 0 = chunked
+        try (WritableByteChannel out = Channels.newChannel(ex.getResponseBody())) {
+            JournalIndex index = engine.journalIndex();
+            if (recipient != null) {
+                index.exportRecipient(recipient, out);
+            } else {
+                index.exportType(type, out);
+            }
+        }
+    }
+
+    /* ───────────────────────── Responses ─────────────────────── */
+    private static void found(HttpExchange ex, Message m) throws IOException {
+        if (m == null) {
+            send(ex, 404, error("Message not found"));
+        } else {
+            send(ex, 200, appendMessage(new StringBuilder(), m).toString());
+        }
+    }
+
+    /* Fixed length, so the connection stays reusable. */
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+    }
+
+    private static String error(String text) {
+        return "{\"error\":" + quote(text) + "}";
+    }
+
+    /* ───────────────────────── JSON ─────────────────────── */
+    static StringBuilder appendMessage(StringBuilder sb, Message m) {
+        sb.append("{\"messageID\":").append(quote(m.getMessageID()))
+                .append(",\"recipient\":").append(quote(m.getRecipient()))
+                .append(",\"message\":").append(quote(m.getMessage()))
+                .append(",\"messageHash\":").append(quote(m.getMessageHash()))
+                .append(",\"messageType\":").append(quote(m.getMessageType()))
+                .append('}');
+        return sb;
+    }
+
+    static String quote(String s) {
+        if (s == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' ->
+                    sb.append("\\\"");
+                case '\\' ->
+                    sb.append("\\\\");
+                case '\n' ->
+                    sb.append("\\n");
+                case '\r' ->
+                    sb.append("\\r");
+                case '\t' ->
+                    sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * String value of a top-level field in a flat JSON object, or
+     * {@code null} if it is absent or not a string. Enough for the request
+     * bodies above; not a general parser.
+     */
+    static String jsonField(String json, String name) {
+        String key = "\"" + name + "\"";
+        int at = json.indexOf(key);
+        while (at >= 0) {
+            int i = skipSpace(json, at + key.length());
+            if (i < json.length() && json.charAt(i) == ':') {
+                i = skipSpace(json, i + 1);
+                return i < json.length() && json.charAt(i) == '"' ? readString(json, i + 1) : null;
+            }
+            at = json.indexOf(key, at + 1);                // the name appeared inside a value
+        }
+        return null;
+    }
+
+    private static int skipSpace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String readString(String s, int i) {
+        StringBuilder sb = new StringBuilder();
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (i >= s.length()) {
+                break;
+            }
+            char e = s.charAt(i++);
+            switch (e) {
+                case 'n' ->
+                    sb.append('\n');
+                case 'r' ->
+                    sb.append('\r');
+                case 't' ->
+                    sb.append('\t');
+                case 'b' ->
+                    sb.append('\b');
+                case 'f' ->
+                    sb.append('\f');
+                case 'u' -> {
+                    if (i + 4 > s.length()) {
+                        throw new IllegalArgumentException("Bad \\u escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                    } catch (NumberFormatException bad) {
+                        throw new IllegalArgumentException("Bad \\u escape");
+                    }
+                    i += 4;
+                }
+                default ->
+                    sb.append(e);                          // \" \\ \/
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    /* ───────────────────────── Requests ─────────────────────── */
+    private static String readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY + 1);
+            if (bytes.length > MAX_BODY) {
+                throw new IllegalArgumentException("Body larger than " + MAX_BODY + " bytes");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String query(HttpExchange ex, String name) {
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return null;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,352 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TCP front end for a {@link QuickChatEngine}: the operations of the Swing
+ * menu and reports (send / store / discard, disregard, search by ID or
+ * recipient, delete by hash, longest message, full report) over a
+ * length-prefixed binary protocol.
+ * <p>
+ * • One virtual thread per connection, blocking NIO channel I/O: thousands
+ * of idle or slow connections cost a few KB each, not a platform thread<br>
+ * • Pipelining: a client may write any number of requests without waiting;
+ * the server answers them in order. Every request already buffered is
+ * handled as one batch, and runs of send / store / discard in a batch go
+ * through a single {@link QuickChatEngine#ingest} call (one journal
+ * write), then all the batch's responses are flushed together<br>
+ * • Frames larger than {@link #MAX_FRAME} or truncated mid-frame close the
+ * connection; an unknown operation gets {@link #BAD_REQUEST}
+ * <p>
+ * <b>Request frame</b>: <code>int length</code> (of what follows),
+ * <code>int requestId</code>, <code>byte op</code>, then the op's string
+ * arguments (modified UTF-8, {@link DataOutputStream#writeUTF}).<br>
+ * <b>Response frame</b>: <code>int length</code>, <code>int
+ * requestId</code>, <code>byte status</code>, <code>UTF text</code>,
+ * <code>int count</code>, then <code>count</code> messages (ID, recipient,
+ * body, hash, type as UTF, one flag byte).
+ * <p>
+ * The server does not authenticate; bind it to loopback (the default) or
+ * put it behind something that does.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Virtual Threads (JEP 444) &amp; Blocking NIO Socket Channels
+  Author  : Oracle Java SE 21 API; Ron Pressler &amp; Alan Bateman
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://openjdk.org/jeps/444
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/nio/channels/SocketChannel.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class QuickChatServer implements AutoCloseable {
+
+    /* ─────────── Operations (args) ─────────── */
+    public static final byte OP_SEND = 1;                  // recipient, body
+    public static final byte OP_STORE = 2;                 // recipient, body
+    public static final byte OP_DISCARD = 3;               // recipient, body
+    public static final byte OP_FIND_ID = 4;               // message ID
+    public static final byte OP_FIND_RECIPIENT = 5;        // recipient
+    public static final byte OP_DELETE_HASH = 6;           // message hash
+    public static final byte OP_DISREGARD_ID = 7;          // message ID
+    public static final byte OP_LONGEST = 8;               // –
+    public static final byte OP_REPORT = 9;                // –
+
+    /* ─────────── Statuses ─────────── */
+    /**
+     * Done; text is the ingest status for writes, counts for a report.
+     */
+    public static final byte OK = 0;
+    public static final byte NOT_FOUND = 1;
+    /**
+     * Validation, throttling, de-duplication or a full store refused the
+     * message; text is the {@link QuickChatEngine.IngestStatus} name.
+     */
+    public static final byte REJECTED = 2;
+    public static final byte BAD_REQUEST = 3;
+
+    /**
+     * Largest request frame accepted, in bytes.
+     */
+    public static final int MAX_FRAME = 1 << 16;
+    /**
+     * Requests handled per batch at most.
+     */
+    public static final int MAX_BATCH = 1024;
+
+    private static final int BUFFER = 1 << 16;
+
+    /* One decoded request. */
+    private record Request(int id, byte op, String[] args) {
+
+    }
+
+    private final QuickChatEngine engine;
+    private final ServerSocketChannel server;
+    private final Thread acceptor;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private volatile boolean running = true;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Listen on loopback.
+     *
+     * @param port TCP port, 0 for any free one (see {@link #getPort()})
+     */
+    public QuickChatServer(QuickChatEngine engine, int port) throws IOException {
+        this(engine, new InetSocketAddress("127.0.0.1", port));
+    }
+
+    public QuickChatServer(QuickChatEngine engine, InetSocketAddress address) throws IOException {
+        this.engine = engine;
+        this.server = ServerSocketChannel.open().bind(address);
+        this.acceptor = Thread.ofPlatform().name("quickchat-acceptor").daemon(true).start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Connections accepted since start.
+     */
+    public long connectionsAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * Requests answered since start.
+     */
+    public long requestsServed() {
+        return requests.sum();
+    }
+
+    /**
+     * Stop accepting, drop every open connection and wait for the acceptor.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        for (SocketChannel ch : connections) {
+            ch.close();
+        }
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* ───────────────────────── Connections ─────────────────────── */
+    private void acceptLoop() {
+        while (running) {
+            SocketChannel ch;
+            try {
+                ch = server.accept();
+            } catch (IOException e) {
+                if (running) {
+                    System.out.println("QuickChat server accept failed: " + e.getMessage());
+                }
+                return;                                    // closed (or broken) server socket
+            }
+            accepted.increment();
+            connections.add(ch);
+            Thread.ofVirtual().name("quickchat-conn-" + accepted.sum()).start(() -> serve(ch));
+        }
+    }
+
+    private void serve(SocketChannel ch) {
+        try (ch) {
+            ch.socket().setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch), BUFFER));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch), BUFFER));
+            List<Request> batch = new ArrayList<>();
+            while (true) {
+                Request first = readRequest(in);
+                if (first == null) {
+                    return;                                // client closed between frames
+                }
+                batch.add(first);
+                while (batch.size() < MAX_BATCH && in.available() > 0) {
+                    Request next = readRequest(in);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                handle(batch, out);
+                out.flush();
+                requests.add(batch.size());
+                batch.clear();
+            }
+        } catch (EOFException | ClosedChannelException e) {
+            // client went away mid-frame, or the server is closing
+        } catch (IOException e) {
+            if (running) {
+                System.out.println("QuickChat connection error: " + e.getMessage());
+            }
+        } finally {
+            connections.remove(ch);
+        }
+    }
+
+    /* Null at a clean end of stream. */
+    private static Request readRequest(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException end) {
+            return null;
+        }
+        if (length < 5 || length > MAX_FRAME) {
+            throw new IOException("Bad frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        DataInputStream body = new DataInputStream(new ByteArrayInputStream(frame));
+        int id = body.readInt();
+        byte op = body.readByte();
+        int arity = switch (op) {
+            case OP_SEND, OP_STORE, OP_DISCARD ->
+                2;
+            case OP_FIND_ID, OP_FIND_RECIPIENT, OP_DELETE_HASH, OP_DISREGARD_ID ->
+                1;
+            default ->
+                0;
+        };
+        String[] args = new String[arity];
+        for (int i = 0; i < arity; i++) {
+            args[i] = body.readUTF();
+        }
+        return new Request(id, op, args);
+    }
+
+    /* ───────────────────────── Dispatch ─────────────────────── */
+    /* In order; consecutive writes share one ingest call. */
+    private void handle(List<Request> batch, DataOutputStream out) throws IOException {
+        int i = 0;
+        while (i < batch.size()) {
+            if (isWrite(batch.get(i).op())) {
+                int end = i;
+                List<IngestRequest> writes = new ArrayList<>();
+                while (end < batch.size() && isWrite(batch.get(end).op())) {
+                    Request r = batch.get(end++);
+                    writes.add(new IngestRequest(r.args()[0], r.args()[1], actionFor(r.op())));
+                }
+                List<IngestResult> results = engine.ingest(writes);
+                for (int k = 0; k < results.size(); k++) {
+                    IngestResult result = results.get(k);
+                    boolean ok = result.status().accepted();
+                    writeResponse(out, batch.get(i + k).id(), ok ? OK : REJECTED,
+                            result.status().name(), ok ? List.of(result.message()) : List.of());
+                }
+                i = end;
+            } else {
+                handleRead(batch.get(i++), out);
+            }
+        }
+    }
+
+    private void handleRead(Request r, DataOutputStream out) throws IOException {
+        switch (r.op()) {
+            case OP_FIND_ID ->
+                single(out, r.id(), engine.findSentByID(r.args()[0]));
+            case OP_FIND_RECIPIENT ->
+                writeResponse(out, r.id(), OK, "", engine.searchByRecipient(r.args()[0]));
+            case OP_DELETE_HASH ->
+                single(out, r.id(), engine.deleteSentByHash(r.args()[0]));
+            case OP_DISREGARD_ID ->
+                single(out, r.id(), engine.disregardSentByID(r.args()[0]));
+            case OP_LONGEST ->
+                single(out, r.id(), engine.longestSent());
+            case OP_REPORT -> {
+                String counts = "sent=" + engine.getSentCount() + " stored=" + engine.getStoreCount()
+                        + " disregarded=" + engine.getDiscardCount();
+                writeResponse(out, r.id(), OK, counts, engine.sent().snapshot());
+            }
+            default ->
+                writeResponse(out, r.id(), BAD_REQUEST, "Unknown operation " + r.op(), List.of());
+        }
+    }
+
+    private static void single(DataOutputStream out, int id, Message m) throws IOException {
+        writeResponse(out, id, m != null ? OK : NOT_FOUND, "", m != null ? List.of(m) : List.of());
+    }
+
+    private static boolean isWrite(byte op) {
+        return op == OP_SEND || op == OP_STORE || op == OP_DISCARD;
+    }
+
+    private static String actionFor(byte op) {
+        return op == OP_SEND ? "send" : op == OP_STORE ? "store" : "discard";
+    }
+
+    /* ───────────────────────── Encoding ─────────────────────── */
+    private static void writeResponse(DataOutputStream out, int id, byte status, String text,
+            List<Message> messages) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(64 + messages.size() * 96);
+        DataOutputStream body = new DataOutputStream(frame);
+        body.writeInt(id);
+        body.writeByte(status);
+        body.writeUTF(text);
+        body.writeInt(messages.size());
+        for (Message m : messages) {
+            writeMessage(body, m);
+        }
+        out.writeInt(frame.size());
+        frame.writeTo(out);
+    }
+
+    static void writeMessage(DataOutputStream out, Message m) throws IOException {
+        out.writeUTF(nullToEmpty(m.getMessageID()));
+        out.writeUTF(nullToEmpty(m.getRecipient()));
+        out.writeUTF(nullToEmpty(m.getMessage()));
+        out.writeUTF(nullToEmpty(m.getMessageHash()));
+        out.writeUTF(nullToEmpty(m.getMessageType()));
+        out.writeByte((m.isSent() ? DeliveryLog.SENT : 0) | (m.isReceived() ? DeliveryLog.RECEIVED : 0)
+                | (m.isRead() ? DeliveryLog.READ : 0));
+    }
+
+    static Message readMessage(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        String recipient = in.readUTF();
+        String body = in.readUTF();
+        String hash = in.readUTF();
+        String type = in.readUTF();
+        int flags = in.readByte();
+        return Message.restore(id, recipient, body, hash, type, (flags & DeliveryLog.SENT) != 0,
+                (flags & DeliveryLog.RECEIVED) != 0, (flags & DeliveryLog.READ) != 0);
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
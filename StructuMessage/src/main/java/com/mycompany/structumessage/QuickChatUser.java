@@ -3,7 +3,8 @@ package com.mycompany.structumessage;
 /**
  * Represents a registered user of the QuickChat application.
  * <p>
- * • Stores login credentials and basic profile info.<br>
+ * • Stores login credentials (salted PBKDF2 hash, never the plaintext) and
+ * basic profile info.<br>
  * • Provides static validators for username / password / cellphone format.<br>
  * • Offers <code>register()</code> and <code>login()</code> helpers that return
  * user-friendly feedback strings for the Swing UI.<br>
@@ -17,26 +18,51 @@ public class QuickChatUser {
 
     /* ─────────── Immutable user fields ─────────── */
     private final String username;
-    private final String password;
+    private final String passwordHash;          // null when the password was malformed
+    private final boolean passwordWellFormed;
     private final String cellphone;
     private final String firstName;
     private final String lastName;
 
     /* ────────────────────────── Constructor ────────────────────────── */
     /**
-     * Build a QuickChatUser after <em>client-side</em> validation has
-     * succeeded. Raw strings are stored as-is; no hashing because POE scope is
-     * local.
+     * Build a QuickChatUser from the values the dialogs collected. The
+     * password is checked for complexity, then hashed with the default
+     * {@link PasswordHasher}; the plaintext is not kept.
      */
     public QuickChatUser(String username, String password,
             String cellphone, String firstName, String lastName) {
+        this(username, password, cellphone, firstName, lastName, PasswordHasher.getDefault());
+    }
+
+    /**
+     * Same as above with an explicit hashing cost (bulk imports, benchmarks).
+     */
+    public QuickChatUser(String username, String password,
+            String cellphone, String firstName, String lastName, PasswordHasher hasher) {
+        this(username, checkPasswordComplexity(password) ? hasher.hash(password) : null,
+                checkPasswordComplexity(password), cellphone, firstName, lastName);
+    }
+
+    private QuickChatUser(String username, String passwordHash, boolean passwordWellFormed,
+            String cellphone, String firstName, String lastName) {
         this.username = username;
-        this.password = password;
+        this.passwordHash = passwordHash;
+        this.passwordWellFormed = passwordWellFormed;
         this.cellphone = cellphone;
         this.firstName = firstName;
         this.lastName = lastName;
     }
 
+    /**
+     * Rebuild a registered user from its stored hash (used when loading
+     * <code>users.dat</code>).
+     */
+    static QuickChatUser restore(String username, String passwordHash,
+            String cellphone, String firstName, String lastName) {
+        return new QuickChatUser(username, passwordHash, true, cellphone, firstName, lastName);
+    }
+
     /* ───────────────── Static Validation Utilities ────────────────── */
     //  Title   : Username Regex “contains _ and ≤5 chars”
     //  Author  : Stack Overflow Q/336210; GeeksforGeeks tutorial
@@ -49,7 +75,21 @@ public class QuickChatUser {
      * Username must contain “_” and be ≤ 5 chars (positive look-ahead).
      */
     public static boolean checkUserName(String username) {
-        return username != null && username.matches("^(?=.*_).{1,5}$");
+        // single pass, same result as "^(?=.*_).{1,5}$"
+        if (username == null || username.isEmpty() || username.length() > 10) {
+            return false;                      // > 10 chars is > 5 code points
+        }
+        boolean underscore = false;
+        int codePoints = 0;
+        for (int i = 0; i < username.length();) {
+            int cp = username.codePointAt(i);
+            if (isLineTerminator(cp) || ++codePoints > 5) {
+                return false;
+            }
+            underscore |= cp == '_';
+            i += Character.charCount(cp);
+        }
+        return underscore;
     }
 
     //  Title   : Password-Complexity Regex with Look-aheads
@@ -74,15 +114,61 @@ public class QuickChatUser {
     //    • https://github.com/ansman/validate.js/issues/235 :contentReference[oaicite:5]{index=5}
     //
     public static boolean checkPasswordComplexity(String password) {
-        return password != null
-                && password.matches("^(?=.*[A-Z])(?=.*\\d)(?=.*[^a-zA-Z0-9]).{8,}$");
+        // single pass, same result as "^(?=.*[A-Z])(?=.*\\d)(?=.*[^a-zA-Z0-9]).{8,}$"
+        if (password == null || password.length() < 8) {
+            return false;
+        }
+        boolean upper = false;
+        boolean digit = false;
+        boolean special = false;
+        int codePoints = 0;
+        for (int i = 0; i < password.length();) {
+            int cp = password.codePointAt(i);
+            if (isLineTerminator(cp)) {
+                return false;
+            }
+            if (cp >= 'A' && cp <= 'Z') {
+                upper = true;
+            } else if (cp >= '0' && cp <= '9') {
+                digit = true;
+            } else if (cp < 'a' || cp > 'z') {
+                special = true;
+            }
+            codePoints++;
+            i += Character.charCount(cp);
+        }
+        return upper && digit && special && codePoints >= 8;
     }
 
     /**
      * Cell number must follow South-African E.164 <code>+27XXXXXXXXX</code>.
      */
     public static boolean checkCellPhoneNumber(String cellphone) {
-        return cellphone != null && cellphone.matches("^\\+27\\d{9}$");
+        // same result as "^\\+27\\d{9}$" (\\d is ASCII-only in java.util.regex)
+        if (cellphone == null || cellphone.length() != 12 || !cellphone.startsWith("+27")) {
+            return false;
+        }
+        for (int i = 3; i < 12; i++) {
+            char c = cellphone.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Characters the regex "." never matches (no DOTALL flag). */
+    private static boolean isLineTerminator(int cp) {
+        return cp == '\n' || cp == '\r' || cp == '\u0085' || cp == '\u2028' || cp == '\u2029';
+    }
+
+    /**
+     * {@code true} when username, password and cellphone all pass their
+     * validators (the same checks {@link #register()} reports on).
+     */
+    public boolean isValid() {
+        return checkUserName(username) && passwordWellFormed
+                && checkCellPhoneNumber(cellphone);
     }
 
     /* ─────────────────── Registration & Login ─────────────────────── */
@@ -97,7 +183,7 @@ public class QuickChatUser {
                     + "It must contain an underscore (_) and be no more than five characters long.";
         }
 
-        if (!checkPasswordComplexity(password)) {
+        if (!passwordWellFormed) {
             return "Password is not correctly formatted.\n"
                     + "It must be at least eight characters long and include:\n"
                     + "- A capital letter\n- A number\n- A special character";
@@ -113,10 +199,11 @@ public class QuickChatUser {
     }
 
     /**
-     * Simple credential match – no hashing because POE runs offline.
+     * Credential match: the input password is hashed with the stored salt
+     * and cost, then compared in constant time.
      */
     public boolean login(String inputUsername, String inputPassword) {
-        return username.equals(inputUsername) && password.equals(inputPassword);
+        return username.equals(inputUsername) && PasswordHasher.verify(inputPassword, passwordHash);
     }
 
     /**
@@ -133,8 +220,11 @@ public class QuickChatUser {
         return username;
     }
 
-    public String getPassword() {
-        return password;
+    /**
+     * Self-describing PBKDF2 hash, see {@link PasswordHasher}.
+     */
+    public String getPasswordHash() {
+        return passwordHash;
     }
 
     public String getCellphone() {
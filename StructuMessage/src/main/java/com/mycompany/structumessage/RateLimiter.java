@@ -0,0 +1,223 @@
+package com.mycompany.structumessage;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token-bucket rate limiter (one bucket per recipient, per user, …).
+ * <p>
+ * • Buckets refill lazily: nothing runs in the background, a bucket is only
+ * brought up to date when its key asks for a permit<br>
+ * • Each bucket is a single {@code long} (the GCRA "theoretical arrival
+ * time": the moment the bucket will be full again), so taking a permit is
+ * one clock read, one map look-up and one CAS<br>
+ * • Keys are spread over independent shards, each with its own
+ * {@link ConcurrentHashMap} and eviction lock, so there is no global lock
+ * and a sweep in one shard never stalls senders in another<br>
+ * • The key set is bounded: when a shard reaches its share of
+ * {@code maxKeys} it drops idle buckets (already full again, so nothing is
+ * lost); if none are idle, new keys are refused until one is (fails closed,
+ * so cycling through fresh keys never resets a busy key's limit)<br>
+ * • Each shard remembers the earliest moment any of its buckets can be idle,
+ * so a full shard refuses new keys without sweeping until then
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Token Bucket &amp; Generic Cell Rate Algorithm (GCRA)
+  Author  : ITU-T I.371; Brandur Leach, "Rate Limiting, Cells, and GCRA"
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://brandur.org/rate-limiting
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/ConcurrentHashMap.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class RateLimiter {
+
+    /**
+     * Key limit used by {@link #RateLimiter(double, int)}.
+     */
+    public static final int DEFAULT_MAX_KEYS = 65_536;
+
+    private static final int SHARDS = 32;                 // power of two
+
+    /* One slice of the key space. */
+    private static final class Shard {
+
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final ReentrantLock evictLock = new ReentrantLock();
+        final AtomicLong idleAt = new AtomicLong(Long.MIN_VALUE); // no bucket idle before this
+    }
+
+    private final long intervalNanos;                     // time to earn one permit
+    private final long toleranceNanos;                    // burst × interval
+    private final int shardCapacity;
+    private final LongSupplier clock;
+    private final Shard[] shards = new Shard[SHARDS];
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst permits a key may take back-to-back after being idle
+     * @param maxKeys buckets kept; beyond this idle keys are evicted and,
+     * if none are idle, new keys are refused
+     */
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    /* Clock injectable for tests (nanoseconds, like System.nanoTime). */
+    RateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier clock) {
+        if (!(permitsPerSecond > 0) || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("rate, burst and maxKeys must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1e9 / permitsPerSecond));
+        this.toleranceNanos = Math.multiplyExact(intervalNanos, (long) burst);
+        this.shardCapacity = Math.max(1, (maxKeys + SHARDS - 1) / SHARDS);
+        this.clock = clock;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /* ───────────────────────── Permits ─────────────────────── */
+    /**
+     * Take one permit for {@code key} if its bucket has one.
+     *
+     * @return {@code false} when the key is over its rate, or is new and
+     * every bucket in its shard is still busy
+     */
+    public boolean tryAcquire(String key) {
+        long now = clock.getAsLong();
+        Shard shard = shardFor(key);
+        AtomicLong bucket = shard.buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(shard, key, now);
+            if (bucket == null) {
+                return false;                              // no room for the key
+            }
+        }
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            if (next - now > toleranceNanos) {
+                return false;                              // bucket empty
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Permits {@code key} could take right now (the burst size for an
+     * unknown key). Does not create a bucket.
+     */
+    public int availablePermits(String key) {
+        AtomicLong bucket = shardFor(key).buckets.get(key);
+        if (bucket == null) {
+            return (int) (toleranceNanos / intervalNanos);
+        }
+        long now = clock.getAsLong();
+        return (int) ((toleranceNanos - (Math.max(bucket.get(), now) - now)) / intervalNanos);
+    }
+
+    /* ───────────────────────── Key bookkeeping ─────────────────────── */
+    /**
+     * Drop every bucket that has refilled completely; callers may run this
+     * periodically to keep memory in line with active keys.
+     *
+     * @return buckets removed
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Shard shard : shards) {
+            shard.evictLock.lock();
+            try {
+                removed += removeIdle(shard, now);
+            } finally {
+                shard.evictLock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Buckets currently held (approximate while senders are active).
+     */
+    public int size() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.buckets.mappingCount();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    /* ───────────────────────── Internals ─────────────────────── */
+    private Shard shardFor(String key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+
+    /* First permit for a key: a full bucket, or null when the shard is full of busy ones. */
+    private AtomicLong newBucket(Shard shard, String key, long now) {
+        if (shard.buckets.size() >= shardCapacity) {
+            if (now < shard.idleAt.get()) {
+                return null;                               // nothing can be idle yet: no sweep
+            }
+            if (shard.evictLock.tryLock()) {               // one sweeper per shard; others just insert
+                try {
+                    removeIdle(shard, now);
+                    if (shard.buckets.size() >= shardCapacity) {
+                        return null;
+                    }
+                } finally {
+                    shard.evictLock.unlock();
+                }
+            }
+        }
+        AtomicLong fresh = new AtomicLong(now);
+        AtomicLong raced = shard.buckets.putIfAbsent(key, fresh);
+        if (raced != null) {
+            return raced;
+        }
+        shard.idleAt.accumulateAndGet(now + intervalNanos, Math::min);  // idle once its permit is earned back
+        return fresh;
+    }
+
+    /*
+     * A bucket whose arrival time has passed is full: removing it loses
+     * nothing. The survivors' earliest arrival time becomes the shard's
+     * idleAt, unless a bucket inserted meanwhile lowered it.
+     */
+    private static int removeIdle(Shard shard, long now) {
+        long seen = shard.idleAt.get();
+        long earliest = Long.MAX_VALUE;
+        int removed = 0;
+        for (Iterator<AtomicLong> it = shard.buckets.values().iterator(); it.hasNext();) {
+            long tat = it.next().get();
+            if (tat - now <= 0) {
+                it.remove();
+                removed++;
+            } else {
+                earliest = Math.min(earliest, tat);
+            }
+        }
+        if (!shard.idleAt.compareAndSet(seen, earliest)) {
+            shard.idleAt.accumulateAndGet(earliest, Math::min);
+        }
+        return removed;
+    }
+}
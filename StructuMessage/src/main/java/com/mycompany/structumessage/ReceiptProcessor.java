@@ -0,0 +1,188 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk application of carrier delivery / read receipts to the sent store.
+ * <p>
+ * • Expected columns: <code>messageID,status[,timestamp]</code> with status
+ * <code>DELIVERED</code> / <code>RECEIVED</code> or <code>READ</code>
+ * (case-insensitive; an optional header row starting with
+ * <code>messageID</code> is skipped, extra columns are ignored)<br>
+ * • The file is streamed in batches; each batch is split into partitions by
+ * message ID and every partition is applied with one
+ * {@link MessageStore#applyReceipts} call through the store's ID index,
+ * partitions in parallel<br>
+ * • Only flags that actually change are written to the {@link DeliveryLog}
+ * as compact deltas, so replaying the same file twice adds nothing
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Batched Index Look-ups &amp; Hash Partitioning
+  Author  : Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/stream/IntStream.html
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/io/BufferedReader.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class ReceiptProcessor {
+
+    /**
+     * Receipts read and applied together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    /**
+     * Outcome of one receipts file.
+     *
+     * @param rows data rows read (header and blank lines excluded)
+     * @param malformed rows with no ID or an unknown status
+     * @param matched receipts whose message is in the sent store (repeats of
+     * an ID within one batch count once)
+     * @param changed messages whose flags changed (one delta each per batch)
+     * @param nanos wall-clock time of the run
+     */
+    public record Report(long rows, long malformed, long matched, long changed, long nanos) {
+
+        /**
+         * Receipts (valid rows) applied per second.
+         */
+        public double receiptsPerSecond() {
+            return nanos == 0 ? 0 : (rows - malformed) / (nanos / 1e9);
+        }
+    }
+
+    private final QuickChatEngine engine;
+    private final DeliveryLog deltas;
+    private final int batchSize;
+    private final int partitions;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * @param deltas where flag changes are persisted, or {@code null}
+     */
+    public ReceiptProcessor(QuickChatEngine engine, DeliveryLog deltas) {
+        this(engine, deltas, DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param batchSize receipts per batch
+     * @param partitions ID partitions applied in parallel per batch
+     */
+    public ReceiptProcessor(QuickChatEngine engine, DeliveryLog deltas, int batchSize, int partitions) {
+        if (batchSize <= 0 || partitions <= 0) {
+            throw new IllegalArgumentException("batchSize and partitions must be positive");
+        }
+        this.engine = engine;
+        this.deltas = deltas;
+        this.batchSize = batchSize;
+        this.partitions = partitions;
+    }
+
+    /* ───────────────────────── Processing ─────────────────────── */
+    public Report process(Path receipts) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(receipts, StandardCharsets.UTF_8)) {
+            return process(in);
+        }
+    }
+
+    public Report process(BufferedReader in) throws IOException {
+        long begin = System.nanoTime();
+        long rows = 0;
+        long malformed = 0;
+        long matched = 0;
+        long changed = 0;
+
+        List<Map<String, Integer>> parts = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            parts.add(new HashMap<>());
+        }
+        int pending = 0;
+        boolean first = true;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (first && line.regionMatches(true, 0, "messageID", 0, 9)) {
+                first = false;
+                continue;                              // header
+            }
+            first = false;
+            if (line.isBlank()) {
+                continue;
+            }
+            rows++;
+            int comma = line.indexOf(',');
+            int state = comma > 0 ? parseStatus(line, comma + 1) : 0;
+            if (state == 0) {
+                malformed++;
+                continue;
+            }
+            String id = line.substring(0, comma).strip();
+            parts.get(Math.floorMod(id.hashCode(), partitions)).merge(id, state, (a, b) -> a | b);
+            if (++pending == batchSize) {
+                long[] result = applyBatch(parts);
+                matched += result[0];
+                changed += result[1];
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            long[] result = applyBatch(parts);
+            matched += result[0];
+            changed += result[1];
+        }
+        return new Report(rows, malformed, matched, changed, System.nanoTime() - begin);
+    }
+
+    /* Apply every partition, log the deltas, reset the partitions; {matched, changed}. */
+    private long[] applyBatch(List<Map<String, Integer>> parts) {
+        MessageStore sent = engine.sent();
+        List<Map<String, Integer>> deltaMaps = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            deltaMaps.add(new HashMap<>());
+        }
+        IntStream range = IntStream.range(0, partitions);
+        long matched = (partitions > 1 ? range.parallel() : range)
+                .mapToLong(p -> sent.applyReceipts(parts.get(p), deltaMaps.get(p)))
+                .sum();
+
+        long changed = 0;
+        for (int p = 0; p < partitions; p++) {
+            for (Map.Entry<String, Integer> delta : deltaMaps.get(p).entrySet()) {
+                if (deltas != null) {
+                    deltas.record(delta.getKey(), delta.getValue());
+                }
+                changed++;
+            }
+            parts.get(p).clear();
+        }
+        return new long[]{matched, changed};
+    }
+
+    /* Status column → state bits, 0 if unknown. */
+    static int parseStatus(String line, int from) {
+        int end = line.indexOf(',', from);
+        String status = line.substring(from, end < 0 ? line.length() : end).strip();
+        if (status.equalsIgnoreCase("READ")) {
+            return DeliveryLog.READ;
+        }
+        if (status.equalsIgnoreCase("DELIVERED") || status.equalsIgnoreCase("RECEIVED")) {
+            return DeliveryLog.RECEIVED;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,315 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated, disruptor-style ring of reusable event slots between many
+ * producers and one consumer.
+ * <p>
+ * • Every slot object is created once up front; producers fill a slot in
+ * place and consumers read it in place, so passing an event allocates
+ * nothing<br>
+ * • Producers claim sequence numbers with one CAS and mark their slot
+ * available when filled; the consumer processes every contiguous available
+ * slot as one batch<br>
+ * • When the ring is full a producer follows the {@link Overflow} policy:
+ * block until space frees up, drop the event, or fail fast<br>
+ * • How an idle consumer (or a blocked producer) waits is set by the
+ * {@link WaitStrategy}: lowest latency (spin) through lowest CPU (block)
+ *
+ * @param <E> slot type (mutable, reused)
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : LMAX Disruptor Ring Buffer &amp; Multi-Producer Sequencer
+  Author  : Thompson, Farley, Barker, Gee &amp; Stewart (LMAX, 2011)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://lmax-exchange.github.io/disruptor/disruptor.html
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/locks/LockSupport.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class RingBuffer<E> {
+
+    /**
+     * What a producer does when every slot is still unconsumed.
+     */
+    public enum Overflow {
+        /**
+         * Wait (using the wait strategy) until the consumer frees a slot.
+         */
+        BLOCK,
+        /**
+         * Give up immediately; {@link #publish} returns {@code false}.
+         */
+        DROP,
+        /**
+         * Throw {@link IllegalStateException}.
+         */
+        FAIL
+    }
+
+    /**
+     * How a thread waits for the other side.
+     */
+    public enum WaitStrategy {
+        /**
+         * Spin on the CPU: lowest latency, burns a core.
+         */
+        BUSY_SPIN,
+        /**
+         * Spin briefly, then yield the CPU.
+         */
+        YIELDING,
+        /**
+         * Spin, yield, then sleep ~50 µs per attempt.
+         */
+        SLEEPING,
+        /**
+         * Park until a producer signals: lowest CPU, highest wake-up latency.
+         */
+        BLOCKING
+    }
+
+    /**
+     * Consumer callback for one event.
+     */
+    @FunctionalInterface
+    public interface EventHandler<E> {
+
+        /**
+         * @param event the slot (only valid during this call)
+         * @param sequence the event's sequence number
+         * @param endOfBatch {@code true} for the last event currently
+         * available (a good moment to flush)
+         */
+        void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+    }
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long SLEEP_NANOS = 50_000;
+    private static final long BLOCK_PARK_NANOS = 1_000_000;
+
+    /* ─────────── Slots ─────────── */
+    private final Object[] slots;
+    private final int mask;
+    private final int shift;
+    private final AtomicIntegerArray available;       // lap number published per slot
+
+    /* ─────────── Sequences (padded against false sharing) ─────────── */
+    private final AtomicLong cursor = new PaddedSequence(-1);      // last claimed
+    private final AtomicLong consumed = new PaddedSequence(-1);    // last consumed
+    private volatile long cachedConsumed = -1;        // producers' last view of consumed
+
+    private final WaitStrategy waitStrategy;
+    private final Overflow overflow;
+    private volatile Thread parkedConsumer;
+
+    /* Cache-line padding around the hot counter. */
+    @SuppressWarnings("unused")
+    private static final class PaddedSequence extends AtomicLong {
+
+        long p1, p2, p3, p4, p5, p6, p7;
+
+        PaddedSequence(long initial) {
+            super(initial);
+        }
+    }
+
+    /* ────────────────────────── Constructor ────────────────────────── */
+    /**
+     * @param size number of slots (power of two)
+     * @param factory creates each slot object once
+     */
+    public RingBuffer(int size, Supplier<E> factory, WaitStrategy waitStrategy, Overflow overflow) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("size must be a power of two");
+        }
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.shift = Integer.numberOfTrailingZeros(size);
+        this.available = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            available.set(i, -1);
+        }
+        this.waitStrategy = waitStrategy;
+        this.overflow = overflow;
+    }
+
+    /* ───────────────────────── Producer side ─────────────────────── */
+    /**
+     * Claim a slot, let the translator fill it, publish it.
+     *
+     * @return {@code false} if the ring was full and the policy is
+     * {@link Overflow#DROP}
+     * @throws IllegalStateException if the ring was full and the policy is
+     * {@link Overflow#FAIL}
+     */
+    public <A> boolean publish(BiConsumer<E, A> translator, A argument) {
+        long sequence = claim();
+        if (sequence < 0) {
+            return false;
+        }
+        try {
+            translator.accept(slot(sequence), argument);
+        } finally {
+            markAvailable(sequence);          // always publish, or the consumer stalls
+        }
+        return true;
+    }
+
+    /* Claim the next sequence, applying the overflow policy; -1 = dropped. */
+    private long claim() {
+        int attempt = 0;
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - slots.length;
+            if (wrapPoint > cachedConsumed) {
+                long gate = consumed.get();
+                cachedConsumed = gate;
+                if (wrapPoint > gate) {                // full
+                    switch (overflow) {
+                        case DROP -> {
+                            return -1;
+                        }
+                        case FAIL ->
+                            throw new IllegalStateException("Ring buffer full (" + slots.length + " slots)");
+                        default ->
+                            idle(attempt++, false);
+                    }
+                    continue;
+                }
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void markAvailable(long sequence) {
+        available.set((int) sequence & mask, (int) (sequence >>> shift));
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            Thread waiter = parkedConsumer;
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    /* ───────────────────────── Consumer side ─────────────────────── */
+    /**
+     * Process every event published so far, without waiting. Must only be
+     * called from one consumer thread. If the handler throws, that event is
+     * skipped and the rest of the batch is retried by the next call.
+     *
+     * @return events processed
+     */
+    public int drain(EventHandler<E> handler) throws Exception {
+        long next = consumed.get() + 1;
+        long last = highestPublished(next, cursor.get());
+        if (last < next) {
+            return 0;
+        }
+        long s = next;
+        try {
+            for (; s <= last; s++) {
+                handler.onEvent(slot(s), s, s == last);
+            }
+        } finally {
+            // frees the slots for producers; a failing event counts as consumed
+            consumed.set(Math.min(s, last));
+        }
+        return (int) (last - next + 1);
+    }
+
+    /**
+     * Wait (per the wait strategy) until at least one event is available,
+     * then {@link #drain} it. Returns 0 early when the thread is interrupted.
+     */
+    public int waitAndDrain(EventHandler<E> handler) throws Exception {
+        int attempt = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int n = drain(handler);
+            if (n > 0) {
+                return n;
+            }
+            idle(attempt++, true);
+        }
+        return 0;
+    }
+
+    /**
+     * Events published but not yet consumed (approximate while producers
+     * are active).
+     */
+    public long backlog() {
+        return cursor.get() - consumed.get();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /* ───────────────────────── Internal helpers ─────────────────────── */
+    @SuppressWarnings("unchecked")
+    private E slot(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /* Highest sequence in [from, claimed] such that everything before it is published. */
+    private long highestPublished(long from, long claimed) {
+        for (long s = from; s <= claimed; s++) {
+            if (available.get((int) s & mask) != (int) (s >>> shift)) {
+                return s - 1;
+            }
+        }
+        return claimed;
+    }
+
+    private void idle(int attempt, boolean consumer) {
+        switch (waitStrategy) {
+            case BUSY_SPIN ->
+                Thread.onSpinWait();
+            case YIELDING -> {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            case SLEEPING -> {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+            }
+            case BLOCKING -> {
+                if (consumer) {
+                    parkedConsumer = Thread.currentThread();
+                    if (cursor.get() == consumed.get()) {      // re-check after advertising
+                        LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                    }
+                    parkedConsumer = null;
+                } else {
+                    LockSupport.parkNanos(SLEEP_NANOS);      // producer waiting for space
+                }
+            }
+        }
+    }
+}
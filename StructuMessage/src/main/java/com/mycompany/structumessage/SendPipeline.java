@@ -0,0 +1,330 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Multi-stage send engine: <b>validate → hash → index → persist</b>.
+ * <p>
+ * • Each stage has its own worker threads and a bounded queue in front of
+ * it, so CPU-heavy hashing and I/O-heavy journal writes overlap instead of
+ * running one after the other per message<br>
+ * • Validate, hash and index run with configurable parallelism; persist is
+ * a single writer that drains whatever is queued and hands the messages
+ * that made it into a store to the engine's journal (straight to the file,
+ * or through its async journal) in one batch; a message refused by a full
+ * store is never journalled<br>
+ * • A full queue blocks the stage (or caller) feeding it, so memory stays
+ * bounded under overload<br>
+ * • {@link #metrics()} exposes queue depth, throughput and average wait /
+ * service time per stage
+ * <p>
+ * Uses the same steps as {@link QuickChatEngine#ingest(Iterable)}; results
+ * and journal contents match it item for item, but messages may reach the
+ * stores in a different order when a stage runs on several threads. A
+ * result completes once its message is journalled (or rejected).
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Staged Event-Driven Architecture &amp; Bounded Blocking Queues
+  Author  : Welsh, Culler &amp; Brewer (SOSP 2001); Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://doi.org/10.1145/502034.502057
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/ArrayBlockingQueue.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class SendPipeline implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    private static final int PERSIST_BATCH = 1024;
+
+    /**
+     * Snapshot of one stage's counters.
+     *
+     * @param stage stage name
+     * @param queueDepth items waiting in front of the stage
+     * @param processed items the stage has finished
+     * @param avgWaitNanos mean time an item spent queued for this stage
+     * @param avgServiceNanos mean time the stage spent on one item
+     */
+    public record StageMetrics(String stage, int queueDepth, long processed,
+            long avgWaitNanos, long avgServiceNanos) {
+
+    }
+
+    /* One message travelling through the stages. */
+    private static final class Job {
+
+        final IngestRequest request;
+        final int index;
+        final CompletableFuture<IngestResult> result = new CompletableFuture<>();
+        Message message;
+        IngestResult indexed;                              // set by index, completed by persist
+        long enqueuedAt;
+
+        Job(IngestRequest request, int index) {
+            this.request = request;
+            this.index = index;
+        }
+    }
+
+    private static final Job POISON = new Job(null, -1);
+
+    /* ─────────── A stage: queue + workers + counters ─────────── */
+    private static final class Stage {
+
+        final String name;
+        final BlockingQueue<Job> queue;
+        final int workers;
+        final AtomicInteger running;
+        final CountDownLatch terminated = new CountDownLatch(1);
+        final LongAdder processed = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder serviceNanos = new LongAdder();
+        Stage next;
+
+        Stage(String name, int workers, int capacity) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException(name + " workers must be positive");
+            }
+            this.name = name;
+            this.workers = workers;
+            this.running = new AtomicInteger(workers);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void put(Job job) {
+            job.enqueuedAt = System.nanoTime();
+            try {
+                queue.put(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.result.completeExceptionally(e);
+            }
+        }
+
+        /* Last worker out passes one poison pill per worker downstream. */
+        void workerDone() {
+            if (running.decrementAndGet() == 0) {
+                for (int i = 0; next != null && i < next.workers; i++) {
+                    next.put(POISON);
+                }
+                terminated.countDown();
+            }
+        }
+
+        void start(Consumer<Job> handler) {
+            for (int w = 1; w <= workers; w++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        while (true) {
+                            Job job = queue.take();
+                            if (job == POISON) {
+                                break;
+                            }
+                            long begin = System.nanoTime();
+                            waitNanos.add(begin - job.enqueuedAt);
+                            try {
+                                handler.accept(job);
+                            } catch (RuntimeException e) {
+                                job.result.completeExceptionally(e);
+                            }
+                            serviceNanos.add(System.nanoTime() - begin);
+                            processed.increment();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        workerDone();
+                    }
+                }, "send-" + name + "-" + w);
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+
+        StageMetrics metrics() {
+            long n = Math.max(1, processed.sum());
+            return new StageMetrics(name, queue.size(), processed.sum(),
+                    waitNanos.sum() / n, serviceNanos.sum() / n);
+        }
+    }
+
+    private final QuickChatEngine engine;
+    private final Stage validate;
+    private final Stage hash;
+    private final Stage persist;
+    private final Stage index;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private volatile boolean closed;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * Pipeline sized to the machine: one validator, half the cores hashing,
+     * one indexer.
+     */
+    public SendPipeline(QuickChatEngine engine) {
+        this(engine, 1, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 1,
+                DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param validators threads for the validate stage
+     * @param hashers threads for the hash stage
+     * @param indexers threads for the index stage (persist is always one)
+     * @param queueCapacity bound of every inter-stage queue
+     */
+    public SendPipeline(QuickChatEngine engine, int validators, int hashers, int indexers,
+            int queueCapacity) {
+        this.engine = engine;
+        this.validate = new Stage("validate", validators, queueCapacity);
+        this.hash = new Stage("hash", hashers, queueCapacity);
+        this.persist = new Stage("persist", 1, queueCapacity);
+        this.index = new Stage("index", indexers, queueCapacity);
+        validate.next = hash;
+        hash.next = index;
+        index.next = persist;
+
+        validate.start(this::validate);
+        hash.start(this::hash);
+        index.start(this::index);
+        startPersist();
+    }
+
+    /* ───────────────────────── Public API ─────────────────────── */
+    /**
+     * Queue one message. Blocks while the validate queue is full.
+     *
+     * @return completes when the message is journalled or rejected
+     * @throws IllegalStateException after {@link #close()}
+     */
+    public CompletableFuture<IngestResult> submit(IngestRequest request) {
+        if (closed) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+        Job job = new Job(request, sequence.getAndIncrement());
+        validate.put(job);
+        return job.result;
+    }
+
+    /**
+     * Per-stage queue depth and latency, in pipeline order.
+     */
+    public List<StageMetrics> metrics() {
+        return List.of(validate.metrics(), hash.metrics(), index.metrics(), persist.metrics());
+    }
+
+    /**
+     * Stop accepting messages, let everything queued finish, then return
+     * (early, with the interrupt flag set, if the caller is interrupted).
+     * Callers must stop submitting before they close.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (int i = 0; i < validate.workers; i++) {
+            validate.put(POISON);
+        }
+        try {
+            persist.terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* ───────────────────────── Stage handlers ─────────────────────── */
+    private void validate(Job job) {
+        IngestResult rejected = QuickChatEngine.checkRequest(job.request, job.index);
+        if (rejected == null) {
+            rejected = engine.admit(job.request, job.index);
+        }
+        if (rejected != null) {
+            job.result.complete(rejected);                 // leaves the pipeline here
+        } else {
+            hash.put(job);
+        }
+    }
+
+    private void hash(Job job) {
+        job.message = QuickChatEngine.hashRequest(job.request, job.index);
+        engine.internBody(job.message);
+        index.put(job);
+    }
+
+    private void index(Job job) {
+        job.indexed = engine.indexMessage(job.message, job.index);
+        persist.put(job);
+    }
+
+    /*
+     * Single writer: drain up to PERSIST_BATCH jobs, one journal batch of the
+     * indexed ones. A journal failure (e.g. a full ring with Overflow.FAIL)
+     * fails that batch's accepted jobs and the writer carries on.
+     */
+    private void startPersist() {
+        Thread writer = new Thread(() -> {
+            List<Job> batch = new ArrayList<>(PERSIST_BATCH);
+            List<Message> messages = new ArrayList<>(PERSIST_BATCH);
+            boolean done = false;
+            try {
+                while (!done) {
+                    batch.add(persist.queue.take());
+                    persist.queue.drainTo(batch, PERSIST_BATCH - 1);
+                    long begin = System.nanoTime();
+                    for (Job job : batch) {
+                        if (job == POISON) {
+                            done = true;                   // single writer: one pill
+                        } else {
+                            persist.waitNanos.add(begin - job.enqueuedAt);
+                            if (job.indexed.status().accepted()) {
+                                messages.add(job.message);
+                            }
+                        }
+                    }
+                    RuntimeException failed = null;
+                    try {
+                        engine.journalAdmitted(messages);
+                    } catch (RuntimeException e) {
+                        failed = e;
+                    }
+                    long perItem = (System.nanoTime() - begin) / Math.max(1, batch.size());
+                    for (Job job : batch) {
+                        if (job != POISON) {
+                            persist.serviceNanos.add(perItem);
+                            persist.processed.increment();
+                            if (failed != null && job.indexed.status().accepted()) {
+                                job.result.completeExceptionally(failed);
+                            } else {
+                                job.result.complete(job.indexed);
+                            }
+                        }
+                    }
+                    batch.clear();
+                    messages.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                persist.workerDone();
+            }
+        }, "send-persist");
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
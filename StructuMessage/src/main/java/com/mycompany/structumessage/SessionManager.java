@@ -0,0 +1,259 @@
+package com.mycompany.structumessage;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Session tokens for logged-in {@link QuickChatUser}s.
+ * <p>
+ * • {@link #login} checks the credentials once against the
+ * {@link UserDirectory} and issues an opaque, unguessable token
+ * (256 random bits, URL-safe Base64)<br>
+ * • {@link #validate} is a single hash look-up plus an expiry check – no
+ * credential comparison – so every API call can afford it<br>
+ * • Expired sessions are evicted through a timing wheel: each session sits in
+ * the bucket of the tick it expires in, and a sweep only drains the buckets
+ * whose ticks have passed instead of scanning every session<br>
+ * • The cache is bounded: when full, the sessions closest to expiry are
+ * evicted first
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : SecureRandom Tokens &amp; Hashed Timing Wheels
+  Author  : Oracle Java SE 21 API; Varghese &amp; Lauck (1987)
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/security/SecureRandom.html
+    • https://doi.org/10.1145/41457.37504
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class SessionManager {
+
+    /**
+     * Session lifetime used by {@link #SessionManager(UserDirectory)}.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    /**
+     * Session limit used by {@link #SessionManager(UserDirectory)}.
+     */
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+
+    private static final int WHEEL_SIZE = 256;          // power of two
+    private static final int TOKEN_BYTES = 32;
+
+    /* One live session; immutable apart from the eviction flag. */
+    private static final class Session {
+
+        final String token;
+        final QuickChatUser user;
+        final long expiresAt;
+        volatile boolean evicted;
+
+        Session(String token, QuickChatUser user, long expiresAt) {
+            this.token = token;
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final UserDirectory directory;
+    private final long ttlNanos;
+    private final long tickNanos;
+    private final int maxSessions;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+
+    /* ─────────── Token index + expiry wheel ─────────── */
+    private final ConcurrentHashMap<String, Session> sessions;
+    private final List<ConcurrentLinkedQueue<Session>> wheel;   // WHEEL_SIZE buckets
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private long sweptTick;                              // guarded by sweepLock
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public SessionManager(UserDirectory directory) {
+        this(directory, DEFAULT_TTL, DEFAULT_MAX_SESSIONS);
+    }
+
+    public SessionManager(UserDirectory directory, Duration ttl, int maxSessions) {
+        this(directory, ttl, maxSessions, System::nanoTime);
+    }
+
+    /* Clock injectable for tests (nanoseconds, monotonic). */
+    SessionManager(UserDirectory directory, Duration ttl, int maxSessions, LongSupplier clock) {
+        if (ttl.isNegative() || ttl.isZero() || maxSessions <= 0) {
+            throw new IllegalArgumentException("ttl and maxSessions must be positive");
+        }
+        this.directory = directory;
+        this.ttlNanos = ttl.toNanos();
+        // the wheel spans one TTL plus a tick, so buckets never hold two laps
+        this.tickNanos = Math.max(1, ttlNanos / (WHEEL_SIZE - 1));
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+        this.sessions = new ConcurrentHashMap<>(Math.min(maxSessions, 1 << 16));
+        List<ConcurrentLinkedQueue<Session>> buckets = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        this.wheel = List.copyOf(buckets);
+        this.sweptTick = Math.floorDiv(clock.getAsLong(), tickNanos);
+    }
+
+    /* ───────────────────────── Session API ─────────────────────── */
+    /**
+     * Check the credentials and open a session.
+     *
+     * @return the session token, or {@code null} if the credentials fail
+     */
+    public String login(String username, String password) {
+        QuickChatUser user = directory.login(username, password);
+        return user == null ? null : open(user);
+    }
+
+    /**
+     * {@link #login} with the (slow) password check on a bounded
+     * {@link VerificationPool}.
+     *
+     * @return completes with the token, or {@code null} if the credentials
+     * fail
+     */
+    public CompletableFuture<String> loginAsync(VerificationPool pool, String username, String password) {
+        return pool.login(directory, username, password)
+                .thenApply(user -> user == null ? null : open(user));
+    }
+
+    /* Issue a token for an authenticated user. */
+    private String open(QuickChatUser user) {
+        long now = clock.getAsLong();
+        expire(now);
+        while (sessions.size() >= maxSessions && evictOldest()) {
+            // make room, closest-to-expiry first
+        }
+
+        Session session = new Session(newToken(), user, now + ttlNanos);
+        sessions.put(session.token, session);
+        wheel.get(bucket(session.expiresAt)).add(session);
+        return session.token;
+    }
+
+    /**
+     * O(1) token check.
+     *
+     * @return the session's user, or {@code null} for unknown, expired or
+     * logged-out tokens
+     */
+    public QuickChatUser validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (clock.getAsLong() - session.expiresAt >= 0) {
+            remove(session);                           // expired but not yet swept
+            return null;
+        }
+        return session.user;
+    }
+
+    /**
+     * End a session early.
+     *
+     * @return {@code true} if the token was live
+     */
+    public boolean logout(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        return session != null && remove(session);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Evict every session whose expiry tick has passed. Runs on every
+     * {@link #login}; long-running servers may also call it on a timer.
+     *
+     * @return sessions evicted
+     */
+    public int expireDue() {
+        return expire(clock.getAsLong());
+    }
+
+    /* ───────────────────────── Timing wheel ─────────────────────── */
+    private int expire(long now) {
+        if (!sweepLock.tryLock()) {
+            return 0;                                  // another thread is sweeping
+        }
+        try {
+            long nowTick = Math.floorDiv(now, tickNanos);
+            // after a long idle gap one full lap is enough to see every bucket
+            long from = Math.max(sweptTick, nowTick - WHEEL_SIZE);
+            int evicted = 0;
+            for (long tick = from; tick < nowTick; tick++) {
+                ConcurrentLinkedQueue<Session> bucket = wheel.get((int) (tick & (WHEEL_SIZE - 1)));
+                for (int n = bucket.size(); n > 0; n--) {
+                    Session session = bucket.poll();
+                    if (session == null) {
+                        break;
+                    }
+                    if (session.evicted) {
+                        continue;                      // logged out / already expired
+                    }
+                    if (now - session.expiresAt >= 0) {
+                        evicted += remove(session) ? 1 : 0;
+                    } else {
+                        bucket.add(session);           // belongs to a later lap
+                    }
+                }
+            }
+            sweptTick = Math.max(sweptTick, nowTick);
+            return evicted;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /* Evict one live session from the earliest non-empty bucket. */
+    private boolean evictOldest() {
+        long startTick = Math.floorDiv(clock.getAsLong(), tickNanos);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            ConcurrentLinkedQueue<Session> bucket = wheel.get((int) ((startTick + i) & (WHEEL_SIZE - 1)));
+            Session session;
+            while ((session = bucket.poll()) != null) {
+                if (remove(session)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean remove(Session session) {
+        session.evicted = true;
+        return sessions.remove(session.token, session);
+    }
+
+    private int bucket(long expiresAt) {
+        return (int) (Math.floorDiv(expiresAt, tickNanos) & (WHEEL_SIZE - 1));
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
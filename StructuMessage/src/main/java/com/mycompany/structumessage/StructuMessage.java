@@ -1,19 +1,24 @@
 package com.mycompany.structumessage;
 
+import com.mycompany.structumessage.MessageTableModel.Column;
+
 import javax.swing.*;
-import java.util.Arrays;
-import java.io.File;
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * StructuMessage – Main driver class for the QuickChat console / Swing app.
  * <p>
  * Responsibilities:
  * <ul>
- * <li>Startup workflow: load JSON, register user, prompt for login.</li>
+ * <li>Startup workflow: load JSON in the background while the user registers
+ * and logs in.</li>
  * <li>Run an interactive menu loop (send / show / disregard / reports /
  * quit).</li>
- * <li>Maintain in-memory arrays for sent / stored / disregarded messages.</li>
+ * <li>Swing facade over {@link QuickChatEngine#defaultEngine()}, which owns
+ * the sent / stored / disregarded stores and the journal.</li>
  * <li>Provide small helper utilities (validation prompts, test-data preload,
  * etc.).</li>
  * </ul>
@@ -25,49 +30,71 @@ import java.util.List;
  */
 public class StructuMessage {
 
-    /* ──────────────── Static Data Stores ─────────────── */
+    /* ──────────────── Default Engine & its Stores ─────────────── */
+    /**
+     * Engine every static method below delegates to.
+     */
+    static final QuickChatEngine engine = QuickChatEngine.defaultEngine();
+
     /**
      * Messages actually sent in this session (+ those re-hydrated on start-up).
+     * The store also keeps the ID / hash indexes for constant-time search.
      */
-    static Message[] sentMessages = new Message[100];
+    static final MessageStore sentMessages = engine.sent();
     /**
      * Messages that the user explicitly discarded.
      */
-    static Message[] disregardedMessages = new Message[100];
+    static final MessageStore disregardedMessages = engine.disregarded();
     /**
      * Valid messages the user chose to keep for later.
      */
-    static Message[] storedMessages = new Message[100];
+    static final MessageStore storedMessages = engine.stored();
 
+    /* ──────────────── Send throttling ─────────────── */
+    /**
+     * Sends one recipient may receive: a burst of 5, then one every 10 s.
+     */
+    static final RateLimiter recipientLimiter = new RateLimiter(0.1, 5);
     /**
-     * Parallel arrays for quick hash / ID look-ups (constant-time search).
+     * Sends one user may make: a burst of 20, then one per second.
      */
-    static String[] messageHashes = new String[100];
-    static String[] messageIDs = new String[100];
+    static final RateLimiter senderLimiter = new RateLimiter(1, 20);
 
-    /* Counters let us treat the fixed-size arrays as dynamic lists. */
-    private static int sentCount = 0;
-    private static int discardCount = 0;
-    private static int storeCount = 0;
+    /**
+     * Username of the logged-in user (keys the per-user limit).
+     */
+    private static String currentUser;
+
+    /* ──────────────── Background journal load ─────────────── */
+    /**
+     * Set once the menu has waited for the journal load started by
+     * {@code main} (and added the demo messages).
+     */
+    private static boolean messagesReady;
 
     /* ──────────────── Public accessors (used by unit tests) ─────────────── */
     public static int getSentCount() {
-        return sentCount;
+        return engine.getSentCount();
     }
 
     public static int getStoreCount() {
-        return storeCount;
+        return engine.getStoreCount();
     }
 
     public static int getDiscardCount() {
-        return discardCount;
+        return engine.getDiscardCount();
     }
 
     /* ───────────────────────────── Main ─────────────────────────────────── */
     /**
-     * Application entry-point. 1. Load any previously saved JSON messages. 2.
-     * Register a new QuickChatUser. 3. Loop until a valid login occurs. 4.
-     * Launch the main application menu.
+     * Application entry-point. 1. Start loading previously saved JSON
+     * messages in the background. 2. Register a new QuickChatUser in the user
+     * directory. 3. Loop until a valid login (any registered user) occurs. 4.
+     * Launch the main application menu, which waits for the load only when
+     * an option needs the messages.
+     * <p>
+     * With arguments, runs {@link QuickChatCli} instead, before anything
+     * loads Swing (headless servers, scripts).
      */
     //  Title: JOptionPane Dialog Pattern
     //  Author(s): Oracle Docs, TheServerSide, Mkyong
@@ -79,8 +106,13 @@ public class StructuMessage {
     //    • https://mkyong.com/swing/java-swing-joptionpane-showinputdialog-example/
     //
     public static void main(String[] args) {
+        if (args.length > 0) {
+            QuickChatCli.main(args);
+            return;
+        }
+        engine.loadJournalInBackground(); // Step 1 – read persisted messages behind the dialogs
         JOptionPane.showMessageDialog(null, "Welcome to QuickChat Registration");
-        loadMessagesFromFile();           // Step 1 – read persisted messages
+        UserDirectory users = loadUserDirectory();
 
         /* — User Registration sequence — */
         String firstName = JOptionPane.showInputDialog("Enter your first name:");
@@ -91,7 +123,11 @@ public class StructuMessage {
         String cellphone = getValidCellphone();
 
         QuickChatUser user = new QuickChatUser(username, password, cellphone, firstName, lastName);
-        JOptionPane.showMessageDialog(null, user.register());
+        try {
+            JOptionPane.showMessageDialog(null, users.register(user));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Could not save user: " + e.getMessage());
+        }
 
         /* — Login loop — */
         boolean loggedIn = false;
@@ -99,11 +135,12 @@ public class StructuMessage {
             String inputUsername = JOptionPane.showInputDialog("Username:");
             String inputPassword = JOptionPane.showInputDialog("Password:");
 
-            if (user.login(inputUsername, inputPassword)) {
-                JOptionPane.showMessageDialog(null, user.loginStatusMessage(true));
-                loadStoredMessagesFromJson();  // hydrate <stored> category only
-                populateTestMessages();        // demo data for markers
-                runApp();                      // main menu
+            QuickChatUser current = users.login(inputUsername, inputPassword);
+            if (current != null) {
+                JOptionPane.showMessageDialog(null, current.loginStatusMessage(true));
+                currentUser = current.getUsername();
+                engine.setRateLimits(recipientLimiter, senderLimiter);
+                runApp();                      // main menu (loads finish in awaitMessages)
                 loggedIn = true;
             } else {
                 JOptionPane.showMessageDialog(null, user.loginStatusMessage(false));
@@ -111,6 +148,20 @@ public class StructuMessage {
         }
     }
 
+    /**
+     * Open <code>users.dat</code>; fall back to an in-memory directory (this
+     * session only) if the file cannot be read.
+     */
+    private static UserDirectory loadUserDirectory() {
+        try {
+            return UserDirectory.load(UserDirectory.DEFAULT_FILE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Error loading users from file: " + e.getMessage());
+            return new UserDirectory();
+        }
+    }
+
     /* ─────────────────────── Application Menu ─────────────────────────── */
     /**
      * Display and handle the menu until the user chooses “Quit”. Splitting this
@@ -139,6 +190,7 @@ public class StructuMessage {
 
             switch (option) {
                 case "1" -> {
+                    awaitMessages();
                     int total = Integer.parseInt(
                             JOptionPane.showInputDialog("How many messages would you like to send?"));
                     for (int i = 0; i < total; i++) {
@@ -146,21 +198,26 @@ public class StructuMessage {
                             JOptionPane.showMessageDialog(null, "Message not sent. Skipping…");
                         }
                     }
-                    JOptionPane.showMessageDialog(null, "Total messages processed: " + sentCount);
+                    JOptionPane.showMessageDialog(null, "Total messages processed: " + getSentCount());
                 }
                 case "2" -> {
-                    if (sentCount == 0) {
+                    awaitMessages();
+                    if (getSentCount() == 0) {
                         JOptionPane.showMessageDialog(null, "No messages sent yet.");
                     } else {
                         displayReport();
                     }
                 }
-                case "3" ->
+                case "3" -> {
+                    awaitMessages();
                     disregardMessage();
+                }
                 case "4" ->
                     running = false;
-                case "5" ->
+                case "5" -> {
+                    awaitMessages();
                     showReports();
+                }
                 default ->
                     JOptionPane.showMessageDialog(null, "Invalid option. Please choose 1-5.");
             }
@@ -213,7 +270,8 @@ public class StructuMessage {
      *
      * @param msgNum zero-based position in the current batch (“Message #”)
      * @return {@code true} if the message made it into any category;
-     * {@code false} if validation failed or storage arrays are full.
+     * {@code false} if validation failed, the send was rate limited or
+     * storage arrays are full.
      */
     //  Title: SA (+27) Cell-Number Regex
     //  Author: validate.js GitHub issue #235
@@ -252,13 +310,11 @@ public class StructuMessage {
         /* — 5. Route according to choice — */
         switch (action) {
             case 0 -> {                               // 5-A: SEND
-                msg.setMessageType("sent");
-                msg.storeMessageToJson();             // optional, but keeps full audit
-                if (sentCount < sentMessages.length) {
-                    sentMessages[sentCount] = msg;
-                    messageHashes[sentCount] = msg.getMessageHash();
-                    messageIDs[sentCount] = msg.getMessageID();
-                    sentCount++;
+                if (!engine.tryAcquireSend(currentUser, recipient)) {
+                    JOptionPane.showMessageDialog(null, "Too many messages sent. Try again later.");
+                    return false;
+                }
+                if (engine.route(msg, "sent")) {      // journal keeps full audit
                     JOptionPane.showMessageDialog(null, msg.printDetails());
                     return true;
                 }
@@ -266,10 +322,7 @@ public class StructuMessage {
                 return false;
             }
             case 1 -> {                               // 5-B: DISCARD
-                msg.setMessageType("disregarded");
-                msg.storeMessageToJson();
-                if (discardCount < disregardedMessages.length) {
-                    disregardedMessages[discardCount++] = msg;
+                if (engine.route(msg, "disregarded")) {
                     JOptionPane.showMessageDialog(null, "Message discarded.");
                     return true;
                 }
@@ -277,10 +330,7 @@ public class StructuMessage {
                 return false;
             }
             case 2 -> {                               // 5-C: STORE
-                msg.setMessageType("stored");
-                msg.storeMessageToJson();
-                if (storeCount < storedMessages.length) {
-                    storedMessages[storeCount++] = msg;
+                if (engine.route(msg, "stored")) {
                     JOptionPane.showMessageDialog(null, "Message successfully stored.");
                     return true;
                 }
@@ -294,10 +344,21 @@ public class StructuMessage {
         }
     }
 
+    /**
+     * Dialog-free batch version of {@link #sendMessage(int)}: same
+     * validation, hashing and routing for every request, one journal write
+     * per batch, one result per request.
+     */
+    public static List<QuickChatEngine.IngestResult> ingest(
+            Iterable<QuickChatEngine.IngestRequest> requests) {
+        return engine.ingest(requests);
+    }
+
     /* ─────────────────────── JSON Hydration Helpers ───────────────────── */
     /**
-     * Load only “stored” messages into RAM after a successful login
-     * (sent/disregarded are already in arrays; this avoids duplication).
+     * Load only “stored” messages into RAM. Start-up no longer calls this:
+     * the background journal load fills the stored category in the same
+     * pass, and loading it again would list every draft twice.
      */
     //  Title: BufferedReader Line-by-Line File Read
     //  Author: DigitalOcean Tutorial
@@ -306,15 +367,7 @@ public class StructuMessage {
     //  Source: https://www.digitalocean.com/community/tutorials/java-read-file-line-by-line
     //
     public static void loadStoredMessagesFromJson() {
-        List<Message> loaded = Message.readMessagesFromFile("messages.json");
-        if (loaded != null) {
-            for (Message msg : loaded) {
-                if (msg != null && "stored".equalsIgnoreCase(msg.getMessageType())
-                        && storeCount < storedMessages.length) {
-                    storedMessages[storeCount++] = msg;
-                }
-            }
-        }
+        engine.loadStoredFromJournal();
     }
 
     /* ───────────────────────── Report Generators ─────────────────────── */
@@ -331,110 +384,76 @@ public class StructuMessage {
     //    • https://www.reddit.com/r/learnprogramming/
     //
     public static void showSenderAndRecipients() {
-        StringBuilder result = new StringBuilder("\uD83D\uDCEC Sent Messages:\n");
-        for (int i = 0; i < sentCount; i++) {
-            result.append("Message ID: ").append(sentMessages[i].getMessageID())
-                    .append("\nRecipient: ").append(sentMessages[i].getRecipient())
-                    .append("\nMessage: ").append(sentMessages[i].getMessage())
-                    .append("\n\n");
-        }
-        JOptionPane.showMessageDialog(null, result.toString());
+        MessageTableViewer.show("\uD83D\uDCEC Sent Messages: " + getSentCount() + " to "
+                + engine.sentRecipientCount() + " recipients",
+                new Column[]{Column.ID, Column.RECIPIENT, Column.MESSAGE}, null, sentMessages);
     }
 
     /**
-     * Identify the longest <sent> message for quick QA checks.
+     * Identify the longest <sent> message for quick QA checks (kept up to
+     * date by the engine, so no scan).
      */
     public static void showLongestMessage() {
-        String longest = "";
-        Message longestMsg = null;
-        for (int i = 0; i < sentCount; i++) {
-            if (sentMessages[i] != null
-                    && sentMessages[i].getMessage().length() > longest.length()) {
-                longest = sentMessages[i].getMessage();
-                longestMsg = sentMessages[i];
-            }
-        }
+        Message longestMsg = engine.longestSent();
         JOptionPane.showMessageDialog(null,
                 longestMsg != null ? longestMsg.printDetails() : "No messages found.");
     }
 
     /**
-     * Linear search by ID (arrays are tiny; O(n) is fine).
+     * Indexed search by ID (constant-time via the store's ID index).
      */
     public static void searchByMessageID(String id) {
-        for (int i = 0; i < sentCount; i++) {
-            if (sentMessages[i] != null && sentMessages[i].getMessageID().equals(id)) {
-                JOptionPane.showMessageDialog(null,
-                        "Recipient: " + sentMessages[i].getRecipient()
-                        + "\nMessage: " + sentMessages[i].getMessage());
-                return;
-            }
+        Message m = engine.findSentByID(id);
+        if (m != null) {
+            JOptionPane.showMessageDialog(null,
+                    "Recipient: " + m.getRecipient()
+                    + "\nMessage: " + m.getMessage());
+            return;
         }
         JOptionPane.showMessageDialog(null, "Message ID not found.");
     }
 
     /**
-     * Combine sent + stored look-ups so the user doesn’t have to search twice.
+     * Combine sent + stored look-ups so the user doesn’t have to search twice
+     * (the match runs in the viewer's background worker).
      */
     public static void searchByRecipient(String recipient) {
-        StringBuilder found = new StringBuilder(
-                "Messages sent/stored to " + recipient + ":\n");
-
-        for (Message m : sentMessages) {
-            if (m != null && m.getRecipient().equals(recipient)) {
-                found.append("- ").append(m.getMessage()).append("\n");
-            }
+        if (recipient == null) {
+            return;                                        // dialog cancelled
         }
-
-        for (Message m : storedMessages) {
-            if (m != null && m.getRecipient().equals(recipient)) {
-                found.append("- ").append(m.getMessage()).append(" (stored)\n");
-            }
-        }
-
-        JOptionPane.showMessageDialog(null,
-                found.length() > 0 ? found.toString() : "No messages found.");
+        AggregatingMessageStore.RecipientStats sent = engine.sentTo(recipient);
+        MessageTableViewer.show("Messages sent/stored to " + recipient + (sent == null ? "" : " ("
+                + sent.count() + " sent" + (sent.lastAt() == 0 ? "" : ", last at " + new Date(sent.lastAt()))
+                + ")"),
+                new Column[]{Column.ID, Column.MESSAGE, Column.TYPE},
+                m -> m.getRecipient().equals(recipient), sentMessages, storedMessages);
     }
 
     /**
      * Remove a sent message permanently via its SHA-256 hash.
      */
     public static void deleteByMessageHash(String hash) {
-        for (int i = 0; i < sentCount; i++) {
-            if (sentMessages[i] != null
-                    && sentMessages[i].getMessageHash().equals(hash)) {
-                JOptionPane.showMessageDialog(null,
-                        "Message \"" + sentMessages[i].getMessage() + "\" successfully deleted.");
-                removeSentMessageAtIndex(i); // compact array
-                return;
-            }
+        Message removed = engine.deleteSentByHash(hash); // compact store
+        if (removed != null) {
+            JOptionPane.showMessageDialog(null,
+                    "Message \"" + removed.getMessage() + "\" successfully deleted.");
+            return;
         }
         JOptionPane.showMessageDialog(null, "Message hash not found.");
     }
 
     /**
-     * Pretty console-style report of every sent message.
+     * Table report of every sent message: opens at once and reads only the
+     * rows on screen, however many were sent.
      */
     public static void displayReport() {
-        if (sentCount == 0) {
+        if (sentMessages.size() == 0) {
             JOptionPane.showMessageDialog(null, "No messages have been sent yet.");
             return;
         }
-
-        StringBuilder report = new StringBuilder("📄 Full Sent Messages Report\n");
-        report.append("Total Sent: ").append(sentCount).append("\n\n");
-
-        for (int i = 0; i < sentCount; i++) {
-            Message msg = sentMessages[i];
-            if (msg != null) {
-                report.append("📨 Message #").append(i + 1).append("\n")
-                        .append("ID: ").append(msg.getMessageID()).append("\n")
-                        .append("Hash: ").append(msg.getMessageHash()).append("\n")
-                        .append("To: ").append(msg.getRecipient()).append("\n")
-                        .append("Body: ").append(msg.getMessage()).append("\n\n");
-            }
-        }
-        JOptionPane.showMessageDialog(null, report.toString());
+        MessageTableViewer.show("📄 Full Sent Messages Report – Total Sent: " + getSentCount(),
+                new Column[]{Column.NUMBER, Column.ID, Column.HASH, Column.RECIPIENT, Column.MESSAGE},
+                null, sentMessages);
     }
 
     /* ────────────────── Validation / Prompt Helpers ──────────────────── */
@@ -498,32 +517,21 @@ public class StructuMessage {
         }
 
         String id = JOptionPane.showInputDialog("Enter Message ID to disregard:");
-        for (int i = 0; i < sentCount; i++) {
-            if (sentMessages[i] != null && sentMessages[i].getMessageID().equals(id)) {
-                disregardedMessages[discardCount++] = sentMessages[i];
-                JOptionPane.showMessageDialog(null, "Message " + id + " moved to disregarded.");
-                removeSentMessageAtIndex(i);
-                return;
-            }
+        if (engine.disregardSentByID(id) != null) {
+            JOptionPane.showMessageDialog(null, "Message " + id + " moved to disregarded.");
+            return;
         }
         JOptionPane.showMessageDialog(null, "Message ID not found.");
     }
 
     /**
-     * Remove one element from {@code sentMessages} and keep the array compact.
+     * Remove one element from {@code sentMessages} and keep the store compact
+     * (the store re-points its ID / hash indexes itself).
      *
      * @param index position to remove
      */
     public static void removeSentMessageAtIndex(int index) {
-        for (int j = index; j < sentCount - 1; j++) {
-            sentMessages[j] = sentMessages[j + 1];
-            messageHashes[j] = messageHashes[j + 1];
-            messageIDs[j] = messageIDs[j + 1];
-        }
-        // Null out dangling last slot
-        sentMessages[--sentCount] = null;
-        messageHashes[sentCount] = null;
-        messageIDs[sentCount] = null;
+        engine.removeSentAt(index);
     }
 
     /* ─────────────────────── Demo / Test Helpers ─────────────────────── */
@@ -537,22 +545,7 @@ public class StructuMessage {
     //  Source: https://stackoverflow.com/questions/39333219/
     //
     public static void populateTestMessages() {
-        Message msg1 = new Message("+27834557896", "Hi, this is pre-populated test message 1", sentCount);
-        Message msg2 = new Message("+27831231234", "It is dinner time!", sentCount + 1);
-        Message msg3 = new Message("+27831110000", "Yohoooo, I am at your gate.", sentCount + 2);
-        Message msg4 = new Message("+27832221111", "Fine. I'll meet you there.", sentCount + 3);
-        Message msg5 = new Message("+27839998888", "Ok, I am leaving without you.", sentCount + 4);
-
-        sentMessages[sentCount++] = msg1;
-        sentMessages[sentCount++] = msg2;
-        disregardedMessages[discardCount++] = msg3;
-        storedMessages[storeCount++] = msg4;
-        storedMessages[storeCount++] = msg5;
-
-        messageHashes[0] = msg1.getMessageHash();
-        messageHashes[1] = msg2.getMessageHash();
-        messageIDs[0] = msg1.getMessageID();
-        messageIDs[1] = msg2.getMessageID();
+        engine.populateTestMessages();
 
         JOptionPane.showMessageDialog(null,
                 "📦 5 test messages pre-loaded: 2 sent, 1 discarded, 2 stored.");
@@ -567,34 +560,17 @@ public class StructuMessage {
 // ────────────────────────────────────────────────────────────────────────────────
     /**
      * Pull any previously saved messages from <code>messages.json</code> on
-     * disk and distribute them into the relevant in-memory arrays.
-     * <p>
-     * This runs <em>before</em> user registration so that counters are ready.
+     * disk and distribute them into the relevant in-memory stores, on the
+     * calling thread. {@code main} uses
+     * {@link QuickChatEngine#loadJournalInBackground()} and
+     * {@link #awaitMessages()} instead.
      */
     public static void loadMessagesFromFile() {
         try {
-            File file = new File("messages.json");
-            if (!file.exists()) {
+            if (engine.loadJournal() < 0) {
                 JOptionPane.showMessageDialog(null, "No saved messages found.");
                 return;
             }
-
-            List<Message> loadedMessages = Message.readMessagesFromFile("messages.json");
-            for (Message msg : loadedMessages) {
-                String type = msg.getMessageType().toLowerCase();
-                switch (type) {
-                    case "sent" -> {
-                        sentMessages[sentCount] = msg;
-                        messageHashes[sentCount] = msg.getMessageHash();
-                        messageIDs[sentCount] = msg.getMessageID();
-                        sentCount++;
-                    }
-                    case "stored" ->
-                        storedMessages[storeCount++] = msg;
-                    case "disregarded" ->
-                        disregardedMessages[discardCount++] = msg;
-                }
-            }
             JOptionPane.showMessageDialog(null, "Messages loaded from file successfully.");
         } catch (Exception e) {
             JOptionPane.showMessageDialog(null,
@@ -603,14 +579,36 @@ public class StructuMessage {
     }
 
     /**
-     * Visible-for-tests reset. Clears all message arrays and zeroes counters so
-     * each JUnit test starts from a known state. *NOT* used in production code.
+     * Wait for the background journal load, then add the demo messages after
+     * the loaded ones. Menu options that read or change the stores call this
+     * first: only the first call can block, and by the time a user has got
+     * through registration and login the load has usually finished. Does
+     * nothing when {@code main} did not start a load (unit tests drive the
+     * static methods directly).
+     */
+    static void awaitMessages() {
+        if (messagesReady) {
+            return;
+        }
+        messagesReady = true;
+        try {
+            if (engine.awaitJournal() == -2) {
+                return;                                    // no background load
+            }
+        } catch (CompletionException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Error loading messages from file: " + e.getCause().getMessage());
+        }
+        populateTestMessages();                            // demo data for markers
+    }
+
+    /**
+     * Visible-for-tests reset. Clears all message stores (and with them the
+     * counters) so each JUnit test starts from a known state. *NOT* used in
+     * production code.
      */
     static void _resetForUnitTests() {
-        Arrays.fill(sentMessages, null);
-        Arrays.fill(storedMessages, null);
-        Arrays.fill(disregardedMessages, null);
-        sentCount = storeCount = discardCount = 0;
+        engine.clear();
     }
 }
 
@@ -0,0 +1,329 @@
+package com.mycompany.structumessage;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directory of every registered {@link QuickChatUser}.
+ * <p>
+ * • O(1) look-up by username and by cellphone (two concurrent hash
+ * maps)<br>
+ * • Registration claims the username and cellphone atomically, so two
+ * threads can never register the same name or number<br>
+ * • Persists to a compact binary record file (<code>users.dat</code>):
+ * a small header, then one length-prefixed UTF record per user, appended as
+ * users register and read back with one buffered pass at start-up<br>
+ * • Records hold the PBKDF2 password hash (format version 2); version 1
+ * files with plaintext passwords are hashed and rewritten on load<br>
+ * • {@link #login} checks the password on a bounded
+ * {@link VerificationPool} (the shared one unless
+ * {@link #setVerificationPool another} is set)
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : DataOutputStream / DataInputStream Binary Records
+  Author  : Oracle Java SE 21 API
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/io/DataOutputStream.html
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/concurrent/ConcurrentHashMap.html
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class UserDirectory {
+
+    /**
+     * File the Swing app keeps its users in.
+     */
+    public static final String DEFAULT_FILE = "users.dat";
+
+    static final String USERNAME_TAKEN = "Username is already taken, please choose another.";
+    static final String CELLPHONE_TAKEN = "Cell phone number is already registered.";
+
+    private static final int MAGIC = 0x51435544;        // "QCUD"
+    private static final int VERSION = 2;
+    private static final int PLAINTEXT_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int HEADER_SIZE = 6;           // int magic + short version
+
+    /* ─────────── Indexes ─────────── */
+    private final ConcurrentHashMap<String, QuickChatUser> byUsername;
+    private final ConcurrentHashMap<String, QuickChatUser> byCellphone;
+
+    /* ─────────── Persistence (null = memory only) ─────────── */
+    private final String path;
+
+    private volatile VerificationPool verificationPool;  // null = VerificationPool.shared()
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    /**
+     * In-memory directory (nothing is written to disk).
+     */
+    public UserDirectory() {
+        this(null, 16);
+    }
+
+    private UserDirectory(String path, int expectedUsers) {
+        this.path = path;
+        this.byUsername = new ConcurrentHashMap<>(expectedUsers);
+        this.byCellphone = new ConcurrentHashMap<>(expectedUsers);
+    }
+
+    /**
+     * Open (or start) a file-backed directory. Every record in the file is
+     * loaded; later registrations are appended to it. A torn last record
+     * (crash mid-write) is cut off, so the next append starts on a record
+     * boundary.
+     */
+    public static UserDirectory load(String path) throws IOException {
+        File file = new File(path);
+        if (!file.exists() || file.length() == 0) {
+            return new UserDirectory(path, 16);
+        }
+        // ~40 bytes per record is a cheap over-estimate for pre-sizing
+        UserDirectory directory = new UserDirectory(path, (int) Math.min(file.length() / 40, 1 << 24));
+        int version;
+        long good;                               // end of the last whole record
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            version = readHeader(in);
+            good = HEADER_SIZE;
+            while (true) {
+                QuickChatUser user;
+                try {
+                    user = readRecord(in, version);
+                } catch (EOFException end) {
+                    break;                       // clean end or torn last record
+                }
+                directory.byUsername.put(user.getUsername(), user);
+                directory.byCellphone.put(user.getCellphone(), user);
+                good += recordSize(user);
+            }
+        }
+        if (version == PLAINTEXT_VERSION) {
+            directory.save();                    // never leave plaintext on disk
+        } else if (good < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(good);
+            }
+        }
+        return directory;
+    }
+
+    /* ─────────────────── Registration & Login ─────────────────────── */
+    /**
+     * Validate, claim and persist a new user.
+     *
+     * @return the same feedback strings as {@link QuickChatUser#register()},
+     * or a message saying the username / cellphone is already taken
+     */
+    public String register(QuickChatUser user) throws IOException {
+        String feedback = user.register();
+        if (!user.isValid()) {
+            return feedback;
+        }
+        String conflict = claim(user);
+        if (conflict != null) {
+            return conflict;
+        }
+        try {
+            appendRecords(List.of(user));
+        } catch (IOException e) {
+            release(user);                              // not durable → not registered
+            throw e;
+        }
+        return feedback;
+    }
+
+    /**
+     * Atomically reserve the username and cellphone for this user (no
+     * validation, no disk I/O).
+     *
+     * @return {@code null} on success, otherwise why the claim failed
+     */
+    String claim(QuickChatUser user) {
+        if (byUsername.putIfAbsent(user.getUsername(), user) != null) {
+            return USERNAME_TAKEN;
+        }
+        if (byCellphone.putIfAbsent(user.getCellphone(), user) != null) {
+            byUsername.remove(user.getUsername(), user);     // roll back
+            return CELLPHONE_TAKEN;
+        }
+        return null;
+    }
+
+    /* Undo a successful claim. */
+    void release(QuickChatUser user) {
+        byCellphone.remove(user.getCellphone(), user);
+        byUsername.remove(user.getUsername(), user);
+    }
+
+    /**
+     * Look up the user and check the password on the verification pool,
+     * waiting for the result.
+     *
+     * @return the logged-in user, or {@code null} if the credentials fail
+     * @throws java.util.concurrent.RejectedExecutionException if the pool's
+     * queue is full
+     */
+    public QuickChatUser login(String username, String password) {
+        try {
+            return verificationPool().login(this, username, password).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Pool that {@link #login} verifies passwords on.
+     *
+     * @param pool the pool, or {@code null} for {@link VerificationPool#shared()}
+     */
+    public void setVerificationPool(VerificationPool pool) {
+        this.verificationPool = pool;
+    }
+
+    private VerificationPool verificationPool() {
+        VerificationPool pool = verificationPool;
+        return pool != null ? pool : VerificationPool.shared();
+    }
+
+    /* The check itself, on the caller's thread (pool workers run this). */
+    QuickChatUser verify(String username, String password) {
+        if (username == null) {
+            return null;
+        }
+        QuickChatUser user = byUsername.get(username);
+        return user != null && user.login(username, password) ? user : null;
+    }
+
+    /* ───────────────────── Look-ups ─────────────────── */
+    public QuickChatUser findByUsername(String username) {
+        return username == null ? null : byUsername.get(username);
+    }
+
+    public QuickChatUser findByCellphone(String cellphone) {
+        return cellphone == null ? null : byCellphone.get(cellphone);
+    }
+
+    public int size() {
+        return byUsername.size();
+    }
+
+    public Collection<QuickChatUser> users() {
+        return byUsername.values();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /* ───────────────────── Persistence ─────────────────── */
+    /**
+     * Append records for users that were already claimed. One buffered write
+     * per call, so bulk callers should pass whole batches.
+     */
+    synchronized void appendRecords(Collection<QuickChatUser> users) throws IOException {
+        if (path == null || users.isEmpty()) {
+            return;
+        }
+        File file = new File(path);
+        boolean fresh = !file.exists() || file.length() == 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file, true), BUFFER_SIZE))) {
+            if (fresh) {
+                writeHeader(out);
+            }
+            for (QuickChatUser user : users) {
+                writeRecord(out, user);
+            }
+        }
+    }
+
+    /**
+     * Rewrite the whole file from memory (temp file + atomic rename).
+     */
+    public synchronized void save() throws IOException {
+        if (path == null) {
+            return;
+        }
+        Path target = Path.of(path).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), "users", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+            writeHeader(out);
+            for (QuickChatUser user : byUsername.values()) {
+                writeRecord(out, user);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* ───────────────────────── Record format ─────────────────────── */
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    private static int readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a QuickChat user file");
+        }
+        int version = in.readShort();
+        if (version != VERSION && version != PLAINTEXT_VERSION) {
+            throw new IOException("Unsupported user file version " + version);
+        }
+        return version;
+    }
+
+    private static void writeRecord(DataOutputStream out, QuickChatUser user) throws IOException {
+        out.writeUTF(user.getUsername());
+        out.writeUTF(user.getPasswordHash());
+        out.writeUTF(user.getCellphone());
+        out.writeUTF(nullToEmpty(user.getFirstName()));
+        out.writeUTF(nullToEmpty(user.getLastName()));
+    }
+
+    private static QuickChatUser readRecord(DataInputStream in, int version) throws IOException {
+        String username = in.readUTF();
+        String secret = in.readUTF();            // v1: plaintext, v2: PBKDF2 hash
+        String cellphone = in.readUTF();
+        String firstName = in.readUTF();
+        String lastName = in.readUTF();
+        return version == PLAINTEXT_VERSION
+                ? new QuickChatUser(username, secret, cellphone, firstName, lastName)
+                : QuickChatUser.restore(username, secret, cellphone, firstName, lastName);
+    }
+
+    /* Bytes writeRecord wrote for this user (each writeUTF: 2-byte length + modified UTF-8). */
+    private static long recordSize(QuickChatUser user) {
+        return utfSize(user.getUsername()) + utfSize(user.getPasswordHash()) + utfSize(user.getCellphone())
+                + utfSize(nullToEmpty(user.getFirstName())) + utfSize(nullToEmpty(user.getLastName()));
+    }
+
+    private static long utfSize(String s) {
+        long size = 2;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            size += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return size;
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
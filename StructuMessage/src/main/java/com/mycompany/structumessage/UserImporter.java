@@ -0,0 +1,218 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk registration of users from a CSV export into a {@link UserDirectory}.
+ * <p>
+ * • Expected columns: <code>username,password,cellphone,firstName,lastName</code>
+ * (an optional header row starting with <code>username</code> is skipped;
+ * fields may be double-quoted, with <code>""</code> for a literal quote)<br>
+ * • Rows are read in batches; each batch is parsed, validated and its
+ * passwords hashed in parallel, then claimed in file order (so “first row
+ * wins” on duplicates, every run) and appended to <code>users.dat</code> with
+ * one buffered write<br>
+ * • A bad row never stops the import – it is reported with its line number
+ * and the same feedback {@link QuickChatUser#register()} would give
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+/* ───────────────────── Attribution Headers ───────────────────── */
+
+ /*
+  Title   : Parallel Streams &amp; RFC 4180 CSV Quoting
+  Author  : Oracle Java SE 21 API; IETF
+  Date    : 19 Oct 2026
+  Version : 1.0
+  Sources :
+    • https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/util/stream/package-summary.html#Parallelism
+    • https://www.rfc-editor.org/rfc/rfc4180
+ */
+
+ /* ─────────────────────────────────────────────────────────────── */
+public class UserImporter {
+
+    /**
+     * Rows parsed, validated and persisted together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private static final int FIELDS = 5;
+
+    /**
+     * One rejected CSV row.
+     *
+     * @param line 1-based line number in the file
+     * @param reason why the row was not imported
+     */
+    public record RowError(long line, String reason) {
+
+    }
+
+    /**
+     * Outcome of one import.
+     *
+     * @param rows data rows read (header and blank lines excluded)
+     * @param imported users registered
+     * @param errors rejected rows, in file order
+     */
+    public record Report(long rows, long imported, List<RowError> errors) {
+
+    }
+
+    private final UserDirectory directory;
+    private final int batchSize;
+    private final PasswordHasher hasher;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public UserImporter(UserDirectory directory) {
+        this(directory, DEFAULT_BATCH_SIZE, PasswordHasher.getDefault());
+    }
+
+    /**
+     * @param hasher password hashing cost for imported users
+     */
+    public UserImporter(UserDirectory directory, int batchSize, PasswordHasher hasher) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.hasher = hasher;
+    }
+
+    /* ───────────────────────── Import API ─────────────────────── */
+    /**
+     * Import a UTF-8 CSV file.
+     */
+    public Report importCsv(Path csv) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return importCsv(in);
+        }
+    }
+
+    /**
+     * Import CSV rows from a reader (not closed).
+     *
+     * @throws IOException if reading fails or a batch cannot be persisted;
+     * rows of the failed batch are released, earlier batches stay imported
+     */
+    public Report importCsv(BufferedReader in) throws IOException {
+        List<RowError> errors = new ArrayList<>();
+        long rows = 0;
+        long imported = 0;
+        long lineNo = 0;
+
+        List<String> lines = new ArrayList<>(batchSize);
+        long[] lineNos = new long[batchSize];
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            boolean header = lineNo == 1 && line.regionMatches(true, 0, "username", 0, 8);
+            if (header || line.isBlank()) {
+                continue;
+            }
+            lineNos[lines.size()] = lineNo;
+            lines.add(line);
+            if (lines.size() == batchSize) {
+                imported += importBatch(lines, lineNos, errors);
+                rows += lines.size();
+                lines.clear();
+            }
+        }
+        if (!lines.isEmpty()) {
+            imported += importBatch(lines, lineNos, errors);
+            rows += lines.size();
+        }
+        return new Report(rows, imported, Collections.unmodifiableList(errors));
+    }
+
+    /* ───────────────────────── Batch processing ─────────────────────── */
+    /*
+     * Parse + validate + hash in parallel (the expensive part), then claim in
+     * file order so duplicate handling is deterministic, then one append.
+     */
+    private int importBatch(List<String> lines, long[] lineNos, List<RowError> errors)
+            throws IOException {
+        int n = lines.size();
+        QuickChatUser[] users = new QuickChatUser[n];
+        String[] problems = new String[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            String[] f = parseRow(lines.get(i));
+            if (f == null || f.length != FIELDS) {
+                problems[i] = "Expected " + FIELDS
+                        + " fields: username,password,cellphone,firstName,lastName";
+                return;
+            }
+            QuickChatUser user = new QuickChatUser(f[0], f[1], f[2], f[3], f[4], hasher);
+            if (user.isValid()) {
+                users[i] = user;
+            } else {
+                problems[i] = user.register();        // first failing check's message
+            }
+        });
+
+        List<QuickChatUser> accepted = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (users[i] != null) {
+                problems[i] = directory.claim(users[i]);
+                if (problems[i] == null) {
+                    accepted.add(users[i]);
+                }
+            }
+            if (problems[i] != null) {
+                errors.add(new RowError(lineNos[i], problems[i]));
+            }
+        }
+
+        try {
+            directory.appendRecords(accepted);
+        } catch (IOException e) {
+            accepted.forEach(directory::release);
+            throw e;
+        }
+        return accepted.size();
+    }
+
+    /**
+     * Split one CSV line; {@code null} for an unterminated quoted field.
+     */
+    static String[] parseRow(String line) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,92 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool for password verification.
+ * <p>
+ * • PBKDF2 is deliberately slow, so logins run here instead of on the
+ * caller's thread<br>
+ * • A fixed number of low-priority workers (half the cores by default) and a
+ * bounded queue cap the CPU a login burst can take from the message path;
+ * once the queue is full further logins fail fast with
+ * {@link RejectedExecutionException} instead of piling up<br>
+ * • {@link UserDirectory#login} uses {@link #shared()} unless given its own
+ * pool
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class VerificationPool implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /* Created on first use, so apps that never log in start no threads. */
+    private static final class Shared {
+
+        static final VerificationPool POOL = new VerificationPool();
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    /* ────────────────────────── Constructors ────────────────────────── */
+    public VerificationPool() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param workers verification threads
+     * @param queueCapacity logins allowed to wait for a worker
+     */
+    public VerificationPool(int workers, int queueCapacity) {
+        AtomicInteger ids = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread t = new Thread(task, "quickchat-verify-" + ids.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Default-sized pool shared by every {@link UserDirectory} without its
+     * own (never closed; its workers are daemon threads).
+     */
+    public static VerificationPool shared() {
+        return Shared.POOL;
+    }
+
+    /* ───────────────────────── Verification ─────────────────────── */
+    /**
+     * Verify the credentials on a pool worker.
+     *
+     * @return completes with the user, or {@code null} for bad credentials;
+     * completes exceptionally with {@link RejectedExecutionException} when
+     * the pool is saturated
+     */
+    public CompletableFuture<QuickChatUser> login(UserDirectory directory,
+            String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> directory.verify(username, password), executor);
+        } catch (RejectedExecutionException saturated) {
+            return CompletableFuture.failedFuture(saturated);
+        }
+    }
+
+    /**
+     * Logins queued but not yet started.
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,239 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.AggregatingMessageStore.RecipientStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link AggregatingMessageStore} and the engine's
+ * reports built on it.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Longest message through adds, removals and ties, over heap and
+ * off-heap stores</li>
+ * <li>The longest message is read from the store: current flags, and the
+ * right one of two messages sharing an ID</li>
+ * <li>Deleting the longest message again and again never scans the
+ * store</li>
+ * <li>Messages loaded from the journal have no last time</li>
+ * <li>Per-recipient counts and last times; recipients with nothing left
+ * are dropped</li>
+ * <li>Every engine path that changes the sent store agrees with a full
+ * scan</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class AggregatingMessageStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static Message msg(String recipient, String body) {
+        return new Message(recipient, body, 0);
+    }
+
+    /**
+     * The longest message follows every change; on a tie the first added
+     * wins. An off-heap store returns copies, which still match.
+     */
+    @Test
+    public void testLongest_FollowsChanges() {
+        for (MessageStore inner : List.of(new ConcurrentMessageStore(100), new OffHeapMessageStore())) {
+            AggregatingMessageStore store = new AggregatingMessageStore(inner);
+            assertNull(store.longest());
+            store.add(msg("+27830000001", "short"));
+            store.add(msg("+27830000002", "the longest one"));
+            store.add(msg("+27830000003", "also as longest"));
+            assertEquals("the longest one", store.longest().getMessage());
+            assertEquals(store.get(store.longestMessageIndex()).getMessage(), store.longest().getMessage());
+
+            store.removeAt(1);
+            assertEquals("also as longest", store.longest().getMessage());
+            store.removeAllByID(Set.of(store.get(1).getMessageID()));
+            assertEquals("short", store.longest().getMessage());
+            store.clear();
+            assertNull(store.longest());
+            assertEquals(0, store.recipientCount());
+            if (inner instanceof OffHeapMessageStore offHeap) {
+                offHeap.close();
+            }
+        }
+    }
+
+    /**
+     * The report hands back the store's current copy, not the one added,
+     * and tells apart two messages that share an ID.
+     */
+    @Test
+    public void testLongest_ReadFromStore() {
+        for (MessageStore inner : List.of(new ConcurrentMessageStore(100), new OffHeapMessageStore())) {
+            AggregatingMessageStore store = new AggregatingMessageStore(inner);
+            store.add(Message.restore("0000000042", "+27830000001", "short one",
+                    "00:42:SHORTONE", "sent", true, true, false));
+            store.add(Message.restore("0000000042", "+27830000002", "the longer one",
+                    "00:42:THELONGER", "sent", true, true, false));
+            assertEquals("00:42:THELONGER", store.longest().getMessageHash());
+            assertFalse(store.longest().isRead());
+
+            store.removeAt(0);
+            store.applyReceipts(Map.of("0000000042", DeliveryLog.READ), new HashMap<>());
+            assertTrue(store.longest().isRead(), "flags as the store holds them now");
+            if (inner instanceof OffHeapMessageStore offHeap) {
+                offHeap.close();
+            }
+        }
+    }
+
+    /**
+     * Deleting the current longest message, over and over, with ties and
+     * copies of one message: each report names the next one without a
+     * scan of the store.
+     */
+    @Test
+    public void testLongest_NoScanAfterRemovals() {
+        ConcurrentMessageStore inner = new ConcurrentMessageStore(10_000) {
+            @Override
+            public int longestMessageIndex() {
+                throw new AssertionError("scanned");
+            }
+        };
+        AggregatingMessageStore store = new AggregatingMessageStore(inner);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 2_000; i++) {
+            Message m = msg("+2783000000" + (i % 5), "x".repeat(1 + random.nextInt(120)));
+            store.add(m);
+            if (i % 100 == 0) {
+                store.add(m);                              // a second copy of the same message
+            }
+        }
+        while (store.size() > 0) {
+            Message longest = store.longest();
+            int expected = 0;
+            Message first = null;
+            for (Message m : inner.snapshot()) {
+                if (m.getMessage().length() > expected) {
+                    expected = m.getMessage().length();
+                    first = m;
+                }
+            }
+            assertSame(first, longest);
+            store.removeAt(random.nextBoolean() ? inner.indexOfID(longest.getMessageID())
+                    : random.nextInt(store.size()));
+        }
+        assertNull(store.longest());
+    }
+
+    /**
+     * Counts go up and down with the store; the last time is the latest
+     * arrival and survives deleting that message. Messages the store held
+     * before it was wrapped have no time.
+     */
+    @Test
+    public void testRecipientStats() {
+        AtomicLong now = new AtomicLong(1_000);
+        ConcurrentMessageStore inner = new ConcurrentMessageStore(100);
+        inner.add(msg("+27830000001", "already there"));
+        AggregatingMessageStore store = new AggregatingMessageStore(inner, now::get);
+        assertEquals(new RecipientStats("+27830000001", 1, 0), store.recipient("+27830000001"));
+
+        now.set(2_000);
+        store.add(msg("+27830000001", "second"));
+        store.add(msg("+27830000002", "other"));
+        now.set(3_000);
+        store.add(msg("+27830000001", "third"));
+        assertEquals(new RecipientStats("+27830000001", 3, 3_000), store.recipient("+27830000001"));
+        assertEquals(2, store.recipientCount());
+        assertEquals("+27830000001", store.recipients().get(0).recipient());
+
+        store.removeAt(3);
+        assertEquals(new RecipientStats("+27830000001", 2, 3_000), store.recipient("+27830000001"));
+        store.removeAt(2);
+        assertNull(store.recipient("+27830000002"));
+        assertEquals(1, store.recipientCount());
+        assertNull(store.recipient(null));
+    }
+
+    /**
+     * Random sends, drafts, sent drafts, disregards, deletes and index
+     * removals through the engine: the maintained figures always equal a
+     * scan of the sent store, and survive a reload.
+     */
+    @Test
+    public void testEngineReports_MatchScan() {
+        String journal = dir.resolve("messages.json").toString();
+        QuickChatEngine engine = new QuickChatEngine(journal, 10_000);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int step = 0; step < 600; step++) {
+            String to = "+2783000000" + random.nextInt(6);
+            switch (random.nextInt(7)) {
+                case 0, 1, 2 ->
+                    engine.route(msg(to, "x".repeat(1 + random.nextInt(40))), "sent");
+                case 3 ->
+                    engine.route(msg(to, "draft " + "y".repeat(random.nextInt(50))), "stored");
+                case 4 -> {
+                    if (engine.getStoreCount() > 0) {
+                        engine.sendStored(engine.stored().get(random.nextInt(engine.getStoreCount())).getMessageID());
+                    }
+                }
+                case 5 -> {
+                    if (engine.getSentCount() > 0) {
+                        Message m = engine.sent().get(random.nextInt(engine.getSentCount()));
+                        if (random.nextBoolean()) {
+                            engine.disregardSentByID(m.getMessageID());
+                        } else {
+                            engine.deleteSentByHash(m.getMessageHash());
+                        }
+                    }
+                }
+                default -> {
+                    if (engine.getSentCount() > 0) {
+                        engine.removeSentAt(random.nextInt(engine.getSentCount()));
+                    }
+                }
+            }
+            if (step % 50 == 0) {
+                assertMatchesScan(engine);
+            }
+        }
+        assertMatchesScan(engine);
+
+        QuickChatEngine reloaded = new QuickChatEngine(journal, 10_000);
+        reloaded.loadJournal();
+        assertMatchesScan(reloaded);
+        for (RecipientStats loaded : reloaded.sentRecipients()) {
+            assertEquals(0, loaded.lastAt(), "the journal keeps no time");
+        }
+        Message now = msg(reloaded.sentRecipients().isEmpty() ? "+27830000000"
+                : reloaded.sentRecipients().get(0).recipient(), "sent after the restart");
+        reloaded.route(now, "sent");
+        assertTrue(reloaded.sentTo(now.getRecipient()).lastAt() > 0);
+    }
+
+    private static void assertMatchesScan(QuickChatEngine engine) {
+        int index = engine.sent().longestMessageIndex();
+        Message longest = engine.longestSent();
+        assertEquals(index < 0 ? null : engine.sent().get(index).getMessage(),
+                longest == null ? null : longest.getMessage());
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (Message m : engine.sent().snapshot()) {
+            counts.merge(m.getRecipient(), 1, Integer::sum);
+        }
+        assertEquals(counts.size(), engine.sentRecipientCount());
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            assertEquals(e.getValue(), engine.sentTo(e.getKey()).count(), e.getKey());
+        }
+    }
+}
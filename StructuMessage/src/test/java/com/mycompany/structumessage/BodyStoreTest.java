@@ -0,0 +1,145 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link BodyStore} and the engine's body interning.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Identical text shares one copy under one SHA-256 key; stats</li>
+ * <li>Releasing references and compaction</li>
+ * <li>Journalling by key: one sidecar line per distinct body, reload
+ * resolves every message</li>
+ * <li>A torn last line is cut off before the next body is appended</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class BodyStoreTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Equal texts come back as the same instance; the ratio and bytes saved
+     * follow the reference counts.
+     */
+    @Test
+    public void testIntern_SharesAndReports() {
+        BodyStore store = new BodyStore(dir.resolve("b.bodies"));
+        BodyStore.Body a = store.intern(new String("Store this message"), false);
+        BodyStore.Body b = store.intern(new String("Store this message"), false);
+        store.intern("Message to be stored", false);
+
+        assertSame(a, b);
+        assertSame(a.text(), b.text());
+        assertEquals(2, a.refs());
+        assertTrue(a.key().matches("[0-9a-f]{64}"), "hex SHA-256 key");
+        assertEquals(a.text(), store.resolve(a.key()));
+        assertFalse(a.persisted());
+
+        BodyStore.Stats stats = store.stats();
+        assertEquals(3, stats.references());
+        assertEquals(2, stats.distinct());
+        assertEquals(1.5, stats.dedupRatio(), 1e-9);
+        assertEquals("Store this message".length(), stats.bytesSaved());
+    }
+
+    /**
+     * Bodies whose last reference is released go at the next compaction.
+     */
+    @Test
+    public void testReleaseAndCompact() {
+        BodyStore store = new BodyStore(dir.resolve("b.bodies"));
+        store.intern("Keep me", false);
+        BodyStore.Body gone = store.intern("Drop me", false);
+
+        assertTrue(store.release("Drop me"));
+        assertFalse(store.release("Drop me"), "no references left");
+        assertFalse(store.release("Never seen"));
+        assertEquals(1, store.compact());
+        assertNull(store.resolve(gone.key()));
+        assertEquals(1, store.stats().distinct());
+        assertEquals(0, store.stats().bytesSaved());
+    }
+
+    /**
+     * With journal references on, the journal carries keys, each distinct
+     * body is written once to the sidecar, and a fresh engine loads every
+     * message back with its text (shared again).
+     */
+    @Test
+    public void testEngine_JournalByReferenceRoundTrip() throws Exception {
+        String journal = dir.resolve("messages.json").toString();
+        QuickChatEngine engine = new QuickChatEngine(journal, 1000);
+        engine.setBodyInterning(true, true);
+        List<IngestRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String body = i % 3 == 0 ? "Store this message" : i % 3 == 1 ? "Message to be stored" : "Say \"hi\"\\now";
+            requests.add(new IngestRequest("+27831234567", body, i % 2 == 0 ? "send" : "store"));
+        }
+        engine.ingest(requests);
+        assertTrue(engine.route(new Message("+27831234567", "Store this message", 300), "sent"));
+
+        assertEquals(3, Files.readAllLines(engine.bodies().getPath()).size());
+        List<String> lines = Files.readAllLines(Path.of(journal));
+        assertEquals(301, lines.size());
+        assertTrue(lines.stream().allMatch(l -> l.contains("\"bodyRef\":\"") && !l.contains("\"message\":")));
+        assertEquals(301.0 / 3, engine.bodies().stats().dedupRatio(), 1e-9);
+
+        QuickChatEngine reloaded = new QuickChatEngine(journal, 1000);
+        reloaded.setBodyInterning(true, false);
+        assertEquals(301, reloaded.loadJournal());
+        Message first = reloaded.sent().get(0);
+        Message last = reloaded.sent().get(reloaded.getSentCount() - 1);
+        assertEquals("Store this message", first.getMessage());
+        assertSame(first.getMessage(), last.getMessage());
+        assertTrue(reloaded.stored().snapshot().stream()
+                .anyMatch(m -> m.getMessage().equals("Say \"hi\"\\now")), "escaped body survives");
+        assertNull(first.getBodyRef(), "re-interned without journal references");
+
+        Message removed = reloaded.deleteSentByHash(last.getMessageHash());
+        assertNotNull(removed);
+        assertEquals(300, reloaded.bodies().stats().references());
+        reloaded.clear();
+        assertEquals(0, reloaded.bodies().stats().distinct());
+    }
+
+    /**
+     * A crash can leave the last line without its newline, even one that
+     * looks whole; the next body still goes on a line of its own and
+     * resolves after a restart.
+     */
+    @Test
+    public void testPersist_AfterTornLine() throws Exception {
+        Path path = dir.resolve("torn.bodies");
+        BodyStore store = new BodyStore(path);
+        BodyStore.Body first = store.intern("First body", true);
+        BodyStore.Body second = store.intern("Second body", true);
+        String whole = Files.readString(path);
+        Files.writeString(path, whole.substring(0, whole.length() - System.lineSeparator().length()),
+                StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);   // second line lost its newline
+
+        BodyStore restarted = new BodyStore(path);
+        BodyStore.Body third = restarted.intern("Third body", true);
+        assertTrue(third.persisted());
+
+        BodyStore reloaded = new BodyStore(path);
+        assertEquals(2, reloaded.load());
+        assertEquals("First body", reloaded.resolve(first.key()));
+        assertNull(reloaded.resolve(second.key()), "torn line cut off");
+        assertEquals("Third body", reloaded.resolve(third.key()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.structumessage;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares sending one text to N recipients as N separate {@link Message}s
+ * (a hash and a JSON line each) with one {@link Broadcast}. Not a JUnit
+ * test (surefire skips it); run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.BroadcastBenchmark \
+ *     -Dexec.args="10000"
+ * </pre>
+ *
+ * Prints time, journal bytes and retained heap (approximate, after GC) for
+ * both.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class BroadcastBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int recipients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        String body = "Reminder: the team meeting has moved to 15:00 tomorrow in the large "
+                + "boardroom. Please bring the quarterly numbers and your laptop. "
+                + "Coffee and snacks will be provided; reply if you can't make it.";
+        List<String> numbers = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++) {
+            numbers.add(String.format("+2783%07d", i));
+        }
+
+        Path dir = Files.createTempDirectory("broadcast-bench");
+        System.out.printf("%-10s %10s %10s %14s %14s%n", "mode", "recipients", "ms", "journal bytes", "heap bytes");
+        for (int round = 0; round < 3; round++) {          // first round is warm-up
+            runMessages(dir.resolve("messages-" + round + ".json"), body, numbers);
+            runBroadcast(dir.resolve("broadcast-" + round + ".json"), body, numbers);
+        }
+    }
+
+    /* Today's way: one Message, one hash, one JSON line per recipient. */
+    private static void runMessages(Path journal, String body, List<String> numbers) {
+        long heapBefore = usedHeap();
+        QuickChatEngine engine = new QuickChatEngine(journal.toString(), numbers.size());
+        long begin = System.nanoTime();
+        List<Message> batch = new ArrayList<>(numbers.size());
+        for (int i = 0; i < numbers.size(); i++) {
+            Message m = new Message(numbers.get(i), new String(body), i);   // a UI / wire body is a new string
+            engine.sent().add(m);
+            batch.add(m);
+        }
+        Message.appendAllToJournal(journal.toString(), batch);
+        long nanos = System.nanoTime() - begin;
+        batch.clear();                                     // the store still holds every message
+        long heap = usedHeap() - heapBefore;
+        Reference.reachabilityFence(engine);
+        report("messages", numbers.size(), nanos, journal, heap);
+    }
+
+    private static void runBroadcast(Path journal, String body, List<String> numbers) throws Exception {
+        long heapBefore = usedHeap();
+        QuickChatEngine engine = new QuickChatEngine(journal.toString(), 100);
+        long begin = System.nanoTime();
+        engine.broadcast(new String(body), numbers);
+        long nanos = System.nanoTime() - begin;
+        long heap = usedHeap() - heapBefore;
+        Reference.reachabilityFence(engine);
+        report("broadcast", numbers.size(), nanos, engine.broadcasts().getPath(), heap);
+    }
+
+    private static void report(String mode, int n, long nanos, Path file, long heap) {
+        long bytes;
+        try {
+            bytes = Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        System.out.printf("%-10s %,10d %10.1f %,14d %,14d%n", mode, n, nanos / 1e6, bytes, heap);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
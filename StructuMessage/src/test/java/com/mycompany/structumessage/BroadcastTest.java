@@ -0,0 +1,152 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link Broadcast}, {@link BroadcastStore} and
+ * {@link QuickChatEngine#broadcast}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Fan-out views share one body and carry per-recipient IDs / hashes</li>
+ * <li>Invalid recipients are skipped; leading zeros survive packing</li>
+ * <li>Journal size grows by eight bytes per recipient; reload round-trip</li>
+ * <li>A torn last record is cut off, so later broadcasts still load</li>
+ * <li>Per-recipient receipts, directly and via a {@link DeliveryLog}
+ * replay</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class BroadcastTest {
+
+    @TempDir
+    Path dir;
+
+    private QuickChatEngine newEngine() {
+        return new QuickChatEngine(dir.resolve("messages.json").toString(), 100);
+    }
+
+    /**
+     * Every fan-out is a sent message with the shared body, its own ID and
+     * the hash a numbered message would have had.
+     */
+    @Test
+    public void testBroadcast_SharedBodyFanout() throws Exception {
+        QuickChatEngine engine = newEngine();
+        Broadcast b = engine.broadcast("Did you get the cake?",
+                List.of("+27831234567", "not-a-number", "+27001234567", "+27839999999", "+27 83 1"));
+
+        assertEquals(3, b.size(), "two invalid recipients skipped");
+        assertEquals("+27001234567", b.recipient(1), "leading zeros kept");
+        Message first = b.toMessage(0);
+        Message last = b.toMessage(2);
+        assertSame(first.getMessage(), last.getMessage());
+        assertEquals("+27839999999", last.getRecipient());
+        assertEquals(b.getBroadcastID() + "-2", last.getMessageID());
+        assertEquals(Message.createMessageHash(b.getBroadcastID(), 2, b.getBody()), last.getMessageHash());
+        assertTrue(last.isSent());
+        assertFalse(last.isReceived());
+        assertEquals(0, engine.getSentCount(), "fan-outs do not fill the sent store");
+        assertFalse(Files.exists(Path.of(engine.getJournalPath())), "nothing in the JSON journal");
+        assertNull(engine.broadcast("Hi", List.of("bad")));
+        assertThrows(IllegalArgumentException.class, () -> engine.broadcast("x".repeat(251), List.of("+27831234567")));
+    }
+
+    /**
+     * Disk use is the body once plus eight bytes per recipient, and a fresh
+     * store loads the same broadcasts back.
+     */
+    @Test
+    public void testJournal_CompactAndReloads() throws Exception {
+        QuickChatEngine engine = newEngine();
+        String body = "Reminder: team meeting moved to 15:00, bring the quarterly numbers.";
+        List<String> recipients = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            recipients.add(String.format("+2783%07d", i));
+        }
+        Broadcast b = engine.broadcast(body, recipients);
+
+        long bytes = Files.size(engine.broadcasts().getPath());
+        assertTrue(bytes < 10_000 * 8 + 200, "journal bytes " + bytes);
+
+        BroadcastStore reloaded = new BroadcastStore(engine.broadcasts().getPath());
+        assertEquals(1, reloaded.load());
+        Broadcast copy = reloaded.get(b.getBroadcastID());
+        assertEquals(10_000, copy.size());
+        assertEquals(body, copy.getBody());
+        assertEquals("+27830004321", copy.recipient(4321));
+        assertEquals(b.getCreatedAt(), copy.getCreatedAt());
+        assertEquals(-1, new BroadcastStore(dir.resolve("none.broadcast")).load());
+    }
+
+    /**
+     * A crash mid-write leaves half a record; the restart cuts it off, so
+     * the next broadcast lands on a record boundary and loads.
+     */
+    @Test
+    public void testLoad_TruncatesTornRecord() throws Exception {
+        QuickChatEngine engine = newEngine();
+        Broadcast first = engine.broadcast("First ünïcode", List.of("+27831234567", "+27839999999"));
+        Path path = engine.broadcasts().getPath();
+        long whole = Files.size(path);
+        assertEquals(whole, first.recordSize());
+        engine.broadcast("Torn", List.of("+27831234567", "+27839999999"));
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+            raf.setLength(whole + 20);                     // crash inside the recipients
+        }
+
+        QuickChatEngine restarted = newEngine();
+        assertEquals(1, restarted.broadcasts().load());
+        assertEquals(whole, Files.size(path));
+        Broadcast later = restarted.broadcast("Later", List.of("+27830000001"));
+
+        BroadcastStore reloaded = new BroadcastStore(path);
+        assertEquals(2, reloaded.load());
+        assertEquals("First ünïcode", reloaded.get(first.getBroadcastID()).getBody());
+        assertEquals("+27830000001", reloaded.get(later.getBroadcastID()).recipient(0));
+    }
+
+    /**
+     * Receipts address single recipients; a read implies received; the
+     * same states replayed from a delivery log restore the flags.
+     */
+    @Test
+    public void testReceipts_PerRecipientFlags() throws Exception {
+        QuickChatEngine engine = newEngine();
+        Broadcast b = engine.broadcast("Party at 8", List.of("+27831111111", "+27832222222", "+27833333333"));
+        BroadcastStore store = engine.broadcasts();
+
+        Path logPath = DeliveryLog.forJournal(engine.getJournalPath());
+        try (DeliveryLog log = new DeliveryLog(logPath)) {
+            assertEquals(DeliveryLog.RECEIVED | DeliveryLog.READ, store.applyReceipt(b.fanoutID(0), DeliveryLog.READ));
+            log.record(b.fanoutID(0), DeliveryLog.READ);
+            assertEquals(DeliveryLog.RECEIVED, store.applyReceipt(b.fanoutID(2), DeliveryLog.RECEIVED));
+            log.record(b.fanoutID(2), DeliveryLog.RECEIVED);
+            assertEquals(0, store.applyReceipt(b.fanoutID(2), DeliveryLog.RECEIVED), "no change twice");
+            assertEquals(0, store.applyReceipt(b.getBroadcastID() + "-9", DeliveryLog.READ));
+            assertEquals(0, store.applyReceipt("1234567890", DeliveryLog.READ));
+        }
+        assertEquals(2, b.count(DeliveryLog.RECEIVED));
+        assertEquals(1, b.count(DeliveryLog.READ));
+
+        BroadcastStore reloaded = new BroadcastStore(store.getPath());
+        reloaded.load();
+        Map<String, Integer> states = DeliveryLog.replay(logPath);
+        assertEquals(2, reloaded.apply(states));
+        Broadcast copy = reloaded.get(b.getBroadcastID());
+        assertTrue(copy.toMessage(0).isRead());
+        assertFalse(copy.toMessage(1).isReceived());
+        assertTrue(copy.toMessage(2).isReceived());
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.structumessage;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wall-clock start-up of fresh JVMs: the headless {@link QuickChatCli} with
+ * and without the AppCDS archive, against the GUI entry point up to its
+ * first dialog. Not a JUnit test (surefire skips it); build the jar and
+ * archive, then run it with:
+ *
+ * <pre>
+ * mvn -Pappcds clean package -DskipTests
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.CliStartupBenchmark \
+ *     -Dexec.args="target/StructuMessage-1.0-SNAPSHOT.jar target/quickchat-cli.jsa 10"
+ * </pre>
+ *
+ * Each command runs the given number of times; prints the best and median
+ * milliseconds from process start to exit. The GUI run uses
+ * <code>java.awt.headless=true</code>, so it stops with a
+ * <code>HeadlessException</code> at the welcome dialog, after the toolkit
+ * has loaded.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class CliStartupBenchmark {
+
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    public static void main(String[] args) throws Exception {
+        String jar = args.length > 0 ? args[0] : "target/StructuMessage-1.0-SNAPSHOT.jar";
+        String archive = args.length > 1 ? args[1] : "target/quickchat-cli.jsa";
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        if (!new File(jar).exists()) {
+            System.err.println("No jar at " + jar + ": run mvn -Pappcds clean package -DskipTests first");
+            return;
+        }
+        Path dir = Files.createTempDirectory("startup-bench");
+        String journal = dir.resolve("messages.json").toString();
+        Path csv = Files.write(dir.resolve("batch.csv"),
+                List.of("+27830000001,Startup one", "+27830000002,Startup two,store", "+27830000003,Startup three"));
+        time(1, cli(jar, null, "--journal", journal, "send", "--file", csv.toString()));
+
+        boolean cds = new File(archive).exists();
+        System.out.printf("%-34s %10s %10s%n", "run", "best ms", "median ms");
+        String[][] commands = {
+            {"query", "report"}, {"send", "+27830000009", "Timed send"}, {"export", "type", "sent"}, {"compact"}};
+        for (String[] command : commands) {
+            List<String> cliArgs = new ArrayList<>(List.of("--journal", journal));
+            cliArgs.addAll(List.of(command));
+            String[] argv = cliArgs.toArray(String[]::new);
+            report("cli " + command[0], time(runs, cli(jar, null, argv)));
+            if (cds) {
+                report("cli " + command[0] + " + AppCDS", time(runs, cli(jar, archive, argv)));
+            }
+        }
+        report("gui to first dialog", time(Math.min(runs, 5),
+                List.of(JAVA, "-Djava.awt.headless=true", "-cp", jar, StructuMessage.class.getName())));
+        if (!cds) {
+            System.out.println("(no archive at " + archive + ": AppCDS rows skipped)");
+        }
+    }
+
+    private static List<String> cli(String jar, String archive, String... args) {
+        List<String> command = new ArrayList<>(List.of(JAVA));
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(List.of("-cp", jar, QuickChatCli.class.getName()));
+        command.addAll(List.of(args));
+        return command;
+    }
+
+    /* Sorted wall-clock millis per run; output is discarded. */
+    private static long[] time(int runs, List<String> command) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long begin = System.nanoTime();
+            Process p = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            p.waitFor();
+            millis[i] = (System.nanoTime() - begin) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private static void report(String name, long[] millis) {
+        System.out.printf("%-34s %10d %10d%n", name, millis[0], millis[millis.length / 2]);
+    }
+}
@@ -0,0 +1,172 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link ConcurrentMessageStore}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Concurrent appends keep size, slots and indexes consistent</li>
+ * <li>Capacity limit under contention</li>
+ * <li>Index re-pointing after compacting removal (incl. duplicate hashes)</li>
+ * <li>Batch removal by ID in one compaction pass; every copy of a shared
+ * ID, or only those a filter accepts, the same as the default</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class ConcurrentMessageStoreTest {
+
+    /**
+     * Eight writers appending at once must not lose or duplicate a message.
+     */
+    @Test
+    public void testConcurrentAdds_AllVisibleAndIndexed() throws InterruptedException {
+        ConcurrentMessageStore store = new ConcurrentMessageStore();
+        int threads = 8;
+        int perThread = 5000;
+        List<List<Message>> batches = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Message> batch = new ArrayList<>();
+            for (int i = 0; i < perThread; i++) {
+                batch.add(Message.restore(String.format("%02d%08d", t, i), "+27830000000",
+                        "Body " + i, t + ":" + i, "sent", true, true, true));
+            }
+            batches.add(batch);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (List<Message> batch : batches) {
+            Thread w = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch.forEach(store::add);
+            });
+            w.start();
+            writers.add(w);
+        }
+        start.countDown();
+        for (Thread w : writers) {
+            w.join();
+        }
+
+        assertEquals(threads * perThread, store.size());
+        Set<String> ids = new HashSet<>();
+        for (Message m : store.snapshot()) {
+            assertTrue(ids.add(m.getMessageID()));
+        }
+        Message probe = batches.get(3).get(1234);
+        assertEquals(probe.getMessageID(), store.get(store.indexOfID(probe.getMessageID())).getMessageID());
+    }
+
+    /**
+     * Writers racing for the last slots may never push past the limit.
+     */
+    @Test
+    public void testCapacityLimit_UnderContention() throws InterruptedException {
+        ConcurrentMessageStore store = new ConcurrentMessageStore(100);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread w = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    store.add(new Message("+27830000000", "Flood", i));
+                }
+            });
+            w.start();
+            writers.add(w);
+        }
+        for (Thread w : writers) {
+            w.join();
+        }
+        assertEquals(100, store.size());
+    }
+
+    /**
+     * After removal, the hash index must point at the next duplicate.
+     */
+    @Test
+    public void testRemoveAt_ReindexesDuplicates() {
+        ConcurrentMessageStore store = new ConcurrentMessageStore();
+        Message a = Message.restore("1000000001", "+27830000001", "Test", "10:0:TESTNA", "sent", true, true, true);
+        Message b = Message.restore("1000000002", "+27830000002", "Other", "10:1:OTHERNA", "sent", true, true, true);
+        Message c = Message.restore("1000000003", "+27830000003", "Test", "10:0:TESTNA", "sent", true, true, true);
+        store.add(a);
+        store.add(b);
+        store.add(c);
+
+        assertEquals(0, store.indexOfHash("10:0:TESTNA"));
+        store.removeAt(0);
+        assertEquals(1, store.indexOfHash("10:0:TESTNA"));
+        assertEquals(0, store.indexOfID("1000000002"));
+        assertEquals(-1, store.indexOfID("1000000001"));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(2));
+    }
+
+    /**
+     * Removing a set of IDs keeps the survivors in order and re-points both
+     * indexes, including a hash whose first occurrence was removed.
+     */
+    @Test
+    public void testRemoveAllByID_CompactsAndReindexes() {
+        ConcurrentMessageStore store = new ConcurrentMessageStore();
+        for (int i = 0; i < 10; i++) {
+            store.add(Message.restore("100000000" + i, "+27830000000", "Body " + i,
+                    i % 2 == 0 ? "even" : "odd:" + i, "stored", true, true, true));
+        }
+
+        List<Message> removed = store.removeAllByID(Set.of("1000000000", "1000000003", "1000000009", "nope"));
+
+        assertEquals(List.of("1000000000", "1000000003", "1000000009"),
+                removed.stream().map(Message::getMessageID).toList());
+        assertEquals(7, store.size());
+        assertEquals(List.of("Body 1", "Body 2", "Body 4", "Body 5", "Body 6", "Body 7", "Body 8"),
+                store.snapshot().stream().map(Message::getMessage).toList());
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(i, store.indexOfID(store.get(i).getMessageID()));
+        }
+        assertEquals(1, store.indexOfHash("even"));            // Body 2 is the first even now
+        assertEquals(-1, store.indexOfID("1000000003"));
+        assertEquals(-1, store.indexOfHash("odd:9"));
+    }
+
+    /**
+     * A shared ID loses every copy, or only the copies a filter accepts;
+     * the override agrees with the interface default (used by the off-heap
+     * store).
+     */
+    @Test
+    public void testRemoveAllByID_SharedIDAgreesWithDefault() {
+        ConcurrentMessageStore heap = new ConcurrentMessageStore();
+        try (OffHeapMessageStore offHeap = new OffHeapMessageStore()) {
+            for (MessageStore store : List.of(heap, offHeap)) {
+                for (int i = 0; i < 8; i++) {
+                    store.add(Message.restore(i % 3 == 0 ? "7777777777" : "100000000" + i, "+27830000000",
+                            "Body " + i, "hash:" + i, "stored", true, true, true));
+                }
+            }
+            for (MessageStore store : List.of(heap, offHeap)) {
+                assertEquals(List.of("Body 3"), store.removeAllByID(Set.of("7777777777"),
+                        m -> m.getMessageHash().equals("hash:3")).stream().map(Message::getMessage).toList());
+                assertEquals(List.of("Body 0", "Body 2", "Body 6"),
+                        store.removeAllByID(Set.of("7777777777", "1000000002")).stream()
+                                .map(Message::getMessage).toList());
+                assertEquals(List.of("Body 1", "Body 4", "Body 5", "Body 7"),
+                        store.snapshot().stream().map(Message::getMessage).toList());
+                assertEquals(-1, store.indexOfID("7777777777"));
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+import com.mycompany.structumessage.QuickChatEngine.IngestStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link DedupWindow} and the engine's duplicate check.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Duplicates inside the time window are dropped; hit / miss counters</li>
+ * <li>Fingerprints expire after the window (two generations)</li>
+ * <li>Count-based rotation keeps memory bounded</li>
+ * <li>Ingest reports DUPLICATE and does not journal the retry</li>
+ * <li>Forgotten fingerprints (store full) let the retry through; the rest
+ * stay</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class DedupWindowTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Same recipient / body / category is a duplicate; any field changed is
+     * not. Counters track both.
+     */
+    @Test
+    public void testFirstSeen_DropsDuplicatesAndCounts() {
+        DedupWindow window = new DedupWindow(Duration.ofMinutes(5));
+
+        assertTrue(window.firstSeen("+27831234567", "Hello", "sent"));
+        assertFalse(window.firstSeen("+27831234567", "Hello", "sent"));
+        assertTrue(window.firstSeen("+27831234567", "Hello!", "sent"));
+        assertTrue(window.firstSeen("+27839999999", "Hello", "sent"));
+        assertTrue(window.firstSeen("+27831234567", "Hello", "stored"));
+        assertTrue(window.firstSeen("+2783123456", "7Hello", "sent"), "field boundaries matter");
+
+        assertEquals(1, window.hits());
+        assertEquals(5, window.misses());
+        assertEquals(5, window.size());
+    }
+
+    /**
+     * A fingerprint survives one rotation and is gone after the second.
+     */
+    @Test
+    public void testTimeWindow_Expires() {
+        AtomicLong now = new AtomicLong();
+        DedupWindow window = new DedupWindow(Duration.ofSeconds(10), 1000, now::get);
+
+        assertTrue(window.firstSeen("+27831234567", "Retry me", "sent"));
+        now.addAndGet(12 * SECOND);                        // rotated once: in "previous"
+        assertFalse(window.firstSeen("+27831234567", "Retry me", "sent"));
+        now.addAndGet(10 * SECOND);                        // rotated twice: forgotten
+        assertTrue(window.firstSeen("+27831234567", "Retry me", "sent"));
+
+        now.addAndGet(25 * SECOND);                        // idle two windows: both cleared
+        assertTrue(window.firstSeen("+27830000000", "Other", "sent"));
+        assertEquals(1, window.size());
+    }
+
+    /**
+     * A full generation rotates early, so at most two generations' worth of
+     * fingerprints are ever held.
+     */
+    @Test
+    public void testCountWindow_BoundedMemory() {
+        DedupWindow window = new DedupWindow(Duration.ofDays(1), 100, () -> 0);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(window.firstSeen("+27831234567", "Message " + i, "sent"));
+            assertTrue(window.size() <= 200);
+        }
+        assertFalse(window.firstSeen("+27831234567", "Message 9999", "sent"));
+        assertFalse(window.firstSeen("+27831234567", "Message 9900", "sent"));
+        assertTrue(window.firstSeen("+27831234567", "Message 0", "sent"), "long out of the window");
+    }
+
+    /**
+     * Retries in a batch come back DUPLICATE; only the first copy is
+     * stored and journalled.
+     */
+    @Test
+    public void testIngest_DuplicateRetries() {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 100);
+        engine.setDedupWindow(new DedupWindow(Duration.ofMinutes(1)));
+
+        List<IngestResult> results = engine.ingest(List.of(
+                new IngestRequest("+27831234567", "Pay me back", "send"),
+                new IngestRequest("+27831234567", "Pay me back", "send"),
+                new IngestRequest("+27831234567", "Pay me back", "store"),
+                new IngestRequest("+27831234567", "Pay me back", "SEND")));
+
+        assertEquals(List.of(IngestStatus.SENT, IngestStatus.DUPLICATE, IngestStatus.STORED,
+                IngestStatus.DUPLICATE), results.stream().map(IngestResult::status).toList());
+        assertEquals(1, engine.getSentCount());
+        assertEquals(2, Message.readMessagesFromFile(engine.getJournalPath()).size());
+    }
+
+    /**
+     * Forgetting one fingerprint in a crowded table leaves every other one
+     * findable, in either generation.
+     */
+    @Test
+    public void testForget_KeepsTheRest() {
+        AtomicLong now = new AtomicLong();
+        DedupWindow window = new DedupWindow(Duration.ofSeconds(10), 1_000, now::get);
+        for (int i = 0; i < 900; i++) {
+            assertTrue(window.firstSeen("+27831234567", "Message " + i, "sent"));
+        }
+        now.set(11 * SECOND);                              // rotate: all 900 now in the previous set
+        for (int i = 900; i < 1_000; i++) {
+            assertTrue(window.firstSeen("+27831234567", "Message " + i, "sent"));
+        }
+        for (int i = 0; i < 1_000; i += 3) {
+            assertTrue(window.forget("+27831234567", "Message " + i, "sent"));
+        }
+        assertFalse(window.forget("+27831234567", "Message 0", "sent"));
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 3 == 0, window.firstSeen("+27831234567", "Message " + i, "sent"), "Message " + i);
+        }
+        assertEquals(1_000, window.size());
+    }
+
+    /**
+     * A send refused by a full store is not remembered: once there is room,
+     * the retry is stored instead of dropped as a duplicate.
+     */
+    @Test
+    public void testIngest_StoreFullRetryAccepted() {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("full.json").toString(), 1);
+        engine.setDedupWindow(new DedupWindow(Duration.ofMinutes(1)));
+
+        List<IngestResult> first = engine.ingest(List.of(
+                new IngestRequest("+27831234567", "Fills the store", "send"),
+                new IngestRequest("+27831234567", "Pay me back", "send")));
+        assertEquals(List.of(IngestStatus.SENT, IngestStatus.STORE_FULL),
+                first.stream().map(IngestResult::status).toList());
+
+        engine.removeSentAt(0);
+        List<IngestResult> retry = engine.ingest(List.of(
+                new IngestRequest("+27831234567", "Pay me back", "send"),
+                new IngestRequest("+27831234567", "Pay me back", "send")));
+        assertEquals(List.of(IngestStatus.SENT, IngestStatus.DUPLICATE),
+                retry.stream().map(IngestResult::status).toList());
+        assertEquals("Pay me back", engine.sent().get(0).getMessage());
+        assertEquals(2, Message.readMessagesFromFile(engine.getJournalPath()).size());
+    }
+}
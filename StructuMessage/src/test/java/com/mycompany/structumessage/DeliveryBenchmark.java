@@ -0,0 +1,62 @@
+package com.mycompany.structumessage;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivery latency and footprint with a million messages in flight at once,
+ * driven by {@link DeliverySimulator}. Not a JUnit test; run it after
+ * <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.DeliveryBenchmark \
+ *     -Dexec.args="VIRTUAL_THREADS 1000000"
+ * </pre>
+ *
+ * Every hop has a mean latency of one second, so all messages are submitted
+ * long before the first ones are read and the whole batch is in flight
+ * together. Give the JVM a few GB of heap for the full million.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class DeliveryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        DeliverySimulator.Mode mode = args.length > 0
+                ? DeliverySimulator.Mode.valueOf(args[0]) : DeliverySimulator.Mode.VIRTUAL_THREADS;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        DeliverySimulator.Profile profile = new DeliverySimulator.Profile(Duration.ofSeconds(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), 0.001);
+
+        Message[] batch = new Message[messages];
+        for (int i = 0; i < messages; i++) {
+            batch[i] = new Message("+27830000000", "Load " + i, i);
+        }
+
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = rt.totalMemory() - rt.freeMemory();
+        long begin = System.nanoTime();
+        CompletableFuture<?> last = null;
+        try (DeliverySimulator sim = new DeliverySimulator(mode, profile, null)) {
+            for (Message m : batch) {
+                last = sim.deliver(m);
+            }
+            long submitNanos = System.nanoTime() - begin;
+            long heapInFlight = rt.totalMemory() - rt.freeMemory();
+            sim.awaitIdle();
+            long total = System.nanoTime() - begin;
+
+            System.out.printf("mode=%s messages=%,d%n", mode, messages);
+            System.out.printf("submit: %,d ms (%,.0f msg/s)%n", submitNanos / 1_000_000,
+                    messages / (submitNanos / 1e9));
+            System.out.printf("peak in flight: %,d   heap while in flight: ~%,d MB%n",
+                    sim.peakInFlight(), (heapInFlight - heapBefore) >> 20);
+            System.out.printf("delivered=%,d failed=%,d in %,d ms%n", sim.delivered(), sim.failed(),
+                    total / 1_000_000);
+            System.out.println("latency " + sim.latency().summary(1_000_000, "ms"));
+        }
+        last.join();
+    }
+}
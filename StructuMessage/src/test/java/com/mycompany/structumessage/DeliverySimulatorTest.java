@@ -0,0 +1,174 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link DeliverySimulator}, {@link DeliveryLog} and
+ * {@link LatencyHistogram}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Both modes drive every message to sent, received and read</li>
+ * <li>Failure rate 1 loses every message at the first hop</li>
+ * <li>Transitions persist and replay onto a reloaded engine</li>
+ * <li>A torn last record is cut off before the next run appends</li>
+ * <li>Histogram bucketing and percentiles</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class DeliverySimulatorTest {
+
+    private static final DeliverySimulator.Profile FAST = new DeliverySimulator.Profile(
+            Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMillis(1), 0);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Every message ends up read in both modes, and latencies are recorded.
+     */
+    @Test
+    public void testDeliver_BothModesReachRead() throws Exception {
+        for (DeliverySimulator.Mode mode : DeliverySimulator.Mode.values()) {
+            List<Message> messages = new ArrayList<>();
+            List<CompletableFuture<Boolean>> outcomes = new ArrayList<>();
+            try (DeliverySimulator sim = new DeliverySimulator(mode, FAST, null)) {
+                for (int i = 0; i < 500; i++) {
+                    Message m = new Message("+27830000000", "Hello " + i, i);
+                    messages.add(m);
+                    outcomes.add(sim.deliver(m));
+                }
+                for (CompletableFuture<Boolean> f : outcomes) {
+                    assertTrue(f.get(10, TimeUnit.SECONDS), mode.toString());
+                }
+                assertEquals(500, sim.delivered());
+                assertEquals(0, sim.failed());
+                assertEquals(0, sim.inFlight());
+                assertEquals(500, sim.latency().count());
+                assertTrue(sim.latency().percentile(50) > 0);
+            }
+            for (Message m : messages) {
+                assertTrue(m.isSent() && m.isReceived() && m.isRead());
+            }
+        }
+    }
+
+    /**
+     * With a failure rate of 1 nothing gets past the first hop.
+     */
+    @Test
+    public void testDeliver_AllLost() throws Exception {
+        DeliverySimulator.Profile lossy = new DeliverySimulator.Profile(
+                Duration.ZERO, Duration.ZERO, Duration.ZERO, 1.0);
+        try (DeliverySimulator sim = new DeliverySimulator(DeliverySimulator.Mode.SCHEDULER, lossy, null)) {
+            Message m = new Message("+27830000000", "Lost", 1);
+            assertFalse(sim.deliver(m).get(10, TimeUnit.SECONDS));
+            assertFalse(m.isSent() || m.isReceived() || m.isRead());
+            assertEquals(1, sim.failed());
+            assertEquals(0, sim.latency().count());
+        }
+    }
+
+    /**
+     * Logged transitions replay onto the same messages after a reload.
+     */
+    @Test
+    public void testDeliveryLog_ReplayAfterReload() throws Exception {
+        String journal = dir.resolve("messages.json").toString();
+        QuickChatEngine engine = new QuickChatEngine(journal, 10);
+        Message read = new Message("+27830000000", "Read me", 1);
+        Message lost = new Message("+27830000001", "Lose me", 2);
+        engine.route(read, "sent");
+        engine.route(lost, "sent");
+
+        Path logPath = DeliveryLog.forJournal(journal);
+        try (DeliveryLog log = new DeliveryLog(logPath, 64);
+                DeliverySimulator sim = new DeliverySimulator(DeliverySimulator.Mode.VIRTUAL_THREADS, FAST, log)) {
+            assertTrue(sim.deliver(read).get(10, TimeUnit.SECONDS));
+        }
+        try (DeliveryLog log = new DeliveryLog(logPath, 64)) {
+            log.record(lost.getMessageID(), DeliveryLog.SENT);
+            log.record(lost.getMessageID(), DeliveryLog.FAILED);
+        }
+
+        Map<String, Integer> states = DeliveryLog.replay(logPath);
+        assertEquals(DeliveryLog.SENT | DeliveryLog.RECEIVED | DeliveryLog.READ,
+                states.get(read.getMessageID()));
+        assertEquals(DeliveryLog.SENT | DeliveryLog.FAILED, states.get(lost.getMessageID()));
+
+        QuickChatEngine reloaded = new QuickChatEngine(journal, 10);
+        reloaded.loadJournal();
+        assertEquals(2, DeliveryLog.apply(reloaded, states));
+        Message r = reloaded.findSentByID(read.getMessageID());
+        Message l = reloaded.findSentByID(lost.getMessageID());
+        assertTrue(r.isSent() && r.isReceived() && r.isRead());
+        assertTrue(l.isSent());
+        assertFalse(l.isReceived() || l.isRead());
+    }
+
+    /**
+     * A crash mid-write leaves half a record; reopening the log cuts it off,
+     * so the next transition is not glued onto it.
+     */
+    @Test
+    public void testDeliveryLog_TruncatesTornRecord() throws Exception {
+        Path path = dir.resolve("torn.delivery");
+        try (DeliveryLog log = new DeliveryLog(path)) {
+            log.record("1111111111", DeliveryLog.SENT);
+            log.record("1111111111", DeliveryLog.RECEIVED);
+        }
+        long whole = Files.size(path);
+        try (DeliveryLog log = new DeliveryLog(path)) {
+            log.record("2222222222", DeliveryLog.SENT);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+            raf.setLength(whole + 5);                      // crash inside the ID
+        }
+
+        try (DeliveryLog log = new DeliveryLog(path)) {
+            assertEquals(whole, Files.size(path));
+            log.record("2222222222", DeliveryLog.READ);
+        }
+        assertEquals(Map.of("1111111111", DeliveryLog.SENT | DeliveryLog.RECEIVED,
+                "2222222222", DeliveryLog.READ), DeliveryLog.replay(path));
+    }
+
+    /**
+     * Bucket bounds round-trip and percentiles stay within one bucket.
+     */
+    @Test
+    public void testHistogram_Percentiles() {
+        for (long v : new long[]{0, 1, 63, 64, 65, 127, 128, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            long lower = LatencyHistogram.lowerBound(LatencyHistogram.index(v));
+            assertTrue(lower <= v, "lower bound of " + v);
+            assertTrue(v - lower <= Math.max(1, v / 64), "bucket width at " + v);
+        }
+
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(99));
+        for (long v = 1; v <= 10_000; v++) {
+            h.record(v * 1_000);
+        }
+        assertEquals(10_000, h.count());
+        assertEquals(10_000_000, h.max());
+        assertEquals(5_000_500, h.mean());
+        assertEquals(5_000_000, h.percentile(50), 5_000_000 / 64.0);
+        assertEquals(9_900_000, h.percentile(99), 9_900_000 / 64.0);
+        assertEquals(9_990_000, h.percentile(99.9), 9_990_000 / 64.0);
+        assertEquals(10_000_000, h.percentile(100), 10_000_000 / 64.0);
+    }
+}
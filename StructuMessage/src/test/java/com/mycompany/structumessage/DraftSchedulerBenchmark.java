@@ -0,0 +1,83 @@
+package com.mycompany.structumessage;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of {@link DraftScheduler} with a million pending drafts: scheduling
+ * rate, the price of an idle tick, and the price of a tick that sends a
+ * batch. Not a JUnit test; run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.DraftSchedulerBenchmark
+ * </pre>
+ *
+ * Runs on a simulated clock, so a day of one-second ticks takes as long as
+ * the work itself. Idle ticks cost the same whatever the backlog; a sending
+ * tick also pays for one compaction of the stored store.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class DraftSchedulerBenchmark {
+
+    private static final int DRAFTS = 1_000_000;
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long DAY = 86_400_000L;
+
+    public static void main(String[] args) throws Exception {
+        File journal = File.createTempFile("drafts", ".json");
+        journal.deleteOnExit();
+        QuickChatEngine engine = new QuickChatEngine(journal.getPath(), Integer.MAX_VALUE);
+        engine.startAsyncJournal(AsyncJournal.DEFAULT_RING_SIZE, RingBuffer.WaitStrategy.BLOCKING,
+                RingBuffer.Overflow.BLOCK);
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofSeconds(1), now::get);
+
+        // one draft per 100 ms of the first day, the rest spread over a year
+        Message[] drafts = new Message[DRAFTS];
+        for (int i = 0; i < DRAFTS; i++) {
+            drafts[i] = new Message("+27830000000", "Draft " + i, i);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < DRAFTS; i++) {
+            long at = i < 864_000 ? T0 + 1 + i * 100L
+                    : T0 + DAY + ThreadLocalRandom.current().nextLong(365 * DAY);
+            scheduler.schedule(drafts[i], at);
+        }
+        long scheduleNanos = System.nanoTime() - begin;
+        System.out.printf("schedule: %,d drafts in %,d ms (%,.0f/s)%n", DRAFTS, scheduleNanos / 1_000_000,
+                DRAFTS / (scheduleNanos / 1e9));
+
+        // idle: a second wheel whose drafts are all due after the first day
+        QuickChatEngine quietEngine = new QuickChatEngine(journal.getPath() + ".quiet", Integer.MAX_VALUE);
+        quietEngine.startAsyncJournal(AsyncJournal.DEFAULT_RING_SIZE, RingBuffer.WaitStrategy.BLOCKING,
+                RingBuffer.Overflow.BLOCK);
+        AtomicLong quietNow = new AtomicLong(T0);
+        DraftScheduler quiet = new DraftScheduler(quietEngine, Duration.ofSeconds(1), quietNow::get);
+        for (int i = 0; i < DRAFTS; i++) {
+            quiet.schedule(new Message("+27830000000", "Next year " + i, i),
+                    T0 + DAY + ThreadLocalRandom.current().nextLong(365 * DAY));
+        }
+        begin = System.nanoTime();
+        quiet.advanceTo(T0 + DAY - 1);
+        long idleNanos = System.nanoTime() - begin;
+        System.out.printf("idle ticks: 86,400 with %,d pending in %,d ms (%,d ns/tick)%n",
+                quiet.pending(), idleNanos / 1_000_000, idleNanos / 86_400);
+        quietEngine.stopAsyncJournal();
+        new File(journal.getPath() + ".quiet").delete();
+
+        // sending: ten drafts due per tick, first minute of the day
+        begin = System.nanoTime();
+        int sent = 0;
+        for (int second = 1; second <= 60; second++) {
+            sent += scheduler.advanceTo(T0 + second * 1000L);
+        }
+        long sendNanos = System.nanoTime() - begin;
+        System.out.printf("sending ticks: 60 sent %,d with ~%,d stored in %,d ms (%,d us/tick)%n",
+                sent, engine.getStoreCount(), sendNanos / 1_000_000, sendNanos / 60 / 1_000);
+        engine.stopAsyncJournal();
+    }
+}
@@ -0,0 +1,210 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link DraftScheduler}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Drafts fire on their deadline tick, across every wheel level</li>
+ * <li>Cancelled drafts stay stored and unscheduled, also with the async
+ * journal</li>
+ * <li>The schedule survives a restart through the journal</li>
+ * <li>Two drafts sharing an ID keep their own deadlines</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class DraftSchedulerTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private QuickChatEngine engine(String name) {
+        return new QuickChatEngine(dir.resolve(name).toString(), 100_000);
+    }
+
+    /**
+     * Random deadlines from one tick to beyond level 2: after every advance,
+     * exactly the drafts that are due have moved to the sent store.
+     */
+    @Test
+    public void testAdvance_FiresExactlyWhenDue() throws Exception {
+        QuickChatEngine engine = engine("wheel.json");
+        engine.startAsyncJournal(1024, RingBuffer.WaitStrategy.BLOCKING, RingBuffer.Overflow.BLOCK);
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofMillis(1), now::get);
+        Random random = new Random(42);
+        List<Message> drafts = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Message m = new Message("+27830000000", "Later " + i, i);
+            long delay = i % 10 == 0 ? random.nextInt(400_000) : random.nextInt(5_000);
+            assertTrue(scheduler.schedule(m, T0 + 1 + delay));
+            drafts.add(m);
+        }
+        assertEquals(5_000, scheduler.pending());
+
+        while (scheduler.pending() > 0) {
+            now.addAndGet(1 + random.nextInt(3_000));
+            scheduler.advanceTo(now.get());
+            for (Message m : drafts) {
+                boolean due = m.getSendAt() == 0;      // cleared when sent
+                assertEquals(due, engine.findSentByID(m.getMessageID()) != null);
+            }
+            assertEquals(drafts.size(), engine.getSentCount() + engine.getStoreCount());
+        }
+        engine.stopAsyncJournal();
+        assertEquals(5_000, scheduler.fired());
+        assertEquals(0, engine.getStoreCount());
+    }
+
+    /**
+     * Every draft fires on its own deadline tick, never earlier or later.
+     */
+    @Test
+    public void testAdvance_TickPrecision() {
+        QuickChatEngine engine = engine("precise.json");
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofSeconds(1), now::get);
+        long[] delays = {1, 63, 64, 65, 4_095, 4_096, 300_000};
+        for (long d : delays) {
+            scheduler.schedule(new Message("+27830000000", "In " + d + "s", 0), T0 + d * 1000);
+        }
+        long elapsed = 0;
+        for (long d : delays) {
+            assertEquals(0, scheduler.advanceTo(T0 + (d - 1) * 1000), "early at " + d);
+            assertEquals(1, scheduler.advanceTo(T0 + d * 1000), "on time at " + d);
+            elapsed = d;
+        }
+        assertEquals(300_000, elapsed);
+        assertEquals(0, scheduler.pending());
+    }
+
+    /**
+     * A cancelled draft never fires and stays a plain stored draft.
+     */
+    @Test
+    public void testCancel_StaysStored() {
+        QuickChatEngine engine = engine("cancel.json");
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofSeconds(1), now::get);
+        Message m = new Message("+27830000000", "Never mind", 0);
+        scheduler.schedule(m, T0 + 10_000);
+
+        assertTrue(scheduler.cancel(m.getMessageID()));
+        assertFalse(scheduler.cancel(m.getMessageID()));
+        assertEquals(0, scheduler.advanceTo(T0 + 60_000));
+        assertEquals(1, engine.getStoreCount());
+        assertEquals(0, m.getSendAt());
+
+        QuickChatEngine reloaded = engine("cancel.json");
+        reloaded.loadJournal();
+        assertEquals(1, reloaded.getStoreCount());
+        assertEquals(0, reloaded.stored().get(0).getSendAt());
+    }
+
+    /**
+     * With the async journal running, each cancel line lands after its
+     * schedule line, so a restart brings none of the schedules back.
+     */
+    @Test
+    public void testCancel_AsyncJournalKeepsOrder() throws Exception {
+        QuickChatEngine engine = engine("cancel-async.json");
+        engine.startAsyncJournal(16, RingBuffer.WaitStrategy.SLEEPING, RingBuffer.Overflow.BLOCK);
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofSeconds(1), now::get);
+        for (int i = 0; i < 500; i++) {
+            Message m = new Message("+27830000000", "Cancelled " + i, i);
+            assertTrue(scheduler.schedule(m, T0 + 10_000));
+            assertTrue(scheduler.cancel(m.getMessageID()));
+        }
+        engine.stopAsyncJournal();
+
+        QuickChatEngine reloaded = engine("cancel-async.json");
+        assertEquals(500, reloaded.loadJournal());
+        try (DraftScheduler restarted = new DraftScheduler(reloaded, Duration.ofSeconds(1), now::get)) {
+            assertEquals(0, restarted.start());
+        }
+    }
+
+    /**
+     * IDs are random and can collide: a second draft with the same ID
+     * neither takes the first off the wheel nor goes out with it.
+     */
+    @Test
+    public void testSharedID_KeepsBothSchedules() {
+        QuickChatEngine engine = engine("shared.json");
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofSeconds(1), now::get);
+        Message a = Message.restore("4242424242", "+27830000001", "Due in five seconds",
+                "42:5:DUEIN", "stored", false, false, false);
+        Message b = Message.restore("4242424242", "+27830000002", "Due in an hour",
+                "42:5:DUEINAN", "stored", false, false, false);
+        assertTrue(scheduler.schedule(a, T0 + 5_000));
+        assertTrue(scheduler.schedule(b, T0 + 3_600_000));
+        assertEquals(2, scheduler.pending());
+
+        assertEquals(1, scheduler.advanceTo(T0 + 6_000));
+        assertEquals(List.of(a), engine.sent().snapshot());
+        assertEquals(List.of(b), engine.stored().snapshot());
+        assertEquals(3_600_000 + T0, b.getSendAt());
+        assertEquals(1, scheduler.pending());
+
+        assertEquals(0, scheduler.advanceTo(T0 + 3_599_000));
+        assertEquals(1, scheduler.advanceTo(T0 + 3_600_000));
+        assertEquals(2, engine.getSentCount());
+
+        QuickChatEngine reloaded = engine("shared.json");
+        assertEquals(2, reloaded.loadJournal());
+        assertEquals(2, reloaded.getSentCount());
+        assertEquals(0, reloaded.getStoreCount());
+    }
+
+    /**
+     * After a restart the sent draft is loaded once (as sent), and the
+     * pending ones go back on the wheel; overdue ones fire on the next tick.
+     */
+    @Test
+    public void testRestart_ReschedulesFromJournal() {
+        QuickChatEngine engine = engine("restart.json");
+        AtomicLong now = new AtomicLong(T0);
+        DraftScheduler scheduler = new DraftScheduler(engine, Duration.ofSeconds(1), now::get);
+        Message early = new Message("+27830000001", "Early", 0);
+        Message soon = new Message("+27830000002", "Soon", 1);
+        Message late = new Message("+27830000003", "Late", 2);
+        scheduler.schedule(early, T0 + 5_000);
+        scheduler.schedule(soon, T0 + 60_000);
+        scheduler.schedule(late, T0 + 3_600_000);
+        assertEquals(1, scheduler.advanceTo(T0 + 5_000));
+
+        // "restart" two minutes later: soon is overdue, late is not
+        QuickChatEngine reloaded = engine("restart.json");
+        assertEquals(3, reloaded.loadJournal());
+        assertEquals(1, reloaded.getSentCount());
+        assertEquals(early.getMessageID(), reloaded.sent().get(0).getMessageID());
+        assertEquals(2, reloaded.getStoreCount());
+
+        now.set(T0 + 120_000);
+        DraftScheduler restarted = new DraftScheduler(reloaded, Duration.ofSeconds(1), now::get);
+        assertEquals(2, restarted.start());
+        restarted.close();                             // drive it by hand from here
+        assertEquals(1, restarted.advanceTo(T0 + 121_000));
+        assertNotNull(reloaded.findSentByID(soon.getMessageID()));
+        assertEquals(0, restarted.advanceTo(T0 + 3_599_000));
+        assertEquals(1, restarted.advanceTo(T0 + 3_600_000));
+        assertEquals(3, reloaded.getSentCount());
+    }
+}
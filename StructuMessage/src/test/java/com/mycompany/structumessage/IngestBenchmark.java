@@ -0,0 +1,46 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messages per second through {@link QuickChatEngine#ingest(Iterable)}
+ * (validation, hashing, routing and batched journal writes). Not a JUnit
+ * test; run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.IngestBenchmark
+ * </pre>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class IngestBenchmark {
+
+    private static final int MESSAGES = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        List<IngestRequest> requests = new ArrayList<>(MESSAGES);
+        String[] actions = {"send", "send", "send", "store", "discard"};
+        for (int i = 0; i < MESSAGES; i++) {
+            requests.add(new IngestRequest(String.format("+2783%07d", i % 10_000_000),
+                    "Feed message number " + i + " from the batch importer", actions[i % actions.length]));
+        }
+
+        System.out.printf("%6s %15s%n", "round", "messages/sec");
+        for (int round = 1; round <= 5; round++) {          // first rounds are warm-up
+            File journal = File.createTempFile("ingest", ".json");
+            journal.deleteOnExit();
+            QuickChatEngine engine = new QuickChatEngine(journal.getPath(), Integer.MAX_VALUE);
+            long begin = System.nanoTime();
+            engine.ingest(requests);
+            long elapsed = System.nanoTime() - begin;
+            System.out.printf("%6d %,15d%n", round, (long) (MESSAGES / (elapsed / 1e9)));
+            journal.delete();
+        }
+    }
+}
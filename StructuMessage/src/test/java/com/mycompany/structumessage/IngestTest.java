@@ -0,0 +1,96 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+import com.mycompany.structumessage.QuickChatEngine.IngestStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link QuickChatEngine#ingest(Iterable)}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Routing of send / discard / store and per-item feedback</li>
+ * <li>Validation failures and full stores</li>
+ * <li>Batched journal writes that load back</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class IngestTest {
+
+    @TempDir
+    Path dir;
+
+    private QuickChatEngine engine(int capacity) {
+        return new QuickChatEngine(dir.resolve("messages.json").toString(), capacity);
+    }
+
+    /**
+     * Each action lands in its store; invalid items are reported in place.
+     */
+    @Test
+    public void testIngest_RoutesAndValidates() {
+        QuickChatEngine engine = engine(100);
+        List<IngestResult> results = engine.ingest(List.of(
+                new IngestRequest("+27834557896", "Did you get the cake?", "Send"),
+                new IngestRequest("+27831110000", "Yohoooo, I am at your gate.", "discard"),
+                new IngestRequest("+27832221111", "It is dinner time!", "store"),
+                new IngestRequest("0834557896", "No plus sign", "send"),
+                new IngestRequest("+27834557896", "x".repeat(260), "send"),
+                new IngestRequest("+27834557896", "Hello", "forward")));
+
+        assertEquals(List.of(IngestStatus.SENT, IngestStatus.DISREGARDED, IngestStatus.STORED,
+                IngestStatus.INVALID_RECIPIENT, IngestStatus.INVALID_LENGTH, IngestStatus.INVALID_ACTION),
+                results.stream().map(IngestResult::status).toList());
+        assertEquals("Message exceeds 250 characters by 10, please reduce size.", results.get(4).feedback());
+        assertEquals(1, engine.getSentCount());
+        assertEquals(1, engine.getDiscardCount());
+        assertEquals(1, engine.getStoreCount());
+
+        Message sent = results.get(0).message();
+        assertEquals(sent.getMessageID().substring(0, 2) + ":0:DIDCAKE", sent.getMessageHash());
+        assertEquals("sent", sent.getMessageType());
+    }
+
+    /**
+     * A full store is reported per item and nothing extra is journaled.
+     */
+    @Test
+    public void testIngest_StoreFull() throws IOException {
+        QuickChatEngine engine = engine(2);
+        List<IngestResult> results = engine.ingest(IntStream.range(0, 3)
+                .mapToObj(i -> new IngestRequest("+27834557896", "Message " + i, "send")));
+
+        assertEquals(IngestStatus.STORE_FULL, results.get(2).status());
+        assertEquals("Message storage full.", results.get(2).feedback());
+        assertEquals(2, Files.readAllLines(Path.of(engine.getJournalPath())).size());
+    }
+
+    /**
+     * Several batches are journaled in order and reload into a fresh engine.
+     */
+    @Test
+    public void testIngest_BatchesReload() {
+        QuickChatEngine engine = engine(Integer.MAX_VALUE);
+        List<IngestResult> results = engine.ingest(IntStream.range(0, 2_500)
+                .mapToObj(i -> new IngestRequest("+27834557896", "Bulk message " + i,
+                        i % 2 == 0 ? "send" : "store"))
+                .iterator(), 1_000);
+
+        assertTrue(results.stream().allMatch(r -> r.status().accepted()));
+        QuickChatEngine reloaded = engine(Integer.MAX_VALUE);
+        assertEquals(2_500, reloaded.loadJournal());
+        assertEquals(1_250, reloaded.getSentCount());
+        assertEquals(engine.sent().get(7).getMessageHash(), reloaded.sent().get(7).getMessageHash());
+    }
+}
@@ -0,0 +1,107 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares exporting from the journal the heap way (parse every line into a
+ * {@link Message}, filter, build the text in a <code>StringBuilder</code>,
+ * write it) with {@link JournalIndex} + <code>transferTo</code>. Not a JUnit
+ * test (surefire skips it); run it after <code>mvn test-compile</code>
+ * with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.JournalExportBenchmark \
+ *     -Dexec.args="300000"
+ * </pre>
+ *
+ * Prints time and bytes allocated by the exporting thread for one
+ * recipient (1 % of the lines) and for every sent line (90 %), plus the
+ * one-off cost of building the index.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class JournalExportBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS
+            = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        Path dir = Files.createTempDirectory("export-bench");
+        Path journal = dir.resolve("messages.json");
+        List<Message> batch = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Message m = new Message(String.format("+27830%06d", i % 100),
+                    "Export benchmark message number " + i + ", long enough to look like a real text.", i);
+            m.setMessageType(i % 10 == 0 ? "stored" : "sent");
+            batch.add(m);
+        }
+        Message.appendAllToJournal(journal.toString(), batch);
+        batch.clear();
+        System.out.printf("journal: %d lines, %.1f MB%n%n", lines, Files.size(journal) / 1e6);
+
+        JournalIndex index = new JournalIndex(journal);
+        long[] cost = measure(() -> index.refresh());
+        System.out.printf("index build: %.1f ms, %.1f MB allocated%n%n", cost[0] / 1e6, cost[1] / 1e6);
+
+        System.out.printf("%-10s %-8s %10s %14s %12s%n", "export", "mode", "ms", "allocated MB", "output MB");
+        Path out = dir.resolve("export.json");
+        for (int round = 0; round < 3; round++) {          // first round is warm-up
+            boolean print = round > 0;
+            report(print, "recipient", "heap", measure(() -> heapExport(journal, out, "+27830000042", null)), out);
+            report(print, "recipient", "index", measure(() -> index.exportRecipient("+27830000042", out)), out);
+            report(print, "sent", "heap", measure(() -> heapExport(journal, out, null, "sent")), out);
+            report(print, "sent", "index", measure(() -> {
+                try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    return index.exportType("sent", ch);
+                }
+            }), out);
+        }
+    }
+
+    /* What exporting looks like without the index. */
+    private static long heapExport(Path journal, Path out, String recipient, String type) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (Message m : Message.readMessagesFromFile(journal.toString())) {
+            if ((recipient == null || recipient.equals(m.getRecipient()))
+                    && (type == null || type.equalsIgnoreCase(m.getMessageType()))) {
+                sb.append(m.toJsonLine()).append('\n');
+            }
+        }
+        try (BufferedWriter w = Files.newBufferedWriter(out)) {
+            w.append(sb);
+        }
+        return sb.length();
+    }
+
+    private interface Export {
+
+        long run() throws Exception;
+    }
+
+    /* {nanos, bytes allocated by this thread} */
+    private static long[] measure(Export export) throws Exception {
+        long id = Thread.currentThread().threadId();
+        long allocBefore = THREADS.getThreadAllocatedBytes(id);
+        long begin = System.nanoTime();
+        export.run();
+        long nanos = System.nanoTime() - begin;
+        return new long[]{nanos, THREADS.getThreadAllocatedBytes(id) - allocBefore};
+    }
+
+    private static void report(boolean print, String what, String mode, long[] cost, Path out) throws Exception {
+        if (print) {
+            System.out.printf("%-10s %-8s %10.1f %14.2f %12.1f%n", what, mode, cost[0] / 1e6, cost[1] / 1e6,
+                    Files.size(out) / 1e6);
+        }
+    }
+}
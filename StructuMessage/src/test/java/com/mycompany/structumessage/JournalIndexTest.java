@@ -0,0 +1,140 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link JournalIndex}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Recipient and type exports hold exactly the matching journal lines,
+ * byte for byte, with neighbouring lines merged into one range</li>
+ * <li>Only the last line of a re-journalled message ID is exported</li>
+ * <li>Incremental refresh, torn last lines, a replaced file</li>
+ * <li>A file swapped in by rename is noticed even when it is longer</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class JournalIndexTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A file export equals the journal filtered line by line; a run of one
+     * recipient's lines is a single range.
+     */
+    @Test
+    public void testExportRecipient_MatchesFilteredJournal() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 1000);
+        for (int i = 0; i < 30; i++) {
+            String to = i < 10 ? "+27830000001" : i % 2 == 0 ? "+27830000002" : "+27830000003";
+            assertTrue(engine.route(new Message(to, "Message \"" + i + "\" ✓", i), "sent"));
+        }
+        List<String> journal = Files.readAllLines(Path.of(engine.getJournalPath()));
+
+        Path out = dir.resolve("export.json");
+        long bytes = engine.journalIndex().exportRecipient("+27830000002", out);
+        List<String> expected = journal.stream().filter(l -> l.contains("\"recipient\":\"+27830000002\"")).toList();
+        assertEquals(10, expected.size());
+        assertEquals(expected, Files.readAllLines(out));
+        assertEquals(Files.size(out), bytes);
+
+        assertEquals(2, engine.journalIndex().recipientRanges("+27830000001").length, "ten adjacent lines, one range");
+        assertEquals(20, engine.journalIndex().recipientRanges("+27830000003").length);
+        assertEquals(0, engine.journalIndex().exportRecipient("+27839999999", dir.resolve("none.json")));
+        assertEquals(30, engine.journalIndex().entries());
+    }
+
+    /**
+     * A draft that was later sent is exported once, as sent.
+     */
+    @Test
+    public void testExportType_FoldsReJournalledIDs() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 1000);
+        Message draft = new Message("+27831234567", "Draft first", 0);
+        assertTrue(engine.route(draft, "stored"));
+        assertTrue(engine.route(new Message("+27831234567", "Sent directly", 1), "sent"));
+        assertNotNull(engine.sendStored(draft.getMessageID()));
+
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        engine.journalIndex().exportType("SENT", Channels.newChannel(sent));
+        List<String> lines = sent.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains(draft.getMessageID()));
+
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        assertEquals(0, engine.journalIndex().exportType("stored", Channels.newChannel(stored)));
+        assertEquals(3, engine.journalIndex().entries());
+    }
+
+    /**
+     * Refresh reads only what was appended, skips a line still being
+     * written, and starts over when the file is replaced.
+     */
+    @Test
+    public void testRefresh_IncrementalTornAndReplaced() throws Exception {
+        Path journal = dir.resolve("messages.json");
+        JournalIndex index = new JournalIndex(journal);
+        assertEquals(0, index.refresh(), "no file yet");
+
+        new Message("+27831111111", "one", 0).appendToJournal(journal.toString());
+        assertEquals(1, index.refresh());
+        long afterOne = index.indexedBytes();
+        assertEquals(Files.size(journal), afterOne);
+
+        String line = new Message("+27832222222", "two", 1).toJsonLine();
+        Files.writeString(journal, line.substring(0, 20), StandardOpenOption.APPEND);
+        assertEquals(0, index.refresh(), "torn line waits");
+        assertEquals(afterOne, index.indexedBytes());
+        Files.writeString(journal, line.substring(20) + System.lineSeparator(), StandardOpenOption.APPEND);
+        assertEquals(1, index.refresh());
+        assertEquals(0, index.refresh());
+        assertEquals(2, index.entries());
+
+        Files.writeString(journal, new Message("+27833333333", "three", 0).toJsonLine() + "\n");
+        assertEquals(1, index.refresh(), "shorter file: rebuilt");
+        assertEquals(1, index.entries());
+        assertEquals(0, index.recipientRanges("+27831111111").length);
+        assertEquals(2, index.recipientRanges("+27833333333").length);
+    }
+
+    /**
+     * Another file moved over the journal (as a compaction in another
+     * process does) is re-indexed from the start even though it is longer
+     * than what was indexed, and exports copy from the new file.
+     */
+    @Test
+    public void testRefresh_FileSwappedByRename() throws Exception {
+        Path journal = dir.resolve("messages.json");
+        JournalIndex index = new JournalIndex(journal);
+        new Message("+27831111111", "old", 0).appendToJournal(journal.toString());
+        assertEquals(1, index.refresh());
+
+        Path replacement = dir.resolve("messages.json.compact");
+        for (int i = 0; i < 3; i++) {
+            new Message("+27832222222", "new message number " + i, i).appendToJournal(replacement.toString());
+        }
+        assertTrue(Files.size(replacement) > Files.size(journal));
+        Files.move(replacement, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(Files.size(journal), index.exportRecipient("+27832222222", Channels.newChannel(out)));
+        assertEquals(Files.readString(journal), out.toString(StandardCharsets.UTF_8));
+        assertEquals(3, index.entries());
+        assertEquals(0, index.recipientRanges("+27831111111").length);
+    }
+}
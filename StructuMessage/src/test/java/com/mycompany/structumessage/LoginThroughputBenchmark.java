@@ -0,0 +1,82 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login throughput of {@link UserDirectory} against directory size. Not a
+ * JUnit test; run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.LoginThroughputBenchmark
+ * </pre>
+ *
+ * For each size the directory is filled with generated users, then every
+ * available core logs random users in for two seconds.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class LoginThroughputBenchmark {
+
+    private static final int[] USER_COUNTS = {1_000, 10_000, 100_000, 500_000};
+    private static final long RUN_NANOS = 2_000_000_000L;
+    private static final String PASSWORD = "Secure@123";
+    /* One PBKDF2 round, checked on the calling threads (verify, not the
+       pooled login): this measures the look-up path, not the hash cost or
+       the pool (see PasswordHashBenchmark for those). */
+    private static final PasswordHasher CHEAP = new PasswordHasher(1);
+    private static final String ALPHABET
+            = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%10s %8s %15s%n", "users", "threads", "logins/sec");
+        for (int count : USER_COUNTS) {
+            UserDirectory users = new UserDirectory();
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = username(i);
+                users.claim(new QuickChatUser(names[i], PASSWORD,
+                        String.format("+27%09d", i), "Bench", "User", CHEAP));
+            }
+            System.out.printf("%,10d %8d %,15d%n", count, threads, run(users, names, threads));
+        }
+    }
+
+    /* "_" plus four base-62 characters: unique for up to 14.7M users. */
+    static String username(int i) {
+        char[] name = {'_', 'A', 'A', 'A', 'A'};
+        for (int pos = 4; pos > 0; pos--) {
+            name[pos] = ALPHABET.charAt(i % ALPHABET.length());
+            i /= ALPHABET.length();
+        }
+        return new String(name);
+    }
+
+    private static long run(UserDirectory users, String[] names, int threads)
+            throws InterruptedException {
+        LongAdder logins = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            Thread.ofPlatform().start(() -> {
+                long deadline = System.nanoTime() + RUN_NANOS;
+                int i = seed * 7919;
+                long local = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int k = 0; k < 1024; k++) {
+                        i = (i * 1_103_515_245 + 12_345) & Integer.MAX_VALUE;
+                        if (users.verify(names[i % names.length], PASSWORD) != null) {
+                            local++;
+                        }
+                    }
+                }
+                logins.add(local);
+                done.countDown();
+            });
+        }
+        done.await();
+        return logins.sum() * 1_000_000_000L / RUN_NANOS;
+    }
+}
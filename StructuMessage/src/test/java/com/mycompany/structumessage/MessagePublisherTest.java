@@ -0,0 +1,177 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.MessagePublisher.OverflowPolicy;
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link MessagePublisher} and the engine's events.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Delivery follows demand; the rest waits in the buffer</li>
+ * <li>Each overflow policy</li>
+ * <li>Engine routing, ingest, sending drafts and disregarding all
+ * publish, on virtual threads; completion and bad demand</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class MessagePublisherTest {
+
+    @TempDir
+    Path dir;
+
+    /* Records every signal; requests `initial` on subscribe. */
+    private static final class Recorder implements Flow.Subscriber<Message> {
+
+        final List<Message> items = new CopyOnWriteArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        final long initial;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        Recorder(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            if (initial > 0) {
+                s.request(initial);
+            }
+        }
+
+        @Override
+        public void onNext(Message item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            finished.countDown();
+        }
+    }
+
+    private static Message msg(int i) {
+        return new Message("+2783000000" + (i % 10), "Event " + i, i);
+    }
+
+    /* Runs delivery on the caller, so each assertion sees its effect. */
+    private static MessagePublisher inline(int capacity, OverflowPolicy policy) {
+        return new MessagePublisher(Runnable::run, capacity, policy);
+    }
+
+    /**
+     * Nothing beyond the requested count is delivered; more demand drains
+     * the buffer in order.
+     */
+    @Test
+    public void testDemand_BoundsDelivery() {
+        MessagePublisher publisher = inline(16, OverflowPolicy.DROP_OLDEST);
+        Recorder r = new Recorder(2);
+        MessagePublisher.MessageSubscription s = publisher.subscribe(r, 16, OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(msg(i));
+        }
+        assertEquals(2, r.items.size());
+        assertEquals(3, s.buffered());
+
+        r.subscription.request(10);
+        assertEquals(5, r.items.size());
+        assertEquals("Event 4", r.items.get(4).getMessage());
+        assertEquals(5, s.delivered());
+        publisher.publish(msg(5));
+        assertEquals(6, r.items.size(), "unused demand carries over");
+
+        r.subscription.cancel();
+        publisher.publish(msg(6));
+        assertEquals(6, r.items.size());
+        assertEquals(0, publisher.subscriberCount());
+    }
+
+    /**
+     * A full buffer keeps the newest, keeps the oldest, or fails the
+     * subscriber, as configured.
+     */
+    @Test
+    public void testOverflowPolicies() {
+        MessagePublisher publisher = inline(3, OverflowPolicy.DROP_OLDEST);
+        Recorder latest = new Recorder(0);
+        Recorder earliest = new Recorder(0);
+        Recorder strict = new Recorder(0);
+        MessagePublisher.MessageSubscription a = publisher.subscribe(latest, 3, OverflowPolicy.DROP_OLDEST);
+        MessagePublisher.MessageSubscription b = publisher.subscribe(earliest, 3, OverflowPolicy.DROP_NEWEST);
+        publisher.subscribe(strict, 3, OverflowPolicy.ERROR);
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(msg(i));
+        }
+        latest.subscription.request(Long.MAX_VALUE);
+        earliest.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(List.of("Event 7", "Event 8", "Event 9"), latest.items.stream().map(Message::getMessage).toList());
+        assertEquals(List.of("Event 0", "Event 1", "Event 2"), earliest.items.stream().map(Message::getMessage).toList());
+        assertEquals(7, a.dropped());
+        assertEquals(7, b.dropped());
+        assertInstanceOf(MessagePublisher.BufferOverflowException.class, strict.error);
+        assertTrue(strict.items.isEmpty());
+        assertEquals(2, publisher.subscriberCount());
+    }
+
+    /**
+     * The engine publishes on every way into a store; the default publisher
+     * delivers on virtual threads and completes on close.
+     */
+    @Test
+    public void testEngineEvents() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 100);
+        Recorder r = new Recorder(Long.MAX_VALUE);
+        engine.publisher().subscribe(r);
+
+        Message draft = new Message("+27831234567", "A draft", 0);
+        assertTrue(engine.route(draft, "stored"));
+        engine.ingest(List.of(new IngestRequest("+27831234567", "Ingested", "send"),
+                new IngestRequest("bad", "Rejected", "send")));
+        engine.sendStored(draft.getMessageID());
+        Message ingested = engine.sent().get(0);
+        engine.disregardSentByID(ingested.getMessageID());
+        engine.publisher().close();
+
+        assertTrue(r.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(r.completed);
+        assertEquals(List.of("stored:A draft", "sent:Ingested", "sent:A draft", "disregarded:Ingested"),
+                r.items.stream().map(m -> m.getMessageType() + ":" + m.getMessage()).toList());
+    }
+
+    /**
+     * Asking for zero items is a protocol error (Reactive Streams §3.9).
+     */
+    @Test
+    public void testNonPositiveRequest_Errors() {
+        MessagePublisher publisher = inline(4, OverflowPolicy.DROP_OLDEST);
+        Recorder r = new Recorder(0);
+        publisher.subscribe(r);
+        r.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, r.error);
+        assertEquals(0, publisher.subscriberCount());
+    }
+}
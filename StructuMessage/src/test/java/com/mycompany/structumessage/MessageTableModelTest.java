@@ -0,0 +1,239 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.MessageTableModel.Column;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link MessageTableModel} (no window needed).
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Opening reads no messages; painting a row reads just that row</li>
+ * <li>Sort (both directions, stable) and filter built off the event
+ * thread</li>
+ * <li>Scope over two stores, as the recipient search uses it</li>
+ * <li>The rows shown keep their store sizes until a refresh's view
+ * arrives</li>
+ * <li>A newer request supersedes one still running</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class MessageTableModelTest {
+
+    private static final Column[] COLUMNS = {Column.NUMBER, Column.RECIPIENT, Column.MESSAGE};
+
+    /* Heap store that counts get() calls. */
+    private static final class CountingStore implements MessageStore {
+
+        final ConcurrentMessageStore delegate = new ConcurrentMessageStore(1 << 20);
+        final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public boolean add(Message msg) {
+            return delegate.add(msg);
+        }
+
+        @Override
+        public Message get(int index) {
+            gets.incrementAndGet();
+            return delegate.get(index);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Message removeAt(int index) {
+            return delegate.removeAt(index);
+        }
+
+        @Override
+        public int indexOfID(String id) {
+            return delegate.indexOfID(id);
+        }
+
+        @Override
+        public int indexOfHash(String hash) {
+            return delegate.indexOfHash(hash);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+
+    private static CountingStore store(int n, String type) {
+        CountingStore store = new CountingStore();
+        for (int i = 0; i < n; i++) {
+            Message m = new Message("+2783000" + String.format("%04d", i % 7), "Row " + (n - i) + " " + type, i);
+            m.setMessageType(type);
+            store.add(m);
+        }
+        return store;
+    }
+
+    private static <T> T onEdt(Supplier<T> action) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(action.get()));
+        return result.get();
+    }
+
+    /* Start a view change on the event thread and wait until the table has it. */
+    private static void await(MessageTableModel model, Supplier<SwingWorker<int[], Void>> change) throws Exception {
+        onEdt(change).get(10, TimeUnit.SECONDS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (onEdt(model::isUpdating)) {                 // done() arrives a little after the result
+            assertTrue(System.nanoTime() < deadline, "view never applied");
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Object> column(MessageTableModel model, int column) throws Exception {
+        return onEdt(() -> {
+            List<Object> values = new ArrayList<>();
+            for (int row = 0; row < model.getRowCount(); row++) {
+                values.add(model.getValueAt(row, column));
+            }
+            return values;
+        });
+    }
+
+    /**
+     * A 100 000-row store opens without reading a message; painting the
+     * cells of a few rows reads each of those rows once.
+     */
+    @Test
+    public void testLazyRows() throws Exception {
+        CountingStore sent = store(100_000, "sent");
+        sent.gets.set(0);
+        MessageTableModel model = new MessageTableModel(COLUMNS, null, sent);
+        await(model, model::refresh);
+        assertEquals(100_000, (int) onEdt(model::getRowCount));
+        assertEquals(0, sent.gets.get());
+
+        onEdt(() -> {
+            for (int row = 50_000; row < 50_020; row++) {
+                for (int column = 0; column < COLUMNS.length; column++) {
+                    model.getValueAt(row, column);
+                }
+            }
+            return null;
+        });
+        assertEquals(20, sent.gets.get());
+        assertEquals(50_001, (int) onEdt(() -> (Integer) model.getValueAt(50_000, 0)));
+    }
+
+    /**
+     * Sorting orders by the column (ties keep store order) and reverses on a
+     * second click; the filter matches text case-insensitively.
+     */
+    @Test
+    public void testSortAndFilter() throws Exception {
+        CountingStore sent = store(30, "sent");
+        MessageTableModel model = new MessageTableModel(COLUMNS, null, sent);
+        await(model, model::refresh);
+
+        await(model, () -> model.sortBy(Column.RECIPIENT));
+        List<Object> recipients = column(model, 1);
+        List<Object> sorted = new ArrayList<>(recipients);
+        sorted.sort(null);
+        assertEquals(sorted, recipients);
+        assertEquals(List.of(1, 8, 15, 22, 29), column(model, 0).subList(0, 5), "ties in store order");
+        assertEquals("Recipient ▲", onEdt(() -> model.getColumnName(1)));
+
+        await(model, () -> model.sortBy(Column.RECIPIENT));
+        assertEquals(List.of("+27830000006", "+27830000006"), column(model, 1).subList(0, 2));
+        assertEquals(List.of(7, 14), column(model, 0).subList(0, 2), "ties still in store order");
+        assertEquals("Recipient ▼", onEdt(() -> model.getColumnName(1)));
+
+        await(model, () -> model.sortBy(Column.NUMBER));
+        await(model, () -> model.setFilter("ROW 1"));
+        assertEquals(List.of(12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 30), column(model, 0),
+                "Row 19 … Row 10 and Row 1 match, in store order");
+        assertEquals(30, (int) onEdt(model::totalRows));
+
+        await(model, () -> model.setFilter(" "));
+        assertEquals(30, (int) onEdt(model::getRowCount));
+    }
+
+    /**
+     * The recipient search reads sent then stored through one scope.
+     */
+    @Test
+    public void testScopeAcrossStores() throws Exception {
+        CountingStore sent = store(14, "sent");
+        CountingStore stored = store(7, "stored");
+        MessageTableModel model = new MessageTableModel(new Column[]{Column.MESSAGE, Column.TYPE},
+                m -> m.getRecipient().equals("+27830000003"), sent, stored);
+        assertEquals(0, (int) onEdt(model::getRowCount), "nothing shown before the scope is applied");
+        await(model, model::refresh);
+        assertEquals(List.of("sent", "sent", "stored"), column(model, 1));
+        assertEquals(List.of("Row 11 sent", "Row 4 sent", "Row 4 stored"), column(model, 0));
+        assertEquals(21, (int) onEdt(model::totalRows));
+    }
+
+    /**
+     * Growing the first store does not shift the scoped rows of the second
+     * while the refreshed view is still being built.
+     */
+    @Test
+    public void testRefresh_RowsKeepTheirSizes() throws Exception {
+        CountingStore sent = store(14, "sent");
+        CountingStore stored = store(7, "stored");
+        MessageTableModel model = new MessageTableModel(new Column[]{Column.MESSAGE},
+                m -> m.getRecipient().equals("+27830000003"), sent, stored);
+        await(model, model::refresh);
+        List<Object> before = column(model, 0);
+        assertEquals(List.of("Row 11 sent", "Row 4 sent", "Row 4 stored"), before);
+
+        for (int i = 0; i < 5; i++) {
+            sent.add(new Message("+27839999999", "Later " + i, 14 + i));
+        }
+        List<Object> during = onEdt(() -> {
+            model.refresh();                               // done() cannot run before this task ends
+            List<Object> values = new ArrayList<>();
+            for (int row = 0; row < model.getRowCount(); row++) {
+                values.add(model.getValueAt(row, 0));
+            }
+            return values;
+        });
+        assertEquals(before, during);
+        assertEquals(21, (int) onEdt(model::totalRows));
+
+        await(model, model::refresh);
+        assertEquals(before, column(model, 0));
+        assertEquals(26, (int) onEdt(model::totalRows));
+    }
+
+    /**
+     * Only the last of several quick requests changes the view.
+     */
+    @Test
+    public void testNewerRequestSupersedes() throws Exception {
+        CountingStore sent = store(200_000, "sent");
+        MessageTableModel model = new MessageTableModel(COLUMNS, null, sent);
+        await(model, model::refresh);
+        await(model, () -> {
+            SwingWorker<int[], Void> first = model.sortBy(Column.MESSAGE);
+            model.setFilter("Row 1999");
+            assertTrue(first.isCancelled());
+            return model.setFilter("Row 199999 ");
+        });
+        assertEquals(List.of("Row 199999 sent"), column(model, 2));
+    }
+}
@@ -282,13 +282,13 @@ public class MessageTest {
 
         // spot-check specific records
         assertEquals("+27834557896",
-                StructuMessage.sentMessages[0].getRecipient());
+                StructuMessage.sentMessages.get(0).getRecipient());
         assertEquals("It is dinner time!",
-                StructuMessage.sentMessages[1].getMessage());
+                StructuMessage.sentMessages.get(1).getMessage());
         assertEquals("Yohoooo, I am at your gate.",
-                StructuMessage.disregardedMessages[0].getMessage());
+                StructuMessage.disregardedMessages.get(0).getMessage());
         assertEquals("Ok, I am leaving without you.",
-                StructuMessage.storedMessages[1].getMessage());
+                StructuMessage.storedMessages.get(1).getMessage());
     }
 
     /**
@@ -0,0 +1,132 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link OffHeapMessageStore}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Round-trip of every field through the native columns</li>
+ * <li>Fallback path for non-numeric IDs / recipients</li>
+ * <li>Compacting removal, look-ups and the longest-message sweep</li>
+ * <li>Capacity limit, growth and text compaction</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class OffHeapMessageStoreTest {
+
+    private OffHeapMessageStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new OffHeapMessageStore();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    /**
+     * A message read back must match the original field for field.
+     */
+    @Test
+    public void testAddAndGet_RoundTrip() {
+        Message original = Message.restore("0012345678", "+27718693002",
+                "Hi Mike, let's meet tonight", "00:0:HITONIGHT", "stored",
+                true, false, true);
+        assertTrue(store.add(original));
+
+        Message copy = store.get(0);
+        assertEquals("0012345678", copy.getMessageID());
+        assertEquals("+27718693002", copy.getRecipient());
+        assertEquals("Hi Mike, let's meet tonight", copy.getMessage());
+        assertEquals("00:0:HITONIGHT", copy.getMessageHash());
+        assertEquals("stored", copy.getMessageType());
+        assertTrue(copy.isSent());
+        assertFalse(copy.isReceived());
+        assertTrue(copy.isRead());
+    }
+
+    /**
+     * IDs and recipients that cannot be packed into a long are kept as text.
+     */
+    @Test
+    public void testAddAndGet_TextFallback() {
+        store.add(Message.restore("ID-7", "0831234567", "Olá 👋", "ID:7:OL", "sent",
+                true, true, true));
+        Message copy = store.get(0);
+        assertEquals("ID-7", copy.getMessageID());
+        assertEquals("0831234567", copy.getRecipient());
+        assertEquals("Olá 👋", copy.getMessage());
+        assertEquals(0, store.indexOfID("ID-7"));
+        assertEquals(0, store.indexOfHash("ID:7:OL"));
+    }
+
+    /**
+     * Removing from the middle shifts later rows down, like the old arrays.
+     */
+    @Test
+    public void testRemoveAt_CompactsRows() {
+        Message a = new Message("+27830000001", "first", 0);
+        Message b = new Message("+27830000002", "second", 1);
+        Message c = new Message("+27830000003", "third", 2);
+        store.add(a);
+        store.add(b);
+        store.add(c);
+
+        assertEquals(b.getMessageID(), store.removeAt(1).getMessageID());
+        assertEquals(2, store.size());
+        assertEquals(c.getMessageID(), store.get(1).getMessageID());
+        assertEquals(-1, store.indexOfID(b.getMessageID()));
+        assertEquals(1, store.indexOfHash(c.getMessageHash()));
+    }
+
+    /**
+     * The body-length sweep picks the first of the longest messages.
+     */
+    @Test
+    public void testLongestMessageIndex() {
+        assertEquals(-1, store.longestMessageIndex());
+        store.add(new Message("+27830000001", "short", 0));
+        store.add(new Message("+27830000002", "a much longer body", 1));
+        store.add(new Message("+27830000003", "same length body!!", 2));
+        assertEquals(1, store.longestMessageIndex());
+    }
+
+    /**
+     * A bounded store rejects the message that would exceed its limit.
+     */
+    @Test
+    public void testCapacityLimit() {
+        try (OffHeapMessageStore small = new OffHeapMessageStore(2)) {
+            assertTrue(small.add(new Message("+27830000001", "one", 0)));
+            assertTrue(small.add(new Message("+27830000002", "two", 1)));
+            assertFalse(small.add(new Message("+27830000003", "three", 2)));
+            assertEquals(2, small.size());
+        }
+    }
+
+    /**
+     * Column growth and text compaction must not lose or corrupt rows.
+     */
+    @Test
+    public void testGrowthAndCompact() {
+        for (int i = 0; i < 5000; i++) {
+            store.add(new Message("+2783" + String.format("%07d", i), "Body " + i, i));
+        }
+        for (int i = 0; i < 2500; i++) {
+            store.removeAt(0);
+        }
+        assertTrue(store.deadTextBytes() > 0);
+        store.compact();
+        assertEquals(0, store.deadTextBytes());
+        assertEquals(2500, store.size());
+        assertEquals("Body 2500", store.get(0).getMessage());
+        assertEquals("+27830004999", store.get(2499).getRecipient());
+    }
+}
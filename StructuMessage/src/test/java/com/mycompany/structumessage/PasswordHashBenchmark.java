@@ -0,0 +1,71 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password verifications per second (total and per core) at several PBKDF2
+ * costs, run through a {@link VerificationPool} with one worker per core.
+ * Not a JUnit test; run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.PasswordHashBenchmark
+ * </pre>
+ *
+ * Pick the highest cost whose logins/sec/core still covers the expected
+ * login peak, then set <code>-Dquickchat.pbkdf2.iterations</code>.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class PasswordHashBenchmark {
+
+    private static final int[] COSTS = {10_000, 100_000, 210_000, 600_000, 1_000_000};
+    private static final long RUN_NANOS = 3_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        UserDirectory warmUp = new UserDirectory();
+        warmUp.register(new QuickChatUser("ben_1", "Secure@123", "+27812345678",
+                "Bench", "User", new PasswordHasher(COSTS[0])));
+        run(warmUp, cores);                                     // JIT the PBKDF2 loop first
+
+        System.out.printf("%10s %12s %16s %12s%n", "iterations", "logins/sec", "logins/sec/core", "ms/login");
+        for (int cost : COSTS) {
+            UserDirectory users = new UserDirectory();
+            users.register(new QuickChatUser("ben_1", "Secure@123", "+27812345678",
+                    "Bench", "User", new PasswordHasher(cost)));
+            double perSecond = run(users, cores);
+            System.out.printf("%,10d %,12.1f %,16.1f %12.2f%n",
+                    cost, perSecond, perSecond / cores, 1000.0 * cores / perSecond);
+        }
+    }
+
+    private static double run(UserDirectory users, int cores) throws Exception {
+        LongAdder done = new LongAdder();
+        try (VerificationPool pool = new VerificationPool(cores, cores * 4)) {
+            long begin = System.nanoTime();
+            long deadline = begin + RUN_NANOS;
+            CompletableFuture<?>[] lanes = new CompletableFuture<?>[cores];
+            for (int i = 0; i < cores; i++) {
+                lanes[i] = lane(pool, users, deadline, done);
+            }
+            CompletableFuture.allOf(lanes).get();
+            return done.sum() / ((System.nanoTime() - begin) / 1e9);
+        }
+    }
+
+    /* One closed loop: the next login is submitted when the last completes. */
+    private static CompletableFuture<Void> lane(VerificationPool pool, UserDirectory users,
+            long deadline, LongAdder done) {
+        return pool.login(users, "ben_1", "Secure@123").thenCompose(user -> {
+            if (user == null) {
+                throw new IllegalStateException("verification failed");
+            }
+            done.increment();
+            return System.nanoTime() < deadline
+                    ? lane(pool, users, deadline, done)
+                    : CompletableFuture.completedFuture(null);
+        });
+    }
+}
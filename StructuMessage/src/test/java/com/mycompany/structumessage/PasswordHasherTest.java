@@ -0,0 +1,146 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link PasswordHasher} and {@link VerificationPool}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Hash / verify round-trip, salting, malformed hashes</li>
+ * <li>Hashes made at an older cost still verify</li>
+ * <li>QuickChatUser keeps only the hash</li>
+ * <li>Saturated verification pool fails fast</li>
+ * <li>UserDirectory.login verifies on the pool, not the caller's thread</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class PasswordHasherTest {
+
+    /**
+     * Correct password verifies, wrong one does not, salts differ.
+     */
+    @Test
+    public void testHashAndVerify() {
+        PasswordHasher hasher = new PasswordHasher(1_000);
+        String a = hasher.hash("Secure@123");
+        String b = hasher.hash("Secure@123");
+
+        assertTrue(a.startsWith("pbkdf2-sha256$1000$"));
+        assertNotEquals(a, b);
+        assertTrue(PasswordHasher.verify("Secure@123", a));
+        assertFalse(PasswordHasher.verify("Secure@124", a));
+        assertFalse(PasswordHasher.verify("Secure@123", "plain"));
+        assertFalse(PasswordHasher.verify("Secure@123", "pbkdf2-sha256$x$AA$AA"));
+        assertFalse(PasswordHasher.verify(null, a));
+    }
+
+    /**
+     * Raising the cost keeps old hashes valid and flags them for re-hash.
+     */
+    @Test
+    public void testCostChange() {
+        String old = new PasswordHasher(500).hash("Secure@123");
+        PasswordHasher stronger = new PasswordHasher(2_000);
+
+        assertTrue(PasswordHasher.verify("Secure@123", old));
+        assertTrue(stronger.needsRehash(old));
+        assertFalse(stronger.needsRehash(stronger.hash("Secure@123")));
+    }
+
+    /**
+     * Users hold a hash, never the plaintext, and still log in.
+     */
+    @Test
+    public void testUser_StoresHashOnly() {
+        QuickChatUser user = new QuickChatUser("usr_1", "Secure@123", "+27812345678", "Test", "User");
+
+        assertFalse(user.getPasswordHash().contains("Secure@123"));
+        assertTrue(user.login("usr_1", "Secure@123"));
+        assertNull(new QuickChatUser("usr_1", "weak", "+27812345678", "T", "U").getPasswordHash());
+    }
+
+    /**
+     * With its one worker busy and its queue full, the pool rejects at once.
+     */
+    @Test
+    public void testPool_RejectsWhenSaturated() throws Exception {
+        UserDirectory users = new UserDirectory() {
+            final CountDownLatch release = new CountDownLatch(1);
+
+            @Override
+            QuickChatUser verify(String username, String password) {
+                if ("block".equals(username)) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }
+                if ("open".equals(username)) {
+                    release.countDown();
+                }
+                return super.verify(username, password);
+            }
+        };
+        registerQuietly(users);
+
+        try (VerificationPool pool = new VerificationPool(1, 1)) {
+            CompletableFuture<QuickChatUser> blocked = pool.login(users, "block", "x");
+            CompletableFuture<QuickChatUser> queued = pool.login(users, "usr_1", "Secure@123");
+            CompletableFuture<QuickChatUser> rejected = pool.login(users, "usr_1", "Secure@123");
+
+            ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+            users.verify("open", "x");                         // unblock the worker
+            assertNull(blocked.get());
+            assertEquals("usr_1", queued.get().getUsername());
+        }
+    }
+
+    /**
+     * The directory's own login hands the check to its pool and waits.
+     */
+    @Test
+    public void testDirectoryLogin_RunsOnPool() {
+        AtomicReference<String> checkedOn = new AtomicReference<>();
+        UserDirectory users = new UserDirectory() {
+            @Override
+            QuickChatUser verify(String username, String password) {
+                checkedOn.set(Thread.currentThread().getName());
+                return super.verify(username, password);
+            }
+        };
+        registerQuietly(users);
+
+        try (VerificationPool pool = new VerificationPool(1, 1)) {
+            users.setVerificationPool(pool);
+            assertEquals("usr_1", users.login("usr_1", "Secure@123").getUsername());
+            assertTrue(checkedOn.get().startsWith("quickchat-verify-"), checkedOn.get());
+            assertNull(users.login("usr_1", "wrong"));
+        }
+        users.setVerificationPool(null);
+        assertNotNull(users.login("usr_1", "Secure@123"), "shared pool");
+        assertNotEquals(Thread.currentThread().getName(), checkedOn.get());
+    }
+
+    private static void registerQuietly(UserDirectory users) {
+        try {
+            users.register(new QuickChatUser("usr_1", "Secure@123", "+27812345678", "Test", "User"));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link QuickChatCli}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Batch send from a CSV file: actions, commas in bodies, rejected
+ * lines reported with exit status 1</li>
+ * <li>Queries against the journal a previous run wrote</li>
+ * <li>Compaction drops superseded lines and keeps what loading sees</li>
+ * <li>Export to a file; usage errors exit with status 2</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatCliTest {
+
+    @TempDir
+    Path dir;
+
+    private String journal;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    public void setUp() {
+        journal = dir.resolve("messages.json").toString();
+    }
+
+    /* One CLI invocation against the test journal, with fresh output buffers. */
+    private int run(String... args) {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        String[] full = new String[args.length + 2];
+        full[0] = "--journal";
+        full[1] = journal;
+        System.arraycopy(args, 0, full, 2, args.length);
+        return new QuickChatCli(new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8)).run(full);
+    }
+
+    private List<String> outLines() {
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private Path csv(String... lines) throws Exception {
+        return Files.write(dir.resolve("batch.csv"), List.of(lines));
+    }
+
+    /**
+     * Each CSV line goes where its action says; a bad line is reported on
+     * stderr by its number and makes the exit status 1.
+     */
+    @Test
+    public void testSendFile_RoutesAndReportsRejected() throws Exception {
+        Path file = csv("# recipient,message,action",
+                "+27830000001,Hello, with a comma",
+                "+27830000002,Keep this,store",
+                "+27830000003,Forget this,discard",
+                "0830000004,No country code");
+        assertEquals(QuickChatCli.PARTIAL, run("send", "--file", file.toString()));
+        assertEquals(List.of("sent=1 stored=1 disregarded=1 rejected=1"), outLines());
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("request 4: "));
+
+        assertEquals(QuickChatCli.OK, run("query", "recipient", "+27830000001"));
+        assertEquals(1, outLines().size());
+        assertTrue(outLines().get(0).contains("\"message\":\"Hello, with a comma\""));
+
+        assertEquals(QuickChatCli.OK, run("send", "+27830000005", "One more"));
+        assertEquals("sent=1 stored=0 disregarded=0 rejected=0", outLines().get(1), "this run's counts");
+        assertEquals(QuickChatCli.OK, run("query", "counts"));
+        assertEquals(List.of("sent=2 stored=1 disregarded=1"), outLines());
+    }
+
+    /**
+     * A later run sees what an earlier one journalled; a miss exits 1.
+     */
+    @Test
+    public void testQuery_ReadsJournal() throws Exception {
+        run("send", "--file", csv("+27830000001,Short", "+27830000002,The longest message here").toString());
+
+        assertEquals(QuickChatCli.OK, run("query", "longest"));
+        assertTrue(outLines().get(0).contains("The longest message here"));
+        assertEquals(QuickChatCli.OK, run("query", "report"));
+        assertEquals(2, outLines().size());
+        assertEquals(QuickChatCli.OK, run("query", "counts"));
+        assertEquals(List.of("sent=2 stored=0 disregarded=0"), outLines());
+        assertEquals(QuickChatCli.PARTIAL, run("query", "id", "0000000000"));
+        assertTrue(outLines().isEmpty());
+    }
+
+    /**
+     * A draft sent later leaves two journal lines; compaction keeps the
+     * last and loading still gives the same stores.
+     */
+    @Test
+    public void testCompact_DropsSupersededLines() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(journal, 100);
+        Message draft = new Message("+27831234567", "Draft, then sent", 0);
+        assertTrue(engine.route(draft, "stored"));
+        assertTrue(engine.route(new Message("+27831234568", "Sent", 1), "sent"));
+        assertNotNull(engine.sendStored(draft.getMessageID()));
+        assertEquals(3, Files.readAllLines(Path.of(journal)).size());
+
+        assertEquals(QuickChatCli.OK, run("compact"));
+        assertTrue(outLines().get(0).startsWith("dropped=1 bytes="));
+        assertEquals(2, Files.readAllLines(Path.of(journal)).size());
+        assertFalse(Files.exists(Path.of(journal + ".compact")));
+
+        assertEquals(QuickChatCli.OK, run("query", "counts"));
+        assertEquals(List.of("sent=2 stored=0 disregarded=0"), outLines());
+        assertEquals(QuickChatCli.OK, run("compact"));
+        assertTrue(outLines().get(0).startsWith("dropped=0 "));
+    }
+
+    /**
+     * Export writes the matching journal lines to a file; bad command lines
+     * print usage and exit 2.
+     */
+    @Test
+    public void testExportAndUsage() throws Exception {
+        run("send", "--file", csv("+27830000001,First", "+27830000002,Second", "+27830000001,Third").toString());
+        Path exported = dir.resolve("export.json");
+
+        assertEquals(QuickChatCli.OK, run("export", "recipient", "+27830000001", exported.toString()));
+        List<String> lines = Files.readAllLines(exported);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"message\":\"Third\""));
+        assertEquals(QuickChatCli.PARTIAL, run("export", "type", "stored", dir.resolve("none.json").toString()));
+
+        assertEquals(QuickChatCli.USAGE, run());
+        assertEquals(QuickChatCli.USAGE, run("frobnicate"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("usage:"));
+        assertEquals(QuickChatCli.USAGE, run("query"));
+        assertEquals(QuickChatCli.USAGE, run("--capacity", "lots", "query", "counts"));
+    }
+}
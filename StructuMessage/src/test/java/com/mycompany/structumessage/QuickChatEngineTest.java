@@ -0,0 +1,218 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link QuickChatEngine}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Two engines in one JVM stay fully isolated</li>
+ * <li>route() journals and files by category; loadJournal() restores</li>
+ * <li>Search / delete / disregard helpers</li>
+ * <li>Background load: one pass fills every store and the journal index</li>
+ * <li>Folding keeps distinct messages that share an ID</li>
+ * <li>Exports after a compaction copy from the compacted file</li>
+ * <li>Appends racing a compaction are not lost</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private QuickChatEngine newEngine(String name) {
+        return new QuickChatEngine(dir.resolve(name).toString(), 1000);
+    }
+
+    /**
+     * Messages routed into one engine never show up in another.
+     */
+    @Test
+    public void testEngines_AreIsolated() {
+        QuickChatEngine a = newEngine("a.json");
+        QuickChatEngine b = newEngine("b.json");
+
+        assertTrue(a.route(new Message("+27830000001", "Only in A", 0), "sent"));
+        assertEquals(1, a.getSentCount());
+        assertEquals(0, b.getSentCount());
+        assertEquals(-1, b.loadJournal());   // B's journal was never written
+    }
+
+    /**
+     * A fresh engine on the same journal sees every category again.
+     */
+    @Test
+    public void testRouteAndLoadJournal_RoundTrip() {
+        QuickChatEngine writer = newEngine("journal.json");
+        writer.route(new Message("+27830000001", "Sent one", 0), "sent");
+        writer.route(new Message("+27830000002", "Stored one", 1), "stored");
+        writer.route(new Message("+27830000003", "Binned one", 2), "disregarded");
+
+        QuickChatEngine reader = newEngine("journal.json");
+        assertEquals(3, reader.loadJournal());
+        assertEquals(1, reader.getSentCount());
+        assertEquals(1, reader.getStoreCount());
+        assertEquals(1, reader.getDiscardCount());
+        assertEquals("Stored one", reader.stored().get(0).getMessage());
+    }
+
+    /**
+     * Search covers sent + stored; delete and disregard update the stores.
+     */
+    @Test
+    public void testQueriesAndMaintenance() {
+        QuickChatEngine engine = newEngine("q.json");
+        engine.populateTestMessages();
+        Message first = engine.sent().get(0);
+
+        List<Message> hits = engine.searchByRecipient("+27832221111");
+        assertEquals(1, hits.size());
+        assertEquals("Fine. I'll meet you there.", hits.get(0).getMessage());
+        assertEquals("stored", hits.get(0).getMessageType(), "the viewer's Type column");
+        assertEquals("disregarded", engine.disregarded().get(0).getMessageType());
+        assertEquals("sent", engine.sent().get(1).getMessageType());
+
+        assertEquals("Hi, this is pre-populated test message 1", engine.longestSent().getMessage());
+        assertSame(first, engine.findSentByID(first.getMessageID()));
+
+        assertSame(first, engine.disregardSentByID(first.getMessageID()));
+        assertEquals(1, engine.getSentCount());
+        assertEquals(2, engine.getDiscardCount());
+
+        Message second = engine.sent().get(0);
+        assertSame(second, engine.deleteSentByHash(second.getMessageHash()));
+        assertNull(engine.deleteSentByHash(second.getMessageHash()));
+        assertEquals(0, engine.getSentCount());
+    }
+
+    /**
+     * The background load fills sent, stored and disregarded in one pass
+     * (each draft once) and indexes the journal; starting it again returns
+     * the same future.
+     */
+    @Test
+    public void testLoadJournalInBackground_SinglePass() {
+        QuickChatEngine writer = newEngine("bg.json");
+        for (int i = 0; i < 50; i++) {
+            writer.route(new Message("+27830000001", "Background " + i, i), i % 5 == 0 ? "stored" : "sent");
+        }
+        writer.route(new Message("+27830000002", "Binned", 50), "disregarded");
+
+        QuickChatEngine reader = newEngine("bg.json");
+        assertEquals(-2, reader.awaitJournal(), "nothing started");
+        CompletableFuture<Integer> load = reader.loadJournalInBackground();
+        assertSame(load, reader.loadJournalInBackground());
+        assertEquals(51, reader.awaitJournal());
+        assertEquals(40, reader.getSentCount());
+        assertEquals(10, reader.getStoreCount());
+        assertEquals(1, reader.getDiscardCount());
+        assertEquals(51, reader.journalIndex().entries());
+
+        assertEquals(-1, newEngine("missing.json").loadJournalInBackground().join());
+    }
+
+    /**
+     * Two different messages that drew the same ID both survive a load and
+     * a compaction; a draft later sent is still folded to one message.
+     */
+    @Test
+    public void testFold_KeepsDistinctMessagesSharingAnID() throws Exception {
+        QuickChatEngine writer = newEngine("clash.json");
+        String id = "1234567890";
+        writer.route(Message.restore(id, "+27830000001", "First of two",
+                Message.createMessageHash(id, 0, "First of two"), "sent", true, true, true), "sent");
+        writer.route(Message.restore(id, "+27830000002", "Second with the same ID",
+                Message.createMessageHash(id, 1, "Second with the same ID"), "sent", true, true, true), "sent");
+        Message draft = new Message("+27830000003", "Draft then sent", 2);
+        writer.route(draft, "stored");
+        writer.sendStored(draft.getMessageID());
+
+        QuickChatEngine reader = newEngine("clash.json");
+        assertEquals(3, reader.loadJournal());
+        assertEquals(3, reader.getSentCount());
+        assertEquals(0, reader.getStoreCount());
+        assertEquals(4, reader.journalIndex().refresh());
+        assertEquals(1, reader.journalIndex().recipientRanges("+27830000001").length / 2);
+
+        assertEquals(1, reader.compactJournal(), "only the draft line goes");
+        QuickChatEngine compacted = newEngine("clash.json");
+        assertEquals(3, compacted.loadJournal());
+        assertEquals(List.of("First of two", "Second with the same ID", "Draft then sent"),
+                compacted.sent().snapshot().stream().map(Message::getMessage).toList());
+    }
+
+    /**
+     * Routes on four threads while the journal is compacted over and over:
+     * every message is still in the journal afterwards.
+     */
+    @Test
+    public void testCompact_ConcurrentAppendsKept() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("race.json").toString(), 10_000);
+        engine.route(new Message("+27830000000", "Before", 0), "sent");
+        List<CompletableFuture<Void>> routers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            routers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 500; i++) {
+                    assertTrue(engine.route(new Message("+2783000000" + thread, "Racing " + i, i), "sent"));
+                }
+            }));
+        }
+        int compactions = 0;
+        while (!routers.stream().allMatch(CompletableFuture::isDone) || compactions == 0) {
+            engine.compactJournal();
+            compactions++;
+        }
+        CompletableFuture.allOf(routers.toArray(new CompletableFuture<?>[0])).join();
+
+        assertEquals(2_001, new QuickChatEngine(dir.resolve("race.json").toString(), 10_000).loadJournal());
+    }
+
+    /**
+     * After compacting, an export taken once later appends have pushed the
+     * file past the old indexed size copies exactly the current lines.
+     */
+    @Test
+    public void testCompactThenExport() throws Exception {
+        QuickChatEngine engine = newEngine("compact.json");
+        for (int i = 0; i < 20; i++) {
+            Message draft = new Message("+27830000001", "Draft " + i, i);
+            engine.route(draft, "stored");
+            engine.sendStored(draft.getMessageID());
+        }
+        ByteArrayOutputStream before = new ByteArrayOutputStream();
+        engine.journalIndex().exportRecipient("+27830000001", Channels.newChannel(before));
+        long indexed = engine.journalIndex().indexedBytes();
+
+        assertEquals(20, engine.compactJournal());
+        for (int i = 0; i < 40; i++) {
+            engine.route(new Message("+27830000002", "After compaction " + i, i), "sent");
+        }
+        Path journal = Path.of(engine.getJournalPath());
+        assertTrue(Files.size(journal) > indexed);
+
+        ByteArrayOutputStream after = new ByteArrayOutputStream();
+        engine.journalIndex().exportRecipient("+27830000001", Channels.newChannel(after));
+        List<String> expected = Files.readAllLines(journal).stream()
+                .filter(l -> l.contains("\"recipient\":\"+27830000001\"")).toList();
+        assertEquals(20, expected.size());
+        assertEquals(expected, after.toString(StandardCharsets.UTF_8).lines().toList());
+        assertEquals(before.toString(StandardCharsets.UTF_8), after.toString(StandardCharsets.UTF_8));
+        assertEquals(60, engine.journalIndex().entries());
+    }
+}
@@ -0,0 +1,144 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keep-alive load test for {@link QuickChatHttpServer}: each client holds one
+ * HTTP/1.1 connection open and sends requests back to back (four lookups by
+ * ID per send). Not a JUnit test (surefire skips it); run it after
+ * <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.QuickChatHttpBenchmark \
+ *     -Dexec.args="20000"
+ * </pre>
+ *
+ * The clients speak raw HTTP/1.1 over sockets so that what is measured is
+ * the server, not a client library. Prints requests per second and latency
+ * percentiles for 1 to 64 connections.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatHttpBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path dir = Files.createTempDirectory("http-bench");
+        System.out.printf("%11s %10s %12s %9s %9s %9s %9s%n",
+                "connections", "ms", "requests/s", "p50 us", "p90 us", "p99 us", "max us");
+        for (int round = 0; round < 2; round++) {          // first round is warm-up
+            for (int connections : new int[]{1, 4, 16, 64}) {
+                run(dir, connections, requests, round == 1);
+            }
+        }
+    }
+
+    private static void run(Path dir, int connections, int requests, boolean print) throws Exception {
+        Path journal = Files.createTempFile(dir, "messages", ".json");
+        QuickChatEngine engine = new QuickChatEngine(journal.toString(), requests);
+        try (QuickChatHttpServer server = new QuickChatHttpServer(engine, 0)) {
+            int perConnection = requests / connections;
+            long[][] latencies = new long[connections][];
+            List<Thread> threads = new ArrayList<>();
+            long begin = System.nanoTime();
+            for (int c = 0; c < connections; c++) {
+                int slot = c;
+                threads.add(Thread.ofVirtual().start(()
+                        -> latencies[slot] = drive(server.getPort(), slot, perConnection)));
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+            long nanos = System.nanoTime() - begin;
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            if (print) {
+                System.out.printf("%11d %10.1f %12.0f %9.0f %9.0f %9.0f %9.0f%n", connections, nanos / 1e6,
+                        all.length / (nanos / 1e9), pct(all, 0.50), pct(all, 0.90), pct(all, 0.99),
+                        all[all.length - 1] / 1e3);
+            }
+        }
+        Files.deleteIfExists(journal);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e3;
+    }
+
+    /* One keep-alive connection; every fifth request is a send. */
+    private static long[] drive(int port, int client, int count) {
+        long[] latency = new long[count];
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            String lastID = "0000000000";
+            for (int i = 0; i < count; i++) {
+                String request;
+                if (i % 5 == 0) {
+                    String body = "{\"recipient\":\"+2783" + String.format("%07d", client * 100_000 + i)
+                            + "\",\"message\":\"Load test message " + i + "\"}";
+                    request = "POST /messages/send HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                            + "Content-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body;
+                } else {
+                    request = "GET /messages/" + lastID + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+                }
+                long begin = System.nanoTime();
+                out.write(request.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                String body = readResponse(in);
+                latency[i] = System.nanoTime() - begin;
+                if (i % 5 == 0) {
+                    lastID = QuickChatHttpServer.jsonField(body, "messageID");
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return latency;
+    }
+
+    /* Status line and headers, then a Content-Length body. */
+    private static String readResponse(InputStream in) throws IOException {
+        int length = -1;
+        String status = readLine(in);
+        if (!status.startsWith("HTTP/1.1 2")) {
+            throw new IOException("Unexpected " + status);
+        }
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                length = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        if (length < 0) {
+            throw new IOException("No Content-Length");
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                throw new IOException("Connection closed");
+            }
+            if (c != '\r') {
+                sb.append((char) c);
+            }
+        }
+        return sb.toString();
+    }
+}
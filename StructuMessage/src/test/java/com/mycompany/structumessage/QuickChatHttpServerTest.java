@@ -0,0 +1,162 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for {@link QuickChatHttpServer} over loopback HTTP/1.1.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Send / store / discard, rejection with the ingest status</li>
+ * <li>Lookup by ID, recipient search, longest, disregard, delete by
+ * hash</li>
+ * <li>Report streamed with chunked encoding; raw journal export</li>
+ * <li>JSON escaping both ways; bad bodies, unknown paths and methods</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatHttpServerTest {
+
+    @TempDir
+    Path dir;
+
+    private QuickChatEngine engine;
+    private QuickChatHttpServer server;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    public void start() throws Exception {
+        engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 1000);
+        server = new QuickChatHttpServer(engine, 0);
+    }
+
+    @AfterEach
+    public void stop() {
+        server.close();
+    }
+
+    private HttpResponse<String> call(String method, String path, String body) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+        b.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        return client.send(b.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes come back 201 with the message, or 422 with the reason.
+     */
+    @Test
+    public void testWrites() throws Exception {
+        HttpResponse<String> sent = call("POST", "/messages/send",
+                "{\"recipient\": \"+27834557896\", \"message\": \"Did you get the cake?\"}");
+        assertEquals(201, sent.statusCode());
+        assertTrue(sent.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        String id = QuickChatHttpServer.jsonField(sent.body(), "messageID");
+        assertEquals(engine.sent().get(0).getMessageID(), id);
+        assertEquals(1, engine.getSentCount());
+
+        assertEquals(201, call("POST", "/messages/store", "{\"recipient\":\"+27838884567\",\"message\":\"Later\"}").statusCode());
+        assertEquals(201, call("POST", "/messages/discard", "{\"recipient\":\"+27834484567\",\"message\":\"Yohoooo\"}").statusCode());
+        assertEquals(1, engine.getStoreCount());
+        assertEquals(1, engine.getDiscardCount());
+
+        HttpResponse<String> bad = call("POST", "/messages/send", "{\"recipient\":\"0831234567\",\"message\":\"Hi\"}");
+        assertEquals(422, bad.statusCode());
+        assertEquals("INVALID_RECIPIENT", QuickChatHttpServer.jsonField(bad.body(), "status"));
+        assertEquals(400, call("POST", "/messages/send", "{\"recipient\":\"+27834557896\"}").statusCode());
+        assertEquals(400, call("POST", "/messages/send", "{\"recipient\":\"+27834557896\",\"message\":\"open").statusCode());
+    }
+
+    /**
+     * Reads, disregard and delete map onto the engine's lookups.
+     */
+    @Test
+    public void testReadsAndDeletes() throws Exception {
+        call("POST", "/messages/send", "{\"recipient\":\"+27834557896\",\"message\":\"Did you get the cake?\"}");
+        call("POST", "/messages/send", "{\"recipient\":\"+27838884567\",\"message\":\"It is dinner time!\"}");
+        call("POST", "/messages/store", "{\"recipient\":\"+27838884567\",\"message\":\"Where are you?\"}");
+        Message first = engine.sent().get(0);
+
+        HttpResponse<String> byID = call("GET", "/messages/" + first.getMessageID(), null);
+        assertEquals(200, byID.statusCode());
+        assertEquals("Did you get the cake?", QuickChatHttpServer.jsonField(byID.body(), "message"));
+        assertEquals(404, call("GET", "/messages/0000000000", null).statusCode());
+        assertEquals("Did you get the cake?",
+                QuickChatHttpServer.jsonField(call("GET", "/messages/longest", null).body(), "message"));
+
+        String search = call("GET", "/messages?recipient=" + enc("+27838884567"), null).body();
+        assertTrue(search.startsWith("[{") && search.contains("It is dinner time!") && search.contains("Where are you?"));
+        assertEquals(400, call("GET", "/messages", null).statusCode());
+
+        assertEquals(200, call("DELETE", "/messages?hash=" + enc(first.getMessageHash()), null).statusCode());
+        assertEquals(404, call("DELETE", "/messages?hash=" + enc(first.getMessageHash()), null).statusCode());
+        String other = engine.sent().get(0).getMessageID();
+        assertEquals(200, call("POST", "/messages/" + other + "/disregard", null).statusCode());
+        assertEquals(0, engine.getSentCount());
+        assertEquals(1, engine.getDiscardCount());
+
+        assertEquals(405, call("PUT", "/messages", "{}").statusCode());
+        assertEquals(404, call("GET", "/nothing", null).statusCode());
+    }
+
+    /**
+     * The report is chunked and holds every sent message; quotes, backslashes
+     * and line breaks survive the round trip.
+     */
+    @Test
+    public void testReport_ChunkedAndEscaped() throws Exception {
+        String tricky = "Say \"hi\"\\now\nbye";
+        String request = "{\"recipient\":\"+27834557896\",\"message\":" + QuickChatHttpServer.quote(tricky) + "}";
+        assertEquals(201, call("POST", "/messages/send", request).statusCode());
+        for (int i = 0; i < 500; i++) {
+            call("POST", "/messages/send", "{\"recipient\":\"+27834557896\",\"message\":\"Bulk " + i + "\"}");
+        }
+        assertEquals(tricky, engine.sent().get(0).getMessage());
+
+        HttpResponse<String> report = call("GET", "/report", null);
+        assertEquals(200, report.statusCode());
+        assertEquals("chunked", report.headers().firstValue("Transfer-Encoding").orElse(""));
+        assertTrue(report.body().startsWith("{\"sent\":501,\"stored\":0,\"disregarded\":0,\"messages\":[{"));
+        assertTrue(report.body().endsWith("}]}"));
+        assertEquals(tricky, QuickChatHttpServer.jsonField(report.body(), "message"));
+        assertEquals(501, report.body().split("\"messageID\"").length - 1);
+        assertTrue(server.requestsServed() >= 502);
+    }
+
+    /**
+     * Export returns the recipient's journal lines unchanged.
+     */
+    @Test
+    public void testExport_RawJournalLines() throws Exception {
+        call("POST", "/messages/send", "{\"recipient\":\"+27834557896\",\"message\":\"One\"}");
+        call("POST", "/messages/send", "{\"recipient\":\"+27838884567\",\"message\":\"Two\"}");
+        call("POST", "/messages/store", "{\"recipient\":\"+27834557896\",\"message\":\"Three\"}");
+
+        HttpResponse<String> export = call("GET", "/export?recipient=" + enc("+27834557896"), null);
+        assertEquals(200, export.statusCode());
+        assertEquals("chunked", export.headers().firstValue("Transfer-Encoding").orElse(""));
+        List<String> journal = Files.readAllLines(Path.of(engine.getJournalPath()));
+        assertEquals(List.of(journal.get(0), journal.get(2)), export.body().lines().toList());
+        assertEquals(1, call("GET", "/export?type=stored", null).body().lines().count());
+        assertEquals(400, call("GET", "/export", null).statusCode());
+    }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatClient.Response;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loopback throughput of {@link QuickChatServer}: sends one at a time
+ * (wait for each answer) against pipelined windows of in-flight requests,
+ * on one and several connections. Not a JUnit test (surefire skips it); run
+ * it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.QuickChatServerBenchmark \
+ *     -Dexec.args="20000"
+ * </pre>
+ *
+ * Prints requests per second and the journal size check for each mode.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatServerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path dir = Files.createTempDirectory("server-bench");
+        System.out.printf("%-12s %11s %7s %10s %12s%n", "mode", "connections", "window", "ms", "requests/s");
+        for (int round = 0; round < 2; round++) {          // first round is warm-up
+            boolean print = round == 1;
+            run(dir, "sequential", 1, 1, requests / 4, print);
+            run(dir, "pipelined", 1, 64, requests, print);
+            run(dir, "pipelined", 1, 1024, requests, print);
+            run(dir, "pipelined", 4, 256, requests, print);
+        }
+    }
+
+    private static void run(Path dir, String mode, int connections, int window, int requests,
+            boolean print) throws Exception {
+        Path journal = Files.createTempFile(dir, "messages", ".json");
+        QuickChatEngine engine = new QuickChatEngine(journal.toString(), requests);
+        try (QuickChatServer server = new QuickChatServer(engine, 0)) {
+            int perConnection = requests / connections;
+            List<Thread> threads = new ArrayList<>();
+            long begin = System.nanoTime();
+            for (int c = 0; c < connections; c++) {
+                int base = c * perConnection;
+                threads.add(Thread.ofPlatform().start(() -> drive(server.getPort(), base, perConnection, window)));
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+            long nanos = System.nanoTime() - begin;
+            int done = perConnection * connections;
+            if (engine.getSentCount() != done) {
+                throw new IllegalStateException("expected " + done + " sent, got " + engine.getSentCount());
+            }
+            if (print) {
+                System.out.printf("%-12s %11d %7d %10.1f %12.0f%n", mode, connections, window,
+                        nanos / 1e6, done / (nanos / 1e9));
+            }
+        }
+        Files.deleteIfExists(journal);
+    }
+
+    /* Keep up to window requests in flight; flush once per window. */
+    private static void drive(int port, int base, int count, int window) {
+        try (QuickChatClient client = new QuickChatClient(port)) {
+            client.setAutoFlush(false);
+            List<CompletableFuture<Response>> inFlight = new ArrayList<>(window);
+            for (int i = 0; i < count; i += window) {
+                int n = Math.min(window, count - i);
+                for (int j = 0; j < n; j++) {
+                    int k = base + i + j;
+                    inFlight.add(client.send(String.format("+2783%07d", k), "Benchmark message " + k));
+                }
+                client.flush();
+                for (CompletableFuture<Response> f : inFlight) {
+                    if (!f.join().ok()) {
+                        throw new IllegalStateException(f.join().text());
+                    }
+                }
+                inFlight.clear();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatClient.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loopback integration tests for {@link QuickChatServer} and
+ * {@link QuickChatClient}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Every operation end to end: send / store / discard, searches, delete,
+ * disregard, longest, report</li>
+ * <li>Validation failures come back REJECTED with the ingest status</li>
+ * <li>Thousands of pipelined requests on one connection, answered in order
+ * and journalled in batches</li>
+ * <li>Several concurrent connections; unknown operations</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class QuickChatServerTest {
+
+    @TempDir
+    Path dir;
+
+    private QuickChatEngine engine;
+    private QuickChatServer server;
+
+    @BeforeEach
+    public void start() throws Exception {
+        engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 100_000);
+        server = new QuickChatServer(engine, 0);
+    }
+
+    @AfterEach
+    public void stop() throws Exception {
+        server.close();
+    }
+
+    private static Response get(CompletableFuture<Response> f) throws Exception {
+        return f.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The menu and report operations behave like their engine methods.
+     */
+    @Test
+    public void testOperations_EndToEnd() throws Exception {
+        try (QuickChatClient client = new QuickChatClient(server.getPort())) {
+            Response sent = get(client.send("+27834557896", "Did you get the cake?"));
+            assertTrue(sent.ok());
+            assertEquals("SENT", sent.text());
+            Message m = sent.message();
+            assertEquals("+27834557896", m.getRecipient());
+            assertEquals(m.getMessageID(), engine.sent().get(0).getMessageID());
+
+            assertEquals("STORED", get(client.store("+27838884567", "Where are you? You are late!")).text());
+            assertEquals("DISREGARDED", get(client.discard("+27834484567", "Yohoooo")).text());
+            Response bad = get(client.send("0831234567", "No plus sign"));
+            assertEquals(QuickChatServer.REJECTED, bad.status());
+            assertEquals("INVALID_RECIPIENT", bad.text());
+            assertNull(bad.message());
+
+            assertEquals("Did you get the cake?", get(client.findByID(m.getMessageID())).message().getMessage());
+            assertEquals(QuickChatServer.NOT_FOUND, get(client.findByID("0000000000")).status());
+            get(client.send("+27838884567", "It is dinner time!"));
+            assertEquals(2, get(client.findByRecipient("+27838884567")).messages().size());
+            assertEquals("Did you get the cake?", get(client.longest()).message().getMessage());
+
+            Response report = get(client.report());
+            assertEquals("sent=2 stored=1 disregarded=1", report.text());
+            assertEquals(2, report.messages().size());
+
+            assertTrue(get(client.deleteByHash(m.getMessageHash())).ok());
+            assertEquals(QuickChatServer.NOT_FOUND, get(client.deleteByHash(m.getMessageHash())).status());
+            String other = engine.sent().get(0).getMessageID();
+            assertTrue(get(client.disregard(other)).ok());
+            assertEquals("sent=0 stored=1 disregarded=2", get(client.report()).text());
+
+            assertEquals(QuickChatServer.BAD_REQUEST, get(client.request((byte) 42)).status());
+            assertTrue(get(client.longest()).status() == QuickChatServer.NOT_FOUND, "connection still usable");
+        }
+    }
+
+    /**
+     * Ten thousand requests written before reading a single response all
+     * complete, in order, and the journal took far fewer writes than that.
+     */
+    @Test
+    public void testPipelining_ThousandsInFlight() throws Exception {
+        int n = 10_000;
+        List<CompletableFuture<Response>> futures = new ArrayList<>(n);
+        try (QuickChatClient client = new QuickChatClient(server.getPort())) {
+            client.setAutoFlush(false);
+            for (int i = 0; i < n; i++) {
+                futures.add(client.send("+2783" + String.format("%07d", i), "Pipelined " + i));
+            }
+            client.flush();
+            for (int i = 0; i < n; i++) {
+                Response r = get(futures.get(i));
+                assertTrue(r.ok());
+                assertEquals("Pipelined " + i, r.message().getMessage());
+            }
+            assertEquals(0, client.inFlight());
+        }
+        assertEquals(n, engine.getSentCount());
+        assertEquals(n, Files.readAllLines(Path.of(engine.getJournalPath())).size());
+        assertTrue(server.requestsServed() >= n);
+    }
+
+    /**
+     * Concurrent connections each get their own answers.
+     */
+    @Test
+    public void testConcurrentConnections() throws Exception {
+        int clients = 8;
+        int perClient = 500;
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            threads.add(Thread.ofVirtual().start(() -> {
+                try (QuickChatClient client = new QuickChatClient(server.getPort())) {
+                    List<CompletableFuture<Response>> mine = new ArrayList<>();
+                    for (int i = 0; i < perClient; i++) {
+                        mine.add(client.store("+2783100000" + id, "Client " + id + " draft " + i));
+                    }
+                    for (int i = 0; i < perClient; i++) {
+                        assertEquals("Client " + id + " draft " + i, get(mine.get(i)).message().getMessage());
+                    }
+                } catch (Throwable t) {
+                    synchronized (errors) {
+                        errors.add(t);
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(List.of(), errors);
+        assertEquals(clients * perClient, engine.getStoreCount());
+        assertEquals(clients, server.connectionsAccepted());
+    }
+
+    /**
+     * Requests after the server is gone fail instead of hanging.
+     */
+    @Test
+    public void testServerClose_FailsPending() throws Exception {
+        QuickChatClient client = new QuickChatClient(server.getPort());
+        assertTrue(get(client.report()).ok());
+        server.close();
+        CompletableFuture<Response> late = client.report();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> late.get(10, TimeUnit.SECONDS));
+        assertNotNull(e.getCause());
+        client.close();
+    }
+}
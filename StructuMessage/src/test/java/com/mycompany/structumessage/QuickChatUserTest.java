@@ -8,7 +8,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * <p>
  * Coverage:
  * <ul>
- * <li>Username / password / cellphone validators</li>
+ * <li>Username / password / cellphone validators (and regex equivalence)</li>
  * <li>register() success & all failure paths</li>
  * <li>login() credential match</li>
  * <li>loginStatusMessage() wording</li>
@@ -113,6 +113,27 @@ public class QuickChatUserTest {
         assertFalse(QuickChatUser.checkCellPhoneNumber(null));
     }
 
+    /**
+     * Hand-written validators must agree with the original regexes,
+     * including line terminators, non-ASCII digits and surrogate pairs.
+     */
+    @Test
+    public void testValidators_MatchOriginalRegexes() {
+        String[] samples = {
+            "", "_", "usr_1", "usr_12", "a_\n", "a_\u2028", "\uD83D\uDE00_abc", "\uD83D\uDE00\uD83D\uDE00_ab",
+            "Secure@123", "Secure@12", "secure@123", "Secure1234", "Sécure1234", "SECURE@ABC",
+            "Secure@123\n", "Secure\uD83D\uDE0012", "Se\u0661cure@ab",
+            "+27812345678", "+2781234567", "+278123456789", "+27\u0661\u0662\u0663456789", "0812345678",
+            "+27812345678\n"
+        };
+        for (String s : samples) {
+            assertEquals(s.matches("^(?=.*_).{1,5}$"), QuickChatUser.checkUserName(s), s);
+            assertEquals(s.matches("^(?=.*[A-Z])(?=.*\\d)(?=.*[^a-zA-Z0-9]).{8,}$"),
+                    QuickChatUser.checkPasswordComplexity(s), s);
+            assertEquals(s.matches("^\\+27\\d{9}$"), QuickChatUser.checkCellPhoneNumber(s), s);
+        }
+    }
+
     /* ─────────── register() workflow ─────────── */
     //  Title  : String.repeat(int) for test data
     //  Author : Oracle Java 11 API
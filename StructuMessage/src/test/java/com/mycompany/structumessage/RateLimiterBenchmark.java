@@ -0,0 +1,92 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention benchmark for {@link RateLimiter#tryAcquire} with 1 – 32
+ * threads. Not a JUnit test (surefire skips it); run it after
+ * <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.RateLimiterBenchmark
+ * </pre>
+ *
+ * Two key patterns per thread count: <i>spread</i> (every call picks one of
+ * 10 000 recipients, the normal case) and <i>hot</i> (every thread hits the
+ * same recipient, worst-case CAS contention on one bucket). Prints the
+ * average cost per call as seen by one thread, the aggregate rate and the
+ * share of calls that were granted.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class RateLimiterBenchmark {
+
+    private static final int CALLS = 1 << 22;
+    private static final int KEYS = 10_000;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String[] args) throws InterruptedException {
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = String.format("+2783%07d", i);
+        }
+        System.out.printf("%-7s %8s %12s %15s %10s%n", "keys", "threads", "ns/acquire", "acquires/sec", "granted");
+        for (int threads : THREADS) {
+            run("spread", keys, threads);
+            run("hot", new String[]{keys[0]}, threads);
+        }
+    }
+
+    private static void run(String name, String[] keys, int threads) throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        long granted = 0;
+        for (int round = 0; round < 3; round++) {          // best of 3 (first is warm-up)
+            RateLimiter limiter = new RateLimiter(1_000_000, 1_000, KEYS * 2);
+            AtomicLong allowed = new AtomicLong();
+            long nanos = time(limiter, keys, threads, allowed);
+            if (nanos < best) {
+                best = nanos;
+                granted = allowed.get();
+            }
+        }
+        int perThread = CALLS / threads;
+        System.out.printf("%-7s %8d %12.1f %,15d %9.1f%%%n", name, threads,
+                (double) best / perThread,                 // per thread: wall time / own calls
+                (long) (perThread * (long) threads / (best / 1e9)),
+                100.0 * granted / (perThread * (long) threads));
+    }
+
+    /* Wall-clock nanos for every thread to make its share of calls. */
+    private static long time(RateLimiter limiter, String[] keys, int threads, AtomicLong allowed)
+            throws InterruptedException {
+        int perThread = CALLS / threads;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int seed = t * 7919;
+            Thread thread = new Thread(() -> {
+                long ok = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    if (limiter.tryAcquire(keys[(seed + i) % keys.length])) {
+                        ok++;
+                    }
+                }
+                allowed.addAndGet(ok);
+                done.countDown();
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,163 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+import com.mycompany.structumessage.QuickChatEngine.IngestStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link RateLimiter} and the engine's send throttling.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Burst, then lazy refill at the configured rate</li>
+ * <li>Keys are independent</li>
+ * <li>Idle buckets are evicted and the key set stays bounded</li>
+ * <li>Fresh keys cannot push out a busy key's bucket</li>
+ * <li>No over-admission under concurrent callers</li>
+ * <li>Ingest reports RATE_LIMITED for sends only</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A full bucket allows the burst, then one permit per interval.
+     */
+    @Test
+    public void testTryAcquire_BurstThenRefill() {
+        AtomicLong now = new AtomicLong(5 * SECOND);
+        RateLimiter limiter = new RateLimiter(2, 3, 100, now::get);   // 2/s, burst 3
+
+        assertEquals(3, limiter.availablePermits("+27831234567"));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("+27831234567"), "burst permit " + i);
+        }
+        assertFalse(limiter.tryAcquire("+27831234567"));
+        assertTrue(limiter.tryAcquire("+27839999999"), "other keys keep their own bucket");
+
+        now.addAndGet(SECOND / 2 - 1);
+        assertFalse(limiter.tryAcquire("+27831234567"), "half a second not quite up");
+        now.addAndGet(1);
+        assertTrue(limiter.tryAcquire("+27831234567"));
+        assertFalse(limiter.tryAcquire("+27831234567"));
+
+        now.addAndGet(10 * SECOND);
+        assertEquals(3, limiter.availablePermits("+27831234567"), "refill caps at the burst");
+    }
+
+    /**
+     * Full buckets are dropped by a sweep; overflowing keys are refused
+     * while every bucket is busy and never grow the map far past
+     * {@code maxKeys}.
+     */
+    @Test
+    public void testEviction_BoundedKeySet() {
+        AtomicLong now = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1, 1, 64, now::get);
+
+        int admitted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            admitted += limiter.tryAcquire("user" + i) ? 1 : 0;
+        }
+        assertTrue(admitted >= 64 && admitted <= 64 + 32, "admitted " + admitted);
+        assertTrue(limiter.size() <= 64 + 32, "size " + limiter.size());
+
+        now.addAndGet(SECOND);
+        assertTrue(limiter.tryAcquire("user9999"), "idle buckets make room once refilled");
+
+        limiter.tryAcquire("busy");
+        now.addAndGet(SECOND / 2);
+        limiter.evictIdle();
+        assertEquals(0, limiter.availablePermits("busy"), "a busy bucket survives the sweep");
+        now.addAndGet(SECOND);
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+    }
+
+    /**
+     * Cycling through thousands of fresh keys neither evicts a flooded
+     * key's bucket nor resets its limit.
+     */
+    @Test
+    public void testEviction_BusyKeyKeepsItsLimit() {
+        AtomicLong now = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1, 2, 64, now::get);
+
+        assertTrue(limiter.tryAcquire("+27831234567"));
+        assertTrue(limiter.tryAcquire("+27831234567"));
+        assertFalse(limiter.tryAcquire("+27831234567"));
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("+2783" + i);
+        }
+        assertFalse(limiter.tryAcquire("+27831234567"), "limit survives the churn");
+        assertEquals(0, limiter.availablePermits("+27831234567"));
+        assertTrue(limiter.size() <= 64 + 32, "size " + limiter.size());
+    }
+
+    /**
+     * Eight threads hammering one key at a frozen clock get exactly the burst.
+     */
+    @Test
+    public void testConcurrentCallers_NoOverAdmission() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 1000, 100, () -> 42);
+        AtomicInteger granted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (limiter.tryAcquire("+27831234567")) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, granted.get());
+    }
+
+    /**
+     * The per-recipient limit rejects a flood of sends to one number but
+     * leaves drafts and other recipients alone; rejected sends are not
+     * journalled or stored.
+     */
+    @Test
+    public void testIngest_RateLimitedSends() {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 100);
+        engine.setRateLimits(new RateLimiter(0.001, 2), null);
+
+        List<IngestRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            requests.add(new IngestRequest("+27831234567", "Flood " + i, "send"));
+        }
+        requests.add(new IngestRequest("+27831234567", "Draft", "store"));
+        requests.add(new IngestRequest("+27839999999", "Someone else", "send"));
+        List<IngestResult> results = engine.ingest(requests);
+
+        assertEquals(List.of(IngestStatus.SENT, IngestStatus.SENT, IngestStatus.RATE_LIMITED,
+                IngestStatus.RATE_LIMITED, IngestStatus.STORED, IngestStatus.SENT),
+                results.stream().map(IngestResult::status).toList());
+        assertEquals(3, engine.getSentCount());
+        assertEquals(4, Message.readMessagesFromFile(engine.getJournalPath()).size());
+        assertTrue(engine.tryAcquireSend("alice", "+27830000000"), "no per-user limit set");
+    }
+}
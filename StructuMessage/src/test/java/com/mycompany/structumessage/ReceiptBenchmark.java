@@ -0,0 +1,89 @@
+package com.mycompany.structumessage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Receipts per second through {@link ReceiptProcessor} against one-at-a-time
+ * look-ups (<code>findSentByID</code> + <code>markAsReceived</code> /
+ * <code>markAsRead</code> per line). Not a JUnit test; run it after
+ * <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.ReceiptBenchmark
+ * </pre>
+ *
+ * Every sent message gets a delivered and a read receipt, in random order;
+ * both runs start from the same undelivered messages. The per-receipt loop
+ * already uses the sent store's ID index and persists nothing, so it is the
+ * floor the batched run (which also logs every delta) should stay near.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class ReceiptBenchmark {
+
+    private static final int MESSAGES = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        File journal = File.createTempFile("receipts", ".json");
+        journal.deleteOnExit();
+        QuickChatEngine engine = new QuickChatEngine(journal.getPath(), Integer.MAX_VALUE);
+        List<Message> messages = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            Message m = new Message("+27830000000", "Receipt " + i, i);
+            messages.add(m);
+            engine.sent().add(m);
+        }
+
+        Path file = Files.createTempFile("receipts", ".csv");
+        file.toFile().deleteOnExit();
+        List<String> lines = new ArrayList<>(MESSAGES * 2);
+        for (Message m : messages) {
+            lines.add(m.getMessageID() + ",DELIVERED");
+            lines.add(m.getMessageID() + ",READ");
+        }
+        Collections.shuffle(lines, ThreadLocalRandom.current());
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("messageID,status\n");
+            for (String line : lines) {
+                out.write(line);
+                out.write('\n');
+            }
+        }
+
+        System.out.printf("%-12s %6s %15s%n", "method", "round", "receipts/sec");
+        for (int round = 1; round <= 3; round++) {               // first round is warm-up
+            messages.forEach(Message::resetDeliveryState);
+            long begin = System.nanoTime();
+            for (String line : Files.readAllLines(file).subList(1, lines.size() + 1)) {
+                int comma = line.indexOf(',');
+                Message m = engine.findSentByID(line.substring(0, comma));
+                if (line.endsWith("READ")) {
+                    m.markAsReceived();
+                    m.markAsRead();
+                } else {
+                    m.markAsReceived();
+                }
+            }
+            long elapsed = System.nanoTime() - begin;
+            System.out.printf("%-12s %6d %,15d%n", "per-receipt", round, (long) (lines.size() / (elapsed / 1e9)));
+
+            messages.forEach(Message::resetDeliveryState);
+            Path log = Files.createTempFile("receipts", ".delivery");
+            log.toFile().deleteOnExit();
+            ReceiptProcessor.Report report;
+            try (DeliveryLog deltas = new DeliveryLog(log)) {
+                report = new ReceiptProcessor(engine, deltas).process(file);
+            }
+            System.out.printf("%-12s %6d %,15d   (%,d deltas, %,d bytes logged)%n", "batched", round,
+                    (long) report.receiptsPerSecond(), report.changed(), Files.size(log));
+        }
+    }
+}
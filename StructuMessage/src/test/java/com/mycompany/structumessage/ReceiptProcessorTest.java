@@ -0,0 +1,123 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link ReceiptProcessor} and
+ * {@link MessageStore#applyReceipts}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Delivered / read receipts set the flags (read implies received)</li>
+ * <li>Header, blank, malformed and unknown-ID rows</li>
+ * <li>Only real flag changes become log deltas; a rerun adds none</li>
+ * <li>Heap and off-heap stores behave the same</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class ReceiptProcessorTest {
+
+    @TempDir
+    Path dir;
+
+    /* Three undelivered sent messages in the given store. */
+    private static List<Message> seed(QuickChatEngine engine) {
+        List<Message> messages = List.of(
+                new Message("+27830000001", "One", 1),
+                new Message("+27830000002", "Two", 2),
+                new Message("+27830000003", "Three", 3));
+        for (Message m : messages) {
+            m.resetDeliveryState();
+            m.markAsSent();
+            engine.route(m, "sent");
+        }
+        return messages;
+    }
+
+    private static String receipts(List<Message> m) {
+        return "messageID,status,timestamp\n"
+                + m.get(0).getMessageID() + ",DELIVERED,1700000000\n"
+                + "\n"
+                + m.get(1).getMessageID() + ",read\n"
+                + m.get(0).getMessageID() + ",READ\n"
+                + "9999999999,READ\n"
+                + m.get(2).getMessageID() + ",BOUNCED\n"
+                + "no-comma\n";
+    }
+
+    /**
+     * Receipts land on the right messages, with the right counts.
+     */
+    @Test
+    public void testProcess_AppliesReceipts() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("m.json").toString(), 10);
+        List<Message> m = seed(engine);
+
+        ReceiptProcessor.Report report = new ReceiptProcessor(engine, null, 2, 2)
+                .process(new BufferedReader(new StringReader(receipts(m))));
+
+        assertEquals(6, report.rows());
+        assertEquals(2, report.malformed());
+        assertEquals(3, report.matched());        // batches: {m0, m1}, {m0, unknown}
+        assertEquals(3, report.changed());        // m0's read receipt is a delta of its own
+        assertTrue(m.get(0).isReceived() && m.get(0).isRead());
+        assertTrue(m.get(1).isReceived() && m.get(1).isRead());
+        assertFalse(m.get(2).isReceived() || m.get(2).isRead());
+        assertTrue(report.receiptsPerSecond() > 0);
+    }
+
+    /**
+     * Deltas replay to the same flags, and a second run logs nothing new.
+     */
+    @Test
+    public void testProcess_DeltasPersistedOnce() throws Exception {
+        String journal = dir.resolve("messages.json").toString();
+        QuickChatEngine engine = new QuickChatEngine(journal, 10);
+        List<Message> m = seed(engine);
+        Path logPath = DeliveryLog.forJournal(journal);
+
+        try (DeliveryLog log = new DeliveryLog(logPath, 64)) {
+            ReceiptProcessor processor = new ReceiptProcessor(engine, log);
+            assertEquals(2, processor.process(new BufferedReader(new StringReader(receipts(m)))).changed());
+            assertEquals(0, processor.process(new BufferedReader(new StringReader(receipts(m)))).changed());
+        }
+
+        Map<String, Integer> states = DeliveryLog.replay(logPath);
+        assertEquals(2, states.size());
+        assertEquals(DeliveryLog.RECEIVED | DeliveryLog.READ, states.get(m.get(0).getMessageID()));
+        assertEquals(DeliveryLog.RECEIVED | DeliveryLog.READ, states.get(m.get(1).getMessageID()));
+    }
+
+    /**
+     * The off-heap store's single-sweep override updates its flag column.
+     */
+    @Test
+    public void testApplyReceipts_OffHeapStore() throws Exception {
+        try (OffHeapMessageStore sent = new OffHeapMessageStore()) {
+            QuickChatEngine engine = new QuickChatEngine(dir.resolve("o.json").toString(), sent,
+                    new ConcurrentMessageStore(), new ConcurrentMessageStore());
+            List<Message> m = seed(engine);
+
+            ReceiptProcessor.Report report = new ReceiptProcessor(engine, null)
+                    .process(new BufferedReader(new StringReader(receipts(m))));
+
+            assertEquals(2, report.matched());
+            assertEquals(2, report.changed());
+            Message first = sent.get(sent.indexOfID(m.get(0).getMessageID()));
+            Message third = sent.get(sent.indexOfID(m.get(2).getMessageID()));
+            assertTrue(first.isSent() && first.isReceived() && first.isRead());
+            assertTrue(third.isSent());
+            assertFalse(third.isReceived() || third.isRead());
+        }
+    }
+}
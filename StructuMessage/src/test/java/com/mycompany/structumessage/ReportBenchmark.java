@@ -0,0 +1,96 @@
+package com.mycompany.structumessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening a report from the figures {@link AggregatingMessageStore} keeps,
+ * against scanning the store as the reports used to; plus what keeping
+ * them costs each add and remove. Not a JUnit test (surefire skips it);
+ * run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.ReportBenchmark \
+ *     -Dexec.args="1000000"
+ * </pre>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class ReportBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Message> messages = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            messages.add(new Message(String.format("+27830%06d", i % 20_000),
+                    "Report benchmark " + "z".repeat(i % 97) + " " + i, i));
+        }
+        System.out.printf("%,d sent messages, 20,000 recipients%n%n", n);
+
+        for (int round = 0; round < 3; round++) {          // first round is warm-up
+            boolean print = round > 0;
+            ConcurrentMessageStore plain = new ConcurrentMessageStore(n);
+            long begin = System.nanoTime();
+            for (Message m : messages) {
+                plain.add(m);
+            }
+            long plainAdd = System.nanoTime() - begin;
+            AggregatingMessageStore kept = new AggregatingMessageStore(new ConcurrentMessageStore(n));
+            begin = System.nanoTime();
+            for (Message m : messages) {
+                kept.add(m);
+            }
+            long keptAdd = System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            Message scanned = plain.get(plain.longestMessageIndex());
+            long scanLongest = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            Message maintained = kept.longest();
+            long readLongest = System.nanoTime() - begin;
+            if (!scanned.getMessage().equals(maintained.getMessage())) {
+                throw new AssertionError("longest differs");
+            }
+
+            String recipient = "+27830012345";
+            begin = System.nanoTime();
+            int scannedCount = 0;
+            for (Message m : plain.snapshot()) {
+                if (m.getRecipient().equals(recipient)) {
+                    scannedCount++;
+                }
+            }
+            long scanRecipient = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            int keptCount = kept.recipient(recipient).count();
+            long readRecipient = System.nanoTime() - begin;
+            if (scannedCount != keptCount) {
+                throw new AssertionError("recipient count differs");
+            }
+
+            begin = System.nanoTime();
+            for (int i = 0; i < 1_000; i++) {
+                kept.removeAt(kept.size() - 1);
+            }
+            long keptRemove = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            for (int i = 0; i < 1_000; i++) {
+                plain.removeAt(plain.size() - 1);
+            }
+            long plainRemove = System.nanoTime() - begin;
+
+            if (print) {
+                System.out.printf("%-34s %12s %12s%n", "", "scan", "maintained");
+                System.out.printf("%-34s %10.2f ms %10.4f ms%n", "open longest-message report",
+                        scanLongest / 1e6, readLongest / 1e6);
+                System.out.printf("%-34s %10.2f ms %10.4f ms%n", "one recipient's message count",
+                        scanRecipient / 1e6, readRecipient / 1e6);
+                System.out.printf("%-34s %10.0f ns %10.0f ns%n", "add, per message",
+                        (double) plainAdd / n, (double) keptAdd / n);
+                System.out.printf("%-34s %10.0f ns %10.0f ns%n%n", "remove last, per message",
+                        plainRemove / 1e3, keptRemove / 1e3);
+            }
+        }
+    }
+}
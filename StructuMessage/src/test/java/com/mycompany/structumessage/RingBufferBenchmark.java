@@ -0,0 +1,113 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hand-off throughput of {@link RingBuffer} (each wait strategy) against
+ * {@link ArrayBlockingQueue} of the same capacity, with 1 – 4 producers and
+ * one consumer. Not a JUnit test; run it after <code>mvn test-compile</code>
+ * with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.RingBufferBenchmark
+ * </pre>
+ *
+ * The queue needs one boxed element per hand-off; the ring reuses its
+ * slots, so its run allocates nothing per event.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class RingBufferBenchmark {
+
+    private static final int EVENTS = 5_000_000;
+    private static final int CAPACITY = 8192;
+    private static final int[] PRODUCERS = {1, 2, 4};
+
+    /* Keeps the consumed values live so the JIT cannot drop the reads. */
+    static volatile long sink;
+
+    /* Reused slot. */
+    private static final class Slot {
+
+        long value;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-22s %9s %15s%n", "queue", "producers", "events/sec");
+        for (int round = 0; round < 2; round++) {              // first round is warm-up
+            for (int producers : PRODUCERS) {
+                for (RingBuffer.WaitStrategy strategy : RingBuffer.WaitStrategy.values()) {
+                    report("ring/" + strategy, producers, ring(strategy, producers));
+                }
+                report("ArrayBlockingQueue", producers, queue(producers));
+            }
+        }
+    }
+
+    private static void report(String name, int producers, long nanos) {
+        System.out.printf("%-22s %9d %,15d%n", name, producers, (long) (EVENTS / (nanos / 1e9)));
+    }
+
+    private static long ring(RingBuffer.WaitStrategy strategy, int producers) throws Exception {
+        RingBuffer<Slot> ring = new RingBuffer<>(CAPACITY, Slot::new, strategy, RingBuffer.Overflow.BLOCK);
+        CountDownLatch start = new CountDownLatch(1);
+        int share = EVENTS / producers;
+        for (int p = 0; p < producers; p++) {
+            Thread t = new Thread(() -> {
+                await(start);
+                for (long i = 0; i < share; i++) {
+                    ring.publish((s, v) -> s.value = v, i);
+                }
+            });
+            t.start();
+        }
+        long[] sum = new long[1];
+        long begin = System.nanoTime();
+        start.countDown();
+        long received = 0;
+        while (received < (long) share * producers) {
+            received += ring.waitAndDrain((s, seq, end) -> sum[0] += s.value);
+        }
+        long elapsed = System.nanoTime() - begin;
+        sink = sum[0];
+        return elapsed;
+    }
+
+    private static long queue(int producers) throws Exception {
+        ArrayBlockingQueue<Long> queue = new ArrayBlockingQueue<>(CAPACITY);
+        CountDownLatch start = new CountDownLatch(1);
+        int share = EVENTS / producers;
+        for (int p = 0; p < producers; p++) {
+            Thread t = new Thread(() -> {
+                await(start);
+                try {
+                    for (long i = 0; i < share; i++) {
+                        queue.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            t.start();
+        }
+        long sum = 0;
+        long begin = System.nanoTime();
+        start.countDown();
+        for (long received = 0; received < (long) share * producers; received++) {
+            sum += queue.take();
+        }
+        long elapsed = System.nanoTime() - begin;
+        sink = sum;
+        return elapsed;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link RingBuffer} and {@link AsyncJournal}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Many producers, one consumer: nothing lost, per-producer order kept</li>
+ * <li>Slots are allocated once and reused</li>
+ * <li>DROP / FAIL overflow policies</li>
+ * <li>Engine routing through the async journal</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class RingBufferTest {
+
+    /* Mutable event used by the tests. */
+    private static final class Event {
+
+        int producer;
+        int value;
+    }
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Four producers through a small ring: every event arrives, in order per
+     * producer, and only {@code size} slot objects ever exist.
+     */
+    @Test
+    public void testMultiProducer_NoLossInOrder() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        RingBuffer<Event> ring = new RingBuffer<>(64, () -> {
+            created.incrementAndGet();
+            return new Event();
+        }, RingBuffer.WaitStrategy.YIELDING, RingBuffer.Overflow.BLOCK);
+        int producers = 4;
+        int perProducer = 50_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int value = i;
+                    ring.publish((e, unused) -> {
+                        e.producer = id;
+                        e.value = value;
+                    }, null);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            received += ring.waitAndDrain((e, seq, end) -> {
+                assertEquals(next[e.producer], e.value);
+                next[e.producer]++;
+            });
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(64, created.get());
+        assertEquals(0, ring.backlog());
+    }
+
+    /**
+     * A full ring drops or fails according to its policy.
+     */
+    @Test
+    public void testOverflowPolicies() throws Exception {
+        RingBuffer<Event> dropping = new RingBuffer<>(2, Event::new,
+                RingBuffer.WaitStrategy.BUSY_SPIN, RingBuffer.Overflow.DROP);
+        assertTrue(dropping.publish((e, v) -> e.value = v, 1));
+        assertTrue(dropping.publish((e, v) -> e.value = v, 2));
+        assertFalse(dropping.publish((e, v) -> e.value = v, 3));
+        assertEquals(2, dropping.drain((e, seq, end) -> {
+        }));
+        assertTrue(dropping.publish((e, v) -> e.value = v, 4));
+
+        RingBuffer<Event> failing = new RingBuffer<>(1, Event::new,
+                RingBuffer.WaitStrategy.BUSY_SPIN, RingBuffer.Overflow.FAIL);
+        failing.publish((e, v) -> e.value = v, 1);
+        assertThrows(IllegalStateException.class, () -> failing.publish((e, v) -> e.value = v, 2));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(3, Event::new,
+                RingBuffer.WaitStrategy.BUSY_SPIN, RingBuffer.Overflow.FAIL));
+    }
+
+    /**
+     * route() writes through the ring; stop flushes everything to the file.
+     */
+    @Test
+    public void testEngine_AsyncJournal() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(), 1_000);
+        engine.startAsyncJournal(16, RingBuffer.WaitStrategy.BLOCKING, RingBuffer.Overflow.BLOCK);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(engine.route(new Message("+27830000000", "Async " + i, i), "sent"));
+        }
+        engine.stopAsyncJournal();
+
+        List<String> lines = Files.readAllLines(Path.of(engine.getJournalPath()));
+        assertEquals(500, lines.size());
+        assertTrue(lines.get(499).contains("\"message\":\"Async 499\""));
+    }
+}
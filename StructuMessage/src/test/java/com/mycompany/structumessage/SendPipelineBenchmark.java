@@ -0,0 +1,79 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sequential {@link QuickChatEngine#ingest(Iterable)} against
+ * {@link SendPipeline} with 1 – 8 hash workers, plus the pipeline's stage
+ * metrics. Not a JUnit test; run it after <code>mvn test-compile</code>
+ * with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.SendPipelineBenchmark
+ * </pre>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class SendPipelineBenchmark {
+
+    private static final int MESSAGES = 200_000;
+    private static final int[] HASHERS = {1, 2, 4, 8};
+
+    public static void main(String[] args) throws Exception {
+        List<IngestRequest> requests = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            requests.add(new IngestRequest(String.format("+2783%07d", i),
+                    "Pipeline message number " + i + " for the benchmark", i % 4 == 0 ? "store" : "send"));
+        }
+
+        for (int round = 0; round < 2; round++) {           // first round is warm-up
+            System.out.printf("%n%-22s %15s%n", "engine", "messages/sec");
+            File journal = temp();
+            QuickChatEngine sequential = new QuickChatEngine(journal.getPath(), Integer.MAX_VALUE);
+            long begin = System.nanoTime();
+            sequential.ingest(requests);
+            print("ingest (sequential)", begin);
+            journal.delete();
+
+            for (int hashers : HASHERS) {
+                journal = temp();
+                QuickChatEngine engine = new QuickChatEngine(journal.getPath(), Integer.MAX_VALUE);
+                SendPipeline pipeline = new SendPipeline(engine, 1, hashers, 1,
+                        SendPipeline.DEFAULT_QUEUE_CAPACITY);
+                begin = System.nanoTime();
+                CompletableFuture<IngestResult> last = null;
+                for (IngestRequest r : requests) {
+                    last = pipeline.submit(r);
+                }
+                pipeline.close();
+                last.get();
+                print("pipeline, " + hashers + " hasher(s)", begin);
+                if (round == 1 && hashers == HASHERS[HASHERS.length - 1]) {
+                    for (SendPipeline.StageMetrics m : pipeline.metrics()) {
+                        System.out.printf("  %-9s wait %,9d ns  service %,7d ns%n",
+                                m.stage(), m.avgWaitNanos(), m.avgServiceNanos());
+                    }
+                }
+                journal.delete();
+            }
+        }
+    }
+
+    private static File temp() throws IOException {
+        File journal = File.createTempFile("pipeline", ".json");
+        journal.deleteOnExit();
+        return journal;
+    }
+
+    private static void print(String name, long begin) {
+        System.out.printf("%-22s %,15d%n", name, (long) (MESSAGES / ((System.nanoTime() - begin) / 1e9)));
+    }
+}
@@ -0,0 +1,152 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.QuickChatEngine.IngestRequest;
+import com.mycompany.structumessage.QuickChatEngine.IngestResult;
+import com.mycompany.structumessage.QuickChatEngine.IngestStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link SendPipeline}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Every submitted message completes with the same result as ingest</li>
+ * <li>Multi-threaded stages with tiny queues (back-pressure)</li>
+ * <li>Journal + stores consistent after close, metrics populated</li>
+ * <li>Full stores are not journalled; writes go through the async
+ * journal</li>
+ * <li>A journal failure fails its batch and the writer keeps going</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class SendPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Valid and invalid messages all complete; accepted ones are journaled
+     * exactly once and indexed.
+     */
+    @Test
+    public void testPipeline_ProcessesEverything() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("messages.json").toString(),
+                Integer.MAX_VALUE);
+        List<CompletableFuture<IngestResult>> futures = new ArrayList<>();
+        try (SendPipeline pipeline = new SendPipeline(engine, 2, 3, 2, 8)) {
+            for (int i = 0; i < 5_000; i++) {
+                String recipient = i % 100 == 0 ? "0830000000" : "+27830000000";
+                String action = i % 3 == 0 ? "store" : "send";
+                futures.add(pipeline.submit(new IngestRequest(recipient, "Pipelined " + i, action)));
+            }
+        }
+
+        int invalid = 0;
+        Set<String> ids = new HashSet<>();
+        for (CompletableFuture<IngestResult> f : futures) {
+            IngestResult r = f.getNow(null);
+            assertNotNull(r);
+            if (r.status() == IngestStatus.INVALID_RECIPIENT) {
+                invalid++;
+            } else {
+                assertTrue(r.status().accepted());
+                assertTrue(ids.add(r.message().getMessageID() + r.index()));
+            }
+        }
+        assertEquals(50, invalid);
+        assertEquals(4_950, engine.getSentCount() + engine.getStoreCount());
+        assertEquals(4_950, Files.readAllLines(Path.of(engine.getJournalPath())).size());
+    }
+
+    /**
+     * Metrics report every stage in order with processed counts.
+     */
+    @Test
+    public void testMetrics() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("m.json").toString(), 100);
+        SendPipeline pipeline = new SendPipeline(engine);
+        pipeline.submit(new IngestRequest("+27830000000", "Hello there", "send")).get();
+        pipeline.close();
+
+        List<SendPipeline.StageMetrics> metrics = pipeline.metrics();
+        assertEquals(List.of("validate", "hash", "index", "persist"),
+                metrics.stream().map(SendPipeline.StageMetrics::stage).toList());
+        assertTrue(metrics.stream().allMatch(m -> m.processed() == 1 && m.queueDepth() == 0));
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.submit(new IngestRequest("+27830000000", "Late", "send")));
+    }
+
+    /**
+     * With the async journal running, the persist stage writes through it,
+     * and a message refused by a full store never reaches the journal.
+     */
+    @Test
+    public void testStoreFull_NotJournalled() throws Exception {
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("full.json").toString(), 3);
+        engine.startAsyncJournal(64, RingBuffer.WaitStrategy.BLOCKING, RingBuffer.Overflow.BLOCK);
+        List<IngestResult> results = new ArrayList<>();
+        try (SendPipeline pipeline = new SendPipeline(engine, 1, 2, 1, 4)) {
+            List<CompletableFuture<IngestResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(pipeline.submit(new IngestRequest("+27830000000", "Full " + i, "send")));
+            }
+            for (CompletableFuture<IngestResult> f : futures) {
+                results.add(f.get());
+            }
+        }
+        engine.stopAsyncJournal();
+
+        assertEquals(3, results.stream().filter(r -> r.status() == IngestStatus.SENT).count());
+        assertEquals(2, results.stream().filter(r -> r.status() == IngestStatus.STORE_FULL).count());
+        List<Message> journal = Message.readMessagesFromFile(engine.getJournalPath());
+        assertEquals(3, journal.size());
+        for (Message m : journal) {
+            assertTrue(engine.sent().indexOfID(m.getMessageID()) >= 0);
+        }
+    }
+
+    /**
+     * A journal write that throws (as the async journal does with
+     * Overflow.FAIL and a full ring) fails the futures of its batch; the
+     * writer survives and journals what comes next.
+     */
+    @Test
+    public void testJournalFailure_FailsBatchOnly() throws Exception {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        QuickChatEngine engine = new QuickChatEngine(dir.resolve("fail.json").toString(), 100) {
+            @Override
+            void journalAdmitted(List<Message> batch) {
+                if (!batch.isEmpty() && fail.getAndSet(false)) {
+                    throw new IllegalStateException("Journal ring is full");
+                }
+                super.journalAdmitted(batch);
+            }
+        };
+        try (SendPipeline pipeline = new SendPipeline(engine, 1, 1, 1, 4)) {
+            CompletableFuture<IngestResult> lost = pipeline.submit(new IngestRequest("+27830000000", "Lost", "send"));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> lost.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+
+            IngestResult later = pipeline.submit(new IngestRequest("+27830000000", "Later", "send"))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(IngestStatus.SENT, later.status());
+        }
+        List<Message> journal = Message.readMessagesFromFile(engine.getJournalPath());
+        assertEquals(List.of("Later"), journal.stream().map(Message::getMessage).toList());
+    }
+}
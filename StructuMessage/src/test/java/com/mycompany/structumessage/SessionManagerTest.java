@@ -0,0 +1,99 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link SessionManager}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Token issue / validate / logout</li>
+ * <li>Lazy expiry and wheel sweeps (fake clock)</li>
+ * <li>Bounded cache evicts the oldest session</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class SessionManagerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private UserDirectory users;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        users = new UserDirectory();
+        users.register(new QuickChatUser("ann_1", "Secure@123", "+27812345671", "Ann", "Lee"));
+        users.register(new QuickChatUser("bob_2", "Other#456", "+27812345672", "Bob", "Ray"));
+    }
+
+    private SessionManager sessions(int max) {
+        return new SessionManager(users, Duration.ofSeconds(60), max, now::get);
+    }
+
+    /**
+     * Good credentials yield a distinct token that validates to the user.
+     */
+    @Test
+    public void testLogin_IssuesToken() {
+        SessionManager sessions = sessions(10);
+        String a = sessions.login("ann_1", "Secure@123");
+        String b = sessions.login("ann_1", "Secure@123");
+
+        assertNotNull(a);
+        assertNotEquals(a, b);
+        assertEquals("Ann", sessions.validate(a).getFirstName());
+        assertNull(sessions.login("ann_1", "wrong"));
+        assertNull(sessions.validate("not-a-token"));
+
+        assertTrue(sessions.logout(a));
+        assertNull(sessions.validate(a));
+        assertNotNull(sessions.validate(b));
+    }
+
+    /**
+     * Sessions expire after the TTL, and a sweep evicts them without a
+     * validate call.
+     */
+    @Test
+    public void testExpiry_SweepEvicts() {
+        SessionManager sessions = sessions(10);
+        String first = sessions.login("ann_1", "Secure@123");
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        String second = sessions.login("bob_2", "Other#456");
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals(1, sessions.expireDue());
+        assertEquals(1, sessions.size());
+        assertNull(sessions.validate(first));
+        assertNotNull(sessions.validate(second));
+
+        now.addAndGet(Duration.ofHours(5).toNanos());        // long idle gap
+        assertNull(sessions.validate(second));
+        assertEquals(0, sessions.size());
+    }
+
+    /**
+     * A full cache drops the session closest to expiry.
+     */
+    @Test
+    public void testBounded_EvictsOldest() {
+        SessionManager sessions = sessions(2);
+        String oldest = sessions.login("ann_1", "Secure@123");
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        String middle = sessions.login("bob_2", "Other#456");
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        String newest = sessions.login("ann_1", "Secure@123");
+
+        assertEquals(2, sessions.size());
+        assertNull(sessions.validate(oldest));
+        assertNotNull(sessions.validate(middle));
+        assertNotNull(sessions.validate(newest));
+    }
+}
@@ -0,0 +1,86 @@
+package com.mycompany.structumessage;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Token validation latency of {@link SessionManager} with 1 – 32 threads.
+ * Not a JUnit test; run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.SessionValidationBenchmark
+ * </pre>
+ *
+ * 100 000 live sessions are validated at random; every thread times batches
+ * of 64 calls and the per-call p50 / p99 / max of those batches are printed
+ * with the total throughput.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class SessionValidationBenchmark {
+
+    private static final int SESSIONS = 100_000;
+    private static final int BATCH = 64;
+    private static final int BATCHES_PER_THREAD = 5_000;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String[] args) throws Exception {
+        UserDirectory users = new UserDirectory();
+        users.register(new QuickChatUser("ben_1", "Secure@123", "+27812345678", "Bench", "User"));
+        SessionManager sessions = new SessionManager(users);
+        String[] tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            tokens[i] = sessions.login("ben_1", "Secure@123");
+        }
+
+        System.out.printf("%8s %15s %8s %8s %8s%n", "threads", "validates/sec", "p50 ns", "p99 ns", "max ns");
+        for (int threads : THREADS) {
+            run(sessions, tokens, threads);                  // warm-up
+            run(sessions, tokens, threads);
+        }
+    }
+
+    private static void run(SessionManager sessions, String[] tokens, int threads)
+            throws InterruptedException {
+        long[][] samples = new long[threads][BATCHES_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long[] mine = samples[t];
+            int seed = t * 7919 + 1;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int x = seed;
+                for (int b = 0; b < BATCHES_PER_THREAD; b++) {
+                    long begin = System.nanoTime();
+                    for (int k = 0; k < BATCH; k++) {
+                        x ^= x << 13;
+                        x ^= x >>> 17;
+                        x ^= x << 5;
+                        if (sessions.validate(tokens[(x & Integer.MAX_VALUE) % tokens.length]) == null) {
+                            throw new IllegalStateException("session lost");
+                        }
+                    }
+                    mine[b] = (System.nanoTime() - begin) / BATCH;
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) {
+            w.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+        long calls = (long) threads * BATCHES_PER_THREAD * BATCH;
+        System.out.printf("%8d %,15d %8d %8d %8d%n", threads, (long) (calls / (elapsed / 1e9)),
+                all[all.length / 2], all[(int) (all.length * 0.99)], all[all.length - 1]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.structumessage;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Contention benchmark for {@link MessageStore} appends with 1 – 64 writer
+ * threads. Not a JUnit test (surefire skips it); run it after
+ * <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.StoreContentionBenchmark
+ * </pre>
+ *
+ * Every round appends the same pre-built messages (so message construction
+ * is not measured) and prints appends per second per store type, bare and
+ * wrapped in the engine's {@link AggregatingMessageStore}.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class StoreContentionBenchmark {
+
+    private static final int TOTAL_APPENDS = 1 << 20;
+    private static final int[] WRITERS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws InterruptedException {
+        Message[] messages = new Message[TOTAL_APPENDS];
+        for (int i = 0; i < messages.length; i++) {
+            String id = String.format("%010d", i);
+            messages[i] = Message.restore(id, "+2783" + id.substring(3), "Benchmark body " + i,
+                    id.substring(0, 2) + ":" + i + ":BENCHMARK", "sent", true, true, true);
+        }
+
+        System.out.printf("%-16s %8s %15s%n", "store", "writers", "appends/sec");
+        for (int writers : WRITERS) {
+            run("concurrent", ConcurrentMessageStore::new, false, messages, writers);
+            run("off-heap", OffHeapMessageStore::new, false, messages, writers);
+            run("agg(concurrent)", ConcurrentMessageStore::new, true, messages, writers);
+            run("agg(off-heap)", OffHeapMessageStore::new, true, messages, writers);
+        }
+    }
+
+    private static void run(String name, Supplier<MessageStore> factory, boolean aggregate,
+            Message[] messages, int writers) throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {          // best of 3 (first is warm-up)
+            MessageStore inner = factory.get();
+            MessageStore store = aggregate ? new AggregatingMessageStore(inner) : inner;
+            best = Math.min(best, timeAppends(store, messages, writers));
+            if (store.size() != messages.length) {
+                throw new IllegalStateException(name + " lost appends: " + store.size());
+            }
+            if (inner instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        System.out.printf("%-16s %8d %,15d%n", name, writers,
+                (long) (messages.length / (best / 1e9)));
+    }
+
+    private static long timeAppends(MessageStore store, Message[] messages, int writers)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[writers];
+        int share = messages.length / writers;
+        for (int t = 0; t < writers; t++) {
+            int from = t * share;
+            int to = t == writers - 1 ? messages.length : from + share;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = from; i < to; i++) {
+                    store.add(messages[i]);
+                }
+            });
+            threads[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,114 @@
+package com.mycompany.structumessage;
+
+import com.mycompany.structumessage.MessageTableModel.Column;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Compares the old one-string sent report with {@link MessageTableModel}:
+ * what each costs before the user sees anything, and how long sorting and
+ * filtering keep the event thread busy. Not a JUnit test (surefire skips
+ * it); run it after <code>mvn test-compile</code> with:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mycompany.structumessage.TableViewBenchmark \
+ *     -Dexec.args="1000000"
+ * </pre>
+ *
+ * The string timing leaves out laying the text out in a dialog, which for
+ * the old report cost far more than building it.
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class TableViewBenchmark {
+
+    private static final Column[] COLUMNS = {Column.NUMBER, Column.ID, Column.HASH, Column.RECIPIENT, Column.MESSAGE};
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ConcurrentMessageStore sent = new ConcurrentMessageStore(n);
+        for (int i = 0; i < n; i++) {
+            sent.add(new Message(String.format("+27830%06d", i % 50_000),
+                    "Table benchmark message " + Integer.toHexString(i * 0x9E3779B1) + " for the report", i));
+        }
+        System.out.printf("%,d sent messages%n%n", n);
+
+        for (int round = 0; round < 2; round++) {          // first round is warm-up
+            boolean print = round > 0;
+            long begin = System.nanoTime();
+            int chars = stringReport(sent).length();
+            report(print, "old report string built", begin, chars + " chars");
+
+            MessageTableModel model = new MessageTableModel(COLUMNS, null, sent);
+            begin = System.nanoTime();
+            SwingWorker<int[], Void> open = onEdt(model::refresh);
+            report(print, "table open (event thread)", begin, onEdt(model::getRowCount) + " rows");
+            open.get();
+            begin = System.nanoTime();
+            onEdt(() -> {
+                for (int row = 0; row < 30; row++) {
+                    for (int column = 0; column < COLUMNS.length; column++) {
+                        model.getValueAt(row, column);
+                    }
+                }
+                return null;
+            });
+            report(print, "first screen, 30 rows", begin, "");
+
+            timeView(print, "sort by message", model, () -> model.sortBy(Column.MESSAGE));
+            timeView(print, "sort by message, reversed", model, () -> model.sortBy(Column.MESSAGE));
+            timeView(print, "filter \"a0\"", model, () -> model.setFilter("a0"));
+            timeView(print, "filter one recipient", model, () -> model.setFilter("+27830012345"));
+            if (print) {
+                System.out.println();
+            }
+        }
+    }
+
+    /* What displayReport used to hand to JOptionPane. */
+    private static String stringReport(MessageStore sent) {
+        StringBuilder report = new StringBuilder("Full Sent Messages Report\n");
+        report.append("Total Sent: ").append(sent.size()).append("\n\n");
+        int i = 0;
+        for (Message msg : sent.snapshot()) {
+            report.append("Message #").append(++i).append("\n")
+                    .append("ID: ").append(msg.getMessageID()).append("\n")
+                    .append("Hash: ").append(msg.getMessageHash()).append("\n")
+                    .append("To: ").append(msg.getRecipient()).append("\n")
+                    .append("Body: ").append(msg.getMessage()).append("\n\n");
+        }
+        return report.toString();
+    }
+
+    /* Event-thread time to start the change, then total time until the worker is done. */
+    private static void timeView(boolean print, String what, MessageTableModel model,
+            Supplier<SwingWorker<int[], Void>> change) throws Exception {
+        long begin = System.nanoTime();
+        SwingWorker<int[], Void> worker = onEdt(change);
+        long edt = System.nanoTime() - begin;
+        worker.get();
+        while (onEdt(model::isUpdating)) {
+            Thread.sleep(1);
+        }
+        if (print) {
+            System.out.printf("%-30s %9.1f ms background %7.3f ms on the event thread, %,d rows%n", what,
+                    (System.nanoTime() - begin) / 1e6, edt / 1e6, onEdt(model::getRowCount));
+        }
+    }
+
+    private static void report(boolean print, String what, long begin, String detail) {
+        if (print) {
+            System.out.printf("%-30s %9.1f ms  %s%n", what, (System.nanoTime() - begin) / 1e6, detail);
+        }
+    }
+
+    private static <T> T onEdt(Supplier<T> action) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(action.get()));
+        return result.get();
+    }
+}
@@ -0,0 +1,169 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link UserDirectory}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Registration feedback incl. duplicate username / cellphone</li>
+ * <li>Look-ups and multi-user login</li>
+ * <li>Binary file round-trip (append + full rewrite), no plaintext on disk</li>
+ * <li>Migration of version-1 plaintext files</li>
+ * <li>A torn last record is cut off before the next append</li>
+ * <li>Racing registrations for the same username</li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class UserDirectoryTest {
+
+    private static final String SUCCESS = "Username and password successfully captured.\n"
+            + "Cell phone number successfully added.";
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Valid users register once; clashes and invalid input are reported.
+     */
+    @Test
+    public void testRegister_FeedbackAndConflicts() throws IOException {
+        UserDirectory users = new UserDirectory();
+        assertEquals(SUCCESS, users.register(
+                new QuickChatUser("usr_1", "Secure@123", "+27812345678", "Ann", "Lee")));
+        assertEquals(UserDirectory.USERNAME_TAKEN, users.register(
+                new QuickChatUser("usr_1", "Secure@123", "+27812345679", "Bob", "Lee")));
+        assertEquals(UserDirectory.CELLPHONE_TAKEN, users.register(
+                new QuickChatUser("usr_2", "Secure@123", "+27812345678", "Bob", "Lee")));
+        assertTrue(users.register(
+                new QuickChatUser("bad", "Secure@123", "+27812345670", "C", "D")).startsWith("Username is not"));
+
+        assertEquals(1, users.size());
+        assertNull(users.findByUsername("usr_2"));   // rolled back after phone clash
+    }
+
+    /**
+     * Any registered user can log in; wrong passwords cannot.
+     */
+    @Test
+    public void testLogin_MultipleUsers() throws IOException {
+        UserDirectory users = new UserDirectory();
+        users.register(new QuickChatUser("ann_1", "Secure@123", "+27812345671", "Ann", "Lee"));
+        users.register(new QuickChatUser("bob_2", "Other#456", "+27812345672", "Bob", "Ray"));
+
+        assertEquals("Bob", users.login("bob_2", "Other#456").getFirstName());
+        assertNull(users.login("bob_2", "Secure@123"));
+        assertNull(users.login("nobody", "x"));
+        assertEquals("ann_1", users.findByCellphone("+27812345671").getUsername());
+    }
+
+    /**
+     * Appended and rewritten files load back with every user intact.
+     */
+    @Test
+    public void testPersistence_RoundTrip() throws IOException {
+        String file = dir.resolve("users.dat").toString();
+        UserDirectory users = UserDirectory.load(file);
+        users.register(new QuickChatUser("ann_1", "Secure@123", "+27812345671", "Ann", "Lee"));
+        users.register(new QuickChatUser("bob_2", "Other#456", "+27812345672", "Bob", "Ray"));
+
+        UserDirectory reloaded = UserDirectory.load(file);
+        assertEquals(2, reloaded.size());
+        assertNotNull(reloaded.login("bob_2", "Other#456"));
+
+        reloaded.save();
+        assertEquals(2, UserDirectory.load(file).size());
+        assertFalse(Files.readString(Path.of(file), StandardCharsets.ISO_8859_1).contains("Secure@123"));
+    }
+
+    /**
+     * A version-1 file (plaintext passwords) is hashed and rewritten on load.
+     */
+    @Test
+    public void testLoad_MigratesPlaintextFile() throws IOException {
+        Path file = dir.resolve("users.dat");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x51435544);
+            out.writeShort(1);
+            for (String field : new String[]{"ann_1", "Secure@123", "+27812345671", "Ann", "Lee"}) {
+                out.writeUTF(field);
+            }
+        }
+
+        UserDirectory users = UserDirectory.load(file.toString());
+        assertNotNull(users.login("ann_1", "Secure@123"));
+        assertFalse(Files.readString(file, StandardCharsets.ISO_8859_1).contains("Secure@123"));
+        assertNotNull(UserDirectory.load(file.toString()).login("ann_1", "Secure@123"));
+    }
+
+    /**
+     * A crash mid-append leaves half a record: load drops it and trims the
+     * file, so users registered afterwards still load.
+     */
+    @Test
+    public void testLoad_TruncatesTornRecord() throws IOException {
+        Path file = dir.resolve("users.dat");
+        UserDirectory users = UserDirectory.load(file.toString());
+        users.register(new QuickChatUser("ann_1", "Secure@123", "+27812345671", "Ann", "Lee"));
+        long whole = Files.size(file);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.writeUTF("bob_2");
+            out.writeShort(80);                     // hash length, then the crash
+            out.write("$pbkdf2".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        UserDirectory reloaded = UserDirectory.load(file.toString());
+        assertEquals(1, reloaded.size());
+        assertEquals(whole, Files.size(file));
+        reloaded.register(new QuickChatUser("cat_3", "Third#789", "+27812345673", "Cat", "Day"));
+
+        UserDirectory again = UserDirectory.load(file.toString());
+        assertEquals(2, again.size());
+        assertNotNull(again.login("cat_3", "Third#789"));
+    }
+
+    /**
+     * Many threads racing for one username: exactly one wins.
+     */
+    @Test
+    public void testConcurrentRegistration_SingleWinner() throws InterruptedException {
+        UserDirectory users = new UserDirectory();
+        AtomicInteger winners = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            String phone = String.format("+278123456%02d", t);
+            Thread thread = new Thread(() -> {
+                try {
+                    if (SUCCESS.equals(users.register(
+                            new QuickChatUser("usr_1", "Secure@123", phone, "T", "T")))) {
+                        winners.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, winners.get());
+        assertEquals(1, users.size());
+    }
+}
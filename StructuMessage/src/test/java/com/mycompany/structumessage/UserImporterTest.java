@@ -0,0 +1,88 @@
+package com.mycompany.structumessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-test suite for {@link UserImporter}.
+ * <p>
+ * Coverage:
+ * <ul>
+ * <li>Header skipping, quoted fields and per-row errors</li>
+ * <li>Duplicates inside one file: first row wins</li>
+ * <li>Multi-batch import persisted to <code>users.dat</code></li>
+ * </ul>
+ *
+ * @author Jorryn Panjasuran 2025
+ */
+public class UserImporterTest {
+
+    @TempDir
+    Path dir;
+
+    private static BufferedReader csv(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    /**
+     * Good rows are registered; bad rows are reported with line numbers.
+     */
+    @Test
+    public void testImport_ReportsRowErrors() throws IOException {
+        UserDirectory users = new UserDirectory();
+        UserImporter.Report report = new UserImporter(users).importCsv(csv(
+                "username,password,cellphone,firstName,lastName\n"
+                + "ann_1,Secure@123,+27812345671,Ann,Lee\n"
+                + "bob_2,\"Pass,\"\"9X\",+27812345672,Bob,Ray\n"
+                + "toolong,Secure@123,+27812345673,C,D\n"
+                + "ann_1,Secure@123,+27812345674,Ann,Dup\n"
+                + "\n"
+                + "dan_4,Secure@123\n"));
+
+        assertEquals(5, report.rows());
+        assertEquals(2, report.imported());
+        assertEquals(3, report.errors().size());
+        assertEquals(4, report.errors().get(0).line());
+        assertTrue(report.errors().get(0).reason().startsWith("Username is not"));
+        assertEquals(UserDirectory.USERNAME_TAKEN, report.errors().get(1).reason());
+        assertEquals(7, report.errors().get(2).line());
+        assertNotNull(users.login("bob_2", "Pass,\"9X"));
+        assertEquals("Ann", users.findByUsername("ann_1").getFirstName());
+    }
+
+    /**
+     * Several batches end up in memory and in the user file.
+     */
+    @Test
+    public void testImport_MultipleBatchesPersisted() throws IOException {
+        String file = dir.resolve("users.dat").toString();
+        UserDirectory users = UserDirectory.load(file);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2_500; i++) {
+            text.append(LoginThroughputBenchmark.username(i)).append(",Secure@123,")
+                    .append(String.format("+27%09d", i)).append(",Bulk,User\n");
+        }
+
+        UserImporter.Report report = new UserImporter(users, 1_000, PasswordHasher.getDefault()).importCsv(csv(text.toString()));
+
+        assertEquals(2_500, report.imported());
+        assertTrue(report.errors().isEmpty());
+        assertEquals(2_500, UserDirectory.load(file).size());
+    }
+
+    /**
+     * Unterminated quotes are rejected by the row parser.
+     */
+    @Test
+    public void testParseRow_Quotes() {
+        assertArrayEquals(new String[]{"a", "b,c", ""}, UserImporter.parseRow("a,\"b,c\","));
+        assertNull(UserImporter.parseRow("a,\"b"));
+    }
+}